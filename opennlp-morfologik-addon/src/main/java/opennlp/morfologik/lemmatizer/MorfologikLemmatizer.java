@@ -27,15 +27,13 @@ import java.util.Objects;
 import java.util.Set;
 
 import morfologik.stemming.Dictionary;
-import morfologik.stemming.DictionaryLookup;
-import morfologik.stemming.IStemmer;
-import morfologik.stemming.WordData;
 
+import opennlp.morfologik.util.SharedMorfologikDictionary;
 import opennlp.tools.lemmatizer.Lemmatizer;
 
 public class MorfologikLemmatizer implements Lemmatizer {
 
-  private IStemmer dictLookup;
+  private final SharedMorfologikDictionary dictionary;
 
   public MorfologikLemmatizer(Path dictionaryPath) throws IllegalArgumentException,
       IOException {
@@ -44,25 +42,49 @@ public class MorfologikLemmatizer implements Lemmatizer {
 
   public MorfologikLemmatizer(Dictionary dictionary) throws IllegalArgumentException,
       IOException {
-    dictLookup = new DictionaryLookup(dictionary);
+    this(new SharedMorfologikDictionary(dictionary));
+  }
+
+  /**
+   * Creates a lemmatizer which looks up the lemmas in a shared dictionary.
+   * The lemmatizer can be used by multiple threads.
+   *
+   * @param dictionary the shared Morfologik dictionary
+   */
+  public MorfologikLemmatizer(SharedMorfologikDictionary dictionary) {
+    this.dictionary = dictionary;
   }
 
   private List<String> lemmatize(String word, String postag) {
-    List<WordData> dictMap = dictLookup.lookup(word.toLowerCase());
-    Set<String> lemmas = new HashSet<>();
-    for (WordData wordData : dictMap) {
-      if (Objects.equals(postag, asString(wordData.getTag()))) {
-        lemmas.add(asString(wordData.getStem()));
+    SharedMorfologikDictionary.Analyses analyses = dictionary.lookup(word.toLowerCase());
+    String[] tags = analyses.getTags();
+    String[] stems = analyses.getLemmas();
+
+    Set<String> lemmas = null;
+    String lemma = null;
+    for (int i = 0; i < tags.length; i++) {
+      if (Objects.equals(postag, tags[i])) {
+        if (lemmas != null) {
+          lemmas.add(stems[i]);
+        }
+        else if (lemma == null) {
+          lemma = stems[i];
+        }
+        else if (!lemma.equals(stems[i])) {
+          lemmas = new HashSet<>();
+          lemmas.add(lemma);
+          lemmas.add(stems[i]);
+        }
       }
     }
-    return Collections.unmodifiableList(new ArrayList<>(lemmas));
-  }
 
-  private String asString(CharSequence tag) {
-    if (tag == null) {
-      return null;
+    if (lemmas != null) {
+      return Collections.unmodifiableList(new ArrayList<>(lemmas));
+    }
+    else if (lemma != null) {
+      return Collections.singletonList(lemma);
     }
-    return tag.toString();
+    return Collections.emptyList();
   }
 
   @Override
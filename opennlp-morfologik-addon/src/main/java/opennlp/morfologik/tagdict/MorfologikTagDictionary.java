@@ -18,14 +18,14 @@
 package opennlp.morfologik.tagdict;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import morfologik.stemming.Dictionary;
-import morfologik.stemming.DictionaryLookup;
-import morfologik.stemming.IStemmer;
-import morfologik.stemming.WordData;
 
+import opennlp.morfologik.util.SharedMorfologikDictionary;
+import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.postag.TagDictionary;
 
 /**
@@ -34,7 +34,7 @@ import opennlp.tools.postag.TagDictionary;
  */
 public class MorfologikTagDictionary implements TagDictionary {
 
-  private IStemmer dictLookup;
+  private final SharedMorfologikDictionary dictionary;
   private boolean isCaseSensitive;
 
   /**
@@ -66,26 +66,94 @@ public class MorfologikTagDictionary implements TagDictionary {
    */
   public MorfologikTagDictionary(Dictionary dict, boolean caseSensitive)
       throws IllegalArgumentException, IOException {
-    this.dictLookup = new DictionaryLookup(dict);
+    this(new SharedMorfologikDictionary(dict), caseSensitive);
+  }
+
+  /**
+   * Creates a {@link MorfologikTagDictionary} which looks up the tags in a shared
+   * dictionary. The tag dictionary can be used by multiple threads.
+   *
+   * @param dictionary
+   *          the shared Morfologik dictionary
+   * @param caseSensitive
+   *          if true it performs case sensitive lookup
+   */
+  public MorfologikTagDictionary(SharedMorfologikDictionary dictionary, boolean caseSensitive) {
+    this.dictionary = dictionary;
     this.isCaseSensitive = caseSensitive;
   }
 
   @Override
   public String[] getTags(String word) {
-    if (!isCaseSensitive) {
-      word = word.toLowerCase();
+    String[] tags = lookup(word).getTags();
+    if (tags.length > 0) {
+      return tags;
     }
+    return null;
+  }
 
-    List<WordData> data = dictLookup.lookup(word);
-    if (data != null && data.size() > 0) {
-      List<String> tags = new ArrayList<>(data.size());
-      for (WordData aData : data) {
-        tags.add(aData.getTag().toString());
+  /**
+   * Looks up the tags of all tokens at once.
+   *
+   * @param tokens
+   *          the tokens
+   * @return the distinct tag indices of every token, an empty array if the token is
+   *         not in the dictionary. The tag of an index is retrieved with
+   *         {@link #getTag(int)}. The indices are not the outcome indices of a
+   *         POS model, use {@link #tags(String[], MaxentModel)} to get those.
+   */
+  public int[][] tags(String[] tokens) {
+    int[][] tagIndices = new int[tokens.length][];
+    for (int i = 0; i < tokens.length; i++) {
+      tagIndices[i] = lookup(tokens[i]).getTagIndices();
+    }
+    return tagIndices;
+  }
+
+  /**
+   * Looks up the tags of all tokens at once and maps them to the outcomes of a model.
+   *
+   * @param tokens
+   *          the tokens
+   * @param model
+   *          the model whose outcome indices are returned
+   * @return the distinct outcome indices of every token, an empty array if the token
+   *         is not in the dictionary. Tags which are not an outcome of the model are
+   *         left out.
+   */
+  public int[][] tags(String[] tokens, MaxentModel model) {
+    Map<Integer, Integer> outcomeIndices = new HashMap<>();
+    int[][] tags = tags(tokens);
+    for (int i = 0; i < tags.length; i++) {
+      int[] outcomes = new int[tags[i].length];
+      int outcomeCount = 0;
+      for (int tagIndex : tags[i]) {
+        int outcome = outcomeIndices.computeIfAbsent(tagIndex,
+            index -> model.getIndex(getTag(index)));
+        if (outcome >= 0) {
+          outcomes[outcomeCount++] = outcome;
+        }
       }
-      if (tags.size() > 0)
-        return tags.toArray(new String[tags.size()]);
-      return null;
+      tags[i] = outcomeCount < outcomes.length ? Arrays.copyOf(outcomes, outcomeCount) : outcomes;
     }
-    return null;
+    return tags;
+  }
+
+  /**
+   * Retrieves the tag of a tag index returned by {@link #tags(String[])}.
+   *
+   * @param tagIndex
+   *          the tag index
+   * @return the tag
+   */
+  public String getTag(int tagIndex) {
+    return dictionary.getTag(tagIndex);
+  }
+
+  private SharedMorfologikDictionary.Analyses lookup(String word) {
+    if (!isCaseSensitive) {
+      word = word.toLowerCase();
+    }
+    return dictionary.lookup(word);
   }
 }
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.morfologik.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import morfologik.stemming.Dictionary;
+import morfologik.stemming.DictionaryLookup;
+import morfologik.stemming.WordData;
+
+/**
+ * A Morfologik dictionary which can be shared by all threads.
+ * <p>
+ * The FSA of the {@link Dictionary} is immutable, but a {@link DictionaryLookup} reuses
+ * its results and must not be used by more than one thread. This class keeps one lookup
+ * per thread and copies the results into immutable {@link Analyses}. The analyses of the
+ * most recently used word forms are kept in a bounded cache, so frequent forms are not
+ * looked up in the FSA again.
+ * <p>
+ * Every tag gets a number when it is seen the first time, which allows to represent the
+ * tags of a word form by a compact array of tag indices. These indices only belong to the
+ * tag table of this dictionary, they are not the outcome indices of a model.
+ */
+public class SharedMorfologikDictionary {
+
+  public static final int DEFAULT_CACHE_SIZE = 10000;
+
+  private static final int MAX_SEGMENT_COUNT = 16;
+
+  private static final Analyses NO_ANALYSES =
+      new Analyses(new String[0], new String[0], new int[0]);
+
+  private final Dictionary dictionary;
+
+  private final ThreadLocal<DictionaryLookup> lookups;
+
+  private final List<Map<String, Analyses>> segments;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+
+  private final Map<String, Integer> tagIndices = new HashMap<>();
+  private volatile String[] tags = new String[16];
+  private int tagCount;
+
+  /**
+   * Initializes the dictionary with a cache of the default size.
+   *
+   * @param dictionary the Morfologik dictionary
+   */
+  public SharedMorfologikDictionary(Dictionary dictionary) {
+    this(dictionary, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Initializes the dictionary.
+   *
+   * @param dictionary the Morfologik dictionary
+   * @param cacheSize the maximal number of cached word forms, zero disables the cache
+   *
+   * @throws IllegalArgumentException if the FSA's root node cannot be acquired
+   *     (the dictionary is empty)
+   */
+  public SharedMorfologikDictionary(Dictionary dictionary, int cacheSize) {
+    if (cacheSize < 0) {
+      throw new IllegalArgumentException("cacheSize must not be negative, but was " + cacheSize);
+    }
+
+    this.dictionary = dictionary;
+
+    // fails early if the dictionary cannot be used
+    DictionaryLookup lookup = new DictionaryLookup(dictionary);
+    this.lookups = ThreadLocal.withInitial(() -> new DictionaryLookup(dictionary));
+    this.lookups.set(lookup);
+
+    int segmentCount = Math.min(MAX_SEGMENT_COUNT, cacheSize);
+    segments = new ArrayList<>(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      segments.add(new LruSegment(cacheSize / segmentCount));
+    }
+  }
+
+  public Dictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Looks up the analyses of a word form. The form is looked up as it is, case
+   * insensitive lookups must convert it before.
+   *
+   * @param word the word form
+   * @return the analyses, they are empty if the dictionary does not contain the form
+   */
+  public Analyses lookup(String word) {
+    if (segments.isEmpty()) {
+      return analyze(word);
+    }
+
+    Map<String, Analyses> segment = segment(word);
+    Analyses analyses;
+    synchronized (segment) {
+      analyses = segment.get(word);
+    }
+
+    if (analyses != null) {
+      hitCount.increment();
+      return analyses;
+    }
+
+    missCount.increment();
+    analyses = analyze(word);
+    synchronized (segment) {
+      segment.put(word, analyses);
+    }
+    return analyses;
+  }
+
+  /**
+   * Looks up the tag indices of all tokens. The indices refer to the tag table of this
+   * dictionary and are resolved with {@link #getTag(int)}, they do not match the outcome
+   * indices of a POS model.
+   *
+   * @param tokens the word forms
+   * @return the tag indices of every token, an empty array if the dictionary
+   *     does not contain the token
+   */
+  public int[][] tags(String[] tokens) {
+    int[][] tagIndices = new int[tokens.length][];
+    for (int i = 0; i < tokens.length; i++) {
+      tagIndices[i] = lookup(tokens[i]).tagIndices;
+    }
+    return tagIndices;
+  }
+
+  /**
+   * Retrieves the tag of a tag index.
+   *
+   * @param tagIndex the index of the tag
+   * @return the tag
+   */
+  public String getTag(int tagIndex) {
+    String[] tags = this.tags;
+    if (tagIndex < 0 || tagIndex >= tags.length || tags[tagIndex] == null) {
+      throw new IllegalArgumentException("Unknown tag index: " + tagIndex);
+    }
+    return tags[tagIndex];
+  }
+
+  /**
+   * Retrieves the number of tags which have an index so far.
+   *
+   * @return the number of tags
+   */
+  public synchronized int getTagCount() {
+    return tagCount;
+  }
+
+  /**
+   * Retrieves the number of lookups which found the word form in the cache.
+   *
+   * @return the number of hits
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Retrieves the number of lookups which did not find the word form in the cache.
+   *
+   * @return the number of misses
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  private Map<String, Analyses> segment(String word) {
+    int hash = word.hashCode();
+    return segments.get(((hash ^ (hash >>> 16)) & 0x7fffffff) % segments.size());
+  }
+
+  private Analyses analyze(String word) {
+    // the word data of the lookup is only valid until its next lookup
+    List<WordData> data = lookups.get().lookup(word);
+    if (data.isEmpty()) {
+      return NO_ANALYSES;
+    }
+
+    String[] tags = new String[data.size()];
+    String[] lemmas = new String[data.size()];
+    int[] indices = new int[data.size()];
+    int indexCount = 0;
+    for (int i = 0; i < tags.length; i++) {
+      WordData wordData = data.get(i);
+      tags[i] = asString(wordData.getTag());
+      lemmas[i] = asString(wordData.getStem());
+
+      if (tags[i] != null) {
+        int index = tagIndex(tags[i]);
+        boolean contained = false;
+        for (int j = 0; j < indexCount && !contained; j++) {
+          contained = indices[j] == index;
+        }
+        if (!contained) {
+          indices[indexCount++] = index;
+        }
+      }
+    }
+
+    if (indexCount < indices.length) {
+      int[] trimmed = new int[indexCount];
+      System.arraycopy(indices, 0, trimmed, 0, indexCount);
+      indices = trimmed;
+    }
+    return new Analyses(tags, lemmas, indices);
+  }
+
+  private synchronized int tagIndex(String tag) {
+    Integer index = tagIndices.get(tag);
+    if (index == null) {
+      index = tagCount;
+      String[] tags = this.tags;
+      if (tagCount == tags.length) {
+        String[] grown = new String[tags.length * 2];
+        System.arraycopy(tags, 0, grown, 0, tags.length);
+        tags = grown;
+      }
+      tags[tagCount++] = tag;
+      this.tags = tags;
+      tagIndices.put(tag, index);
+    }
+    return index;
+  }
+
+  private static String asString(CharSequence s) {
+    if (s == null) {
+      return null;
+    }
+    return s.toString();
+  }
+
+  /**
+   * The analyses of a word form, every analysis is a tag and a lemma. The returned
+   * arrays are shared and must not be modified.
+   */
+  public static final class Analyses {
+
+    private final String[] tags;
+    private final String[] lemmas;
+    private final int[] tagIndices;
+
+    private Analyses(String[] tags, String[] lemmas, int[] tagIndices) {
+      this.tags = tags;
+      this.lemmas = lemmas;
+      this.tagIndices = tagIndices;
+    }
+
+    /**
+     * Retrieves the number of analyses.
+     *
+     * @return the number of analyses
+     */
+    public int size() {
+      return tags.length;
+    }
+
+    /**
+     * Retrieves the tag of every analysis.
+     *
+     * @return the tags
+     */
+    public String[] getTags() {
+      return tags;
+    }
+
+    /**
+     * Retrieves the lemma of every analysis.
+     *
+     * @return the lemmas
+     */
+    public String[] getLemmas() {
+      return lemmas;
+    }
+
+    /**
+     * Retrieves the distinct tag indices of the analyses. The indices refer to the tag
+     * table of the dictionary, see {@link SharedMorfologikDictionary#getTag(int)}.
+     *
+     * @return the tag indices
+     */
+    public int[] getTagIndices() {
+      return tagIndices;
+    }
+  }
+
+  /**
+   * A part of the cache which removes its least recently used word form.
+   */
+  private static class LruSegment extends LinkedHashMap<String, Analyses> {
+
+    private final int capacity;
+
+    private LruSegment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Analyses> eldest) {
+      return size() > capacity;
+    }
+  }
+}
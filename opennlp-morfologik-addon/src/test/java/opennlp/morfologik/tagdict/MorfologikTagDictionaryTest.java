@@ -19,7 +19,9 @@ package opennlp.morfologik.tagdict;
 
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import morfologik.stemming.Dictionary;
 
@@ -27,6 +29,10 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import opennlp.morfologik.builder.POSDictionayBuilderTest;
+import opennlp.morfologik.util.SharedMorfologikDictionary;
+import opennlp.tools.ml.maxent.GISModel;
+import opennlp.tools.ml.model.Context;
+import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.postag.TagDictionary;
 
 public class MorfologikTagDictionaryTest {
@@ -76,6 +82,54 @@ public class MorfologikTagDictionaryTest {
 
   }
 
+  @Test
+  public void testBulkTags() throws Exception {
+    Path output = POSDictionayBuilderTest.createMorfologikDictionary();
+    output.toFile().deleteOnExit();
+    SharedMorfologikDictionary shared = new SharedMorfologikDictionary(Dictionary.read(output));
+    MorfologikTagDictionary dict = new MorfologikTagDictionary(shared, true);
+
+    int[][] tags = dict.tags(new String[] {"casa", "Casa", "casa", "xyz"});
+    Assert.assertEquals(4, tags.length);
+
+    Set<String> casaTags = new HashSet<>();
+    for (int tagIndex : tags[0]) {
+      casaTags.add(dict.getTag(tagIndex));
+    }
+    Assert.assertEquals(new HashSet<>(Arrays.asList("NOUN", "V")), casaTags);
+
+    Assert.assertEquals(1, tags[1].length);
+    Assert.assertEquals("PROP", dict.getTag(tags[1][0]));
+    Assert.assertArrayEquals(tags[0], tags[2]);
+    Assert.assertEquals(0, tags[3].length);
+
+    Assert.assertEquals(1, shared.getHitCount());
+    Assert.assertEquals(3, shared.getMissCount());
+  }
+
+  @Test
+  public void testBulkTagsAsModelOutcomes() throws Exception {
+    Path output = POSDictionayBuilderTest.createMorfologikDictionary();
+    output.toFile().deleteOnExit();
+    MorfologikTagDictionary dict = new MorfologikTagDictionary(
+        new SharedMorfologikDictionary(Dictionary.read(output)), true);
+
+    // V and NOUN are outcomes of the model, PROP is not
+    MaxentModel model = new GISModel(new Context[0], new String[0],
+        new String[] {"ADJ", "V", "NOUN"});
+
+    int[][] outcomes = dict.tags(new String[] {"casa", "Casa", "xyz"}, model);
+    Assert.assertEquals(3, outcomes.length);
+
+    Set<Integer> casaOutcomes = new HashSet<>();
+    for (int outcome : outcomes[0]) {
+      casaOutcomes.add(outcome);
+    }
+    Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2)), casaOutcomes);
+    Assert.assertEquals(0, outcomes[1].length);
+    Assert.assertEquals(0, outcomes[2].length);
+  }
+
   private MorfologikTagDictionary createDictionary(boolean caseSensitive)
       throws Exception {
     return this.createDictionary(caseSensitive, null);
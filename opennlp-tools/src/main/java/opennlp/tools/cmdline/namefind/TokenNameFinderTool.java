@@ -19,18 +19,14 @@ package opennlp.tools.cmdline.namefind;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 import opennlp.tools.cmdline.BasicCmdLineTool;
 import opennlp.tools.cmdline.CLI;
 import opennlp.tools.cmdline.CmdLineUtil;
 import opennlp.tools.cmdline.PerformanceMonitor;
 import opennlp.tools.cmdline.SystemInputStreamFactory;
-import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.MultiModelNameFinder;
 import opennlp.tools.namefind.NameSample;
-import opennlp.tools.namefind.TokenNameFinder;
 import opennlp.tools.namefind.TokenNameFinderModel;
 import opennlp.tools.tokenize.WhitespaceTokenizer;
 import opennlp.tools.util.ObjectStream;
@@ -54,13 +50,17 @@ public final class TokenNameFinderTool extends BasicCmdLineTool {
       System.out.println(getHelp());
     } else {
 
-      NameFinderME[] nameFinders = new NameFinderME[args.length];
+      TokenNameFinderModel[] models = new TokenNameFinderModel[args.length];
 
-      for (int i = 0; i < nameFinders.length; i++) {
-        TokenNameFinderModel model = new TokenNameFinderModelLoader().load(new File(args[i]));
-        nameFinders[i] = new NameFinderME(model);
+      for (int i = 0; i < models.length; i++) {
+        models[i] = new TokenNameFinderModelLoader().load(new File(args[i]));
       }
 
+      // Simple way to drop intersecting spans, otherwise the
+      // NameSample is invalid
+      MultiModelNameFinder nameFinder = new MultiModelNameFinder(
+          MultiModelNameFinder.OverlapPolicy.DROP_OVERLAPPING, models);
+
       // ObjectStream<String> untokenizedLineStream =
       // new PlainTextByLineStream(new InputStreamReader(System.in));
       ObjectStream<String> untokenizedLineStream;
@@ -78,21 +78,10 @@ public final class TokenNameFinderTool extends BasicCmdLineTool {
           // adaptive data must be cleared for a new document
 
           if (whitespaceTokenizerLine.length == 0) {
-            for (NameFinderME nameFinder : nameFinders) {
-              nameFinder.clearAdaptiveData();
-            }
-          }
-
-          List<Span> names = new ArrayList<>();
-
-          for (TokenNameFinder nameFinder : nameFinders) {
-            Collections.addAll(names, nameFinder.find(whitespaceTokenizerLine));
+            nameFinder.clearAdaptiveData();
           }
 
-          // Simple way to drop intersecting spans, otherwise the
-          // NameSample is invalid
-          Span[] reducedNames = NameFinderME.dropOverlappingSpans(
-                  names.toArray(new Span[names.size()]));
+          Span[] reducedNames = nameFinder.find(whitespaceTokenizerLine);
 
           NameSample nameSample = new NameSample(whitespaceTokenizerLine,
                   reducedNames, false);
@@ -22,13 +22,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import opennlp.tools.util.featuregen.StringPattern;
 
 /**
  * Generates a feature for each word in a document.
  */
-public class BagOfWordsFeatureGenerator implements FeatureGenerator {
+public class BagOfWordsFeatureGenerator implements ChunkedFeatureGenerator {
 
   private final boolean useOnlyAllLetterTokens;
 
@@ -45,18 +46,30 @@ public class BagOfWordsFeatureGenerator implements FeatureGenerator {
     Objects.requireNonNull(text, "text must not be null");
     Collection<String> bagOfWords = new ArrayList<>(text.length);
 
-    for (String word : text) {
+    extractFeatures(text, text.length, 0, text.length, bagOfWords::add);
+
+    return bagOfWords;
+  }
+
+  @Override
+  public int getLookahead() {
+    return 0;
+  }
+
+  @Override
+  public void extractFeatures(String[] tokens, int length, int start, int end,
+      Consumer<String> features) {
+    for (int i = start; i < end; i++) {
+      String word = tokens[i];
       if (useOnlyAllLetterTokens) {
         StringPattern pattern = StringPattern.recognize(word);
 
         if (pattern.isAllLetter())
-          bagOfWords.add("bow=" + word);
+          features.accept("bow=" + word);
       }
       else {
-        bagOfWords.add("bow=" + word);
+        features.accept("bow=" + word);
       }
     }
-
-    return bagOfWords;
   }
 }
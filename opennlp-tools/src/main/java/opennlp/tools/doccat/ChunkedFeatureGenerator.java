@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.doccat;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link FeatureGenerator} which can extract the features of a document
+ * while its tokens arrive in chunks.
+ * <p>
+ * The features are extracted per token position, the features of a position may
+ * depend on the token at the position and on a fixed number of following tokens.
+ */
+interface ChunkedFeatureGenerator extends FeatureGenerator {
+
+  /**
+   * Retrieves the number of tokens after a position which are needed
+   * to extract the features of the position.
+   *
+   * @return the number of following tokens
+   */
+  int getLookahead();
+
+  /**
+   * Extracts the features of the given positions.
+   *
+   * @param tokens the tokens, only the first {@code length} are used
+   * @param length the number of tokens which are known, at the end of the document
+   *               this is the number of remaining tokens
+   * @param start the first position to extract the features of
+   * @param end the position after the last one to extract the features of
+   * @param features receives the extracted features
+   */
+  void extractFeatures(String[] tokens, int length, int start, int end,
+      Consumer<String> features);
+}
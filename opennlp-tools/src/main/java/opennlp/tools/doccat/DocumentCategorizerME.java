@@ -80,6 +80,26 @@ public class DocumentCategorizerME implements DocumentCategorizer {
     return this.categorize(text, Collections.emptyMap());
   }
 
+  /**
+   * Starts the categorization of a document whose tokens are passed in chunks.
+   *
+   * @param extraInformation additional information
+   * @return the categorization to add the chunks to
+   */
+  public IncrementalCategorization startCategorization(Map<String, Object> extraInformation) {
+    return new IncrementalCategorization(model.getMaxentModel(),
+        model.getFactory().getFeatureGenerators(), extraInformation);
+  }
+
+  /**
+   * Starts the categorization of a document whose tokens are passed in chunks.
+   *
+   * @return the categorization to add the chunks to
+   */
+  public IncrementalCategorization startCategorization() {
+    return startCategorization(Collections.emptyMap());
+  }
+
   /**
    * Returns a map in which the key is the category name and the value is the score
    *
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.doccat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import opennlp.tools.ml.model.AbstractModel;
+import opennlp.tools.ml.model.MaxentModel;
+
+/**
+ * Categorizes a document whose tokens are passed in chunks, for example to
+ * categorize very long documents without tokenizing them at once.
+ * <p>
+ * The features of the chunks are counted as they arrive, only the counts and the
+ * last few tokens which the ngram features of the next chunk need are kept. The
+ * {@link BagOfWordsFeatureGenerator} and the {@link NGramFeatureGenerator} are
+ * supported directly, for other feature generators all tokens are kept and their
+ * features are extracted once the document is complete.
+ * <p>
+ * The probabilities are the same as the ones of {@link DocumentCategorizerME#categorize(String[])}
+ * for the whole document, up to rounding differences, since every distinct feature
+ * is passed only once to the model, together with its count.
+ * <p>
+ * Instances are created by {@link DocumentCategorizerME#startCategorization(Map)}
+ * and are not thread safe.
+ */
+public class IncrementalCategorization {
+
+  private final MaxentModel model;
+  private final FeatureGenerator[] featureGenerators;
+  private final Map<String, Object> extraInformation;
+
+  private final boolean keepAllTokens;
+
+  /**
+   * The next position of every chunked feature generator, relative to the buffer.
+   */
+  private final int[] positions;
+
+  private String[] tokens = new String[64];
+  private int length;
+
+  private final Map<String, Integer> featureCounts = new HashMap<>();
+  private final Consumer<String> counter = feature -> featureCounts.merge(feature, 1, Integer::sum);
+
+  private double[] result;
+
+  IncrementalCategorization(MaxentModel model, FeatureGenerator[] featureGenerators,
+      Map<String, Object> extraInformation) {
+    this.model = model;
+    this.featureGenerators = featureGenerators;
+    this.extraInformation = extraInformation;
+
+    boolean keepAllTokens = false;
+    for (FeatureGenerator featureGenerator : featureGenerators) {
+      keepAllTokens |= !(featureGenerator instanceof ChunkedFeatureGenerator);
+    }
+    this.keepAllTokens = keepAllTokens;
+
+    positions = new int[featureGenerators.length];
+  }
+
+  /**
+   * Adds the next chunk of tokens of the document.
+   *
+   * @param chunk the tokens
+   * @throws IllegalStateException if the document was already categorized
+   */
+  public void add(String[] chunk) {
+    Objects.requireNonNull(chunk, "chunk must not be null");
+
+    if (result != null) {
+      throw new IllegalStateException("The document was already categorized!");
+    }
+
+    if (length + chunk.length > tokens.length) {
+      tokens = Arrays.copyOf(tokens, Math.max(tokens.length * 2, length + chunk.length));
+    }
+    System.arraycopy(chunk, 0, tokens, length, chunk.length);
+    length += chunk.length;
+
+    extractFeatures(false);
+  }
+
+  /**
+   * Extracts the features of all positions whose features are known and drops the
+   * tokens which are not needed anymore.
+   */
+  private void extractFeatures(boolean complete) {
+    int processed = length;
+    for (int i = 0; i < featureGenerators.length; i++) {
+      if (featureGenerators[i] instanceof ChunkedFeatureGenerator) {
+        ChunkedFeatureGenerator generator = (ChunkedFeatureGenerator) featureGenerators[i];
+        int end = complete ? length : Math.max(positions[i], length - generator.getLookahead());
+        generator.extractFeatures(tokens, length, positions[i], end, counter);
+        positions[i] = end;
+        processed = Math.min(processed, end);
+      }
+    }
+
+    if (!keepAllTokens && processed > 0) {
+      System.arraycopy(tokens, processed, tokens, 0, length - processed);
+      Arrays.fill(tokens, length - processed, length, null);
+      length -= processed;
+      for (int i = 0; i < positions.length; i++) {
+        positions[i] -= processed;
+      }
+    }
+  }
+
+  /**
+   * Completes the document and categorizes it.
+   *
+   * @return the probabilities of the categories, the same as the ones of
+   *         {@link DocumentCategorizerME#categorize(String[], Map)} for the whole document
+   */
+  public double[] categorize() {
+    if (result == null) {
+      extractFeatures(true);
+
+      if (keepAllTokens) {
+        String[] document = Arrays.copyOf(tokens, length);
+        for (FeatureGenerator featureGenerator : featureGenerators) {
+          if (!(featureGenerator instanceof ChunkedFeatureGenerator)) {
+            featureGenerator.extractFeatures(document, extraInformation).forEach(counter);
+          }
+        }
+      }
+      tokens = null;
+
+      result = eval();
+    }
+
+    return result.clone();
+  }
+
+  private double[] eval() {
+    if (isLinear(model)) {
+      String[] context = new String[featureCounts.size()];
+      float[] values = new float[featureCounts.size()];
+      int i = 0;
+      for (Map.Entry<String, Integer> featureCount : featureCounts.entrySet()) {
+        context[i] = featureCount.getKey();
+        values[i] = featureCount.getValue();
+        i++;
+      }
+      return model.eval(context, values);
+    }
+
+    List<String> context = new ArrayList<>();
+    for (Map.Entry<String, Integer> featureCount : featureCounts.entrySet()) {
+      context.addAll(Collections.nCopies(featureCount.getValue(), featureCount.getKey()));
+    }
+    return model.eval(context.toArray(new String[context.size()]));
+  }
+
+  /**
+   * Checks if the scores of the model are linear in the feature values, then a
+   * feature with a value of n has the same effect as n times the feature.
+   */
+  private static boolean isLinear(MaxentModel model) {
+    if (model instanceof AbstractModel) {
+      AbstractModel.ModelType modelType = ((AbstractModel) model).getModelType();
+      return modelType == AbstractModel.ModelType.Maxent
+          || modelType == AbstractModel.ModelType.MaxentQn
+          || modelType == AbstractModel.ModelType.Perceptron;
+    }
+    return false;
+  }
+}
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import opennlp.tools.util.InvalidFormatException;
 
@@ -29,7 +30,7 @@ import opennlp.tools.util.InvalidFormatException;
  * Generates ngram features for a document.
  * n-gram {@link FeatureGenerator}
  */
-public class NGramFeatureGenerator implements FeatureGenerator {
+public class NGramFeatureGenerator implements ChunkedFeatureGenerator {
 
   private final int minGram;
   private final int maxGram;
@@ -74,19 +75,32 @@ public class NGramFeatureGenerator implements FeatureGenerator {
     Objects.requireNonNull(text, "text must not be null");
     List<String> features = new ArrayList<>();
 
-    for (int i = 0; i <= text.length - minGram; i++) {
-      final StringBuilder sb = new StringBuilder();
+    extractFeatures(text, text.length, 0, text.length, features::add);
+
+    return features;
+  }
+
+  @Override
+  public int getLookahead() {
+    return maxGram - 1;
+  }
+
+  @Override
+  public void extractFeatures(String[] tokens, int length, int start, int end,
+      Consumer<String> features) {
+    final StringBuilder sb = new StringBuilder();
+
+    for (int i = start; i < end && i <= length - minGram; i++) {
+      sb.setLength(0);
       sb.append("ng=");
-      for (int y = 0; y < maxGram && i + y < text.length; y++) {
+      for (int y = 0; y < maxGram && i + y < length; y++) {
         sb.append(":");
-        sb.append(text[i + y]);
+        sb.append(tokens[i + y]);
         int gramCount = y + 1;
         if (maxGram >= gramCount && gramCount >= minGram) {
-          features.add(sb.toString());
+          features.accept(sb.toString());
         }
       }
     }
-
-    return features;
   }
 }
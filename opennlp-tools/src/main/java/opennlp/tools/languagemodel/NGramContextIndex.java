@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.languagemodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import opennlp.tools.ngram.NGramModel;
+import opennlp.tools.util.StringList;
+
+/**
+ * Maps every context (an ngram without its last token) of a {@link NGramModel} to its
+ * continuations, sorted by count, together with the precomputed backoff denominator
+ * of the context. This allows to find the most probable next tokens under Stupid Backoff
+ * by looking only at the continuations of the given context and its suffixes.
+ */
+final class NGramContextIndex {
+
+  private static final double BACKOFF_FACTOR = 0.4;
+
+  private final Map<StringList, Continuations> continuations = new HashMap<>();
+  private final Continuations unigrams;
+
+  NGramContextIndex(NGramModel model) {
+    Map<StringList, List<String>> contextTokens = new HashMap<>();
+    Map<StringList, List<Integer>> contextCounts = new HashMap<>();
+
+    List<String> unigramTokens = new ArrayList<>();
+    List<Integer> unigramCounts = new ArrayList<>();
+
+    for (StringList ngram : model) {
+      int count = model.getCount(ngram);
+
+      if (ngram.size() == 1) {
+        unigramTokens.add(ngram.getToken(0));
+        unigramCounts.add(count);
+      } else {
+        String[] context = new String[ngram.size() - 1];
+        for (int i = 0; i < context.length; i++) {
+          context[i] = ngram.getToken(i);
+        }
+        StringList contextKey = new StringList(context);
+        contextTokens.computeIfAbsent(contextKey, key -> new ArrayList<>())
+            .add(ngram.getToken(ngram.size() - 1));
+        contextCounts.computeIfAbsent(contextKey, key -> new ArrayList<>()).add(count);
+      }
+    }
+
+    for (Map.Entry<StringList, List<String>> entry : contextTokens.entrySet()) {
+      int contextCount = model.getCount(entry.getKey());
+      continuations.put(entry.getKey(), new Continuations(entry.getValue(),
+          contextCounts.get(entry.getKey()), contextCount != 0 ? contextCount : model.size()));
+    }
+
+    unigrams = new Continuations(unigramTokens, unigramCounts, model.size());
+  }
+
+  /**
+   * Retrieves the k most probable next tokens after the given tokens.
+   *
+   * @param k the maximal number of tokens to return
+   * @param tokens the preceding tokens
+   * @param n the order of the language model
+   * @return the tokens, the most probable first
+   */
+  String[] topNextTokens(int k, String[] tokens, int n) {
+    int contextLength = Math.min(n - 1, tokens.length);
+
+    List<String> candidates = new ArrayList<>();
+    List<Double> scores = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+
+    double backoff = 1d;
+    for (int length = contextLength; length >= 0; length--) {
+      Continuations next;
+      if (length == 0) {
+        next = unigrams;
+      } else {
+        next = continuations.get(new StringList(
+            Arrays.copyOfRange(tokens, tokens.length - length, tokens.length)));
+      }
+
+      if (next != null) {
+        // within one context the scores are ordered by count, so only the first
+        // k tokens which have not been scored with a longer context are candidates,
+        // all other tokens of the context are only marked as seen because their
+        // score is determined by this context and not by a shorter one
+        int added = 0;
+        for (int i = 0; i < next.tokens.length; i++) {
+          if (next.counts[i] > 0 && seen.add(next.tokens[i]) && added < k) {
+            candidates.add(next.tokens[i]);
+            scores.add(backoff * next.counts[i] / next.contextCount);
+            added++;
+          }
+        }
+      }
+
+      backoff *= BACKOFF_FACTOR;
+    }
+
+    Integer[] order = new Integer[candidates.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i1, i2) -> Double.compare(scores.get(i2), scores.get(i1)));
+
+    String[] result = new String[Math.min(k, order.length)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = candidates.get(order[i]);
+    }
+    return result;
+  }
+
+  /**
+   * The continuations of one context, sorted by descending count.
+   */
+  private static class Continuations {
+
+    private final String[] tokens;
+    private final int[] counts;
+    private final double contextCount;
+
+    private Continuations(List<String> tokenList, List<Integer> countList, double contextCount) {
+      Integer[] order = new Integer[tokenList.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (i1, i2) -> {
+        int diff = Integer.compare(countList.get(i2), countList.get(i1));
+        return diff != 0 ? diff : tokenList.get(i1).compareTo(tokenList.get(i2));
+      });
+
+      tokens = new String[order.length];
+      counts = new int[order.length];
+      for (int i = 0; i < order.length; i++) {
+        tokens[i] = tokenList.get(order[i]);
+        counts[i] = countList.get(order[i]);
+      }
+
+      this.contextCount = contextCount;
+    }
+  }
+}
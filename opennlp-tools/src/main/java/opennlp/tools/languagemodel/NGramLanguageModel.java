@@ -19,9 +19,10 @@ package opennlp.tools.languagemodel;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
+import opennlp.tools.ngram.NGramCountTable;
 import opennlp.tools.ngram.NGramModel;
-import opennlp.tools.ngram.NGramUtils;
 import opennlp.tools.util.StringList;
 
 /**
@@ -34,6 +35,8 @@ public class NGramLanguageModel extends NGramModel implements LanguageModel {
 
   private final int n;
 
+  private NGramContextIndex contextIndex;
+
   public NGramLanguageModel() {
     this(DEFAULT_N);
   }
@@ -52,33 +55,83 @@ public class NGramLanguageModel extends NGramModel implements LanguageModel {
     this.n = n;
   }
 
+  /**
+   * Initializes the language model with the given counts, for example counted
+   * with {@link opennlp.tools.ngram.NGramCounter} or read from the binary format.
+   *
+   * @param counts the ngram counts
+   * @param n the maximal ngram length
+   */
+  public NGramLanguageModel(NGramCountTable counts, int n) {
+    super(counts);
+    this.n = n;
+  }
+
   public void add(String... tokens) {
     add(new StringList(tokens), 1, n);
   }
 
+  @Override
+  public void add(StringList ngram) {
+    super.add(ngram);
+    contextIndex = null;
+  }
+
+  @Override
+  public void add(StringList ngram, int minLength, int maxLength) {
+    super.add(ngram, minLength, maxLength);
+    contextIndex = null;
+  }
+
+  @Override
+  public void add(CharSequence chars, int minLength, int maxLength) {
+    super.add(chars, minLength, maxLength);
+    contextIndex = null;
+  }
+
+  @Override
+  public void setCount(StringList ngram, int count) {
+    super.setCount(ngram, count);
+    contextIndex = null;
+  }
+
+  @Override
+  public void remove(StringList tokens) {
+    super.remove(tokens);
+    contextIndex = null;
+  }
+
+  @Override
+  public void cutoff(int cutoffUnder, int cutoffOver) {
+    super.cutoff(cutoffUnder, cutoffOver);
+    contextIndex = null;
+  }
+
   @Override
   public double calculateProbability(StringList tokens) {
-    double probability = 0d;
-    if (size() > 0) {
-      for (StringList ngram : NGramUtils.getNGrams(tokens, n)) {
-        double score = stupidBackoff(ngram);
-        probability += Math.log(score);
-        if (Double.isNaN(probability)) {
-          probability = 0d;
-          break;
-        }
-      }
-      probability = Math.exp(probability);
+    String[] sequence = new String[tokens.size()];
+    for (int i = 0; i < sequence.length; i++) {
+      sequence[i] = tokens.getToken(i);
     }
-    return probability;
+    return calculateProbability(sequence, sequence.length);
   }
 
   @Override
   public double calculateProbability(String... tokens) {
+    return calculateProbability(tokens, tokens.length);
+  }
+
+  /**
+   * Calculates the probability of the first {@code length} tokens. The ngrams are
+   * looked up directly in the token array, no ngram objects are created.
+   */
+  private double calculateProbability(String[] tokens, int length) {
     double probability = 0d;
     if (size() > 0) {
-      for (String[] ngram : NGramUtils.getNGrams(tokens, n)) {
-        double score = stupidBackoff(new StringList(ngram));
+      // same ngrams as NGramUtils.getNGrams(tokens, n)
+      int ngramSize = Math.min(n, length);
+      for (int start = 0; start + ngramSize <= length; start++) {
+        double score = stupidBackoff(tokens, start, ngramSize);
         probability += Math.log(score);
         if (Double.isNaN(probability)) {
           probability = 0d;
@@ -92,69 +145,91 @@ public class NGramLanguageModel extends NGramModel implements LanguageModel {
 
   @Override
   public StringList predictNextTokens(StringList tokens) {
-    double maxProb = Double.NEGATIVE_INFINITY;
-    StringList token = null;
-
-    for (StringList ngram : this) {
-      String[] sequence = new String[ngram.size() + tokens.size()];
-      for (int i = 0; i < tokens.size(); i++) {
-        sequence[i] = tokens.getToken(i);
-      }
-      for (int i = 0; i < ngram.size(); i++) {
-        sequence[i + tokens.size()] = ngram.getToken(i);
-      }
-      StringList sample = new StringList(sequence);
-      double v = calculateProbability(sample);
-      if (v > maxProb) {
-        maxProb = v;
-        token = ngram;
-      }
+    String[] sequence = new String[tokens.size()];
+    for (int i = 0; i < sequence.length; i++) {
+      sequence[i] = tokens.getToken(i);
     }
 
-    return token;
+    String[] next = predictNextTokens(sequence);
+
+    return next != null ? new StringList(next) : null;
   }
 
+  /**
+   * Predicts the ngram of the model which most probably follows the given tokens.
+   * Every ngram of the model is scored, use {@link #predictNextTokens(int, String...)}
+   * to retrieve the most probable next tokens in time proportional to the number
+   * of continuations of the context.
+   */
   @Override
   public String[] predictNextTokens(String... tokens) {
     double maxProb = Double.NEGATIVE_INFINITY;
-    String[] token = null;
+    StringList token = null;
+
+    String[] sequence = Arrays.copyOf(tokens, tokens.length + n);
 
     for (StringList ngram : this) {
-      String[] sequence = new String[ngram.size() + tokens.length];
-      for (int i = 0; i < tokens.length; i++) {
-        sequence[i] = tokens[i];
+      if (sequence.length < tokens.length + ngram.size()) {
+        sequence = Arrays.copyOf(sequence, tokens.length + ngram.size());
       }
       for (int i = 0; i < ngram.size(); i++) {
         sequence[i + tokens.length] = ngram.getToken(i);
       }
-      double v = calculateProbability(sequence);
+      double v = calculateProbability(sequence, tokens.length + ngram.size());
       if (v > maxProb) {
         maxProb = v;
-        token = new String[ngram.size()];
-        for (int i = 0; i < ngram.size(); i++) {
-          token[i] = ngram.getToken(i);
-        }
+        token = ngram;
       }
     }
 
-    return token;
+    if (token == null) {
+      return null;
+    }
+
+    String[] next = new String[token.size()];
+    for (int i = 0; i < token.size(); i++) {
+      next[i] = token.getToken(i);
+    }
+    return next;
   }
 
-  private double stupidBackoff(StringList ngram) {
-    int count = getCount(ngram);
-    StringList nMinusOneToken = NGramUtils.getNMinusOneTokenFirst(ngram);
-    if (nMinusOneToken == null || nMinusOneToken.size() == 0) {
+  /**
+   * Predicts the k most probable single next tokens after the given tokens according
+   * to Stupid Backoff. Only the continuations of the last {@code n - 1} tokens and of
+   * their suffixes are looked at, the index of the continuations is built on first use
+   * and rebuilt after the model was changed.
+   *
+   * @param k the maximal number of tokens to return
+   * @param tokens the preceding tokens
+   * @return the predicted tokens, the most probable first
+   */
+  public String[] predictNextTokens(int k, String... tokens) {
+    if (k < 1) {
+      throw new IllegalArgumentException("k must be at least 1, but was " + k);
+    }
+
+    NGramContextIndex index = contextIndex;
+    if (index == null) {
+      index = new NGramContextIndex(this);
+      contextIndex = index;
+    }
+
+    return index.topNextTokens(k, tokens, n);
+  }
+
+  private double stupidBackoff(String[] tokens, int start, int length) {
+    int count = getCount(tokens, start, length);
+    if (length <= 1) {
       return (double) count / (double) size();
     } else if (count > 0) {
-      double countM1 = getCount(nMinusOneToken);
+      double countM1 = getCount(tokens, start, length - 1);
       if (countM1 == 0d) {
         countM1 = size(); // to avoid Infinite if n-1grams do not exist
       }
       return (double) count / countM1;
     } else {
-      return 0.4 * stupidBackoff(NGramUtils.getNMinusOneTokenLast(ngram));
+      return 0.4 * stupidBackoff(tokens, start + 1, length - 1);
     }
-
   }
 
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.lemmatizer;
+
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * A beam search for the {@link LemmatizerME} which does not evaluate the model for
+ * tokens whose lemma is already known from a {@link DictionaryLemmatizer}.
+ * <p>
+ * Every hypothesis is extended with the lemma class of the known lemma with the
+ * probability one, the score of the hypotheses does not change. The known lemma class
+ * is still part of the hypotheses, the context of the following tokens is the same as
+ * if the model had predicted it. For all other tokens the search works like the
+ * {@link BeamSearch}.
+ */
+final class DictionaryBeamSearch extends BeamSearch<String> {
+
+  /**
+   * The known lemma classes of the tokens of the current search.
+   */
+  private String[] knownOutcomes;
+
+  /**
+   * Initializes the search.
+   *
+   * @param size the size of the beam
+   * @param model the model which assigns the probabilities to the lemma classes
+   */
+  DictionaryBeamSearch(int size, MaxentModel model) {
+    super(size, model);
+  }
+
+  @Override
+  protected OutcomeRestriction restrictOutcomes(int index, String[] sequence,
+      Object[] additionalContext) {
+    if (knownOutcomes != null && knownOutcomes[index] != null) {
+      return OutcomeRestriction.knownOutcome(knownOutcomes[index]);
+    }
+    return null;
+  }
+
+  /**
+   * Finds the best lemma class sequences for the tokens.
+   *
+   * @param numSequences the maximal number of sequences to return
+   * @param sequence the tokens
+   * @param additionalContext the additional context which is passed to the context generator
+   * @param knownOutcomes the known lemma class of every token or null if it is not known
+   * @param minSequenceScore the minimal score of a sequence
+   * @param cg the context generator
+   * @param validator the validator of the predicted lemma classes
+   * @return the best sequences, the best one first
+   */
+  Sequence[] bestSequences(int numSequences, String[] sequence, Object[] additionalContext,
+      String[] knownOutcomes, double minSequenceScore, BeamSearchContextGenerator<String> cg,
+      SequenceValidator<String> validator) {
+    this.knownOutcomes = knownOutcomes;
+    try {
+      return bestSequences(numSequences, sequence, additionalContext, minSequenceScore, cg,
+          validator);
+    } finally {
+      this.knownOutcomes = null;
+    }
+  }
+}
@@ -24,11 +24,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Lemmatize by simple dictionary lookup into a hashmap built from a file
@@ -38,9 +42,14 @@ import java.util.Map;
 public class DictionaryLemmatizer implements Lemmatizer {
 
   /**
-   * The hashmap containing the dictionary.
+   * The hashmap containing the dictionary, keyed by word and postag.
    */
-  private final Map<List<String>, List<String>> dictMap = new HashMap<>();
+  private final Map<StringPair, List<String>> dictMap = new HashMap<>();
+
+  /**
+   * The reused key of the lookups of every thread.
+   */
+  private static final ThreadLocal<StringPair> PROBES = ThreadLocal.withInitial(StringPair::new);
 
   /**
    * Construct a hashmap from the input tab separated dictionary.
@@ -73,31 +82,31 @@ public class DictionaryLemmatizer implements Lemmatizer {
     while ((line = breader.readLine()) != null) {
       final String[] elems = line.split("\t");
       final String[] lemmas = elems[2].split("#");
-      this.dictMap.put(Arrays.asList(elems[0], elems[1]), Arrays.asList(lemmas));
+      this.dictMap.put(new StringPair(elems[0], elems[1]), Arrays.asList(lemmas));
     }
   }
   /**
-   * Get the Map containing the dictionary.
+   * Get the Map containing the dictionary. The map is a view of the dictionary
+   * with the word and postag as key list, changes of the map change the dictionary.
    *
    * @return dictMap the Map
    */
   public Map<List<String>, List<String>> getDictMap() {
-    return this.dictMap;
+    return new DictMapView();
   }
 
   /**
-   * Get the dictionary keys (word and postag).
+   * Lookup every lemma for a word,pos tag in a dictionary without allocating a key.
    *
    * @param word
-   *          the surface form word
+   *          the token
    * @param postag
-   *          the assigned postag
-   * @return returns the dictionary keys
+   *          the postag
+   * @return the lemmas or null if the dictionary does not contain the word with the postag
    */
-  private List<String> getDictKeys(final String word, final String postag) {
-    final List<String> keys = new ArrayList<>();
-    keys.addAll(Arrays.asList(word.toLowerCase(), postag));
-    return keys;
+  List<String> lookupLemmas(final String word, final String postag) {
+    final List<String> keyValues = this.dictMap.get(PROBES.get().set(word.toLowerCase(), postag));
+    return keyValues != null && !keyValues.isEmpty() ? keyValues : null;
   }
 
 
@@ -127,16 +136,8 @@ public class DictionaryLemmatizer implements Lemmatizer {
    * @return the lemma
    */
   private String lemmatize(final String word, final String postag) {
-    String lemma;
-    final List<String> keys = this.getDictKeys(word, postag);
-    // lookup lemma as value of the map
-    final List<String> keyValues = this.dictMap.get(keys);
-    if ( keyValues != null && !keyValues.isEmpty()) {
-      lemma = keyValues.get(0);
-    } else {
-      lemma = "O";
-    }
-    return lemma;
+    final List<String> keyValues = this.lookupLemmas(word, postag);
+    return keyValues != null ? keyValues.get(0) : "O";
   }
 
   /**
@@ -151,14 +152,108 @@ public class DictionaryLemmatizer implements Lemmatizer {
    */
   private List<String> getAllLemmas(final String word, final String postag) {
     List<String> lemmasList = new ArrayList<>();
-    final List<String> keys = this.getDictKeys(word, postag);
-    // lookup lemma as value of the map
-    final List<String> keyValues = this.dictMap.get(keys);
-    if (keyValues != null && !keyValues.isEmpty()) {
+    final List<String> keyValues = this.lookupLemmas(word, postag);
+    if (keyValues != null) {
       lemmasList.addAll(keyValues);
     } else {
       lemmasList.add("O");
     }
     return lemmasList;
   }
+
+  private static StringPair toKey(Object key) {
+    if (key instanceof List && ((List<?>) key).size() == 2) {
+      List<?> keys = (List<?>) key;
+      if (keys.get(0) instanceof String && keys.get(1) instanceof String) {
+        return new StringPair((String) keys.get(0), (String) keys.get(1));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The dictionary as map with the word and postag as key list.
+   */
+  private class DictMapView extends AbstractMap<List<String>, List<String>> {
+
+    @Override
+    public int size() {
+      return dictMap.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      StringPair pair = toKey(key);
+      return pair != null && dictMap.containsKey(pair);
+    }
+
+    @Override
+    public List<String> get(Object key) {
+      StringPair pair = toKey(key);
+      return pair != null ? dictMap.get(pair) : null;
+    }
+
+    @Override
+    public List<String> put(List<String> key, List<String> value) {
+      StringPair pair = toKey(key);
+      if (pair == null) {
+        throw new IllegalArgumentException("The key must consist of a word and a postag: " + key);
+      }
+      return dictMap.put(pair, value);
+    }
+
+    @Override
+    public List<String> remove(Object key) {
+      StringPair pair = toKey(key);
+      return pair != null ? dictMap.remove(pair) : null;
+    }
+
+    @Override
+    public void clear() {
+      dictMap.clear();
+    }
+
+    @Override
+    public Set<Entry<List<String>, List<String>>> entrySet() {
+      return new AbstractSet<Entry<List<String>, List<String>>>() {
+
+        @Override
+        public int size() {
+          return dictMap.size();
+        }
+
+        @Override
+        public Iterator<Entry<List<String>, List<String>>> iterator() {
+          Iterator<Entry<StringPair, List<String>>> entries = dictMap.entrySet().iterator();
+          return new Iterator<Entry<List<String>, List<String>>>() {
+
+            @Override
+            public boolean hasNext() {
+              return entries.hasNext();
+            }
+
+            @Override
+            public Entry<List<String>, List<String>> next() {
+              Entry<StringPair, List<String>> entry = entries.next();
+              return new SimpleEntry<List<String>, List<String>>(
+                  Arrays.asList(entry.getKey().getFirst(), entry.getKey().getSecond()),
+                  entry.getValue()) {
+
+                @Override
+                public List<String> setValue(List<String> value) {
+                  super.setValue(value);
+                  return entry.setValue(value);
+                }
+              };
+            }
+
+            @Override
+            public void remove() {
+              entries.remove();
+            }
+          };
+        }
+      };
+    }
+  }
 }
@@ -33,6 +33,7 @@ import opennlp.tools.ml.TrainerFactory.TrainerType;
 import opennlp.tools.ml.model.Event;
 import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ml.model.SequenceClassificationModel;
+import opennlp.tools.util.Cache;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Sequence;
 import opennlp.tools.util.SequenceValidator;
@@ -45,6 +46,10 @@ import opennlp.tools.util.TrainingParameters;
  * Grzegorz Chrupała. 2008. Towards a Machine-Learning Architecture
  * for Lexical Functional Grammar Parsing. PhD dissertation, Dublin City University.
  * http://grzegorz.chrupala.me/papers/phd-single.pdf
+ * <p>
+ * If a {@link DictionaryLemmatizer} is provided the lemmas of the tokens which are
+ * in the dictionary are taken from the dictionary and only the lemmas of the
+ * other tokens are predicted by the model.
  */
 public class LemmatizerME implements Lemmatizer {
 
@@ -58,6 +63,20 @@ public class LemmatizerME implements Lemmatizer {
   private LemmatizerContextGenerator contextGenerator;
   private SequenceValidator<String> sequenceValidator;
 
+  /**
+   * The maximal number of decoded lemmas which are cached.
+   */
+  static final int LEMMA_CACHE_SIZE = 10000;
+
+  /**
+   * The decoded lemmas by token and lemma class.
+   */
+  private final Cache<StringPair, String> lemmaCache = new Cache<>(LEMMA_CACHE_SIZE);
+  private final StringPair lemmaKey = new StringPair();
+
+  private DictionaryLemmatizer dictionary;
+  private DictionaryBeamSearch dictionarySearch;
+
   /**
    * Initializes the current instance with the provided model
    * and the default beam size of 3.
@@ -87,10 +106,38 @@ public class LemmatizerME implements Lemmatizer {
     }
   }
 
+  /**
+   * Initializes the current instance with the provided model and a dictionary
+   * which is looked up before the model is asked.
+   * <p>
+   * The lemma of a token with a postag which is in the dictionary is the first lemma of
+   * the dictionary. With a maxent model the model is not evaluated for these tokens,
+   * with a sequence model the model predicts all tokens and the lemmas of the dictionary
+   * replace the predicted ones.
+   *
+   * @param model the model
+   * @param dictionary the dictionary
+   */
+  public LemmatizerME(LemmatizerModel model, DictionaryLemmatizer dictionary) {
+    this(model);
+
+    if (dictionary == null) {
+      throw new IllegalArgumentException("dictionary must not be null");
+    }
+
+    this.dictionary = dictionary;
+
+    if (this.model.getClass() == BeamSearch.class && model.getLemmatizerMaxentModel() != null) {
+      dictionarySearch = new DictionaryBeamSearch(beamSize, model.getLemmatizerMaxentModel());
+    }
+  }
+
   public String[] lemmatize(String[] toks, String[] tags) {
-    String[] ses = predictSES(toks, tags);
-    String[] lemmas = decodeLemmas(toks, ses);
-    return lemmas;
+    String[] dictionaryLemmas = lookupLemmas(toks, tags);
+    Sequence[] sequences = bestSequences(1, toks, tags, dictionaryLemmas,
+        BeamSearch.DEFAULT_MIN_SEQUENCE_SCORE);
+    bestSequence = sequences.length > 0 ? sequences[0] : null;
+    return decodeLemmas(toks, bestSequence.getOutcomes(), dictionaryLemmas);
   }
 
   @Override public List<List<String>> lemmatize(List<String> toks,
@@ -112,7 +159,9 @@ public class LemmatizerME implements Lemmatizer {
    * @return an array containing the lemma classes
    */
   public String[] predictSES(String[] toks, String[] tags) {
-    bestSequence = model.bestSequence(toks, new Object[] {tags}, contextGenerator, sequenceValidator);
+    Sequence[] sequences = bestSequences(1, toks, tags, lookupLemmas(toks, tags),
+        BeamSearch.DEFAULT_MIN_SEQUENCE_SCORE);
+    bestSequence = sequences.length > 0 ? sequences[0] : null;
     List<String> ses = bestSequence.getOutcomes();
     return ses.toArray(new String[ses.size()]);
   }
@@ -125,17 +174,85 @@ public class LemmatizerME implements Lemmatizer {
    * @return a double array containing all posible lemmas for each token and postag pair
    */
   public String[][] predictLemmas(int numLemmas, String[] toks, String[] tags) {
-    Sequence[] bestSequences = model.bestSequences(numLemmas, toks, new Object[] {tags},
-            contextGenerator, sequenceValidator);
+    String[] dictionaryLemmas = lookupLemmas(toks, tags);
+    Sequence[] bestSequences = bestSequences(numLemmas, toks, tags, dictionaryLemmas,
+        BeamSearch.DEFAULT_MIN_SEQUENCE_SCORE);
     String[][] allLemmas = new String[bestSequences.length][];
     for (int i = 0; i < allLemmas.length; i++) {
-      List<String> ses = bestSequences[i].getOutcomes();
-      String[] sesArray = ses.toArray(new String[ses.size()]);
-      allLemmas[i] = decodeLemmas(toks,sesArray);
+      allLemmas[i] = decodeLemmas(toks, bestSequences[i].getOutcomes(), dictionaryLemmas);
     }
     return allLemmas;
   }
 
+  /**
+   * Looks up the lemmas of the tokens in the dictionary.
+   *
+   * @return the lemma of every token or null if it is not in the dictionary,
+   *     or null if no token is in the dictionary
+   */
+  private String[] lookupLemmas(String[] toks, String[] tags) {
+    if (dictionary == null) {
+      return null;
+    }
+
+    String[] lemmas = null;
+    for (int i = 0; i < toks.length; i++) {
+      List<String> dictionaryLemmas = dictionary.lookupLemmas(toks[i], tags[i]);
+      if (dictionaryLemmas != null) {
+        if (lemmas == null) {
+          lemmas = new String[toks.length];
+        }
+        lemmas[i] = dictionaryLemmas.get(0);
+      }
+    }
+    return lemmas;
+  }
+
+  private Sequence[] bestSequences(int numSequences, String[] toks, String[] tags,
+      String[] dictionaryLemmas, double minSequenceScore) {
+    if (dictionaryLemmas != null && dictionarySearch != null) {
+      String[] knownOutcomes = new String[toks.length];
+      for (int i = 0; i < toks.length; i++) {
+        if (dictionaryLemmas[i] != null) {
+          knownOutcomes[i] = encodeLemma(toks[i], dictionaryLemmas[i]);
+        }
+      }
+      return dictionarySearch.bestSequences(numSequences, toks, new Object[] {tags}, knownOutcomes,
+          minSequenceScore, contextGenerator, sequenceValidator);
+    }
+    return model.bestSequences(numSequences, toks, new Object[] {tags}, minSequenceScore,
+        contextGenerator, sequenceValidator);
+  }
+
+  /**
+   * Decodes the lemmas like {@link #decodeLemmas(String[], String[])}, but takes the
+   * lemmas of the dictionary where they are known and caches the decoded lemmas.
+   */
+  private String[] decodeLemmas(String[] toks, List<String> preds, String[] dictionaryLemmas) {
+    String[] lemmas = new String[toks.length];
+    for (int i = 0; i < toks.length; i++) {
+      if (dictionaryLemmas != null && dictionaryLemmas[i] != null) {
+        lemmas[i] = dictionaryLemmas[i];
+      }
+      else {
+        lemmas[i] = decodeLemma(toks[i], preds.get(i));
+      }
+    }
+    return lemmas;
+  }
+
+  private String decodeLemma(String tok, String pred) {
+    String lemma = lemmaCache.get(lemmaKey.set(tok, pred));
+    if (lemma == null) {
+      lemma = StringUtil.decodeShortestEditScript(tok.toLowerCase(), pred);
+      if (lemma.length() == 0) {
+        lemma = "_";
+      }
+      lemmaCache.put(lemmaKey.copy(), lemma);
+    }
+    return lemma;
+  }
+
   /**
    * Decodes the lemma from the word and the induced lemma class.
    * @param toks the array of tokens
@@ -157,23 +274,26 @@ public class LemmatizerME implements Lemmatizer {
   public static String[] encodeLemmas(String[] toks, String[] lemmas) {
     List<String> sesList = new ArrayList<>();
     for (int i = 0; i < toks.length; i++) {
-      String ses = StringUtil.getShortestEditScript(toks[i], lemmas[i]);
-      if (ses.length() == 0) {
-        ses = "_";
-      }
-      sesList.add(ses);
+      sesList.add(encodeLemma(toks[i], lemmas[i]));
     }
     return sesList.toArray(new String[sesList.size()]);
   }
 
+  private static String encodeLemma(String tok, String lemma) {
+    String ses = StringUtil.getShortestEditScript(tok, lemma);
+    if (ses.length() == 0) {
+      ses = "_";
+    }
+    return ses;
+  }
+
   public Sequence[] topKSequences(String[] sentence, String[] tags) {
-    return model.bestSequences(DEFAULT_BEAM_SIZE, sentence,
-        new Object[] { tags }, contextGenerator, sequenceValidator);
+    return topKSequences(sentence, tags, BeamSearch.DEFAULT_MIN_SEQUENCE_SCORE);
   }
 
   public Sequence[] topKSequences(String[] sentence, String[] tags, double minSequenceScore) {
-    return model.bestSequences(DEFAULT_BEAM_SIZE, sentence, new Object[] { tags }, minSequenceScore,
-        contextGenerator, sequenceValidator);
+    return bestSequences(DEFAULT_BEAM_SIZE, sentence, tags, lookupLemmas(sentence, tags),
+        minSequenceScore);
   }
 
   /**
@@ -248,12 +368,10 @@ public class LemmatizerME implements Lemmatizer {
   }
 
   public Sequence[] topKLemmaClasses(String[] sentence, String[] tags) {
-    return model.bestSequences(DEFAULT_BEAM_SIZE, sentence,
-        new Object[] { tags }, contextGenerator, sequenceValidator);
+    return topKSequences(sentence, tags);
   }
 
   public Sequence[] topKLemmaClasses(String[] sentence, String[] tags, double minSequenceScore) {
-    return model.bestSequences(DEFAULT_BEAM_SIZE, sentence, new Object[] { tags }, minSequenceScore,
-        contextGenerator, sequenceValidator);
+    return topKSequences(sentence, tags, minSequenceScore);
   }
 }
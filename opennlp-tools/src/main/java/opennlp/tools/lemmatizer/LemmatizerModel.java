@@ -117,6 +117,18 @@ public class LemmatizerModel extends BaseModel {
     }
   }
 
+  /**
+   * Retrieves the maxent model of the lemmatizer.
+   *
+   * @return the model or null if the lemmatizer uses a sequence model
+   */
+  MaxentModel getLemmatizerMaxentModel() {
+    if (artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME) instanceof MaxentModel) {
+      return (MaxentModel) artifactMap.get(LEMMATIZER_MODEL_ENTRY_NAME);
+    }
+    return null;
+  }
+
   @Override
   protected Class<? extends BaseToolFactory> getDefaultFactory() {
     return LemmatizerFactory.class;
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.lemmatizer;
+
+/**
+ * A key of two strings, for example a word and its postag, for hash maps.
+ * <p>
+ * Instead of allocating a new key for every lookup a caller can keep one instance
+ * as probe and {@link #set(String, String)} it before every lookup. A probe must
+ * never be put into a map, the map needs its own key, see {@link #copy()}.
+ */
+final class StringPair {
+
+  private String first;
+  private String second;
+  private int hash;
+
+  StringPair() {
+  }
+
+  StringPair(String first, String second) {
+    set(first, second);
+  }
+
+  /**
+   * Replaces the strings of this key.
+   *
+   * @param first the first string
+   * @param second the second string
+   * @return this key
+   */
+  StringPair set(String first, String second) {
+    this.first = first;
+    this.second = second;
+    hash = 31 * first.hashCode() + second.hashCode();
+    return this;
+  }
+
+  /**
+   * Creates a new key with the strings of this key.
+   *
+   * @return the new key
+   */
+  StringPair copy() {
+    return new StringPair(first, second);
+  }
+
+  String getFirst() {
+    return first;
+  }
+
+  String getSecond() {
+    return second;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj instanceof StringPair) {
+      StringPair other = (StringPair) obj;
+      return hash == other.hash && first.equals(other.first) && second.equals(other.second);
+    }
+
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + first + ", " + second + "]";
+  }
+}
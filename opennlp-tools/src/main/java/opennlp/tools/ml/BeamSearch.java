@@ -41,6 +41,11 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
 
   public static final String BEAM_SIZE_PARAMETER = "BeamSize";
 
+  /**
+   * The minimal score of a sequence if none is given.
+   */
+  public static final int DEFAULT_MIN_SEQUENCE_SCORE = -100000;
+
   private static final Object[] EMPTY_ADDITIONAL_CONTEXT = new Object[0];
 
   protected int size;
@@ -48,7 +53,6 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
 
   private double[] probs;
   private Cache<String[], double[]> contextsCache;
-  private static final int zeroLog = -100000;
 
   /**
    * Creates new search object.
@@ -72,6 +76,61 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
     this.probs = new double[model.getNumOutcomes()];
   }
 
+  /**
+   * Restricts the outcomes of an element of the sequence. The search extends every
+   * hypothesis either with a known outcome, without evaluating the model, or only with
+   * some outcomes of the model.
+   *
+   * @see BeamSearch#restrictOutcomes(int, Object[], Object[])
+   */
+  protected static final class OutcomeRestriction {
+
+    private final String knownOutcome;
+    private final int[] allowedOutcomes;
+
+    private OutcomeRestriction(String knownOutcome, int[] allowedOutcomes) {
+      this.knownOutcome = knownOutcome;
+      this.allowedOutcomes = allowedOutcomes;
+    }
+
+    /**
+     * Creates a restriction to a known outcome. Every hypothesis is extended with the
+     * outcome with the probability one, the model is not evaluated.
+     *
+     * @param outcome the known outcome, it does not need to be an outcome of the model
+     * @return the restriction
+     */
+    public static OutcomeRestriction knownOutcome(String outcome) {
+      return new OutcomeRestriction(outcome, null);
+    }
+
+    /**
+     * Creates a restriction to some outcomes of the model. Only these outcomes are
+     * considered when the hypotheses are extended.
+     *
+     * @param outcomeIndices the indices of the allowed outcomes of the model
+     * @return the restriction
+     */
+    public static OutcomeRestriction allowedOutcomes(int[] outcomeIndices) {
+      return new OutcomeRestriction(null, outcomeIndices);
+    }
+  }
+
+  /**
+   * Retrieves the restriction of the outcomes of an element. It is called once for every
+   * element before the hypotheses are extended. The outcomes which pass the restriction
+   * are still checked by the {@link SequenceValidator}.
+   *
+   * @param index the index of the element
+   * @param sequence the input sequence
+   * @param additionalContext the additional context
+   * @return the restriction or null if all outcomes of the model are allowed
+   */
+  protected OutcomeRestriction restrictOutcomes(int index, T[] sequence,
+      Object[] additionalContext) {
+    return null;
+  }
+
   /**
    * Returns the best sequence of outcomes based on model for this object.
    *
@@ -96,10 +155,21 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
     }
 
     for (int i = 0; i < sequence.length; i++) {
+      OutcomeRestriction restriction = restrictOutcomes(i, sequence, additionalContext);
+      int[] allowedOutcomes = restriction != null ? restriction.allowedOutcomes : null;
       int sz = Math.min(size, prev.size());
 
       for (int sc = 0; prev.size() > 0 && sc < sz; sc++) {
         Sequence top = prev.remove();
+
+        if (restriction != null && restriction.knownOutcome != null) {
+          Sequence ns = new Sequence(top, restriction.knownOutcome, 1d);
+          if (ns.getScore() > minSequenceScore) {
+            next.add(ns);
+          }
+          continue;
+        }
+
         List<String> tmpOutcomes = top.getOutcomes();
         String[] outcomes = tmpOutcomes.toArray(new String[tmpOutcomes.size()]);
         String[] contexts = cg.getContext(i, sequence, outcomes, additionalContext);
@@ -117,7 +187,10 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
 
         double min = temp_scores[Math.max(0,scores.length - size)];
 
-        for (int p = 0; p < scores.length; p++) {
+        int outcomeCount = allowedOutcomes != null ? allowedOutcomes.length : scores.length;
+
+        for (int o = 0; o < outcomeCount; o++) {
+          int p = allowedOutcomes != null ? allowedOutcomes[o] : o;
           if (scores[p] >= min) {
             String out = model.getOutcome(p);
             if (validator.validSequence(i, sequence, outcomes, out)) {
@@ -130,7 +203,8 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
         }
 
         if (next.size() == 0) { //if no advanced sequences, advance all valid
-          for (int p = 0; p < scores.length; p++) {
+          for (int o = 0; o < outcomeCount; o++) {
+            int p = allowedOutcomes != null ? allowedOutcomes[o] : o;
             String out = model.getOutcome(p);
             if (validator.validSequence(i, sequence, outcomes, out)) {
               Sequence ns = new Sequence(top, out, scores[p]);
@@ -161,7 +235,8 @@ public class BeamSearch<T> implements SequenceClassificationModel<T> {
 
   public Sequence[] bestSequences(int numSequences, T[] sequence,
       Object[] additionalContext, BeamSearchContextGenerator<T> cg, SequenceValidator<T> validator) {
-    return bestSequences(numSequences, sequence, additionalContext, zeroLog, cg, validator);
+    return bestSequences(numSequences, sequence, additionalContext, DEFAULT_MIN_SEQUENCE_SCORE, cg,
+        validator);
   }
 
   public Sequence bestSequence(T[] sequence, Object[] additionalContext,
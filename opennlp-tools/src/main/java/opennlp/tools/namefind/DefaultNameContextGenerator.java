@@ -134,7 +134,8 @@ public class DefaultNameContextGenerator implements NameContextGenerator {
       }
       features.add("po=" + po);
       features.add("pow=" + po + "," + tokens[index]);
-      features.add("powf=" + po + "," + FeatureGeneratorUtil.tokenFeature(tokens[index]));
+      // the token class is computed once per sentence for all sequences of the beam
+      features.add("powf=" + po + "," + FeatureGeneratorUtil.tokenFeature(tokens, index));
       features.add("ppo=" + ppo);
     }
 
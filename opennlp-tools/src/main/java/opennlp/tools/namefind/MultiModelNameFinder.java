@@ -0,0 +1,459 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.namefind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
+import opennlp.tools.util.featuregen.BrownBigramFeatureGenerator;
+import opennlp.tools.util.featuregen.BrownTokenClassFeatureGenerator;
+import opennlp.tools.util.featuregen.BrownTokenFeatureGenerator;
+import opennlp.tools.util.featuregen.CachedFeatureGenerator;
+import opennlp.tools.util.featuregen.EmbeddingClusterFeatureGenerator;
+import opennlp.tools.util.featuregen.WindowFeatureGenerator;
+import opennlp.tools.util.featuregen.WordClusterFeatureGenerator;
+
+/**
+ * A {@link TokenNameFinder} which finds the names of several models, for example a
+ * person, a location and an organization model, and merges them.
+ * <p>
+ * Every model is decoded by its own {@link NameFinderME}, but the features which only
+ * depend on the tokens of the sentence are generated once per token and shared by all
+ * models with the same feature generator descriptor. Only the adaptive features, for
+ * example the previous map features, and the features of the previous outcomes are
+ * generated per model. The beam search of every model reuses the probabilities of
+ * a context which was already evaluated for another sequence at the same token.
+ * The names of each model are the same as the names found by a {@link NameFinderME}
+ * of that model.
+ * <p>
+ * This class is not thread safe.
+ */
+public class MultiModelNameFinder implements TokenNameFinder {
+
+  /**
+   * Defines how the names of the different models are merged.
+   */
+  public enum OverlapPolicy {
+
+    /**
+     * Keeps all names, the names of the first model come first.
+     */
+    KEEP_ALL,
+
+    /**
+     * Drops names which overlap with a preceding name, see
+     * {@link NameFinderME#dropOverlappingSpans(Span[])}.
+     */
+    DROP_OVERLAPPING,
+
+    /**
+     * Drops names which overlap with a name of a higher probability. Names with
+     * the same probability are ordered by their model.
+     */
+    HIGHEST_PROBABILITY
+  }
+
+  private static final String[][] EMPTY = new String[0][0];
+
+  /**
+   * The sentence scoped generators whose features depend on a resource of the model,
+   * their features cannot be shared between models.
+   */
+  private static final Set<Class<?>> RESOURCE_GENERATORS = new HashSet<>(Arrays.asList(
+      BrownTokenFeatureGenerator.class, BrownTokenClassFeatureGenerator.class,
+      BrownBigramFeatureGenerator.class, WordClusterFeatureGenerator.class,
+      EmbeddingClusterFeatureGenerator.class));
+
+  private final NameFinderME[] nameFinders;
+
+  private final List<SentenceFeatures> sharedFeatures = new ArrayList<>();
+
+  private final OverlapPolicy overlapPolicy;
+
+  /**
+   * Initializes the name finder, names which overlap with a preceding name are dropped.
+   *
+   * @param models the models to find the names with
+   */
+  public MultiModelNameFinder(TokenNameFinderModel... models) {
+    this(OverlapPolicy.DROP_OVERLAPPING, models);
+  }
+
+  /**
+   * Initializes the name finder.
+   *
+   * @param overlapPolicy the policy to merge the names of the models
+   * @param models the models to find the names with
+   */
+  public MultiModelNameFinder(OverlapPolicy overlapPolicy, TokenNameFinderModel... models) {
+    if (overlapPolicy == null) {
+      throw new IllegalArgumentException("overlapPolicy must not be null");
+    }
+
+    if (models == null || models.length == 0) {
+      throw new IllegalArgumentException("At least one model is required");
+    }
+
+    this.overlapPolicy = overlapPolicy;
+
+    List<byte[]> descriptors = new ArrayList<>();
+    List<List<AdaptiveFeatureGenerator>> groupLeaves = new ArrayList<>();
+
+    nameFinders = new NameFinderME[models.length];
+    for (int i = 0; i < models.length; i++) {
+      TokenNameFinderModel model = models[i];
+      NameContextGenerator contextGenerator = model.getFactory().createContextGenerator();
+
+      if (contextGenerator.getClass() == DefaultNameContextGenerator.class) {
+        List<AdaptiveFeatureGenerator> leaves = new ArrayList<>();
+        List<Boolean> cached = new ArrayList<>();
+        for (AdaptiveFeatureGenerator generator :
+            ((DefaultNameContextGenerator) contextGenerator).featureGenerators) {
+          flatten(generator, false, leaves, cached);
+        }
+
+        byte[] descriptor = model.getFactory().getFeatureGenerator();
+
+        int group = -1;
+        for (int g = 0; g < descriptors.size() && group == -1; g++) {
+          if (descriptor != null && Arrays.equals(descriptor, descriptors.get(g))
+              && hasSameClasses(leaves, groupLeaves.get(g))) {
+            group = g;
+          }
+        }
+
+        if (group == -1) {
+          group = sharedFeatures.size();
+          descriptors.add(descriptor);
+          groupLeaves.add(leaves);
+          sharedFeatures.add(new SentenceFeatures(leaves));
+        }
+
+        contextGenerator = new DefaultNameContextGenerator(
+            createGenerators(sharedFeatures.get(group), leaves, cached));
+      }
+
+      nameFinders[i] = new NameFinderME(model, contextGenerator,
+          model.getNameFinderSequenceModel(RecentContextsModel::new));
+    }
+  }
+
+  /**
+   * Collects the generators which are combined by {@link AggregatedFeatureGenerator}s
+   * and {@link CachedFeatureGenerator}s and remembers if they were cached.
+   */
+  private static void flatten(AdaptiveFeatureGenerator generator, boolean cached,
+      List<AdaptiveFeatureGenerator> leaves, List<Boolean> cachedLeaves) {
+    if (generator.getClass() == AggregatedFeatureGenerator.class) {
+      for (AdaptiveFeatureGenerator aggregated :
+          ((AggregatedFeatureGenerator) generator).getGenerators()) {
+        flatten(aggregated, cached, leaves, cachedLeaves);
+      }
+    }
+    else if (generator.getClass() == CachedFeatureGenerator.class) {
+      flatten(((CachedFeatureGenerator) generator).getCachedFeatureGenerator(), true,
+          leaves, cachedLeaves);
+    }
+    else {
+      leaves.add(generator);
+      cachedLeaves.add(cached);
+    }
+  }
+
+  private static boolean hasSameClasses(List<AdaptiveFeatureGenerator> leaves,
+      List<AdaptiveFeatureGenerator> otherLeaves) {
+    if (leaves.size() != otherLeaves.size()) {
+      return false;
+    }
+    for (int i = 0; i < leaves.size(); i++) {
+      if (leaves.get(i).getClass() != otherLeaves.get(i).getClass()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tests if the features of a generator can be shared by all models with the same
+   * feature generator descriptor.
+   */
+  private static boolean isShareable(AdaptiveFeatureGenerator generator) {
+    return WindowFeatureGenerator.isSentenceScoped(generator) && !usesResources(generator);
+  }
+
+  private static boolean usesResources(AdaptiveFeatureGenerator generator) {
+    if (generator instanceof AggregatedFeatureGenerator) {
+      for (AdaptiveFeatureGenerator aggregated :
+          ((AggregatedFeatureGenerator) generator).getGenerators()) {
+        if (usesResources(aggregated)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    else if (generator instanceof CachedFeatureGenerator) {
+      return usesResources(((CachedFeatureGenerator) generator).getCachedFeatureGenerator());
+    }
+    else if (generator instanceof WindowFeatureGenerator) {
+      return usesResources(((WindowFeatureGenerator) generator).getGenerator());
+    }
+    return RESOURCE_GENERATORS.contains(generator.getClass());
+  }
+
+  /**
+   * Creates the generators of one model, the shareable generators are replaced by
+   * lookups of the shared features and the others are kept in their order.
+   */
+  private static AdaptiveFeatureGenerator[] createGenerators(SentenceFeatures sentenceFeatures,
+      List<AdaptiveFeatureGenerator> leaves, List<Boolean> cached) {
+    List<AdaptiveFeatureGenerator> generators = new ArrayList<>();
+
+    int i = 0;
+    while (i < leaves.size()) {
+      int start = i;
+      if (isShareable(leaves.get(i))) {
+        while (i < leaves.size() && isShareable(leaves.get(i))) {
+          i++;
+        }
+        generators.add(new SharedFeatureGenerator(sentenceFeatures, start, i));
+      }
+      else {
+        while (i < leaves.size() && !isShareable(leaves.get(i))
+            && cached.get(i).equals(cached.get(start))) {
+          i++;
+        }
+
+        AdaptiveFeatureGenerator generator = i - start == 1 ? leaves.get(start)
+            : new AggregatedFeatureGenerator(leaves.subList(start, i));
+        if (cached.get(start)) {
+          generator = new CachedFeatureGenerator(generator);
+        }
+        generators.add(generator);
+      }
+    }
+
+    return generators.toArray(new AdaptiveFeatureGenerator[generators.size()]);
+  }
+
+  @Override
+  public Span[] find(String[] tokens) {
+    return find(tokens, EMPTY);
+  }
+
+  /**
+   * Finds the names of all models in the sentence.
+   *
+   * @param tokens the tokens of the sentence
+   * @param additionalContext features which are based on context outside of the
+   *     sentence but which should also be used.
+   *
+   * @return the names of all models, merged with the overlap policy
+   */
+  public Span[] find(String[] tokens, String[][] additionalContext) {
+    for (SentenceFeatures features : sharedFeatures) {
+      features.reset(tokens);
+    }
+
+    List<Span> names = new ArrayList<>();
+    for (NameFinderME nameFinder : nameFinders) {
+      Collections.addAll(names, nameFinder.find(tokens, additionalContext));
+    }
+
+    Span[] spans = names.toArray(new Span[names.size()]);
+
+    switch (overlapPolicy) {
+      case DROP_OVERLAPPING:
+        return NameFinderME.dropOverlappingSpans(spans);
+      case HIGHEST_PROBABILITY:
+        return dropLessProbableSpans(spans);
+      default:
+        return spans;
+    }
+  }
+
+  private static Span[] dropLessProbableSpans(Span[] spans) {
+    Span[] byProbability = spans.clone();
+    // the sort is stable, names with the same probability keep the order of the models
+    Arrays.sort(byProbability, (s1, s2) -> Double.compare(s2.getProb(), s1.getProb()));
+
+    List<Span> remaining = new ArrayList<>(spans.length);
+    for (Span span : byProbability) {
+      boolean overlaps = false;
+      for (int i = 0; i < remaining.size() && !overlaps; i++) {
+        overlaps = remaining.get(i).intersects(span);
+      }
+      if (!overlaps) {
+        remaining.add(span);
+      }
+    }
+
+    Collections.sort(remaining);
+    return remaining.toArray(new Span[remaining.size()]);
+  }
+
+  @Override
+  public void clearAdaptiveData() {
+    for (NameFinderME nameFinder : nameFinders) {
+      nameFinder.clearAdaptiveData();
+    }
+  }
+
+  /**
+   * Remembers the probabilities of the recently evaluated contexts. The sequences of
+   * a beam often differ only before their previous two outcomes and then have the
+   * same context at the next token.
+   */
+  private static class RecentContextsModel implements MaxentModel {
+
+    private static final int SIZE = NameFinderME.DEFAULT_BEAM_SIZE;
+
+    private final MaxentModel model;
+
+    private final String[][] contexts = new String[SIZE][];
+    private final double[][] probs = new double[SIZE][];
+    private int next;
+
+    private RecentContextsModel(MaxentModel model) {
+      this.model = model;
+    }
+
+    @Override
+    public double[] eval(String[] context) {
+      return eval(context, new double[model.getNumOutcomes()]);
+    }
+
+    @Override
+    public double[] eval(String[] context, double[] outsums) {
+      for (int i = 0; i < SIZE; i++) {
+        if (contexts[i] != null && Arrays.equals(contexts[i], context)) {
+          System.arraycopy(probs[i], 0, outsums, 0, probs[i].length);
+          return outsums;
+        }
+      }
+
+      double[] result = model.eval(context, outsums);
+
+      contexts[next] = context;
+      probs[next] = result.clone();
+      next = (next + 1) % SIZE;
+
+      return result;
+    }
+
+    @Override
+    public double[] eval(String[] context, float[] values) {
+      return model.eval(context, values);
+    }
+
+    @Override
+    public String getBestOutcome(double[] outcomes) {
+      return model.getBestOutcome(outcomes);
+    }
+
+    @Override
+    public String getAllOutcomes(double[] outcomes) {
+      return model.getAllOutcomes(outcomes);
+    }
+
+    @Override
+    public String getOutcome(int i) {
+      return model.getOutcome(i);
+    }
+
+    @Override
+    public int getIndex(String outcome) {
+      return model.getIndex(outcome);
+    }
+
+    @Override
+    public int getNumOutcomes() {
+      return model.getNumOutcomes();
+    }
+  }
+
+  /**
+   * The features of the shareable generators of a group of models for every token of
+   * the current sentence, they are generated by the generators of the first model.
+   */
+  private static class SentenceFeatures {
+
+    private final List<AdaptiveFeatureGenerator> generators;
+
+    private String[] tokens;
+
+    private String[][][] features;
+
+    private SentenceFeatures(List<AdaptiveFeatureGenerator> generators) {
+      this.generators = generators;
+    }
+
+    private void reset(String[] tokens) {
+      this.tokens = tokens;
+      features = new String[generators.size()][tokens.length][];
+    }
+
+    private String[] getFeatures(int generator, String[] tokens, int index,
+        String[] previousOutcomes) {
+      if (tokens != this.tokens) {
+        reset(tokens);
+      }
+
+      String[] generatorFeatures = features[generator][index];
+      if (generatorFeatures == null) {
+        List<String> featureList = new ArrayList<>();
+        generators.get(generator).createFeatures(featureList, tokens, index, previousOutcomes);
+        generatorFeatures = featureList.toArray(new String[featureList.size()]);
+        features[generator][index] = generatorFeatures;
+      }
+      return generatorFeatures;
+    }
+  }
+
+  /**
+   * Adds the shared features of a range of generators.
+   */
+  private static class SharedFeatureGenerator implements AdaptiveFeatureGenerator {
+
+    private final SentenceFeatures sentenceFeatures;
+    private final int start;
+    private final int end;
+
+    private SharedFeatureGenerator(SentenceFeatures sentenceFeatures, int start, int end) {
+      this.sentenceFeatures = sentenceFeatures;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public void createFeatures(List<String> features, String[] tokens, int index,
+        String[] previousOutcomes) {
+      for (int i = start; i < end; i++) {
+        Collections.addAll(features,
+            sentenceFeatures.getFeatures(i, tokens, index, previousOutcomes));
+      }
+    }
+  }
+}
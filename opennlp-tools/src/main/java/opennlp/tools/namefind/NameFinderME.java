@@ -74,13 +74,23 @@ public class NameFinderME implements TokenNameFinder {
   private SequenceValidator<String> sequenceValidator;
 
   public NameFinderME(TokenNameFinderModel model) {
+    this(model, model.getFactory().createContextGenerator(), model.getNameFinderSequenceModel());
+  }
+
+  /**
+   * Initializes the name finder with a context generator which generates the same
+   * features as the one of the model factory and a sequence model which finds the
+   * same sequences as the one of the model.
+   */
+  NameFinderME(TokenNameFinderModel model, NameContextGenerator contextGenerator,
+      SequenceClassificationModel<String> sequenceModel) {
 
     TokenNameFinderFactory factory = model.getFactory();
 
     seqCodec = factory.createSequenceCodec();
     sequenceValidator = seqCodec.createSequenceValidator();
-    this.model = model.getNameFinderSequenceModel();
-    contextGenerator = factory.createContextGenerator();
+    this.model = sequenceModel;
+    this.contextGenerator = contextGenerator;
 
     // TODO: We should deprecate this. And come up with a better solution!
     contextGenerator.addFeatureGenerator(
@@ -17,11 +17,14 @@
 
 package opennlp.tools.namefind;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +32,15 @@ import opennlp.tools.util.Span;
 
 /**
  * Name finder based on a series of regular expressions.
+ * <p>
+ * The patterns are compiled once into a flat table of typed entries. For each entry
+ * a literal which every match must contain is derived from the pattern source
+ * where this is possible; patterns whose literal does not occur in the text are
+ * not run at all. The sentence text and the offset to token index table are
+ * built once per call and shared by all patterns.
+ * <p>
+ * Per pattern match timing can be switched on with {@link #setCollectStatistics(boolean)}
+ * and read back with {@link #getPatternStatistics()} to tune large pattern sets.
  */
 public final class RegexNameFinder implements TokenNameFinder {
 
@@ -36,8 +48,12 @@ public final class RegexNameFinder implements TokenNameFinder {
   private String sType;
   private Map<String, Pattern[]> regexMap;
 
+  private CompiledPattern[] compiledPatterns;
+  private volatile boolean collectStatistics;
+
   public RegexNameFinder(Map<String, Pattern[]> regexMap) {
     this.regexMap = Objects.requireNonNull(regexMap, "regexMap must not be null");
+    compile();
   }
 
   public RegexNameFinder(Pattern[] patterns, String type) {
@@ -47,6 +63,7 @@ public final class RegexNameFinder implements TokenNameFinder {
 
     mPatterns = patterns;
     sType = type;
+    compile();
   }
 
   /**
@@ -62,70 +79,80 @@ public final class RegexNameFinder implements TokenNameFinder {
 
     mPatterns = patterns;
     sType = null;
+    compile();
+  }
+
+  private void compile() {
+    List<CompiledPattern> compiled = new ArrayList<>();
+
+    if (regexMap != null) {
+      for (Map.Entry<String, Pattern[]> entry : regexMap.entrySet()) {
+        for (Pattern pattern : entry.getValue()) {
+          compiled.add(new CompiledPattern(pattern, entry.getKey()));
+        }
+      }
+    } else {
+      for (Pattern pattern : mPatterns) {
+        compiled.add(new CompiledPattern(pattern, sType));
+      }
+    }
+
+    compiledPatterns = compiled.toArray(new CompiledPattern[compiled.size()]);
   }
 
   @Override
   public Span[] find(String[] tokens) {
-    Map<Integer, Integer> sentencePosTokenMap = new HashMap<>();
-
     StringBuilder sentenceString = new StringBuilder(tokens.length * 10);
 
     for (int i = 0; i < tokens.length; i++) {
-
-      int startIndex = sentenceString.length();
-      sentencePosTokenMap.put(startIndex, i);
-
       sentenceString.append(tokens[i]);
 
-      int endIndex = sentenceString.length();
-      sentencePosTokenMap.put(endIndex, i + 1);
-
       if (i < tokens.length - 1) {
         sentenceString.append(' ');
       }
     }
 
-    Collection<Span> annotations = new LinkedList<>();
+    // maps a char offset to the index of the token which starts or ends there,
+    // -1 marks offsets which are not on a token boundary
+    int[] sentencePosTokenMap = new int[sentenceString.length() + 1];
+    Arrays.fill(sentencePosTokenMap, -1);
 
-    if (regexMap != null) {
-      for (Map.Entry<String, Pattern[]> entry : regexMap.entrySet()) {
-        for (Pattern mPattern : entry.getValue()) {
-          Matcher matcher = mPattern.matcher(sentenceString);
-
-          while (matcher.find()) {
-            Integer tokenStartIndex =
-                sentencePosTokenMap.get(matcher.start());
-            Integer tokenEndIndex =
-                sentencePosTokenMap.get(matcher.end());
-
-            if (tokenStartIndex != null && tokenEndIndex != null) {
-              Span annotation = new Span(tokenStartIndex, tokenEndIndex, entry.getKey());
-              annotations.add(annotation);
-            }
-          }
-        }
-      }
-    } else {
-      for (Pattern mPattern : mPatterns) {
-        Matcher matcher = mPattern.matcher(sentenceString);
+    int offset = 0;
+    for (int i = 0; i < tokens.length; i++) {
+      sentencePosTokenMap[offset] = i;
+      offset += tokens[i].length();
+      sentencePosTokenMap[offset] = i + 1;
+      offset++;
+    }
+
+    String text = sentenceString.toString();
+    Collection<Span> annotations = new ArrayList<>();
+
+    for (CompiledPattern compiledPattern : compiledPatterns) {
+      long startTime = collectStatistics ? System.nanoTime() : 0;
+
+      if (compiledPattern.canMatch(text)) {
+        Matcher matcher = compiledPattern.pattern.matcher(text);
 
         while (matcher.find()) {
-          Integer tokenStartIndex =
-              sentencePosTokenMap.get(matcher.start());
-          Integer tokenEndIndex =
-              sentencePosTokenMap.get(matcher.end());
-
-          if (tokenStartIndex != null && tokenEndIndex != null) {
-            Span annotation = new Span(tokenStartIndex, tokenEndIndex, sType);
-            annotations.add(annotation);
+          int tokenStartIndex = sentencePosTokenMap[matcher.start()];
+          int tokenEndIndex = sentencePosTokenMap[matcher.end()];
+
+          if (tokenStartIndex != -1 && tokenEndIndex != -1) {
+            annotations.add(new Span(tokenStartIndex, tokenEndIndex, compiledPattern.type));
+            compiledPattern.recordMatch();
           }
         }
+      } else {
+        compiledPattern.recordSkip();
       }
-    }
 
+      if (collectStatistics) {
+        compiledPattern.recordTime(System.nanoTime() - startTime);
+      }
+    }
 
-    return annotations.toArray(
-        new Span[annotations.size()]);
+    return annotations.toArray(new Span[annotations.size()]);
   }
 
   /**
@@ -140,37 +167,195 @@ public final class RegexNameFinder implements TokenNameFinder {
   }
 
   private Span[] getAnnotations(String text) {
-    Collection<Span> annotations = new LinkedList<>();
-    if (regexMap != null) {
-      for (Map.Entry<String, Pattern[]> entry : regexMap.entrySet()) {
-        for (Pattern mPattern : entry.getValue()) {
-          Matcher matcher = mPattern.matcher(text);
+    Collection<Span> annotations = new ArrayList<>();
 
-          while (matcher.find()) {
-            Integer tokenStartIndex = matcher.start();
-            Integer tokenEndIndex = matcher.end();
-            Span annotation = new Span(tokenStartIndex, tokenEndIndex, entry.getKey());
-            annotations.add(annotation);
+    for (CompiledPattern compiledPattern : compiledPatterns) {
+      long startTime = collectStatistics ? System.nanoTime() : 0;
 
+      if (compiledPattern.canMatch(text)) {
+        Matcher matcher = compiledPattern.pattern.matcher(text);
+
+        while (matcher.find()) {
+          annotations.add(new Span(matcher.start(), matcher.end(), compiledPattern.type));
+          compiledPattern.recordMatch();
+        }
+      } else {
+        compiledPattern.recordSkip();
+      }
+
+      if (collectStatistics) {
+        compiledPattern.recordTime(System.nanoTime() - startTime);
+      }
+    }
+
+    return annotations.toArray(new Span[annotations.size()]);
+  }
+
+  /**
+   * Enables or disables the collection of per pattern statistics. Collecting
+   * statistics adds two {@link System#nanoTime()} calls per pattern and call.
+   *
+   * @param collectStatistics true to collect statistics, false otherwise
+   */
+  public void setCollectStatistics(boolean collectStatistics) {
+    this.collectStatistics = collectStatistics;
+  }
+
+  /**
+   * Retrieves the statistics of all patterns in the order they are applied.
+   * Match and skip counts are always collected, the match time only if
+   * enabled via {@link #setCollectStatistics(boolean)}.
+   *
+   * @return the statistics per pattern
+   */
+  public List<PatternStatistics> getPatternStatistics() {
+    List<PatternStatistics> statistics = new ArrayList<>(compiledPatterns.length);
+    for (CompiledPattern compiledPattern : compiledPatterns) {
+      statistics.add(new PatternStatistics(compiledPattern.pattern, compiledPattern.type,
+          compiledPattern.requiredLiteral, compiledPattern.matchCount.get(),
+          compiledPattern.skipCount.get(), compiledPattern.matchTimeNanos.get()));
+    }
+    return Collections.unmodifiableList(statistics);
+  }
+
+  /**
+   * Resets the statistics of all patterns.
+   */
+  public void resetPatternStatistics() {
+    for (CompiledPattern compiledPattern : compiledPatterns) {
+      compiledPattern.matchCount.set(0);
+      compiledPattern.skipCount.set(0);
+      compiledPattern.matchTimeNanos.set(0);
+    }
+  }
+
+  /**
+   * Derives a literal string which is contained in every match of the pattern.
+   * Only the top level sequence of the pattern is inspected, the longest run
+   * of plain characters is returned. Patterns which contain top level alternations,
+   * inline flags, quoting or escapes which span several characters are not analyzed.
+   *
+   * @param pattern the pattern to analyze
+   * @return the required literal or null if none could be derived
+   */
+  static String requiredLiteral(Pattern pattern) {
+    if ((pattern.flags() & Pattern.LITERAL) != 0) {
+      return pattern.pattern().isEmpty() ? null : pattern.pattern();
+    }
+
+    if ((pattern.flags() & (Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+      return null;
+    }
+
+    String regex = pattern.pattern();
+
+    String longest = null;
+    StringBuilder run = new StringBuilder();
+    int depth = 0;
+
+    int i = 0;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      int next = i + 1;
+      boolean literal = false;
+
+      if (c == '\\') {
+        if (next >= regex.length() || regex.charAt(next) == 'Q') {
+          return null;
+        }
+        c = regex.charAt(next++);
+        if (c >= '0' && c <= '9' || "uxckNpP".indexOf(c) != -1) {
+          // escapes like hex or unicode characters, control characters, properties and
+          // back references continue after this character, they are not analyzed
+          return null;
+        }
+        literal = !Character.isLetterOrDigit(c);
+      } else if (c == '[') {
+        next = skipCharacterClass(regex, i);
+        if (next == -1) {
+          return null;
+        }
+      } else if (c == '{') {
+        next = regex.indexOf('}', i) + 1;
+        if (next == 0) {
+          return null;
+        }
+      } else if (c == '(') {
+        if (next < regex.length() && regex.charAt(next) == '?') {
+          char kind = next + 1 < regex.length() ? regex.charAt(next + 1) : 0;
+          if (kind != ':' && kind != '=' && kind != '!' && kind != '<') {
+            // inline flags change the meaning of the following literals
+            return null;
           }
         }
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (c == '|') {
+        if (depth == 0) {
+          return null;
+        }
+      } else {
+        literal = ".^$?*+".indexOf(c) == -1;
       }
-    } else {
-      for (Pattern mPattern : mPatterns) {
-        Matcher matcher = mPattern.matcher(text);
 
-        while (matcher.find()) {
-          Integer tokenStartIndex = matcher.start();
-          Integer tokenEndIndex = matcher.end();
-          Span annotation = new Span(tokenStartIndex, tokenEndIndex, sType);
-          annotations.add(annotation);
+      boolean quantified = next < regex.length() && "?*+{".indexOf(regex.charAt(next)) != -1;
+
+      if (literal && depth == 0 && !quantified) {
+        run.append(c);
+      } else {
+        longest = longer(longest, run);
+        run.setLength(0);
+      }
+
+      i = next;
+    }
+
+    longest = longer(longest, run);
 
+    if (longest != null && (pattern.flags() & Pattern.CASE_INSENSITIVE) != 0) {
+      for (int ci = 0; ci < longest.length(); ci++) {
+        if (longest.charAt(ci) > 0x7F) {
+          return null;
         }
       }
     }
 
-    return annotations.toArray(
-        new Span[annotations.size()]);
+    return longest;
+  }
+
+  private static int skipCharacterClass(String regex, int start) {
+    int i = start + 1;
+    if (i < regex.length() && regex.charAt(i) == '^') {
+      i++;
+    }
+    // a closing bracket directly after the opening one is a literal
+    if (i < regex.length() && regex.charAt(i) == ']') {
+      i++;
+    }
+    int depth = 1;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '[') {
+        depth++;
+      } else if (c == ']') {
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  private static String longer(String longest, CharSequence run) {
+    if (run.length() > 0 && (longest == null || run.length() > longest.length())) {
+      return run.toString();
+    }
+    return longest;
   }
 
   @Override
@@ -184,6 +369,7 @@ public final class RegexNameFinder implements TokenNameFinder {
 
   public void setmPatterns(Pattern[] mPatterns) {
     this.mPatterns = mPatterns;
+    compile();
   }
 
   public String getsType() {
@@ -192,5 +378,123 @@ public final class RegexNameFinder implements TokenNameFinder {
 
   public void setsType(String sType) {
     this.sType = sType;
+    compile();
+  }
+
+  /**
+   * A pattern together with its type, prefilter literal and statistics.
+   */
+  private static final class CompiledPattern {
+
+    private final Pattern pattern;
+    private final String type;
+    private final String requiredLiteral;
+    private final boolean ignoreCase;
+
+    private final AtomicLong matchCount = new AtomicLong();
+    private final AtomicLong skipCount = new AtomicLong();
+    private final AtomicLong matchTimeNanos = new AtomicLong();
+
+    private CompiledPattern(Pattern pattern, String type) {
+      this.pattern = pattern;
+      this.type = type;
+      this.requiredLiteral = requiredLiteral(pattern);
+      this.ignoreCase = (pattern.flags() & Pattern.CASE_INSENSITIVE) != 0;
+    }
+
+    private boolean canMatch(String text) {
+      if (requiredLiteral == null) {
+        return true;
+      }
+
+      if (!ignoreCase) {
+        return text.contains(requiredLiteral);
+      }
+
+      int last = text.length() - requiredLiteral.length();
+      for (int i = 0; i <= last; i++) {
+        if (text.regionMatches(true, i, requiredLiteral, 0, requiredLiteral.length())) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void recordMatch() {
+      matchCount.incrementAndGet();
+    }
+
+    private void recordSkip() {
+      skipCount.incrementAndGet();
+    }
+
+    private void recordTime(long nanos) {
+      matchTimeNanos.addAndGet(nanos);
+    }
+  }
+
+  /**
+   * Statistics about the use of a single pattern.
+   */
+  public static final class PatternStatistics {
+
+    private final Pattern pattern;
+    private final String type;
+    private final String requiredLiteral;
+    private final long matchCount;
+    private final long skipCount;
+    private final long matchTimeNanos;
+
+    PatternStatistics(Pattern pattern, String type, String requiredLiteral, long matchCount,
+        long skipCount, long matchTimeNanos) {
+      this.pattern = pattern;
+      this.type = type;
+      this.requiredLiteral = requiredLiteral;
+      this.matchCount = matchCount;
+      this.skipCount = skipCount;
+      this.matchTimeNanos = matchTimeNanos;
+    }
+
+    public Pattern getPattern() {
+      return pattern;
+    }
+
+    public String getType() {
+      return type;
+    }
+
+    /**
+     * @return the literal used to prefilter the text, or null if the pattern is always run
+     */
+    public String getRequiredLiteral() {
+      return requiredLiteral;
+    }
+
+    /**
+     * @return the number of spans the pattern produced
+     */
+    public long getMatchCount() {
+      return matchCount;
+    }
+
+    /**
+     * @return the number of texts the pattern was not run on because of the prefilter
+     */
+    public long getSkipCount() {
+      return skipCount;
+    }
+
+    /**
+     * @return the accumulated time spent on the pattern in nanoseconds
+     */
+    public long getMatchTimeNanos() {
+      return matchTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+      return type + " " + pattern.pattern() + " matches=" + matchCount + " skipped=" + skipCount
+          + " time=" + matchTimeNanos + "ns";
+    }
   }
 }
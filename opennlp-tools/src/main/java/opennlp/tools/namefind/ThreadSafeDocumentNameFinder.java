@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.namefind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.Span;
+
+/**
+ * A {@link DocumentNameFinder} which can be shared between threads and finds the
+ * names of many documents in parallel.
+ * <p>
+ * The {@link NameFinderME} collects adaptive data from the sentences of a document, so
+ * the sentences of one document are processed in order by one name finder. Every call
+ * borrows an idle {@link NameFinderME} from a pool and clears its adaptive data before
+ * and after the document, so no data is shared between documents. The model and the
+ * compiled feature generators of its factory are shared by all name finders.
+ * <p>
+ * The spans of the names contain their probabilities.
+ */
+public class ThreadSafeDocumentNameFinder implements DocumentNameFinder {
+
+  private final TokenNameFinderModel model;
+
+  private final Queue<NameFinderME> idleNameFinders = new ConcurrentLinkedQueue<>();
+
+  public ThreadSafeDocumentNameFinder(TokenNameFinderModel model) {
+    this.model = model;
+
+    // fails early if the name finder cannot be created from the model
+    idleNameFinders.add(new NameFinderME(model));
+  }
+
+  private NameFinderME borrowNameFinder() {
+    NameFinderME nameFinder = idleNameFinders.poll();
+    if (nameFinder == null) {
+      nameFinder = new NameFinderME(model);
+    }
+    return nameFinder;
+  }
+
+  @Override
+  public Span[][] find(String[][] document) {
+    NameFinderME nameFinder = borrowNameFinder();
+    try {
+      nameFinder.clearAdaptiveData();
+
+      Span[][] names = new Span[document.length][];
+      for (int i = 0; i < document.length; i++) {
+        names[i] = nameFinder.find(document[i]);
+      }
+      return names;
+    } finally {
+      nameFinder.clearAdaptiveData();
+      idleNameFinders.add(nameFinder);
+    }
+  }
+
+  /**
+   * Finds the names of the documents in parallel, every document is processed by its
+   * own task on the executor.
+   *
+   * @param documents the documents, each an array of tokens for each sentence
+   * @param executor the executor to find the names on
+   * @return the spans of the names of every sentence of every document, in the order
+   *     of the documents
+   *
+   * @see #find(String[][])
+   */
+  public List<Span[][]> find(List<String[][]> documents, ExecutorService executor) {
+    List<Future<Span[][]>> futures = new ArrayList<>(documents.size());
+    try {
+      for (String[][] document : documents) {
+        futures.add(executor.submit(() -> find(document)));
+      }
+
+      List<Span[][]> names = new ArrayList<>(documents.size());
+      for (Future<Span[][]> future : futures) {
+        names.add(future.get());
+      }
+      return names;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while finding names", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Exception during name finding: " + e.getMessage(), e);
+    } finally {
+      // stops the remaining documents if one of them failed
+      for (Future<Span[][]> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+}
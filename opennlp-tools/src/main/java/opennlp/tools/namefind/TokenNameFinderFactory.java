@@ -17,7 +17,6 @@
 
 package opennlp.tools.namefind;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,7 +31,7 @@ import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
 import opennlp.tools.util.featuregen.BigramNameFeatureGenerator;
 import opennlp.tools.util.featuregen.CachedFeatureGenerator;
-import opennlp.tools.util.featuregen.GeneratorFactory;
+import opennlp.tools.util.featuregen.FeatureGeneratorPlan;
 import opennlp.tools.util.featuregen.OutcomePriorFeatureGenerator;
 import opennlp.tools.util.featuregen.PreviousMapFeatureGenerator;
 import opennlp.tools.util.featuregen.SentenceFeatureGenerator;
@@ -47,6 +46,7 @@ import opennlp.tools.util.featuregen.WindowFeatureGenerator;
 public class TokenNameFinderFactory extends BaseToolFactory {
 
   private byte[] featureGeneratorBytes;
+  private FeatureGeneratorPlan featureGeneratorPlan;
   private Map<String, Object> resources;
   private SequenceCodec<String> seqCodec;
 
@@ -66,6 +66,7 @@ public class TokenNameFinderFactory extends BaseToolFactory {
   void init(byte[] featureGeneratorBytes, final Map<String, Object> resources,
       SequenceCodec<String> seqCodec) {
     this.featureGeneratorBytes = featureGeneratorBytes;
+    this.featureGeneratorPlan = null;
     this.resources = resources;
     this.seqCodec = seqCodec;
   }
@@ -167,7 +168,9 @@ public class TokenNameFinderFactory extends BaseToolFactory {
    * is a set of generators contained in the {@link AggregatedFeatureGenerator}.
    *
    * Note:
-   * The generators are created on every call to this method.
+   * The generators are created on every call to this method, but the descriptor is
+   * only compiled once and generators without state are shared, see
+   * {@link FeatureGeneratorPlan}.
    *
    * @return the feature generator or null if there is no descriptor in the model
    */
@@ -182,18 +185,22 @@ public class TokenNameFinderFactory extends BaseToolFactory {
       featureGeneratorBytes = loadDefaultFeatureGeneratorBytes();
     }
 
-    InputStream descriptorIn = new ByteArrayInputStream(featureGeneratorBytes);
-
     AdaptiveFeatureGenerator generator;
     try {
-      generator = GeneratorFactory.create(descriptorIn, key -> {
-        if (artifactProvider != null) {
-          return artifactProvider.getArtifact(key);
-        }
-        else {
-          return resources.get(key);
+      synchronized (this) {
+        if (featureGeneratorPlan == null) {
+          featureGeneratorPlan = FeatureGeneratorPlan.compile(featureGeneratorBytes, key -> {
+            if (artifactProvider != null) {
+              return artifactProvider.getArtifact(key);
+            }
+            else {
+              return resources.get(key);
+            }
+          });
         }
-      });
+      }
+
+      generator = featureGeneratorPlan.createFeatureGenerator();
     } catch (InvalidFormatException e) {
       // It is assumed that the creation of the feature generation does not
       // fail after it succeeded once during model loading.
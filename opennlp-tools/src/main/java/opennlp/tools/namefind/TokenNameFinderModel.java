@@ -25,6 +25,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Properties;
+import java.util.function.UnaryOperator;
 
 import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.ml.model.MaxentModel;
@@ -144,6 +145,16 @@ public class TokenNameFinderModel extends BaseModel {
   }
 
   public SequenceClassificationModel<String> getNameFinderSequenceModel() {
+    return getNameFinderSequenceModel(UnaryOperator.identity());
+  }
+
+  /**
+   * Creates the sequence model of the name finder. If the name finder model is a
+   * {@link MaxentModel}, the {@link BeamSearch} evaluates the contexts with the model
+   * which is returned by the given function.
+   */
+  SequenceClassificationModel<String> getNameFinderSequenceModel(
+      UnaryOperator<MaxentModel> maxentModelWrapper) {
 
     Properties manifest = (Properties) artifactMap.get(MANIFEST_ENTRY);
 
@@ -155,7 +166,8 @@ public class TokenNameFinderModel extends BaseModel {
         beamSize = Integer.parseInt(beamSizeString);
       }
 
-      return new BeamSearch<>(beamSize, (MaxentModel) artifactMap.get(MAXENT_MODEL_ENTRY_NAME));
+      return new BeamSearch<>(beamSize,
+          maxentModelWrapper.apply((MaxentModel) artifactMap.get(MAXENT_MODEL_ENTRY_NAME)));
     }
     else if (artifactMap.get(MAXENT_MODEL_ENTRY_NAME) instanceof SequenceClassificationModel) {
       return (SequenceClassificationModel) artifactMap.get(MAXENT_MODEL_ENTRY_NAME);
@@ -0,0 +1,788 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ngram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.StringList;
+
+/**
+ * A compact count table for ngrams.
+ * <p>
+ * Every distinct token is stored once and mapped to an int id, an ngram is stored as
+ * a sequence of token ids in one shared int array. The ngrams are indexed by an open
+ * addressing hash table with linear probing, the counts are kept in a primitive int array.
+ * Compared to a {@code HashMap<StringList, Integer>} this avoids one {@link StringList},
+ * one token array and one boxed count per ngram.
+ * <p>
+ * The ngrams are iterated in insertion order. Tables can be merged, which allows to count
+ * in parallel into one table per thread, and can be written to and read from a compact
+ * binary format with {@link #serialize(OutputStream)} and {@link #deserialize(InputStream)}.
+ * <p>
+ * A table which is not modified anymore can be read by multiple threads, the lookups
+ * {@link #getCount(StringList)}, {@link #getCount(String[], int, int)} and
+ * {@link #contains(StringList)}, the iteration without {@link Iterator#remove()} and
+ * the serialization do not change it.
+ * The methods which modify the table, like {@code add}, {@code merge} or {@code cutoff},
+ * must not be called concurrently with any other method.
+ */
+public class NGramCountTable implements Iterable<StringList> {
+
+  private static final int MAGIC_NUMBER = 0x4E47524D; // "NGRM"
+  private static final int VERSION = 1;
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int REMOVED = -1;
+
+  private final Map<String, Integer> tokenIds = new HashMap<>();
+  private final List<String> tokens = new ArrayList<>();
+
+  private int[] gramData = new int[INITIAL_CAPACITY * 2];
+  private int gramDataLength;
+
+  private int[] gramOffsets = new int[INITIAL_CAPACITY];
+  private int[] gramLengths = new int[INITIAL_CAPACITY];
+  private int[] gramHashes = new int[INITIAL_CAPACITY];
+  private int[] counts = new int[INITIAL_CAPACITY];
+  private int entryCount;
+
+  // slot value is entry index + 1, 0 marks an empty slot
+  private int[] slots = new int[INITIAL_CAPACITY * 2];
+  private int size;
+
+  private int modCount;
+
+  // only used by add, lookups must not write into the table because tables
+  // which are not modified can be read by several threads
+  private int[] scratchIds = new int[8];
+
+  private static final ThreadLocal<int[][]> LOOKUP_IDS =
+      ThreadLocal.withInitial(() -> new int[][] {new int[8]});
+
+  /**
+   * Initializes an empty table.
+   */
+  public NGramCountTable() {
+  }
+
+  /**
+   * Retrieves the number of distinct ngrams.
+   *
+   * @return the number of ngrams
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Retrieves the number of distinct tokens which were seen.
+   *
+   * @return the vocabulary size
+   */
+  public int vocabularySize() {
+    return tokens.size();
+  }
+
+  /**
+   * Retrieves the count of the ngram which consists of the tokens
+   * from {@code start} (inclusive) to {@code start + length} (exclusive).
+   *
+   * @param ngram the tokens
+   * @param start the index of the first token of the ngram
+   * @param length the length of the ngram
+   * @return the count or 0 if the ngram is not contained
+   */
+  public int getCount(String[] ngram, int start, int length) {
+    int entry = entryOf(ngram, start, length);
+    return entry == -1 ? 0 : counts[entry];
+  }
+
+  /**
+   * Retrieves the count of the ngram.
+   *
+   * @param ngram the ngram
+   * @return the count or 0 if the ngram is not contained
+   */
+  public int getCount(StringList ngram) {
+    int entry = entryOf(ngram);
+    return entry == -1 ? 0 : counts[entry];
+  }
+
+  /**
+   * Checks if the ngram is contained.
+   *
+   * @param ngram the ngram
+   * @return true if contained
+   */
+  public boolean contains(StringList ngram) {
+    return entryOf(ngram) != -1;
+  }
+
+  /**
+   * Increments the count of the ngram which consists of the tokens
+   * from {@code start} (inclusive) to {@code start + length} (exclusive).
+   * The ngram is added if it is not contained yet.
+   *
+   * @param ngram the tokens
+   * @param start the index of the first token of the ngram
+   * @param length the length of the ngram
+   * @param increment the value to add to the count
+   */
+  public void add(String[] ngram, int start, int length, int increment) {
+    ensureScratchCapacity(length);
+    for (int i = 0; i < length; i++) {
+      scratchIds[i] = tokenId(ngram[start + i]);
+    }
+    addIds(scratchIds, length, increment);
+  }
+
+  /**
+   * Increments the count of the ngram, the ngram is added if it is not contained yet.
+   *
+   * @param ngram the ngram
+   * @param increment the value to add to the count
+   */
+  public void add(StringList ngram, int increment) {
+    ensureScratchCapacity(ngram.size());
+    for (int i = 0; i < ngram.size(); i++) {
+      scratchIds[i] = tokenId(ngram.getToken(i));
+    }
+    addIds(scratchIds, ngram.size(), increment);
+  }
+
+  /**
+   * Sets the count of an ngram which is already contained.
+   *
+   * @param ngram the ngram
+   * @param count the new count
+   * @throws NoSuchElementException if the ngram is not contained
+   */
+  public void setCount(StringList ngram, int count) {
+    int entry = entryOf(ngram);
+
+    if (entry == -1) {
+      throw new NoSuchElementException();
+    }
+
+    counts[entry] = count;
+  }
+
+  /**
+   * Removes the ngram.
+   *
+   * @param ngram the ngram
+   * @return true if the ngram was contained
+   */
+  public boolean remove(StringList ngram) {
+    int entry = entryOf(ngram);
+    if (entry == -1) {
+      return false;
+    }
+
+    removeEntry(entry);
+    return true;
+  }
+
+  /**
+   * Retrieves the sum of the counts of all ngrams.
+   *
+   * @return the total count
+   */
+  public long totalCount() {
+    long total = 0;
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (gramLengths[entry] != REMOVED) {
+        total += counts[entry];
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Removes all ngrams with a count below {@code minCount} or above {@code maxCount}
+   * and compacts the table in place.
+   *
+   * @param minCount the minimal count to keep
+   * @param maxCount the maximal count to keep
+   */
+  public void cutoff(int minCount, int maxCount) {
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (gramLengths[entry] != REMOVED && (counts[entry] < minCount || counts[entry] > maxCount)) {
+        gramLengths[entry] = REMOVED;
+        size--;
+      }
+    }
+    compact();
+  }
+
+  /**
+   * Adds the counts of all ngrams of the other table to this table.
+   *
+   * @param other the table to merge into this one
+   */
+  public void merge(NGramCountTable other) {
+    int[] idMap = new int[other.tokens.size()];
+    for (int i = 0; i < idMap.length; i++) {
+      idMap[i] = tokenId(other.tokens.get(i));
+    }
+
+    int[] ids = new int[8];
+    for (int entry = 0; entry < other.entryCount; entry++) {
+      int length = other.gramLengths[entry];
+      if (length != REMOVED) {
+        if (ids.length < length) {
+          ids = new int[length];
+        }
+        int offset = other.gramOffsets[entry];
+        for (int i = 0; i < length; i++) {
+          ids[i] = idMap[other.gramData[offset + i]];
+        }
+        addIds(ids, length, other.counts[entry]);
+      }
+    }
+  }
+
+  /**
+   * Retrieves an iterator over all ngrams in insertion order. The iterator
+   * supports {@link Iterator#remove()}.
+   *
+   * @return the iterator
+   */
+  @Override
+  public Iterator<StringList> iterator() {
+    return new Iterator<StringList>() {
+
+      private int expectedModCount = modCount;
+      private int nextEntry = advance(0);
+      private int lastEntry = -1;
+
+      private int advance(int entry) {
+        while (entry < entryCount && gramLengths[entry] == REMOVED) {
+          entry++;
+        }
+        return entry;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return nextEntry < entryCount;
+      }
+
+      @Override
+      public StringList next() {
+        if (expectedModCount != modCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        lastEntry = nextEntry;
+        nextEntry = advance(nextEntry + 1);
+        return new StringList(tokens(lastEntry));
+      }
+
+      @Override
+      public void remove() {
+        if (lastEntry == -1 || gramLengths[lastEntry] == REMOVED) {
+          throw new IllegalStateException();
+        }
+        removeEntry(lastEntry);
+        expectedModCount = modCount;
+      }
+    };
+  }
+
+  /**
+   * Visits all ngrams with their counts in insertion order.
+   *
+   * @param visitor the visitor
+   */
+  public void forEach(NGramCountVisitor visitor) {
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (gramLengths[entry] != REMOVED) {
+        visitor.visit(tokens(entry), counts[entry]);
+      }
+    }
+  }
+
+  /**
+   * Visitor for {@link #forEach(NGramCountVisitor)}.
+   */
+  @FunctionalInterface
+  public interface NGramCountVisitor {
+    void visit(String[] ngram, int count);
+  }
+
+  /**
+   * Writes the table in a compact binary format. First the vocabulary is written,
+   * then every ngram as a sequence of token ids followed by its count. All numbers
+   * are variable length encoded.
+   *
+   * @param out the stream to write to, it is not closed
+   * @throws IOException if writing fails
+   */
+  public void serialize(OutputStream out) throws IOException {
+    int[] order = new int[size];
+    int index = 0;
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (gramLengths[entry] != REMOVED) {
+        order[index++] = entry;
+      }
+    }
+    serialize(out, order);
+  }
+
+  /**
+   * Writes the table in the binary format with the ngrams sorted by their tokens,
+   * compared with {@link #compare(String[], String[])}.
+   */
+  void serializeSorted(OutputStream out) throws IOException {
+    // the rank of a token id in the lexicographic order of the vocabulary
+    Integer[] ids = new Integer[tokens.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = i;
+    }
+    Arrays.sort(ids, (id1, id2) -> tokens.get(id1).compareTo(tokens.get(id2)));
+    int[] rank = new int[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      rank[ids[i]] = i;
+    }
+
+    Integer[] entries = new Integer[size];
+    int index = 0;
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (gramLengths[entry] != REMOVED) {
+        entries[index++] = entry;
+      }
+    }
+
+    Arrays.sort(entries, (entry1, entry2) -> {
+      int length1 = gramLengths[entry1];
+      int length2 = gramLengths[entry2];
+      for (int i = 0; i < Math.min(length1, length2); i++) {
+        int diff = rank[gramData[gramOffsets[entry1] + i]] - rank[gramData[gramOffsets[entry2] + i]];
+        if (diff != 0) {
+          return diff;
+        }
+      }
+      return length1 - length2;
+    });
+
+    int[] order = new int[size];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = entries[i];
+    }
+    serialize(out, order);
+  }
+
+  private void serialize(OutputStream out, int[] order) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+
+    data.writeInt(MAGIC_NUMBER);
+    data.writeInt(VERSION);
+
+    writeVarInt(data, tokens.size());
+    for (String token : tokens) {
+      data.writeUTF(token);
+    }
+
+    writeVarInt(data, order.length);
+    for (int entry : order) {
+      int length = gramLengths[entry];
+      writeVarInt(data, length);
+      for (int i = 0; i < length; i++) {
+        writeVarInt(data, gramData[gramOffsets[entry] + i]);
+      }
+      writeVarInt(data, counts[entry]);
+    }
+
+    data.flush();
+  }
+
+  /**
+   * Reads a table which was written by {@link #serialize(OutputStream)}.
+   *
+   * @param in the stream to read from, it is not closed
+   * @return the table
+   * @throws IOException if reading fails or the data has an invalid format
+   */
+  public static NGramCountTable deserialize(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+    String[] vocabulary = readVocabulary(data);
+
+    NGramCountTable table = new NGramCountTable();
+    for (String token : vocabulary) {
+      table.tokenId(token);
+    }
+
+    int ngramCount = readVarInt(data);
+    int[] ids = new int[8];
+    for (int n = 0; n < ngramCount; n++) {
+      int length = readVarInt(data);
+      if (ids.length < length) {
+        ids = new int[length];
+      }
+      for (int i = 0; i < length; i++) {
+        ids[i] = readVarInt(data);
+        if (ids[i] >= vocabulary.length) {
+          throw new InvalidFormatException("Invalid token id: " + ids[i]);
+        }
+      }
+      table.addIds(ids, length, readVarInt(data));
+    }
+
+    return table;
+  }
+
+  /**
+   * Reads the header and the vocabulary of the binary format. The stream is
+   * positioned at the ngram count afterwards.
+   */
+  static String[] readVocabulary(DataInputStream data) throws IOException {
+    if (data.readInt() != MAGIC_NUMBER) {
+      throw new InvalidFormatException("The stream does not contain a binary ngram count table!");
+    }
+
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new InvalidFormatException("Unsupported ngram count table version: " + version);
+    }
+
+    String[] vocabulary = new String[readVarInt(data)];
+    for (int i = 0; i < vocabulary.length; i++) {
+      vocabulary[i] = data.readUTF();
+    }
+    return vocabulary;
+  }
+
+  /**
+   * Compares two ngrams token by token, a prefix is ordered before the longer ngram.
+   */
+  static int compare(String[] ngram1, String[] ngram2) {
+    for (int i = 0; i < Math.min(ngram1.length, ngram2.length); i++) {
+      int diff = ngram1[i].compareTo(ngram2[i]);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return ngram1.length - ngram2.length;
+  }
+
+  static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  static int readVarInt(DataInputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new InvalidFormatException("Malformed variable length int");
+  }
+
+  /**
+   * Retrieves the tokens of the entry.
+   */
+  private String[] tokens(int entry) {
+    int length = gramLengths[entry];
+    String[] ngram = new String[length];
+    for (int i = 0; i < length; i++) {
+      ngram[i] = tokens.get(gramData[gramOffsets[entry] + i]);
+    }
+    return ngram;
+  }
+
+  private int tokenId(String token) {
+    Integer id = tokenIds.get(token);
+    if (id == null) {
+      id = tokens.size();
+      tokenIds.put(token, id);
+      tokens.add(token);
+    }
+    return id;
+  }
+
+  private void ensureScratchCapacity(int length) {
+    if (scratchIds.length < length) {
+      scratchIds = new int[Math.max(length, scratchIds.length * 2)];
+    }
+  }
+
+  /**
+   * Retrieves the id buffer of the calling thread for lookups.
+   */
+  private static int[] lookupIds(int length) {
+    int[][] holder = LOOKUP_IDS.get();
+    if (holder[0].length < length) {
+      holder[0] = new int[Math.max(length, holder[0].length * 2)];
+    }
+    return holder[0];
+  }
+
+  /**
+   * Retrieves the entry index of the ngram, or -1 if it is not contained.
+   */
+  private int entryOf(String[] ngram, int start, int length) {
+    int[] ids = lookupIds(length);
+    for (int i = 0; i < length; i++) {
+      Integer id = tokenIds.get(ngram[start + i]);
+      if (id == null) {
+        return -1;
+      }
+      ids[i] = id;
+    }
+    return findEntry(ids, length, hash(ids, length));
+  }
+
+  private int entryOf(StringList ngram) {
+    int[] ids = lookupIds(ngram.size());
+    for (int i = 0; i < ngram.size(); i++) {
+      Integer id = tokenIds.get(ngram.getToken(i));
+      if (id == null) {
+        return -1;
+      }
+      ids[i] = id;
+    }
+    return findEntry(ids, ngram.size(), hash(ids, ngram.size()));
+  }
+
+  private static int hash(int[] ids, int length) {
+    int hash = length;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + ids[i];
+    }
+    // spread the bits, the table size is a power of two
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  private int findEntry(int[] ids, int length, int hash) {
+    int mask = slots.length - 1;
+    for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = slots[slot] - 1;
+      if (gramHashes[entry] == hash && gramLengths[entry] == length && equalIds(entry, ids, length)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  private boolean equalIds(int entry, int[] ids, int length) {
+    int offset = gramOffsets[entry];
+    for (int i = 0; i < length; i++) {
+      if (gramData[offset + i] != ids[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void addIds(int[] ids, int length, int increment) {
+    int hash = hash(ids, length);
+    int entry = findEntry(ids, length, hash);
+
+    if (entry != -1) {
+      counts[entry] += increment;
+      return;
+    }
+
+    if (entryCount == counts.length) {
+      if (size < entryCount / 2) {
+        compact();
+      } else {
+        growEntries();
+      }
+    }
+
+    if (gramDataLength + length > gramData.length) {
+      gramData = Arrays.copyOf(gramData, Math.max(gramData.length * 2, gramDataLength + length));
+    }
+    System.arraycopy(ids, 0, gramData, gramDataLength, length);
+
+    entry = entryCount++;
+    gramOffsets[entry] = gramDataLength;
+    gramLengths[entry] = length;
+    gramHashes[entry] = hash;
+    counts[entry] = increment;
+    gramDataLength += length;
+
+    size++;
+    modCount++;
+
+    if (size * 2 > slots.length) {
+      rehash(slots.length * 2);
+    } else {
+      insertSlot(entry);
+    }
+  }
+
+  private void growEntries() {
+    int capacity = counts.length * 2;
+    gramOffsets = Arrays.copyOf(gramOffsets, capacity);
+    gramLengths = Arrays.copyOf(gramLengths, capacity);
+    gramHashes = Arrays.copyOf(gramHashes, capacity);
+    counts = Arrays.copyOf(counts, capacity);
+  }
+
+  private void insertSlot(int entry) {
+    int mask = slots.length - 1;
+    int slot = gramHashes[entry] & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = entry + 1;
+  }
+
+  private void rehash(int capacity) {
+    slots = new int[capacity];
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (gramLengths[entry] != REMOVED) {
+        insertSlot(entry);
+      }
+    }
+  }
+
+  private void removeEntry(int entry) {
+    int mask = slots.length - 1;
+    int slot = gramHashes[entry] & mask;
+    while (slots[slot] != entry + 1) {
+      slot = (slot + 1) & mask;
+    }
+
+    // backward shift deletion keeps the probe sequences intact without tombstones
+    int hole = slot;
+    for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+      int home = gramHashes[slots[next] - 1] & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        slots[hole] = slots[next];
+        hole = next;
+      }
+    }
+    slots[hole] = 0;
+
+    gramLengths[entry] = REMOVED;
+    size--;
+    modCount++;
+  }
+
+  /**
+   * Drops all removed entries and rebuilds the hash table. The vocabulary is kept.
+   */
+  private void compact() {
+    int newEntry = 0;
+    int newDataLength = 0;
+    for (int entry = 0; entry < entryCount; entry++) {
+      int length = gramLengths[entry];
+      if (length != REMOVED) {
+        System.arraycopy(gramData, gramOffsets[entry], gramData, newDataLength, length);
+        gramOffsets[newEntry] = newDataLength;
+        gramLengths[newEntry] = length;
+        gramHashes[newEntry] = gramHashes[entry];
+        counts[newEntry] = counts[entry];
+        newDataLength += length;
+        newEntry++;
+      }
+    }
+    entryCount = newEntry;
+    gramDataLength = newDataLength;
+    modCount++;
+
+    int capacity = INITIAL_CAPACITY * 2;
+    while (capacity < size * 2) {
+      capacity *= 2;
+    }
+    rehash(capacity);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+
+    if (obj instanceof NGramCountTable) {
+      NGramCountTable other = (NGramCountTable) obj;
+
+      if (size != other.size) {
+        return false;
+      }
+
+      for (int entry = 0; entry < entryCount; entry++) {
+        if (gramLengths[entry] != REMOVED) {
+          String[] ngram = tokens(entry);
+          int otherEntry = other.entryOf(ngram, 0, ngram.length);
+          if (otherEntry == -1 || other.counts[otherEntry] != counts[entry]) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Computes the same hash code a {@code Map<StringList, Integer>} with
+   * the same content would have.
+   */
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (gramLengths[entry] != REMOVED) {
+        int gramHash = 1;
+        int offset = gramOffsets[entry];
+        for (int i = 0; i < gramLengths[entry]; i++) {
+          gramHash = 31 * gramHash + tokens.get(gramData[offset + i]).hashCode();
+        }
+        hashCode += gramHash ^ counts[entry];
+      }
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "Size: " + size();
+  }
+}
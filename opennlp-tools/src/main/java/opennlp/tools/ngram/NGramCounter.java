@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ngram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import opennlp.tools.util.ObjectStream;
+
+/**
+ * Counts the ngrams of large corpora into a {@link NGramCountTable}.
+ * <p>
+ * The corpus can be split into partitions which are counted in parallel, every
+ * partition is counted into its own table and the tables are merged at the end.
+ * If a maximum number of ngrams to keep in memory is set, a table which reaches
+ * that size is written sorted to a temporary file and counting continues with an
+ * empty table. The sorted files are merged at the end and only ngrams which reach
+ * the minimum count are loaded, which allows to count corpora whose distinct ngrams
+ * do not fit into memory before the cutoff is applied.
+ */
+public class NGramCounter {
+
+  private final int minLength;
+  private final int maxLength;
+  private final int maxNGramsInMemory;
+  private final File spillDirectory;
+
+  /**
+   * Initializes a counter which keeps all ngrams in memory.
+   *
+   * @param minLength the minimal ngram length
+   * @param maxLength the maximal ngram length
+   */
+  public NGramCounter(int minLength, int maxLength) {
+    this(minLength, maxLength, Integer.MAX_VALUE, null);
+  }
+
+  /**
+   * Initializes a counter which writes its counts to temporary files
+   * once a table holds {@code maxNGramsInMemory} ngrams.
+   *
+   * @param minLength the minimal ngram length
+   * @param maxLength the maximal ngram length
+   * @param maxNGramsInMemory the maximal number of ngrams per table before it is spilled
+   * @param spillDirectory the directory for the temporary files or null to use the default
+   */
+  public NGramCounter(int minLength, int maxLength, int maxNGramsInMemory, File spillDirectory) {
+    if (minLength < 1 || maxLength < 1)
+      throw new IllegalArgumentException("minLength and maxLength param must be at least 1. " +
+          "minLength=" + minLength + ", maxLength= " + maxLength);
+
+    if (minLength > maxLength)
+      throw new IllegalArgumentException("minLength param must not be larger than " +
+          "maxLength param. minLength=" + minLength + ", maxLength= " + maxLength);
+
+    if (maxNGramsInMemory < 1)
+      throw new IllegalArgumentException("maxNGramsInMemory must be at least 1.");
+
+    this.minLength = minLength;
+    this.maxLength = maxLength;
+    this.maxNGramsInMemory = maxNGramsInMemory;
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * Counts the ngrams of all token sequences of the stream.
+   *
+   * @param samples the token sequences, for example sentences
+   * @param minCount the minimal count an ngram must have to be kept
+   * @return the counts
+   * @throws IOException if reading the samples or the temporary files fails
+   */
+  public NGramCountTable count(ObjectStream<String[]> samples, int minCount) throws IOException {
+    return count(Collections.singletonList(samples), null, minCount);
+  }
+
+  /**
+   * Counts the ngrams of all token sequences of all partitions. Every partition is
+   * counted by its own task on the executor.
+   *
+   * @param partitions the partitions of the corpus
+   * @param executor the executor to count on or null to count in the calling thread
+   * @param minCount the minimal count an ngram must have to be kept
+   * @return the counts
+   * @throws IOException if reading the samples or the temporary files fails
+   * @throws IllegalArgumentException if there are no partitions
+   */
+  public NGramCountTable count(List<ObjectStream<String[]>> partitions, ExecutorService executor,
+      int minCount) throws IOException {
+
+    if (partitions.isEmpty()) {
+      throw new IllegalArgumentException("At least one partition is required.");
+    }
+
+    List<Shard> shards = new ArrayList<>();
+    for (ObjectStream<String[]> partition : partitions) {
+      shards.add(new Shard(partition));
+    }
+
+    try {
+      if (executor == null) {
+        for (Shard shard : shards) {
+          shard.call();
+        }
+      } else {
+        List<Future<Shard>> futures = new ArrayList<>();
+        for (Shard shard : shards) {
+          futures.add(executor.submit(shard));
+        }
+        for (Future<Shard> future : futures) {
+          try {
+            future.get();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while counting ngrams", e);
+          } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+              throw (IOException) e.getCause();
+            }
+            throw new RuntimeException("Exception during counting: " + e.getMessage(), e);
+          }
+        }
+      }
+
+      boolean spilled = false;
+      for (Shard shard : shards) {
+        spilled |= !shard.runs.isEmpty();
+      }
+
+      if (!spilled) {
+        NGramCountTable result = shards.get(0).table;
+        for (int i = 1; i < shards.size(); i++) {
+          result.merge(shards.get(i).table);
+          shards.get(i).table = null;
+        }
+        if (minCount > 1) {
+          result.cutoff(minCount, Integer.MAX_VALUE);
+        }
+        return result;
+      }
+
+      List<File> runs = new ArrayList<>();
+      for (Shard shard : shards) {
+        if (shard.table.size() > 0) {
+          shard.spill();
+        }
+        runs.addAll(shard.runs);
+      }
+
+      return mergeRuns(runs, minCount);
+    } finally {
+      for (Shard shard : shards) {
+        for (File run : shard.runs) {
+          run.delete();
+        }
+      }
+    }
+  }
+
+  private NGramCountTable mergeRuns(List<File> runs, int minCount) throws IOException {
+    PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size(),
+        (reader1, reader2) -> NGramCountTable.compare(reader1.ngram, reader2.ngram));
+
+    List<RunReader> readers = new ArrayList<>();
+    NGramCountTable result = new NGramCountTable();
+
+    try {
+      for (File run : runs) {
+        RunReader reader = new RunReader(run);
+        readers.add(reader);
+        if (reader.next()) {
+          queue.add(reader);
+        } else {
+          reader.close();
+        }
+      }
+
+      while (!queue.isEmpty()) {
+        RunReader reader = queue.poll();
+        String[] ngram = reader.ngram;
+        long count = reader.count;
+        advance(queue, reader);
+
+        while (!queue.isEmpty() && NGramCountTable.compare(queue.peek().ngram, ngram) == 0) {
+          RunReader equalReader = queue.poll();
+          count += equalReader.count;
+          advance(queue, equalReader);
+        }
+
+        if (count >= minCount) {
+          result.add(ngram, 0, ngram.length, (int) Math.min(count, Integer.MAX_VALUE));
+        }
+      }
+    } finally {
+      for (RunReader reader : readers) {
+        reader.close();
+      }
+    }
+
+    return result;
+  }
+
+  private static void advance(PriorityQueue<RunReader> queue, RunReader reader) throws IOException {
+    if (reader.next()) {
+      queue.add(reader);
+    } else {
+      reader.close();
+    }
+  }
+
+  /**
+   * Counts one partition and spills its table when it gets too large.
+   */
+  private class Shard implements Callable<Shard> {
+
+    private final ObjectStream<String[]> samples;
+    private final List<File> runs = new ArrayList<>();
+    private NGramCountTable table = new NGramCountTable();
+
+    private Shard(ObjectStream<String[]> samples) {
+      this.samples = samples;
+    }
+
+    @Override
+    public Shard call() throws IOException {
+      String[] tokens;
+      while ((tokens = samples.read()) != null) {
+        for (int length = minLength; length <= maxLength; length++) {
+          for (int start = 0; start + length <= tokens.length; start++) {
+            table.add(tokens, start, length, 1);
+          }
+        }
+
+        if (table.size() >= maxNGramsInMemory) {
+          spill();
+        }
+      }
+      return this;
+    }
+
+    private void spill() throws IOException {
+      File run = File.createTempFile("ngrams", ".bin", spillDirectory);
+      run.deleteOnExit();
+      runs.add(run);
+
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(run))) {
+        table.serializeSorted(out);
+      }
+
+      table = new NGramCountTable();
+    }
+  }
+
+  /**
+   * Reads the sorted ngrams of a spilled table one by one.
+   */
+  private static class RunReader implements AutoCloseable {
+
+    private final DataInputStream in;
+    private final String[] vocabulary;
+    private int remaining;
+
+    private String[] ngram;
+    private int count;
+
+    private RunReader(File run) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+      vocabulary = NGramCountTable.readVocabulary(in);
+      remaining = NGramCountTable.readVarInt(in);
+    }
+
+    private boolean next() throws IOException {
+      if (remaining == 0) {
+        return false;
+      }
+      remaining--;
+
+      ngram = new String[NGramCountTable.readVarInt(in)];
+      for (int i = 0; i < ngram.length; i++) {
+        ngram[i] = vocabulary[NGramCountTable.readVarInt(in)];
+      }
+      count = NGramCountTable.readVarInt(in);
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
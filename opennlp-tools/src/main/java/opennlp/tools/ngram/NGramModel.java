@@ -20,10 +20,8 @@ package opennlp.tools.ngram;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.dictionary.serializer.Attributes;
@@ -35,6 +33,10 @@ import opennlp.tools.util.StringUtil;
 
 /**
  * The {@link NGramModel} can be used to crate ngrams and character ngrams.
+ * <p>
+ * The counts are stored in a {@link NGramCountTable}, which can also be written
+ * to and read from a compact binary format, see {@link #serializeBinary(OutputStream)}
+ * and {@link #NGramModel(NGramCountTable)}.
  *
  * @see StringList
  */
@@ -42,12 +44,24 @@ public class NGramModel implements Iterable<StringList> {
 
   protected static final String COUNT = "count";
 
-  private Map<StringList, Integer> mNGrams = new HashMap<>();
+  private final NGramCountTable mNGrams;
 
   /**
    * Initializes an empty instance.
    */
   public NGramModel() {
+    mNGrams = new NGramCountTable();
+  }
+
+  /**
+   * Initializes the current instance with the given counts, the table
+   * is not copied.
+   *
+   * @param counts the ngram counts, for example read with
+   *     {@link NGramCountTable#deserialize(InputStream)} or counted with {@link NGramCounter}
+   */
+  public NGramModel(NGramCountTable counts) {
+    mNGrams = Objects.requireNonNull(counts, "counts must not be null");
   }
 
   /**
@@ -57,6 +71,7 @@ public class NGramModel implements Iterable<StringList> {
    * @throws IOException
    */
   public NGramModel(InputStream in) throws IOException {
+    this();
     DictionaryEntryPersistor.create(in, entry -> {
 
       int count;
@@ -76,8 +91,11 @@ public class NGramModel implements Iterable<StringList> {
             + "' must be a number!", e);
       }
 
-      add(entry.getTokens());
-      setCount(entry.getTokens(), count);
+      if (mNGrams.contains(entry.getTokens())) {
+        mNGrams.setCount(entry.getTokens(), count);
+      } else {
+        mNGrams.add(entry.getTokens(), count);
+      }
     });
   }
 
@@ -89,14 +107,20 @@ public class NGramModel implements Iterable<StringList> {
    *
    */
   public int getCount(StringList ngram) {
+    return mNGrams.getCount(ngram);
+  }
 
-    Integer count = mNGrams.get(ngram);
-
-    if (count == null) {
-      return 0;
-    }
-
-    return count;
+  /**
+   * Retrieves the count of the ngram which consists of the tokens from {@code start}
+   * (inclusive) to {@code start + length} (exclusive) without creating a {@link StringList}.
+   *
+   * @param tokens the tokens
+   * @param start the index of the first token of the ngram
+   * @param length the length of the ngram
+   * @return count of the ngram or 0 if it is not contained
+   */
+  public int getCount(String[] tokens, int start, int length) {
+    return mNGrams.getCount(tokens, start, length);
   }
 
   /**
@@ -106,13 +130,7 @@ public class NGramModel implements Iterable<StringList> {
    * @param count
    */
   public void setCount(StringList ngram, int count) {
-
-    Integer oldCount = mNGrams.put(ngram, count);
-
-    if (oldCount == null) {
-      mNGrams.remove(ngram);
-      throw new NoSuchElementException();
-    }
+    mNGrams.setCount(ngram, count);
   }
 
   /**
@@ -121,11 +139,7 @@ public class NGramModel implements Iterable<StringList> {
    * @param ngram
    */
   public void add(StringList ngram) {
-    if (contains(ngram)) {
-      setCount(ngram, getCount(ngram) + 1);
-    } else {
-      mNGrams.put(ngram, 1);
-    }
+    mNGrams.add(ngram, 1);
   }
 
   /**
@@ -146,17 +160,15 @@ public class NGramModel implements Iterable<StringList> {
       throw new IllegalArgumentException("minLength param must not be larger than " +
           "maxLength param. minLength=" + minLength + ", maxLength= " + maxLength);
 
+    String[] tokens = new String[ngram.size()];
+    for (int i = 0; i < tokens.length; i++) {
+      tokens[i] = ngram.getToken(i);
+    }
+
     for (int lengthIndex = minLength; lengthIndex < maxLength + 1; lengthIndex++) {
       for (int textIndex = 0;
-          textIndex + lengthIndex - 1 < ngram.size(); textIndex++) {
-
-        String[] grams = new String[lengthIndex];
-
-        for (int i = textIndex; i < textIndex + lengthIndex; i++) {
-          grams[i - textIndex] = ngram.getToken(i);
-        }
-
-        add(new StringList(grams));
+          textIndex + lengthIndex - 1 < tokens.length; textIndex++) {
+        mNGrams.add(tokens, textIndex, lengthIndex, 1);
       }
     }
   }
@@ -170,14 +182,16 @@ public class NGramModel implements Iterable<StringList> {
    */
   public void add(CharSequence chars, int minLength, int maxLength) {
 
+    String[] gram = new String[1];
+
     for (int lengthIndex = minLength; lengthIndex < maxLength + 1; lengthIndex++) {
       for (int textIndex = 0;
           textIndex + lengthIndex - 1 < chars.length(); textIndex++) {
 
-        String gram = StringUtil.toLowerCase(
+        gram[0] = StringUtil.toLowerCase(
             chars.subSequence(textIndex, textIndex + lengthIndex));
 
-        add(new StringList(new String[]{gram}));
+        mNGrams.add(gram, 0, 1, 1);
       }
     }
   }
@@ -199,7 +213,7 @@ public class NGramModel implements Iterable<StringList> {
    * @return true if the ngram is contained
    */
   public boolean contains(StringList tokens) {
-    return mNGrams.containsKey(tokens);
+    return mNGrams.contains(tokens);
   }
 
   /**
@@ -218,7 +232,7 @@ public class NGramModel implements Iterable<StringList> {
    */
   @Override
   public Iterator<StringList> iterator() {
-    return mNGrams.keySet().iterator();
+    return mNGrams.iterator();
   }
 
   /**
@@ -227,13 +241,7 @@ public class NGramModel implements Iterable<StringList> {
    * @return total count of all ngrams
    */
   public int numberOfGrams() {
-    int counter = 0;
-
-    for (StringList ngram : this) {
-      counter += getCount(ngram);
-    }
-
-    return counter;
+    return (int) mNGrams.totalCount();
   }
 
   /**
@@ -246,18 +254,7 @@ public class NGramModel implements Iterable<StringList> {
   public void cutoff(int cutoffUnder, int cutoffOver) {
 
     if (cutoffUnder > 0 || cutoffOver < Integer.MAX_VALUE) {
-
-      for (Iterator<StringList> it = iterator(); it.hasNext(); ) {
-
-        StringList ngram = it.next();
-
-        int count = getCount(ngram);
-
-        if (count < cutoffUnder ||
-            count > cutoffOver) {
-          it.remove();
-        }
-      }
+      mNGrams.cutoff(cutoffUnder, cutoffOver);
     }
   }
 
@@ -334,6 +331,19 @@ public class NGramModel implements Iterable<StringList> {
     DictionaryEntryPersistor.serialize(out, entryIterator, false);
   }
 
+  /**
+   * Writes the ngram counts in the compact binary format of {@link NGramCountTable}.
+   * The model can be restored with {@link #NGramModel(NGramCountTable)} and
+   * {@link NGramCountTable#deserialize(InputStream)}.
+   *
+   * @param out the stream to write to, it is not closed
+   *
+   * @throws IOException if an I/O Error during writing occurs
+   */
+  public void serializeBinary(OutputStream out) throws IOException {
+    mNGrams.serialize(out);
+  }
+
   @Override
   public boolean equals(Object obj) {
     boolean result;
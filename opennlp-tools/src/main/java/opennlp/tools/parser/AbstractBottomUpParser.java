@@ -27,6 +27,7 @@ import java.util.TreeSet;
 
 import opennlp.tools.chunker.Chunker;
 import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.ngram.NGramModel;
 import opennlp.tools.parser.chunking.ParserEventStream;
 import opennlp.tools.postag.POSTagger;
@@ -172,6 +173,21 @@ public abstract class AbstractBottomUpParser implements Parser {
    */
   protected boolean debugOn = false;
 
+  /**
+   * The caches of the model evaluations, they are cleared for every sentence.
+   */
+  private final List<ModelEvaluationCache> evaluationCaches = new ArrayList<>();
+
+  /**
+   * The budget per sentence or null if the search is not limited.
+   */
+  private ParseBudget budget;
+
+  /**
+   * Whether the search for the last parsed sentence was limited by the budget.
+   */
+  private boolean degraded;
+
   public AbstractBottomUpParser(POSTagger tagger, Chunker chunker, HeadRules headRules,
       int beamSize, double advancePercentage) {
     this.tagger = tagger;
@@ -196,6 +212,68 @@ public abstract class AbstractBottomUpParser implements Parser {
     this.reportFailedParse = errorReporting;
   }
 
+  /**
+   * Limits the time or the number of operations the parser spends on a sentence.
+   * If the parser falls behind its budget, it shrinks its beam and only advances
+   * hypotheses whose score is close to the best hypothesis. If the budget is used up,
+   * the best complete parse found so far, or a guess if there is none, is returned.
+   *
+   * @param budget The budget per sentence or null to search without limits.
+   */
+  public void setParseBudget(ParseBudget budget) {
+    this.budget = budget;
+  }
+
+  /**
+   * Retrieves whether the budget forced the parser to shrink its beam or to stop early
+   * while it parsed the last sentence, the returned parses are then less reliable.
+   *
+   * @return true if the last sentence was parsed with a degraded search, false otherwise.
+   */
+  public boolean wasLastParseDegraded() {
+    return degraded;
+  }
+
+  /**
+   * Creates a cache for the evaluations of the specified model which is cleared
+   * whenever the parser starts to parse a new sentence.
+   *
+   * @param model The model which is evaluated by the parser.
+   * @return The cache through which the model should be evaluated.
+   */
+  protected ModelEvaluationCache createEvaluationCache(MaxentModel model) {
+    ModelEvaluationCache cache = new ModelEvaluationCache(model);
+    evaluationCaches.add(cache);
+    return cache;
+  }
+
+  /**
+   * Retrieves the number of contexts the parser evaluated for the last parsed sentence.
+   *
+   * @return The number of evaluated contexts.
+   */
+  public int getContextEvaluationCount() {
+    int count = 0;
+    for (ModelEvaluationCache cache : evaluationCaches) {
+      count += cache.getLookupCount();
+    }
+    return count;
+  }
+
+  /**
+   * Retrieves the number of evaluations the parser computed with its models for the last
+   * parsed sentence. Contexts which are equal are only computed once per sentence.
+   *
+   * @return The number of model evaluations.
+   */
+  public int getModelEvaluationCount() {
+    int count = 0;
+    for (ModelEvaluationCache cache : evaluationCaches) {
+      count += cache.getModelEvaluationCount();
+    }
+    return count;
+  }
+
   /**
    * Assigns parent references for the specified parse so that they
    * are consistent with the children references.
@@ -271,6 +349,13 @@ public abstract class AbstractBottomUpParser implements Parser {
     odh.clear();
     ndh.clear();
     completeParses.clear();
+    for (ModelEvaluationCache cache : evaluationCaches) {
+      cache.clear();
+    }
+    degraded = false;
+    long startTime = budget != null ? System.nanoTime() : 0;
+    long operations = 0;
+    boolean budgetUsedUp = false;
     int derivationStage = 0; //derivation length
     int maxDerivationLength = 2 * tokens.getChildCount() + 3;
     odh.add(tokens);
@@ -278,13 +363,31 @@ public abstract class AbstractBottomUpParser implements Parser {
     double minComplete = 2;
     double bestComplete = -100000; //approximating -infinity/0 in ln domain
     while (odh.size() > 0 && (completeParses.size() < M || (odh.first()).getProb() < minComplete)
-        && derivationStage < maxDerivationLength) {
-      ndh = new TreeSet<>();
+        && derivationStage < maxDerivationLength && !budgetUsedUp) {
+      ndh.clear();
+
+      int beamSize = K;
+      double minProb = Double.NEGATIVE_INFINITY;
+      if (budget != null && derivationStage >= 2) {
+        // the share of the budget which is left must be sufficient for the
+        // share of the derivation which is left, otherwise the beam shrinks
+        double used = budget.getUsedFraction(System.nanoTime() - startTime, operations);
+        double progress = (double) derivationStage / maxDerivationLength;
+        if (used > progress) {
+          double ratio = Math.max(0, (1 - used) / (1 - progress));
+          beamSize = Math.max(1, (int) (K * ratio));
+          minProb = odh.first().getProb() - budget.getMaxScoreGap() * ratio;
+          degraded = true;
+        }
+      }
 
       int derivationRank = 0;
       for (Iterator<Parse> pi = odh.iterator(); pi.hasNext()
-          && derivationRank < K; derivationRank++) { // foreach derivation
+          && derivationRank < beamSize; derivationRank++) { // foreach derivation
         Parse tp = pi.next();
+        if (tp.getProb() < minProb) {
+          break;
+        }
         //TODO: Need to look at this for K-best parsing cases
         /*
          //this parse and the ones which follow will never win, stop advancing.
@@ -342,9 +445,21 @@ public abstract class AbstractBottomUpParser implements Parser {
           advanceTop(tp);
           completeParses.add(tp);
         }
+
+        operations++;
+        // the guess is assigned in stage 2, so the budget only applies afterwards
+        if (budget != null && derivationStage >= 2
+            && budget.getUsedFraction(System.nanoTime() - startTime, operations) >= 1) {
+          budgetUsedUp = true;
+          degraded = true;
+          break;
+        }
       }
       derivationStage++;
-      odh = ndh;
+      // the sets of the stages are reused, the old one becomes the new one of the next stage
+      SortedSet<Parse> advanced = ndh;
+      ndh = odh;
+      odh = advanced;
     }
     if (completeParses.size() == 0) {
       // if (reportFailedParse) System.err.println("Couldn't find parse for: " + tokens);
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import opennlp.tools.ml.model.MaxentModel;
+
+/**
+ * Evaluates a model of a parser and remembers the probabilities of every context it has
+ * seen. The hypotheses in the beam of a parser share most of their structure, so many of
+ * their contexts are equal and are only evaluated once.
+ * <p>
+ * The cache is cleared by the parser for every sentence.
+ */
+public class ModelEvaluationCache {
+
+  private final MaxentModel model;
+
+  private final Map<ContextKey, double[]> probabilities = new HashMap<>();
+
+  private int lookupCount;
+
+  public ModelEvaluationCache(MaxentModel model) {
+    this.model = model;
+  }
+
+  /**
+   * Evaluates the context, the probabilities are only computed if the context
+   * was not evaluated since the cache was cleared.
+   *
+   * @param context the context to evaluate
+   * @param probs the array the probabilities of the outcomes are copied to
+   * @return the given array
+   */
+  public double[] eval(String[] context, double[] probs) {
+    lookupCount++;
+
+    ContextKey key = new ContextKey(context);
+    double[] cached = probabilities.get(key);
+    if (cached == null) {
+      cached = model.eval(context);
+      probabilities.put(key, cached);
+    }
+
+    System.arraycopy(cached, 0, probs, 0, cached.length);
+    return probs;
+  }
+
+  /**
+   * Removes all cached probabilities and resets the counts.
+   */
+  public void clear() {
+    probabilities.clear();
+    lookupCount = 0;
+  }
+
+  /**
+   * Retrieves the number of contexts evaluated since the cache was cleared.
+   *
+   * @return the number of evaluated contexts
+   */
+  public int getLookupCount() {
+    return lookupCount;
+  }
+
+  /**
+   * Retrieves the number of evaluations since the cache was cleared which
+   * were computed by the model.
+   *
+   * @return the number of distinct contexts
+   */
+  public int getModelEvaluationCount() {
+    return probabilities.size();
+  }
+
+  private static class ContextKey {
+
+    private final String[] context;
+    private final int hash;
+
+    private ContextKey(String[] context) {
+      this.context = context;
+      this.hash = Arrays.hashCode(context);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof ContextKey && hash == ((ContextKey) obj).hash
+          && Arrays.equals(context, ((ContextKey) obj).context);
+    }
+  }
+}
@@ -18,6 +18,7 @@
 
 package opennlp.tools.parser;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -66,6 +67,12 @@ public class Parse implements Cloneable, Comparable<Parse> {
    */
   private List<Parse> parts;
 
+  /**
+   * Indicates that the list of parts might be shared with a clone of this parse,
+   * it is copied before it is modified.
+   */
+  private boolean partsShared;
+
   /**
    * The head parse of this parse. A parse can be its own head.
    */
@@ -153,7 +160,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
     this.prob = p;
     this.head = this;
     this.headIndex = index;
-    this.parts = new LinkedList<>();
+    this.parts = new ArrayList<>();
     this.label = null;
     this.parent = null;
   }
@@ -179,8 +186,9 @@ public class Parse implements Cloneable, Comparable<Parse> {
   @Override
   public Object clone() {
     Parse p = new Parse(this.text, this.span, this.type, this.prob, this.head);
-    p.parts = new LinkedList<>();
-    p.parts.addAll(this.parts);
+    p.parts = this.parts;
+    p.partsShared = true;
+    this.partsShared = true;
 
     if (derivation != null) {
       p.derivation = new StringBuffer(100);
@@ -190,6 +198,20 @@ public class Parse implements Cloneable, Comparable<Parse> {
     return (p);
   }
 
+  /**
+   * Retrieves the list of parts to modify it, the list is copied first if it might
+   * be shared with a clone.
+   *
+   * @return the list of parts which is only used by this parse
+   */
+  private List<Parse> modifiableParts() {
+    if (partsShared) {
+      parts = new ArrayList<>(parts);
+      partsShared = false;
+    }
+    return parts;
+  }
+
   /**
    * Clones the right frontier of parse up to the specified node.
    *
@@ -203,7 +225,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
     else {
       Parse c = (Parse) this.clone();
       Parse lc = c.parts.get(parts.size() - 1);
-      c.parts.set(parts.size() - 1,lc.clone(node));
+      c.modifiableParts().set(parts.size() - 1,lc.clone(node));
       return c;
     }
   }
@@ -218,7 +240,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
   public Parse cloneRoot(Parse node, int parseIndex) {
     Parse c = (Parse) this.clone();
     Parse fc = c.parts.get(parseIndex);
-    c.parts.set(parseIndex,fc.clone(node));
+    c.modifiableParts().set(parseIndex,fc.clone(node));
     return c;
   }
 
@@ -332,9 +354,9 @@ public class Parse implements Cloneable, Comparable<Parse> {
         // constituent contains subPart
         else if (ic.contains(sp)) {
           //System.err.println("Parse.insert:con contains subPart");
-          parts.remove(pi);
+          modifiableParts().remove(pi);
           pi--;
-          constituent.parts.add(subPart);
+          constituent.modifiableParts().add(subPart);
           subPart.setParent(constituent);
           //System.err.println("Parse.insert: "+subPart.hashCode()+" -> "+subPart.getParent().hashCode());
           pn = parts.size();
@@ -346,7 +368,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
         }
       }
       //System.err.println("Parse.insert:adding con="+constituent+" to "+this);
-      parts.add(pi, constituent);
+      modifiableParts().add(pi, constituent);
       constituent.setParent(this);
       // System.err.println("Parse.insert: "+constituent.hashCode()+" -> "
       // +constituent.getParent().hashCode());
@@ -506,21 +528,21 @@ public class Parse implements Cloneable, Comparable<Parse> {
   public void setChild(int index, String label) {
     Parse newChild = (Parse) (parts.get(index)).clone();
     newChild.setLabel(label);
-    parts.set(index,newChild);
+    modifiableParts().set(index,newChild);
   }
 
   public void add(Parse daughter, HeadRules rules) {
     if (daughter.prevPunctSet != null) {
-      parts.addAll(daughter.prevPunctSet);
+      modifiableParts().addAll(daughter.prevPunctSet);
     }
-    parts.add(daughter);
+    modifiableParts().add(daughter);
     this.span = new Span(span.getStart(),daughter.getSpan().getEnd());
     this.head = rules.getHead(getChildren(),type);
     this.headIndex = head.headIndex;
   }
 
   public void remove(int index) {
-    parts.remove(index);
+    modifiableParts().remove(index);
     if (! parts.isEmpty()) {
       if (index == 0 || index == parts.size()) { //size is orig last element
         span = new Span((parts.get(0)).span.getStart(),(parts.get(parts.size() - 1)).span.getEnd());
@@ -538,7 +560,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
       adjNode.parts.addAll(node.prevPunctSet);
     }
     adjNode.parts.add(node);
-    parts.set(parseIndex,adjNode);
+    modifiableParts().set(parseIndex,adjNode);
     return adjNode;
   }
 
@@ -559,7 +581,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
       adjNode.parts.addAll(sister.prevPunctSet);
     }
     adjNode.parts.add(sister);
-    parts.set(parts.size() - 1, adjNode);
+    modifiableParts().set(parts.size() - 1, adjNode);
     this.span = new Span(span.getStart(),sister.getSpan().getEnd());
     this.head = rules.getHead(getChildren(),type);
     this.headIndex = head.headIndex;
@@ -575,13 +597,13 @@ public class Parse implements Cloneable, Comparable<Parse> {
         beforeRoot = false;
       }
       else if (beforeRoot) {
-        root.parts.add(ai,node);
-        parts.remove(pi);
+        root.modifiableParts().add(ai,node);
+        modifiableParts().remove(pi);
         pi--;
       }
       else {
-        root.parts.add(node);
-        parts.remove(pi);
+        root.modifiableParts().add(node);
+        modifiableParts().remove(pi);
         pi--;
       }
     }
@@ -792,7 +814,7 @@ public class Parse implements Cloneable, Comparable<Parse> {
       if (children.length == 1 && node.getType().equals(children[0].getType())) {
         int index = node.getParent().parts.indexOf(node);
         children[0].setParent(node.getParent());
-        node.getParent().parts.set(index,children[0]);
+        node.getParent().modifiableParts().set(index,children[0]);
         node.parent = null;
         node.parts = null;
       }
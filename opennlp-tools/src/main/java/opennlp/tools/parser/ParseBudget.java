@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The budget an {@link AbstractBottomUpParser} may spend on a single sentence.
+ * <p>
+ * The budget limits the time and the number of operations, one operation is the
+ * advance of one hypothesis of the beam. If the parser uses its budget faster than it
+ * completes the derivation of the sentence, it shrinks its beam and advances only
+ * the hypotheses whose score is close to the score of the best hypothesis. Once the
+ * budget is used up the parser stops and returns the best parse it has found so far.
+ */
+public class ParseBudget {
+
+  /**
+   * The default maximal difference of the log probability of an advanced hypothesis
+   * to the best hypothesis, when the parser is behind its budget.
+   */
+  public static final double DEFAULT_SCORE_GAP = 5d;
+
+  private final long maxTimeNanos;
+  private final long maxOperations;
+  private final double maxScoreGap;
+
+  /**
+   * Initializes the budget.
+   *
+   * @param maxTime the maximal time per sentence or 0 for no time limit
+   * @param unit the unit of the time
+   * @param maxOperations the maximal number of advanced hypotheses per sentence or 0
+   *                      for no limit
+   * @param maxScoreGap the maximal difference of the log probability of an advanced
+   *                    hypothesis to the best hypothesis, it shrinks with the budget
+   */
+  public ParseBudget(long maxTime, TimeUnit unit, long maxOperations, double maxScoreGap) {
+    if (maxTime < 0 || maxOperations < 0) {
+      throw new IllegalArgumentException("maxTime and maxOperations must not be negative");
+    }
+    if (maxTime == 0 && maxOperations == 0) {
+      throw new IllegalArgumentException("at least one of maxTime or maxOperations must be set");
+    }
+    if (!(maxScoreGap > 0)) {
+      throw new IllegalArgumentException("maxScoreGap must be positive: " + maxScoreGap);
+    }
+
+    this.maxTimeNanos = unit.toNanos(maxTime);
+    this.maxOperations = maxOperations;
+    this.maxScoreGap = maxScoreGap;
+  }
+
+  /**
+   * Initializes a budget which only limits the time per sentence.
+   *
+   * @param maxTime the maximal time per sentence
+   * @param unit the unit of the time
+   */
+  public ParseBudget(long maxTime, TimeUnit unit) {
+    this(maxTime, unit, 0, DEFAULT_SCORE_GAP);
+  }
+
+  /**
+   * Initializes a budget which only limits the number of operations per sentence.
+   *
+   * @param maxOperations the maximal number of advanced hypotheses per sentence
+   */
+  public ParseBudget(long maxOperations) {
+    this(0, TimeUnit.NANOSECONDS, maxOperations, DEFAULT_SCORE_GAP);
+  }
+
+  /**
+   * Computes the fraction of the budget which is used.
+   *
+   * @param elapsedNanos the time spent on the sentence
+   * @param operations the number of operations spent on the sentence
+   * @return the used fraction, 1 or more if the budget is used up
+   */
+  double getUsedFraction(long elapsedNanos, long operations) {
+    double used = 0;
+    if (maxTimeNanos > 0) {
+      used = (double) elapsedNanos / maxTimeNanos;
+    }
+    if (maxOperations > 0) {
+      used = Math.max(used, (double) operations / maxOperations);
+    }
+    return used;
+  }
+
+  public long getMaxTime(TimeUnit unit) {
+    return unit.convert(maxTimeNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public long getMaxOperations() {
+    return maxOperations;
+  }
+
+  public double getMaxScoreGap() {
+    return maxScoreGap;
+  }
+}
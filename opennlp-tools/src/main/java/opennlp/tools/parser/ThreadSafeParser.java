@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * A {@link Parser} which can be shared between threads.
+ * <p>
+ * The models and the head rules of the {@link ParserModel} are shared by all parses,
+ * only the search state (the beam, the probability buffers, the tagger and chunker
+ * sequences) is per call. Every call borrows an idle parser created by the
+ * {@link ParserFactory} from a pool, so at most one parser per concurrent call is
+ * created and none of them duplicates the models.
+ */
+public class ThreadSafeParser implements Parser {
+
+  private final ParserModel model;
+  private final int beamSize;
+  private final double advancePercentage;
+
+  private final Queue<Parser> idleParsers = new ConcurrentLinkedQueue<>();
+
+  public ThreadSafeParser(ParserModel model, int beamSize, double advancePercentage) {
+    this.model = model;
+    this.beamSize = beamSize;
+    this.advancePercentage = advancePercentage;
+
+    // fails early if the model has an unknown parser type
+    idleParsers.add(ParserFactory.create(model, beamSize, advancePercentage));
+  }
+
+  public ThreadSafeParser(ParserModel model) {
+    this(model, AbstractBottomUpParser.defaultBeamSize,
+        AbstractBottomUpParser.defaultAdvancePercentage);
+  }
+
+  private Parser borrowParser() {
+    Parser parser = idleParsers.poll();
+    if (parser == null) {
+      parser = ParserFactory.create(model, beamSize, advancePercentage);
+    }
+    return parser;
+  }
+
+  @Override
+  public Parse[] parse(Parse tokens, int numParses) {
+    Parser parser = borrowParser();
+    try {
+      return parser.parse(tokens, numParses);
+    } finally {
+      idleParsers.add(parser);
+    }
+  }
+
+  @Override
+  public Parse parse(Parse tokens) {
+    Parser parser = borrowParser();
+    try {
+      return parser.parse(tokens);
+    } finally {
+      idleParsers.add(parser);
+    }
+  }
+
+  /**
+   * Parses the sentences of a document in parallel, every sentence is parsed by its
+   * own task on the executor.
+   *
+   * @param sentences the sentences, each a parse containing the tokens with a single parent node
+   * @param numParses the number of parses desired per sentence
+   * @param executor the executor to parse on
+   * @return the parses of every sentence, in the order of the sentences
+   */
+  public Parse[][] parse(List<Parse> sentences, int numParses, ExecutorService executor) {
+    return parseAll(sentences, sentence -> parse(sentence, numParses), executor)
+        .toArray(new Parse[sentences.size()][]);
+  }
+
+  /**
+   * Parses the sentences of a document in parallel and returns the best parse of every
+   * sentence.
+   *
+   * @param sentences the sentences, each a parse containing the tokens with a single parent node
+   * @param executor the executor to parse on
+   * @return the best parse of every sentence, in the order of the sentences
+   *
+   * @see #parse(Parse)
+   */
+  public Parse[] parse(List<Parse> sentences, ExecutorService executor) {
+    return parseAll(sentences, this::parse, executor).toArray(new Parse[sentences.size()]);
+  }
+
+  private static <T> List<T> parseAll(List<Parse> sentences, Function<Parse, T> parser,
+      ExecutorService executor) {
+    List<Future<T>> futures = new ArrayList<>(sentences.size());
+    try {
+      for (Parse sentence : sentences) {
+        futures.add(executor.submit(() -> parser.apply(sentence)));
+      }
+
+      List<T> parses = new ArrayList<>(sentences.size());
+      for (Future<T> future : futures) {
+        parses.add(future.get());
+      }
+      return parses;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while parsing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Exception during parsing: " + e.getMessage(), e);
+    } finally {
+      // stops the remaining sentences if one of them failed
+      for (Future<T> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+}
@@ -36,6 +36,7 @@ import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.parser.AbstractBottomUpParser;
 import opennlp.tools.parser.ChunkSampleStream;
 import opennlp.tools.parser.HeadRules;
+import opennlp.tools.parser.ModelEvaluationCache;
 import opennlp.tools.parser.Parse;
 import opennlp.tools.parser.ParserChunkerFactory;
 import opennlp.tools.parser.ParserEventTypeEnum;
@@ -58,6 +59,9 @@ public class Parser extends AbstractBottomUpParser {
   private MaxentModel buildModel;
   private MaxentModel checkModel;
 
+  private ModelEvaluationCache buildCache;
+  private ModelEvaluationCache checkCache;
+
   private BuildContextGenerator buildContextGenerator;
   private CheckContextGenerator checkContextGenerator;
 
@@ -102,6 +106,8 @@ public class Parser extends AbstractBottomUpParser {
     this.checkModel = checkModel;
     bprobs = new double[buildModel.getNumOutcomes()];
     cprobs = new double[checkModel.getNumOutcomes()];
+    buildCache = createEvaluationCache(buildModel);
+    checkCache = createEvaluationCache(checkModel);
     this.buildContextGenerator = new BuildContextGenerator();
     this.checkContextGenerator = new CheckContextGenerator();
     startTypeMap = new HashMap<>();
@@ -124,9 +130,9 @@ public class Parser extends AbstractBottomUpParser {
 
   @Override
   protected void advanceTop(Parse p) {
-    buildModel.eval(buildContextGenerator.getContext(p.getChildren(), 0), bprobs);
+    buildCache.eval(buildContextGenerator.getContext(p.getChildren(), 0), bprobs);
     p.addProb(Math.log(bprobs[topStartIndex]));
-    checkModel.eval(checkContextGenerator.getContext(p.getChildren(), TOP_NODE, 0, 0), cprobs);
+    checkCache.eval(checkContextGenerator.getContext(p.getChildren(), TOP_NODE, 0, 0), cprobs);
     p.addProb(Math.log(cprobs[completeIndex]));
     p.setType(TOP_NODE);
   }
@@ -166,7 +172,7 @@ public class Parser extends AbstractBottomUpParser {
     int originalAdvanceIndex = mapParseIndex(advanceNodeIndex,children,originalChildren);
     List<Parse> newParsesList = new ArrayList<>(buildModel.getNumOutcomes());
     //call build
-    buildModel.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
+    buildCache.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
     double bprobSum = 0;
     while (bprobSum < probMass) {
       // The largest unadvanced labeling.
@@ -206,7 +212,7 @@ public class Parser extends AbstractBottomUpParser {
       //check
       //String[] context = checkContextGenerator.getContext(newParse1.getChildren(), lastStartType,
       // lastStartIndex, advanceNodeIndex);
-      checkModel.eval(checkContextGenerator.getContext(
+      checkCache.eval(checkContextGenerator.getContext(
           collapsePunctuation(newParse1.getChildren(),punctSet), lastStartType, lastStartIndex,
           advanceNodeIndex), cprobs);
       //System.out.println("check "+lastStartType+" "+cprobs[completeIndex]+" "+cprobs[incompleteIndex]
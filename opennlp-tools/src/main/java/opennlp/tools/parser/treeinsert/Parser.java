@@ -36,6 +36,7 @@ import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.parser.AbstractBottomUpParser;
 import opennlp.tools.parser.ChunkSampleStream;
 import opennlp.tools.parser.HeadRules;
+import opennlp.tools.parser.ModelEvaluationCache;
 import opennlp.tools.parser.Parse;
 import opennlp.tools.parser.ParserChunkerFactory;
 import opennlp.tools.parser.ParserEventTypeEnum;
@@ -79,6 +80,10 @@ public class Parser extends AbstractBottomUpParser {
   private MaxentModel attachModel;
   private MaxentModel checkModel;
 
+  private ModelEvaluationCache buildCache;
+  private ModelEvaluationCache attachCache;
+  private ModelEvaluationCache checkCache;
+
   static boolean checkComplete = false;
 
   private BuildContextGenerator buildContextGenerator;
@@ -125,6 +130,10 @@ public class Parser extends AbstractBottomUpParser {
     this.aprobs = new double[attachModel.getNumOutcomes()];
     this.cprobs = new double[checkModel.getNumOutcomes()];
 
+    this.buildCache = createEvaluationCache(buildModel);
+    this.attachCache = createEvaluationCache(attachModel);
+    this.checkCache = createEvaluationCache(checkModel);
+
     this.doneIndex = buildModel.getIndex(DONE);
     this.sisterAttachIndex = attachModel.getIndex(ATTACH_SISTER);
     this.daughterAttachIndex = attachModel.getIndex(ATTACH_DAUGHTER);
@@ -246,7 +255,7 @@ public class Parser extends AbstractBottomUpParser {
     int originalAdvanceIndex = mapParseIndex(advanceNodeIndex,children,originalChildren);
     List<Parse> newParsesList = new ArrayList<>();
     //call build model
-    buildModel.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
+    buildCache.eval(buildContextGenerator.getContext(children, advanceNodeIndex), bprobs);
     double doneProb = bprobs[doneIndex];
     if (debugOn)
       System.out.println("adi=" + advanceNodeIndex + " " + advanceNode.getType() + "."
@@ -277,8 +286,8 @@ public class Parser extends AbstractBottomUpParser {
           newParse1.addProb(Math.log(bprob));
           newParsesList.add(newParse1);
           if (checkComplete) {
-            cprobs = checkModel.eval(checkContextGenerator.getContext(newNode, children,
-                advanceNodeIndex,false));
+            checkCache.eval(checkContextGenerator.getContext(newNode, children,
+                advanceNodeIndex,false), cprobs);
             if (debugOn) System.out.println("building " + tag + " " + bprob + " c=" + cprobs[completeIndex]);
             if (cprobs[completeIndex] > probMass) { //just complete advances
               setComplete(newNode);
@@ -336,7 +345,7 @@ public class Parser extends AbstractBottomUpParser {
         List<Parse> rf = getRightFrontier(p,punctSet);
         for (int fi = 0,fs = rf.size(); fi < fs; fi++) {
           Parse fn = rf.get(fi);
-          attachModel.eval(attachContextGenerator.getContext(children, advanceNodeIndex, rf, fi), aprobs);
+          attachCache.eval(attachContextGenerator.getContext(children, advanceNodeIndex, rf, fi), aprobs);
           if (debugOn) {
             // List cs = java.util.Arrays.asList(attachContextGenerator.getContext(children,
             //     advanceNodeIndex,rf,fi,punctSet));
@@ -390,8 +399,8 @@ public class Parser extends AbstractBottomUpParser {
               newParse2.addProb(Math.log(prob));
               newParsesList.add(newParse2);
               if (checkComplete) {
-                cprobs = checkModel.eval(
-                    checkContextGenerator.getContext(updatedNode,newKids,advanceNodeIndex,true));
+                checkCache.eval(
+                    checkContextGenerator.getContext(updatedNode,newKids,advanceNodeIndex,true), cprobs);
                 if (cprobs[completeIndex] > probMass) {
                   setComplete(updatedNode);
                   newParse2.addProb(Math.log(cprobs[completeIndex]));
@@ -78,8 +78,9 @@ public class ConfigurablePOSContextGenerator implements POSContextGenerator {
       }
     }
 
-    String cacheKey = index + tagprev + tagprevprev;
+    String cacheKey = null;
     if (contextsCache != null) {
+      cacheKey = index + tagprev + tagprevprev;
       if (wordsKey == tokens) {
         String[] cachedContexts = contextsCache.get(cacheKey);
         if (cachedContexts != null) {
@@ -20,7 +20,6 @@ package opennlp.tools.postag;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import opennlp.tools.dictionary.Dictionary;
 import opennlp.tools.util.Cache;
@@ -36,9 +35,6 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
   private static final int PREFIX_LENGTH = 4;
   private static final int SUFFIX_LENGTH = 4;
 
-  private static Pattern hasCap = Pattern.compile("[A-Z]");
-  private static Pattern hasNum = Pattern.compile("[0-9]");
-
   private Cache<String, String[]> contextsCache;
   private Object wordsKey;
 
@@ -130,8 +126,9 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
     else {
       prev = SB; // Sentence Beginning
     }
-    String cacheKey = index + tagprev + tagprevprev;
+    String cacheKey = null;
     if (contextsCache != null) {
+      cacheKey = index + tagprev + tagprevprev;
       if (wordsKey == tokens) {
         String[] cachedContexts = contextsCache.get(cacheKey);
         if (cachedContexts != null) {
@@ -143,32 +140,38 @@ public class DefaultPOSContextGenerator implements POSContextGenerator {
         wordsKey = tokens;
       }
     }
-    List<String> e = new ArrayList<>();
+    List<String> e = new ArrayList<>(20);
     e.add("default");
     // add the word itself
     e.add("w=" + lex);
 
     if (dict == null || !dict.contains(new StringList(lex))) {
       // do some basic suffix analysis
-      String[] suffs = getSuffixes(lex);
-      for (int i = 0; i < suffs.length; i++) {
-        e.add("suf=" + suffs[i]);
+      for (int li = 0; li < SUFFIX_LENGTH; li++) {
+        e.add("suf=" + lex.substring(Math.max(lex.length() - li - 1, 0)));
       }
 
-      String[] prefs = getPrefixes(lex);
-      for (int i = 0; i < prefs.length; i++) {
-        e.add("pre=" + prefs[i]);
+      for (int li = 0; li < PREFIX_LENGTH; li++) {
+        e.add("pre=" + lex.substring(0, Math.min(li + 1, lex.length())));
       }
       // see if the word has any special characters
       if (lex.indexOf('-') != -1) {
         e.add("h");
       }
 
-      if (hasCap.matcher(lex).find()) {
+      boolean hasCap = false;
+      boolean hasNum = false;
+      for (int ci = 0; ci < lex.length(); ci++) {
+        char c = lex.charAt(ci);
+        hasCap |= c >= 'A' && c <= 'Z';
+        hasNum |= c >= '0' && c <= '9';
+      }
+
+      if (hasCap) {
         e.add("c");
       }
 
-      if (hasNum.matcher(lex).find()) {
+      if (hasNum) {
         e.add("d");
       }
     }
@@ -29,6 +29,10 @@ public class DefaultPOSSequenceValidator implements SequenceValidator<String> {
     this.tagDictionary = tagDictionary;
   }
 
+  TagDictionary getTagDictionary() {
+    return tagDictionary;
+  }
+
   public boolean validSequence(int i, String[] inputSequence,
       String[] outcomesSequence, String outcome) {
     if (tagDictionary == null) {
@@ -17,7 +17,6 @@
 
 package opennlp.tools.postag;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -40,7 +39,7 @@ import opennlp.tools.util.Version;
 import opennlp.tools.util.ext.ExtensionLoader;
 import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
 import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
-import opennlp.tools.util.featuregen.GeneratorFactory;
+import opennlp.tools.util.featuregen.FeatureGeneratorPlan;
 import opennlp.tools.util.model.ArtifactSerializer;
 import opennlp.tools.util.model.UncloseableInputStream;
 
@@ -55,6 +54,7 @@ public class POSTaggerFactory extends BaseToolFactory {
 
   protected Dictionary ngramDictionary;
   private byte[] featureGeneratorBytes;
+  private FeatureGeneratorPlan featureGeneratorPlan;
   private Map<String, Object> resources;
   protected TagDictionary posDictionary;
 
@@ -104,6 +104,7 @@ public class POSTaggerFactory extends BaseToolFactory {
   protected void init(byte[] featureGeneratorBytes, final Map<String, Object> resources,
                       TagDictionary posDictionary) {
     this.featureGeneratorBytes = featureGeneratorBytes;
+    this.featureGeneratorPlan = null;
     this.resources = resources;
     this.posDictionary = posDictionary;
   }
@@ -135,7 +136,9 @@ public class POSTaggerFactory extends BaseToolFactory {
    * is a set of generators contained in the {@link AggregatedFeatureGenerator}.
    *
    * Note:
-   * The generators are created on every call to this method.
+   * The generators are created on every call to this method, but the descriptor is
+   * only compiled once and generators without state are shared, see
+   * {@link FeatureGeneratorPlan}.
    *
    * @return the feature generator or null if there is no descriptor in the model
    */
@@ -150,18 +153,22 @@ public class POSTaggerFactory extends BaseToolFactory {
       featureGeneratorBytes = loadDefaultFeatureGeneratorBytes();
     }
 
-    InputStream descriptorIn = new ByteArrayInputStream(featureGeneratorBytes);
-
     AdaptiveFeatureGenerator generator;
     try {
-      generator = GeneratorFactory.create(descriptorIn, key -> {
-        if (artifactProvider != null) {
-          return artifactProvider.getArtifact(key);
-        }
-        else {
-          return resources.get(key);
+      synchronized (this) {
+        if (featureGeneratorPlan == null) {
+          featureGeneratorPlan = FeatureGeneratorPlan.compile(featureGeneratorBytes, key -> {
+            if (artifactProvider != null) {
+              return artifactProvider.getArtifact(key);
+            }
+            else {
+              return resources.get(key);
+            }
+          });
         }
-      });
+      }
+
+      generator = featureGeneratorPlan.createFeatureGenerator();
     } catch (InvalidFormatException e) {
       // It is assumed that the creation of the feature generation does not
       // fail after it succeeded once during model loading.
@@ -86,6 +86,12 @@ public class POSTaggerME implements POSTagger {
 
   private SequenceValidator<String> sequenceValidator;
 
+  /**
+   * The search which restricts the tags with the tag dictionary or null
+   * if the sequence model is used.
+   */
+  private TagDictionaryBeamSearch tagDictionarySearch;
+
   /**
    * Initializes the current instance with the provided model.
    *
@@ -110,14 +116,30 @@ public class POSTaggerME implements POSTagger {
 
     sequenceValidator = factory.getSequenceValidator();
 
+    MaxentModel posModel = getMaxentModel(model);
+
     if (model.getPosSequenceModel() != null) {
       this.model = model.getPosSequenceModel();
     }
     else {
-      this.model = new opennlp.tools.ml.BeamSearch<>(beamSize,
-          model.getPosModel(), 0);
+      this.model = new opennlp.tools.ml.BeamSearch<>(beamSize, posModel, 0);
     }
 
+    // the default validator only depends on the token, with a beam search over a
+    // maxent model the allowed tags can be looked up once per token
+    if (this.model.getClass() == BeamSearch.class && posModel != null
+        && sequenceValidator.getClass() == DefaultPOSSequenceValidator.class) {
+      tagDictionarySearch = new TagDictionaryBeamSearch(beamSize, posModel,
+          ((DefaultPOSSequenceValidator) sequenceValidator).getTagDictionary());
+    }
+  }
+
+  /**
+   * Retrieves the maxent model of the tagger, or null if it uses a sequence model.
+   */
+  @SuppressWarnings("deprecation")
+  private static MaxentModel getMaxentModel(POSModel model) {
+    return model.getPosModel();
   }
 
   /**
@@ -135,7 +157,14 @@ public class POSTaggerME implements POSTagger {
   }
 
   public String[] tag(String[] sentence, Object[] additionaContext) {
-    bestSequence = model.bestSequence(sentence, additionaContext, contextGen, sequenceValidator);
+    if (tagDictionarySearch != null) {
+      Sequence[] sequences = tagDictionarySearch.bestSequences(1, sentence, additionaContext,
+          contextGen);
+      bestSequence = sequences.length > 0 ? sequences[0] : null;
+    }
+    else {
+      bestSequence = model.bestSequence(sentence, additionaContext, contextGen, sequenceValidator);
+    }
     List<String> t = bestSequence.getOutcomes();
     return t.toArray(new String[t.size()]);
   }
@@ -149,8 +178,7 @@ public class POSTaggerME implements POSTagger {
    * @return At most the specified number of taggings for the specified sentence.
    */
   public String[][] tag(int numTaggings, String[] sentence) {
-    Sequence[] bestSequences = model.bestSequences(numTaggings, sentence, null,
-        contextGen, sequenceValidator);
+    Sequence[] bestSequences = bestSequences(numTaggings, sentence, null);
     String[][] tags = new String[bestSequences.length][];
     for (int si = 0; si < tags.length; si++) {
       List<String> t = bestSequences[si].getOutcomes();
@@ -164,7 +192,17 @@ public class POSTaggerME implements POSTagger {
   }
 
   public Sequence[] topKSequences(String[] sentence, Object[] additionaContext) {
-    return model.bestSequences(size, sentence, additionaContext, contextGen, sequenceValidator);
+    return bestSequences(size, sentence, additionaContext);
+  }
+
+  private Sequence[] bestSequences(int numSequences, String[] sentence,
+      Object[] additionalContext) {
+    if (tagDictionarySearch != null) {
+      return tagDictionarySearch.bestSequences(numSequences, sentence, additionalContext,
+          contextGen);
+    }
+    return model.bestSequences(numSequences, sentence, additionalContext, contextGen,
+        sequenceValidator);
   }
 
   /**
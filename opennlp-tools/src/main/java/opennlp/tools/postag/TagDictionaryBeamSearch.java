@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.postag;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import opennlp.tools.ml.BeamSearch;
+import opennlp.tools.ml.model.MaxentModel;
+import opennlp.tools.util.BeamSearchContextGenerator;
+import opennlp.tools.util.Sequence;
+import opennlp.tools.util.SequenceValidator;
+
+/**
+ * A beam search for the {@link POSTaggerME} which restricts the tags of every token
+ * to the tags of the {@link TagDictionary} before the beam is extended.
+ * <p>
+ * The {@link BeamSearch} asks the {@link DefaultPOSSequenceValidator} for every outcome
+ * of every hypothesis whether the tag is allowed for the token. The allowed tags only
+ * depend on the token, therefore this search looks them up once per token as a list of
+ * outcome indices and only considers these outcomes when the hypotheses are extended.
+ * The found sequences are the same as the ones of the {@link BeamSearch}.
+ */
+final class TagDictionaryBeamSearch extends BeamSearch<String> {
+
+  /**
+   * Accepts every tag, the tags are already restricted by the tag dictionary.
+   */
+  private static final SequenceValidator<String> ALL_TAGS_VALID =
+      (i, sequence, outcomes, outcome) -> true;
+
+  private final TagDictionary tagDictionary;
+
+  private final Map<String, Integer> outcomeIndices = new HashMap<>();
+
+  /**
+   * Marks the allowed outcomes while the outcome indices of a token are collected.
+   */
+  private final boolean[] allowed;
+
+  /**
+   * Initializes the search.
+   *
+   * @param size the size of the beam
+   * @param model the model which assigns the probabilities to the tags
+   * @param tagDictionary the tag dictionary or null if all tags are allowed for every token
+   */
+  TagDictionaryBeamSearch(int size, MaxentModel model, TagDictionary tagDictionary) {
+    super(size, model);
+    this.tagDictionary = tagDictionary;
+
+    for (int i = 0; i < model.getNumOutcomes(); i++) {
+      outcomeIndices.put(model.getOutcome(i), i);
+    }
+
+    allowed = new boolean[model.getNumOutcomes()];
+  }
+
+  @Override
+  protected OutcomeRestriction restrictOutcomes(int index, String[] sequence,
+      Object[] additionalContext) {
+    int[] outcomes = allowedOutcomes(sequence[index]);
+    return outcomes != null ? OutcomeRestriction.allowedOutcomes(outcomes) : null;
+  }
+
+  /**
+   * Retrieves the indices of the outcomes which are allowed for the token.
+   *
+   * @return the indices in ascending order or null if all outcomes are allowed
+   */
+  private int[] allowedOutcomes(String token) {
+    if (tagDictionary == null) {
+      return null;
+    }
+
+    String[] tags = tagDictionary.getTags(token);
+    if (tags == null) {
+      return null;
+    }
+
+    int count = 0;
+    for (String tag : tags) {
+      Integer index = outcomeIndices.get(tag);
+      if (index != null && !allowed[index]) {
+        allowed[index] = true;
+        count++;
+      }
+    }
+
+    int[] outcomes = new int[count];
+    int next = 0;
+    for (int i = 0; next < count; i++) {
+      if (allowed[i]) {
+        outcomes[next++] = i;
+        allowed[i] = false;
+      }
+    }
+    return outcomes;
+  }
+
+  /**
+   * Finds the best tag sequences for the tokens.
+   *
+   * @param numSequences the maximal number of sequences to return
+   * @param sequence the tokens
+   * @param additionalContext the additional context which is passed to the context generator
+   * @param cg the context generator
+   * @return the best sequences, the best one first
+   */
+  Sequence[] bestSequences(int numSequences, String[] sequence, Object[] additionalContext,
+      BeamSearchContextGenerator<String> cg) {
+    return bestSequences(numSequences, sequence, additionalContext, cg, ALL_TAGS_VALID);
+  }
+}
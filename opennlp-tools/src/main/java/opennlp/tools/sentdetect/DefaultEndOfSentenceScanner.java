@@ -31,6 +31,7 @@ import java.util.Set;
 public class DefaultEndOfSentenceScanner implements EndOfSentenceScanner {
 
   private Set<Character> eosCharacters;
+  private final EndOfSentenceCharacterSet eosCharacterSet;
   @Deprecated
   private char[] eosChars;
 
@@ -45,6 +46,7 @@ public class DefaultEndOfSentenceScanner implements EndOfSentenceScanner {
       this.eosCharacters.add(eosChar);
     }
     this.eosChars = eosCharacters;
+    this.eosCharacterSet = new EndOfSentenceCharacterSet(eosCharacters);
   }
 
   public List<Integer> getPositions(String s) {
@@ -58,13 +60,25 @@ public class DefaultEndOfSentenceScanner implements EndOfSentenceScanner {
   public List<Integer> getPositions(char[] cbuf) {
     List<Integer> l = new ArrayList<>();
     for (int i = 0; i < cbuf.length; i++) {
-      if (eosCharacters.contains(cbuf[i])) {
+      if (eosCharacterSet.contains(cbuf[i])) {
         l.add(i);
       }
     }
     return l;
   }
 
+  /**
+   * Scans for the same characters as {@link #getPositions(char[])}. Subclasses
+   * which may override the positions are asked via {@link #getPositions(String)}.
+   */
+  @Override
+  public int[] getPositionArray(CharSequence s) {
+    if (getClass() != DefaultEndOfSentenceScanner.class) {
+      return EndOfSentenceScanner.super.getPositionArray(s);
+    }
+    return eosCharacterSet.positions(s);
+  }
+
   @Deprecated
   public char[] getEndOfSentenceCharacters() {
     return eosChars;
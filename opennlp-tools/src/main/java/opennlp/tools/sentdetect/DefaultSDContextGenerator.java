@@ -45,6 +45,33 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
 
   private Set<Character> eosCharacters;
 
+  private final EndOfSentenceCharacterSet eosCharacterSet;
+
+  /**
+   * Builds the features in {@link #collectFeatures(String, String, String, String, Character)},
+   * it is not shared with subclasses which use {@link #buf}.
+   */
+  private final StringBuilder featureBuilder = new StringBuilder();
+
+  /**
+   * The eos features of the ASCII characters.
+   */
+  private static final String[] ASCII_EOS_FEATURES = new String[128];
+
+  /**
+   * The prefix length features of short prefixes.
+   */
+  private static final String[] LENGTH_FEATURES = new String[64];
+
+  static {
+    for (char c = 0; c < ASCII_EOS_FEATURES.length; c++) {
+      ASCII_EOS_FEATURES[c] = "eos=" + escapeChar(c);
+    }
+    for (int i = 0; i < LENGTH_FEATURES.length; i++) {
+      LENGTH_FEATURES[i] = Integer.toString(i);
+    }
+  }
+
   /**
    * Creates a new <code>SDContextGenerator</code> instance with
    * no induced abbreviations.
@@ -71,6 +98,7 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
     for (char eosChar: eosCharacters) {
       this.eosCharacters.add(eosChar);
     }
+    eosCharacterSet = new EndOfSentenceCharacterSet(eosCharacters);
     buf = new StringBuffer();
     collectFeats = new ArrayList<>();
   }
@@ -118,28 +146,30 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
         collectFeats.add("sp");
       if (position < lastIndex && StringUtil.isWhitespace(sb.charAt(position + 1)))
         collectFeats.add("sn");
-      collectFeats.add("eos=" + escapeChar(sb.charAt(position)));
+      char eosChar = sb.charAt(position);
+      collectFeats.add(eosChar < ASCII_EOS_FEATURES.length
+          ? ASCII_EOS_FEATURES[eosChar] : "eos=" + escapeChar(eosChar));
     }
     int prefixStart = previousSpaceIndex(sb, position);
 
     int c = position;
     { ///assign prefix, stop if you run into a period though otherwise stop at space
       while (--c > prefixStart) {
-        if (eosCharacters.contains(sb.charAt(c))) {
+        if (eosCharacterSet.contains(sb.charAt(c))) {
           prefixStart = c;
           c++; // this gets us out of while loop.
         }
       }
-      prefix = String.valueOf(sb.subSequence(prefixStart, position)).trim();
+      prefix = trimmedString(sb, prefixStart, position);
     }
     int prevStart = previousSpaceIndex(sb, prefixStart);
-    previous = String.valueOf(sb.subSequence(prevStart, prefixStart)).trim();
+    previous = trimmedString(sb, prevStart, prefixStart);
 
     int suffixEnd = nextSpaceIndex(sb, position, lastIndex);
     {
       c = position;
       while (++c < suffixEnd) {
-        if (eosCharacters.contains(sb.charAt(c))) {
+        if (eosCharacterSet.contains(sb.charAt(c))) {
           suffixEnd = c;
           c--; // this gets us out of while loop.
         }
@@ -151,8 +181,8 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
       next = "";
     }
     else {
-      suffix = String.valueOf(sb.subSequence(position + 1, suffixEnd)).trim();
-      next = String.valueOf(sb.subSequence(suffixEnd + 1, nextEnd)).trim();
+      suffix = trimmedString(sb, position + 1, suffixEnd);
+      next = trimmedString(sb, suffixEnd + 1, nextEnd);
     }
 
     collectFeatures(prefix,suffix,previous,next, sb.charAt(position));
@@ -188,12 +218,10 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
    */
   protected void collectFeatures(String prefix, String suffix, String previous,
       String next, Character eosChar) {
-    buf.append("x=");
-    buf.append(prefix);
-    collectFeats.add(buf.toString());
-    buf.setLength(0);
-    if (!prefix.equals("")) {
-      collectFeats.add(Integer.toString(prefix.length()));
+    collectFeats.add(feature("x=", prefix));
+    if (!prefix.isEmpty()) {
+      collectFeats.add(prefix.length() < LENGTH_FEATURES.length
+          ? LENGTH_FEATURES[prefix.length()] : Integer.toString(prefix.length()));
       if (isFirstUpper(prefix)) {
         collectFeats.add("xcap");
       }
@@ -202,11 +230,8 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
       }
     }
 
-    buf.append("v=");
-    buf.append(previous);
-    collectFeats.add(buf.toString());
-    buf.setLength(0);
-    if (!previous.equals("")) {
+    collectFeats.add(feature("v=", previous));
+    if (!previous.isEmpty()) {
       if (isFirstUpper(previous)) {
         collectFeats.add("vcap");
       }
@@ -215,11 +240,8 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
       }
     }
 
-    buf.append("s=");
-    buf.append(suffix);
-    collectFeats.add(buf.toString());
-    buf.setLength(0);
-    if (!suffix.equals("")) {
+    collectFeats.add(feature("s=", suffix));
+    if (!suffix.isEmpty()) {
       if (isFirstUpper(suffix)) {
         collectFeats.add("scap");
       }
@@ -228,11 +250,8 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
       }
     }
 
-    buf.append("n=");
-    buf.append(next);
-    collectFeats.add(buf.toString());
-    buf.setLength(0);
-    if (!next.equals("")) {
+    collectFeats.add(feature("n=", next));
+    if (!next.isEmpty()) {
       if (isFirstUpper(next)) {
         collectFeats.add("ncap");
       }
@@ -242,6 +261,27 @@ public class DefaultSDContextGenerator implements SDContextGenerator {
     }
   }
 
+  private String feature(String name, String value) {
+    featureBuilder.setLength(0);
+    return featureBuilder.append(name).append(value).toString();
+  }
+
+  /**
+   * Creates the string of the specified range without leading and trailing
+   * whitespace in the sense of {@link String#trim()}.
+   */
+  private static String trimmedString(CharSequence sb, int start, int end) {
+    if (start < end) {
+      while (start < end && sb.charAt(start) <= ' ') {
+        start++;
+      }
+      while (end > start && sb.charAt(end - 1) <= ' ') {
+        end--;
+      }
+    }
+    return sb.subSequence(start, end).toString();
+  }
+
   private static boolean isFirstUpper(String s) {
     return Character.isUpperCase(s.charAt(0));
   }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.sentdetect;
+
+import java.util.Arrays;
+
+/**
+ * A set of end of sentence characters which can be tested without boxing,
+ * ASCII characters are looked up in a bitmap and all others in a sorted array.
+ */
+final class EndOfSentenceCharacterSet {
+
+  private final long[] ascii = new long[2];
+  private final char[] nonAscii;
+
+  EndOfSentenceCharacterSet(char[] eosCharacters) {
+    int nonAsciiCount = 0;
+    char[] others = new char[eosCharacters.length];
+    for (char c : eosCharacters) {
+      if (c < 128) {
+        ascii[c >> 6] |= 1L << c;
+      } else {
+        others[nonAsciiCount++] = c;
+      }
+    }
+    nonAscii = Arrays.copyOf(others, nonAsciiCount);
+    Arrays.sort(nonAscii);
+  }
+
+  boolean contains(char c) {
+    if (c < 128) {
+      return (ascii[c >> 6] & (1L << c)) != 0;
+    }
+    return nonAscii.length != 0 && Arrays.binarySearch(nonAscii, c) >= 0;
+  }
+
+  /**
+   * Finds the offsets of all end of sentence characters.
+   *
+   * @param s the characters to scan
+   * @return the offsets in ascending order
+   */
+  int[] positions(CharSequence s) {
+    int[] positions = new int[16];
+    int count = 0;
+    for (int i = 0, length = s.length(); i < length; i++) {
+      if (contains(s.charAt(i))) {
+        if (count == positions.length) {
+          positions = Arrays.copyOf(positions, count * 2);
+        }
+        positions[count++] = i;
+      }
+    }
+    return Arrays.copyOf(positions, count);
+  }
+}
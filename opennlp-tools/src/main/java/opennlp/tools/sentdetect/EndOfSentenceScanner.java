@@ -70,4 +70,20 @@ public interface EndOfSentenceScanner {
    * @return a <code>List</code> of Integer objects.
    */
   List<Integer> getPositions(char[] cbuf);
+
+  /**
+   * The receiver scans the specified characters for sentence ending characters and
+   * returns their offsets without boxing them.
+   *
+   * @param s the characters to scan
+   * @return the offsets in ascending order
+   */
+  default int[] getPositionArray(CharSequence s) {
+    List<Integer> positions = getPositions(s.toString());
+    int[] positionArray = new int[positions.size()];
+    for (int i = 0; i < positionArray.length; i++) {
+      positionArray[i] = positions.get(i);
+    }
+    return positionArray;
+  }
 }
@@ -20,6 +20,7 @@ package opennlp.tools.sentdetect;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -141,13 +142,13 @@ public class SentenceDetectorME implements SentenceDetector {
     return sentences;
   }
 
-  private int getFirstWS(String s, int pos) {
+  static int getFirstWS(String s, int pos) {
     while (pos < s.length() && !StringUtil.isWhitespace(s.charAt(pos)))
       pos++;
     return pos;
   }
 
-  private int getFirstNonWS(String s, int pos) {
+  static int getFirstNonWS(String s, int pos) {
     while (pos < s.length() && StringUtil.isWhitespace(s.charAt(pos)))
       pos++;
     return pos;
@@ -163,41 +164,31 @@ public class SentenceDetectorME implements SentenceDetector {
    */
   public Span[] sentPosDetect(String s) {
     sentProbs.clear();
-    StringBuffer sb = new StringBuffer(s);
-    List<Integer> enders = scanner.getPositions(s);
-    List<Integer> positions = new ArrayList<>(enders.size());
+    int[] enders = scanner.getPositionArray(s);
+    int[] positions = new int[enders.length];
+    int positionCount = 0;
 
-    for (int i = 0, end = enders.size(), index = 0; i < end; i++) {
-      int cint = enders.get(i);
+    for (int i = 0, end = enders.length, index = 0; i < end; i++) {
+      int cint = enders[i];
       // skip over the leading parts of non-token final delimiters
       int fws = getFirstWS(s,cint + 1);
-      if (i + 1 < end && enders.get(i + 1) < fws) {
+      if (i + 1 < end && enders[i + 1] < fws) {
         continue;
       }
-      if (positions.size() > 0 && cint < positions.get(positions.size() - 1)) continue;
+      if (positionCount > 0 && cint < positions[positionCount - 1]) continue;
 
-      double[] probs = model.eval(cgen.getContext(sb, cint));
-      String bestOutcome = model.getBestOutcome(probs);
-
-      if (bestOutcome.equals(SPLIT) && isAcceptableBreak(s, index, cint)) {
+      double prob = evaluateCandidate(s, index, cint);
+      if (prob >= 0) {
         if (index != cint) {
-          if (useTokenEnd) {
-            positions.add(getFirstNonWS(s, getFirstWS(s,cint + 1)));
-          }
-          else {
-            positions.add(getFirstNonWS(s, cint + 1));
-          }
-          sentProbs.add(probs[model.getIndex(bestOutcome)]);
+          positions[positionCount++] = getSentenceStart(s, cint);
+          sentProbs.add(prob);
         }
 
         index = cint + 1;
       }
     }
 
-    int[] starts = new int[positions.size()];
-    for (int i = 0; i < starts.length; i++) {
-      starts[i] = positions.get(i);
-    }
+    int[] starts = Arrays.copyOf(positions, positionCount);
 
     // string does not contain sentence end positions
     if (starts.length == 0) {
@@ -265,6 +256,42 @@ public class SentenceDetectorME implements SentenceDetector {
     return spans;
   }
 
+  EndOfSentenceScanner getEndOfSentenceScanner() {
+    return scanner;
+  }
+
+  /**
+   * Evaluates whether the end of sentence candidate ends a sentence.
+   *
+   * @param s the text
+   * @param index the offset after the last sentence end
+   * @param cint the offset of the candidate
+   * @return the probability of the split or -1 if the candidate does not end a sentence
+   */
+  double evaluateCandidate(String s, int index, int cint) {
+    double[] probs = model.eval(cgen.getContext(s, cint));
+    String bestOutcome = model.getBestOutcome(probs);
+
+    if (bestOutcome.equals(SPLIT) && isAcceptableBreak(s, index, cint)) {
+      return probs[model.getIndex(bestOutcome)];
+    }
+    return -1;
+  }
+
+  /**
+   * Retrieves the offset of the sentence which follows a sentence end.
+   *
+   * @param s the text
+   * @param cint the offset of the end of sentence character
+   * @return the start of the next sentence
+   */
+  int getSentenceStart(String s, int cint) {
+    if (useTokenEnd) {
+      return getFirstNonWS(s, getFirstWS(s,cint + 1));
+    }
+    return getFirstNonWS(s, cint + 1);
+  }
+
   /**
    * Returns the probabilities associated with the most recent
    * calls to sentDetect().
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.sentdetect;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.StringUtil;
+
+/**
+ * Detects the sentences of a text which is read from a {@link Readable}, for example
+ * a {@link java.io.Reader} or a {@link CharBuffer}, and returns their spans. The offsets
+ * of the spans are relative to the start of the whole text.
+ * <p>
+ * The text is read in windows and only a window and the context around the next
+ * end of sentence candidate are kept in memory, regardless of the length of the text or
+ * of its sentences. A candidate is evaluated as soon as the two following whitespace
+ * delimited tokens are read, so the spans are the same as the ones
+ * {@link SentenceDetectorME#sentPosDetect(String)} detects in the whole text. Only
+ * if three consecutive tokens are longer than a window, a candidate is evaluated
+ * with a truncated context.
+ * <p>
+ * {@link SentenceDetectorME#isAcceptableBreak(String, int, int)} is called with the
+ * current window instead of the whole text.
+ */
+public class SentenceSpanStream implements ObjectStream<Span> {
+
+  /**
+   * The default number of characters which are read at once.
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 65536;
+
+  private final SentenceDetectorME detector;
+  private final EndOfSentenceScanner scanner;
+  private final Readable in;
+  private final int windowSize;
+
+  private final CharBuffer readBuffer;
+  private final StringBuilder window = new StringBuilder();
+
+  /**
+   * The offset of the first character of the window in the text.
+   */
+  private int windowStart;
+
+  /**
+   * The offset up to which the end of sentence candidates are evaluated.
+   */
+  private int scanned;
+
+  /**
+   * The offset after the last sentence end.
+   */
+  private int index;
+
+  /**
+   * The start of the current sentence.
+   */
+  private int sentenceStart;
+
+  /**
+   * The start of the current sentence without leading whitespace, -1 if it is not known yet.
+   */
+  private int trimmedSentenceStart = -1;
+
+  private boolean eof;
+  private final Deque<Span> spans = new ArrayDeque<>();
+
+  /**
+   * Initializes the stream.
+   *
+   * @param detector the detector which detects the sentences
+   * @param in the text
+   * @param windowSize the number of characters which are read at once
+   */
+  public SentenceSpanStream(SentenceDetectorME detector, Readable in, int windowSize) {
+    if (windowSize < 64) {
+      throw new IllegalArgumentException("windowSize must be at least 64: " + windowSize);
+    }
+
+    this.detector = detector;
+    this.scanner = detector.getEndOfSentenceScanner();
+    this.in = in;
+    this.windowSize = windowSize;
+    this.readBuffer = CharBuffer.allocate(windowSize);
+  }
+
+  public SentenceSpanStream(SentenceDetectorME detector, Readable in) {
+    this(detector, in, DEFAULT_WINDOW_SIZE);
+  }
+
+  @Override
+  public Span read() throws IOException {
+    while (spans.isEmpty() && !eof) {
+      fill();
+      detect();
+    }
+    return spans.poll();
+  }
+
+  private void fill() throws IOException {
+    int read = 0;
+    while (read < windowSize) {
+      readBuffer.clear();
+      int length = in.read(readBuffer);
+      if (length == -1) {
+        eof = true;
+        break;
+      }
+      readBuffer.flip();
+      window.append(readBuffer);
+      read += length;
+    }
+  }
+
+  private void detect() {
+    String s = window.toString();
+
+    // the candidates before the limit have their full right context
+    int limit;
+    if (eof) {
+      limit = s.length();
+    } else {
+      limit = startOfTokenBoundary(s, s.length(), 3);
+      if (s.length() - limit > windowSize) {
+        limit = s.length() - windowSize;
+      }
+    }
+
+    int[] enders = scanner.getPositionArray(s);
+    for (int i = 0; i < enders.length && enders[i] < limit; i++) {
+      int cint = enders[i];
+      if (windowStart + cint < scanned) {
+        continue;
+      }
+      scanned = windowStart + cint + 1;
+
+      // skip over the leading parts of non-token final delimiters
+      int fws = SentenceDetectorME.getFirstWS(s, cint + 1);
+      if (i + 1 < enders.length && enders[i + 1] < fws) {
+        continue;
+      }
+      if (windowStart + cint < sentenceStart) {
+        continue;
+      }
+
+      double prob = detector.evaluateCandidate(s, Math.max(0, index - windowStart), cint);
+      if (prob >= 0) {
+        if (index != windowStart + cint) {
+          int nextSentenceStart = windowStart + detector.getSentenceStart(s, cint);
+          addSpan(s, nextSentenceStart, prob);
+          sentenceStart = nextSentenceStart;
+          trimmedSentenceStart = -1;
+        }
+        index = windowStart + cint + 1;
+      }
+    }
+
+    if (eof) {
+      // like sentPosDetect the span of a text without a split has no probability
+      addSpan(s, windowStart + s.length(), sentenceStart > 0 ? 1d : 0d);
+      window.setLength(0);
+      return;
+    }
+
+    trimSentenceStart(s);
+
+    // keep the left context of the next candidate
+    int keep = startOfTokenBoundary(s, Math.max(0, Math.min(scanned, windowStart + limit)
+        - windowStart), 3);
+    keep = Math.max(0, Math.max(keep, scanned - windowStart - windowSize));
+    window.delete(0, keep);
+    windowStart += keep;
+  }
+
+  /**
+   * Skips the leading whitespace of the current sentence, the part of the window
+   * which is removed before the start is found is known to be whitespace.
+   */
+  private void trimSentenceStart(String s) {
+    if (trimmedSentenceStart == -1) {
+      int start = Math.max(sentenceStart, windowStart);
+      while (start < windowStart + s.length()
+          && StringUtil.isWhitespace(s.charAt(start - windowStart))) {
+        start++;
+      }
+      if (start < windowStart + s.length()) {
+        trimmedSentenceStart = start;
+      }
+    }
+  }
+
+  private void addSpan(String s, int end, double prob) {
+    trimSentenceStart(s);
+    int start = trimmedSentenceStart != -1 ? trimmedSentenceStart : end;
+
+    while (end > start && end > windowStart
+        && StringUtil.isWhitespace(s.charAt(end - 1 - windowStart))) {
+      end--;
+    }
+
+    if (end > start) {
+      spans.add(prob != 0d ? new Span(start, end, prob) : new Span(start, end));
+    }
+  }
+
+  /**
+   * Finds the start of the n-th last whitespace which is followed by a non-whitespace
+   * character before the specified offset.
+   *
+   * @return the offset of the whitespace or 0 if there are not enough whitespaces
+   */
+  private static int startOfTokenBoundary(String s, int end, int n) {
+    int i = end - 1;
+    while (i > 0) {
+      if (!StringUtil.isWhitespace(s.charAt(i)) && StringUtil.isWhitespace(s.charAt(i - 1))) {
+        i--;
+        while (i > 0 && StringUtil.isWhitespace(s.charAt(i - 1))) {
+          i--;
+        }
+        if (--n == 0) {
+          return i;
+        }
+      }
+      i--;
+    }
+    return 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (in instanceof Closeable) {
+      ((Closeable) in).close();
+    }
+  }
+}
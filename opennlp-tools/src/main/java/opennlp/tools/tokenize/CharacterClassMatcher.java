@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tests whether a string consists only of the characters of a character class. It
+ * replaces a {@link Pattern} of the form <code>^[...]+$</code>, like the alphanumeric
+ * pattern of the {@link TokenizerFactory}, by a lookup in a bitmap of the characters.
+ * Other patterns are matched with the pattern itself.
+ */
+final class CharacterClassMatcher {
+
+  private final Pattern pattern;
+
+  /**
+   * The bitmap of the characters of the class or null if the pattern is used.
+   */
+  private final long[] characters;
+
+  CharacterClassMatcher(Pattern pattern) {
+    this.pattern = pattern;
+    this.characters = compile(pattern);
+  }
+
+  /**
+   * Compiles the character class of a pattern of the form <code>^[...]+$</code> which
+   * only contains literal characters and ranges.
+   *
+   * @return the bitmap of the characters or null if the pattern has another form
+   */
+  private static long[] compile(Pattern pattern) {
+    String regex = pattern.pattern();
+    if (pattern.flags() != 0 || !regex.startsWith("^[") || !regex.endsWith("]+$")
+        || regex.length() < 6) {
+      return null;
+    }
+
+    String characterClass = regex.substring(2, regex.length() - 3);
+    if (characterClass.charAt(0) == '^') {
+      return null;
+    }
+
+    long[] characters = new long[1];
+    for (int i = 0; i < characterClass.length(); i++) {
+      char first = characterClass.charAt(i);
+      char last = first;
+      if (i + 2 < characterClass.length() && characterClass.charAt(i + 1) == '-') {
+        last = characterClass.charAt(i + 2);
+        i += 2;
+        if (last < first || !isLiteral(last)) {
+          return null;
+        }
+      }
+      if (!isLiteral(first)) {
+        return null;
+      }
+
+      if (last >> 6 >= characters.length) {
+        long[] grown = new long[(last >> 6) + 1];
+        System.arraycopy(characters, 0, grown, 0, characters.length);
+        characters = grown;
+      }
+      for (char c = first; c <= last && c >= first; c++) {
+        characters[c >> 6] |= 1L << c;
+      }
+    }
+    return characters;
+  }
+
+  private static boolean isLiteral(char c) {
+    return c != '\\' && c != '[' && c != ']' && c != '&' && c != '-'
+        && !Character.isSurrogate(c);
+  }
+
+  /**
+   * Tests if all characters of the range are in the character class.
+   *
+   * @param s the string
+   * @param start the start of the range
+   * @param end the end of the range, it must be larger than the start
+   * @return true if the range matches the pattern
+   */
+  boolean matches(String s, int start, int end) {
+    if (characters == null) {
+      return pattern.matcher(s.subSequence(start, end)).matches();
+    }
+
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c >> 6 >= characters.length || (characters[c >> 6] & (1L << c)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -19,7 +19,9 @@ package opennlp.tools.tokenize;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import opennlp.tools.util.StringUtil;
@@ -31,6 +33,17 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
 
   protected final Set<String> inducedAbbreviations;
 
+  /**
+   * The precomputed features of the keys used in {@link #createContext(String, int)}.
+   */
+  private static final Map<String, CharFeatures> CHAR_FEATURES = new HashMap<>();
+
+  static {
+    for (String key : new String[] {"p1", "p2", "f1", "f2"}) {
+      CHAR_FEATURES.put(key, new CharFeatures(key));
+    }
+  }
+
   /**
    * Creates a default context generator for tokenizer.
    */
@@ -70,21 +83,19 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
    *         at the specified index.
    */
   protected List<String> createContext(String sentence, int index) {
-    List<String> preds = new ArrayList<>();
-    String prefix = sentence.substring(0, index);
-    String suffix = sentence.substring(index);
-    preds.add("p=" + prefix);
-    preds.add("s=" + suffix);
+    List<String> preds = new ArrayList<>(24);
+    preds.add(feature("p=", sentence, 0, index));
+    preds.add(feature("s=", sentence, index, sentence.length()));
     if (index > 0) {
       addCharPreds("p1", sentence.charAt(index - 1), preds);
       if (index > 1) {
         addCharPreds("p2", sentence.charAt(index - 2), preds);
-        preds.add("p21=" + sentence.charAt(index - 2) + sentence.charAt(index - 1));
+        preds.add(feature("p21=", sentence, index - 2, index));
       }
       else {
         preds.add("p2=bok");
       }
-      preds.add("p1f1=" + sentence.charAt(index - 1) + sentence.charAt(index));
+      preds.add(feature("p1f1=", sentence, index - 1, index + 1));
     }
     else {
       preds.add("p1=bok");
@@ -92,7 +103,7 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
     addCharPreds("f1", sentence.charAt(index), preds);
     if (index + 1 < sentence.length()) {
       addCharPreds("f2", sentence.charAt(index + 1), preds);
-      preds.add("f12=" + sentence.charAt(index) + sentence.charAt(index + 1));
+      preds.add(feature("f12=", sentence, index, index + 2));
     }
     else {
       preds.add("f2=bok");
@@ -113,32 +124,85 @@ public class DefaultTokenContextGenerator implements TokenContextGenerator {
    * Helper function for getContext.
    */
   protected void addCharPreds(String key, char c, List<String> preds) {
-    preds.add(key + "=" + c);
+    CharFeatures features = CHAR_FEATURES.get(key);
+    if (features == null) {
+      features = new CharFeatures(key);
+    }
+
+    preds.add(features.value(c));
     if (Character.isLetter(c)) {
-      preds.add(key + "_alpha");
+      preds.add(features.alpha);
       if (Character.isUpperCase(c)) {
-        preds.add(key + "_caps");
+        preds.add(features.caps);
       }
     }
     else if (Character.isDigit(c)) {
-      preds.add(key + "_num");
+      preds.add(features.num);
     }
     else if (StringUtil.isWhitespace(c)) {
-      preds.add(key + "_ws");
+      preds.add(features.ws);
     }
     else {
       if (c == '.' || c == '?' || c == '!') {
-        preds.add(key + "_eos");
+        preds.add(features.eos);
       }
       else if (c == '`' || c == '"' || c == '\'') {
-        preds.add(key + "_quote");
+        preds.add(features.quote);
       }
       else if (c == '[' || c == '{' || c == '(') {
-        preds.add(key + "_lp");
+        preds.add(features.lp);
       }
       else if (c == ']' || c == '}' || c == ')') {
-        preds.add(key + "_rp");
+        preds.add(features.rp);
       }
     }
   }
+
+  /**
+   * Creates the feature of the name followed by the characters of the range.
+   */
+  private static String feature(String name, String s, int start, int end) {
+    char[] feature = new char[name.length() + end - start];
+    name.getChars(0, name.length(), feature, 0);
+    s.getChars(start, end, feature, name.length());
+    return new String(feature);
+  }
+
+  /**
+   * The features of a character for one key, the value features of ASCII
+   * characters are precomputed.
+   */
+  private static class CharFeatures {
+
+    private final String key;
+    private final String[] asciiValues = new String[128];
+
+    private final String alpha;
+    private final String caps;
+    private final String num;
+    private final String ws;
+    private final String eos;
+    private final String quote;
+    private final String lp;
+    private final String rp;
+
+    private CharFeatures(String key) {
+      this.key = key;
+      for (char c = 0; c < asciiValues.length; c++) {
+        asciiValues[c] = key + "=" + c;
+      }
+      alpha = key + "_alpha";
+      caps = key + "_caps";
+      num = key + "_num";
+      ws = key + "_ws";
+      eos = key + "_eos";
+      quote = key + "_quote";
+      lp = key + "_lp";
+      rp = key + "_rp";
+    }
+
+    private String value(char c) {
+      return c < asciiValues.length ? asciiValues[c] : key + "=" + c;
+    }
+  }
 }
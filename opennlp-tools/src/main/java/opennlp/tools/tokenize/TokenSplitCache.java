@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import opennlp.tools.util.Cache;
+
+/**
+ * A bounded cache from a whitespace delimited token to the tokens the {@link TokenizerME}
+ * splits it into. Most tokens which need to be split, like "don't" or "(e.g.", occur
+ * again and again, with the cache the model is evaluated only for their first occurrence.
+ * <p>
+ * The tokenizer computes the context of a split position only from the whitespace
+ * delimited token itself, therefore the cached splits are equal to the computed ones.
+ * A cache can be shared by tokenizers in different threads, but only by tokenizers
+ * which use the same model.
+ * <p>
+ * The cache is divided into segments which are locked independently, every segment
+ * replaces its oldest entries once it is full.
+ */
+public class TokenSplitCache {
+
+  private static final int MAX_SEGMENT_COUNT = 16;
+
+  private final List<Map<String, TokenSplits>> segments;
+
+  private final int capacity;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+
+  /**
+   * Initializes the cache.
+   *
+   * @param capacity the maximal number of cached tokens
+   */
+  public TokenSplitCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1, but was " + capacity);
+    }
+
+    this.capacity = capacity;
+
+    int segmentCount = Math.min(MAX_SEGMENT_COUNT, capacity);
+    segments = new ArrayList<>(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      segments.add(new Cache<>(capacity / segmentCount));
+    }
+  }
+
+  private Map<String, TokenSplits> segment(String token) {
+    int hash = token.hashCode();
+    return segments.get(((hash ^ (hash >>> 16)) & 0x7fffffff) % segments.size());
+  }
+
+  /**
+   * Retrieves the splits of the token and counts the lookup.
+   *
+   * @return the splits or null if the token is not cached
+   */
+  TokenSplits get(String token) {
+    Map<String, TokenSplits> segment = segment(token);
+    TokenSplits splits;
+    synchronized (segment) {
+      splits = segment.get(token);
+    }
+
+    if (splits != null) {
+      hitCount.increment();
+    }
+    else {
+      missCount.increment();
+    }
+    return splits;
+  }
+
+  void put(String token, TokenSplits splits) {
+    Map<String, TokenSplits> segment = segment(token);
+    synchronized (segment) {
+      segment.put(token, splits);
+    }
+  }
+
+  /**
+   * Removes all tokens from the cache, the statistics are kept.
+   */
+  public void clear() {
+    for (Map<String, TokenSplits> segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /**
+   * Retrieves the number of cached tokens.
+   *
+   * @return the number of cached tokens
+   */
+  public int size() {
+    int size = 0;
+    for (Map<String, TokenSplits> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Retrieves the maximal number of cached tokens.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Retrieves the number of lookups which found the token in the cache.
+   *
+   * @return the number of hits
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Retrieves the number of lookups which did not find the token in the cache.
+   *
+   * @return the number of misses
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Retrieves the fraction of lookups which found the token in the cache.
+   *
+   * @return the hit rate or 0 if there was no lookup
+   */
+  public double getHitRate() {
+    long hits = getHitCount();
+    long lookups = hits + getMissCount();
+    return lookups > 0 ? (double) hits / lookups : 0d;
+  }
+
+  /**
+   * The tokens a whitespace delimited token is split into.
+   */
+  static final class TokenSplits {
+
+    /**
+     * The end offsets of the tokens relative to the start of the whitespace delimited token.
+     */
+    final int[] ends;
+
+    /**
+     * The probabilities of the tokens.
+     */
+    final double[] probs;
+
+    TokenSplits(int[] ends, double[] probs) {
+      this.ends = ends;
+      this.probs = probs;
+    }
+  }
+}
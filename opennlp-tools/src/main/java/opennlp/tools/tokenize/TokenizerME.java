@@ -18,10 +18,9 @@
 package opennlp.tools.tokenize;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -34,6 +33,7 @@ import opennlp.tools.ml.model.MaxentModel;
 import opennlp.tools.tokenize.lang.Factory;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.Span;
+import opennlp.tools.util.StringUtil;
 import opennlp.tools.util.TrainingParameters;
 
 /**
@@ -92,7 +92,7 @@ public class TokenizerME extends AbstractTokenizer {
   @Deprecated
   public static final Pattern alphaNumeric = Pattern.compile(Factory.DEFAULT_ALPHANUMERIC);
 
-  private final Pattern alphanumeric;
+  private final CharacterClassMatcher alphanumeric;
 
   /**
    * The maximum entropy model to use to evaluate contexts.
@@ -111,22 +111,45 @@ public class TokenizerME extends AbstractTokenizer {
   private boolean useAlphaNumericOptimization;
 
   /**
-   * List of probabilities for each token returned from a call to
+   * The probabilities for each token returned from a call to
    * <code>tokenize</code> or <code>tokenizePos</code>.
    */
-  private List<Double> tokProbs;
+  private double[] tokProbs = new double[50];
 
-  private List<Span> newTokens;
+  private Span[] tokens = new Span[50];
+
+  private int tokenCount;
+
+  /**
+   * The buffer for the outcome probabilities of the model.
+   */
+  private final double[] probs;
+
+  /**
+   * The cache of the split tokens or null if tokens are not cached.
+   */
+  private final TokenSplitCache splitCache;
 
   public TokenizerME(TokenizerModel model) {
+    this(model, (TokenSplitCache) null);
+  }
+
+  /**
+   * Initializes the tokenizer with a cache for the splits of the whitespace
+   * delimited tokens. The tokenization is the same as without the cache.
+   *
+   * @param model the tokenizer model
+   * @param splitCache the cache, it must only be shared with tokenizers which use
+   *     the same model, or null to not cache the splits
+   */
+  public TokenizerME(TokenizerModel model, TokenSplitCache splitCache) {
     TokenizerFactory factory = model.getFactory();
-    this.alphanumeric = factory.getAlphaNumericPattern();
+    this.alphanumeric = new CharacterClassMatcher(factory.getAlphaNumericPattern());
     this.cg = factory.getContextGenerator();
     this.model = model.getMaxentModel();
     this.useAlphaNumericOptimization = factory.isUseAlphaNumericOptmization();
-
-    newTokens = new ArrayList<>();
-    tokProbs = new ArrayList<>(50);
+    this.probs = new double[this.model.getNumOutcomes()];
+    this.splitCache = splitCache;
   }
 
   /**
@@ -136,15 +159,14 @@ public class TokenizerME extends AbstractTokenizer {
   public TokenizerME(TokenizerModel model, Factory factory) {
     String languageCode = model.getLanguage();
 
-    this.alphanumeric = factory.getAlphanumeric(languageCode);
+    this.alphanumeric = new CharacterClassMatcher(factory.getAlphanumeric(languageCode));
     this.cg = factory.createTokenContextGenerator(languageCode,
         getAbbreviations(model.getAbbreviations()));
 
     this.model = model.getMaxentModel();
     useAlphaNumericOptimization = model.useAlphaNumericOptimization();
-
-    newTokens = new ArrayList<>();
-    tokProbs = new ArrayList<>(50);
+    this.probs = new double[this.model.getNumOutcomes()];
+    this.splitCache = null;
   }
 
   private static Set<String> getAbbreviations(Dictionary abbreviations) {
@@ -162,11 +184,7 @@ public class TokenizerME extends AbstractTokenizer {
    *     call to tokenize.  If not applicable an empty array is returned.
    */
   public double[] getTokenProbabilities() {
-    double[] tokProbArray = new double[tokProbs.size()];
-    for (int i = 0; i < tokProbArray.length; i++) {
-      tokProbArray[i] = tokProbs.get(i);
-    }
-    return tokProbArray;
+    return Arrays.copyOf(tokProbs, tokenCount);
   }
 
   /**
@@ -177,43 +195,78 @@ public class TokenizerME extends AbstractTokenizer {
    * @return   A span array containing individual tokens as elements.
    */
   public Span[] tokenizePos(String d) {
-    Span[] tokens = WhitespaceTokenizer.INSTANCE.tokenizePos(d);
-    newTokens.clear();
-    tokProbs.clear();
-    for (Span s : tokens) {
-      String tok = d.substring(s.getStart(), s.getEnd());
-      // Can't tokenize single characters
-      if (tok.length() < 2) {
-        newTokens.add(s);
-        tokProbs.add(1d);
-      } else if (useAlphaNumericOptimization() && alphanumeric.matcher(tok).matches()) {
-        newTokens.add(s);
-        tokProbs.add(1d);
-      } else {
-        int start = s.getStart();
-        int end = s.getEnd();
-        final int origStart = s.getStart();
-        double tokenProb = 1.0;
-        for (int j = origStart + 1; j < end; j++) {
-          double[] probs =
-              model.eval(cg.getContext(tok, j - origStart));
-          String best = model.getBestOutcome(probs);
-          tokenProb *= probs[model.getIndex(best)];
-          if (best.equals(TokenizerME.SPLIT)) {
-            newTokens.add(new Span(start, j));
-            tokProbs.add(tokenProb);
-            start = j;
-            tokenProb = 1.0;
+    tokenCount = 0;
+    for (int i = 0, length = d.length(); i < length; i++) {
+      if (!StringUtil.isWhitespace(d.charAt(i))) {
+        int start = i;
+        while (i < length && !StringUtil.isWhitespace(d.charAt(i))) {
+          i++;
+        }
+        tokenize(d, start, i);
+      }
+    }
+
+    return Arrays.copyOf(tokens, tokenCount);
+  }
+
+  /**
+   * Splits the whitespace delimited token between start and end into tokens.
+   */
+  private void tokenize(String d, int start, int end) {
+    // Can't tokenize single characters
+    if (end - start < 2 || useAlphaNumericOptimization()
+        && alphanumeric.matches(d, start, end)) {
+      addToken(start, end, 1d);
+    } else {
+      String tok = d.substring(start, end);
+      final int origStart = start;
+
+      if (splitCache != null) {
+        TokenSplitCache.TokenSplits splits = splitCache.get(tok);
+        if (splits != null) {
+          for (int i = 0; i < splits.ends.length; i++) {
+            addToken(start, origStart + splits.ends[i], splits.probs[i]);
+            start = origStart + splits.ends[i];
           }
+          return;
         }
-        newTokens.add(new Span(start, end));
-        tokProbs.add(tokenProb);
+      }
+
+      final int firstToken = tokenCount;
+      double tokenProb = 1.0;
+      for (int j = origStart + 1; j < end; j++) {
+        // some models add to the given array instead of overwriting it
+        Arrays.fill(this.probs, 0d);
+        double[] probs = model.eval(cg.getContext(tok, j - origStart), this.probs);
+        String best = model.getBestOutcome(probs);
+        tokenProb *= probs[model.getIndex(best)];
+        if (best.equals(TokenizerME.SPLIT)) {
+          addToken(start, j, tokenProb);
+          start = j;
+          tokenProb = 1.0;
+        }
+      }
+      addToken(start, end, tokenProb);
+
+      if (splitCache != null) {
+        int[] ends = new int[tokenCount - firstToken];
+        for (int i = 0; i < ends.length; i++) {
+          ends[i] = tokens[firstToken + i].getEnd() - origStart;
+        }
+        splitCache.put(tok, new TokenSplitCache.TokenSplits(ends,
+            Arrays.copyOfRange(tokProbs, firstToken, tokenCount)));
       }
     }
+  }
 
-    Span[] spans = new Span[newTokens.size()];
-    newTokens.toArray(spans);
-    return spans;
+  private void addToken(int start, int end, double prob) {
+    if (tokenCount == tokens.length) {
+      tokens = Arrays.copyOf(tokens, tokenCount * 2);
+      tokProbs = Arrays.copyOf(tokProbs, tokenCount * 2);
+    }
+    tokens[tokenCount] = new Span(start, end);
+    tokProbs[tokenCount] = prob;
+    tokenCount++;
   }
 
   /**
@@ -38,19 +38,31 @@ public class BrownBigramFeatureGenerator implements AdaptiveFeatureGenerator {
   public void createFeatures(List<String> features, String[] tokens, int index,
       String[] previousOutcomes) {
 
-    List<String> wordClasses = BrownTokenClasses.getWordClasses(tokens[index], brownCluster);
+    int clusterId = brownCluster.lookupClusterId(tokens[index]);
+    if (clusterId == -1) {
+      return;
+    }
+
+    List<String> wordClasses = brownCluster.getPaths(clusterId);
     if (index > 0) {
-      List<String> prevWordClasses = BrownTokenClasses.getWordClasses(tokens[index - 1], brownCluster);
-      for (int i = 0; i < wordClasses.size() && i < prevWordClasses.size(); i++)
-      features.add("p" + "browncluster" + "," + "browncluster" + "="
-          + prevWordClasses.get(i) + "," + wordClasses.get(i));
+      int prevClusterId = brownCluster.lookupClusterId(tokens[index - 1]);
+      if (prevClusterId != -1) {
+        List<String> prevWordClasses = brownCluster.getPaths(prevClusterId);
+        for (int i = 0; i < wordClasses.size() && i < prevWordClasses.size(); i++) {
+          features.add("p" + "browncluster" + "," + "browncluster" + "="
+              + prevWordClasses.get(i) + "," + wordClasses.get(i));
+        }
+      }
     }
 
     if (index + 1 < tokens.length) {
-      List<String> nextWordClasses = BrownTokenClasses.getWordClasses(tokens[index + 1], brownCluster);
-      for (int i = 0; i < wordClasses.size() && i < nextWordClasses.size(); i++) {
-        features.add("browncluster" + "," + "n" + "browncluster" + "="
-            + wordClasses.get(i) + "," + nextWordClasses.get(i));
+      int nextClusterId = brownCluster.lookupClusterId(tokens[index + 1]);
+      if (nextClusterId != -1) {
+        List<String> nextWordClasses = brownCluster.getPaths(nextClusterId);
+        for (int i = 0; i < wordClasses.size() && i < nextWordClasses.size(); i++) {
+          features.add("browncluster" + "," + "n" + "browncluster" + "="
+              + wordClasses.get(i) + "," + nextWordClasses.get(i));
+        }
       }
     }
   }
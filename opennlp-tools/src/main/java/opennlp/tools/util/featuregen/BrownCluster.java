@@ -17,16 +17,18 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -58,30 +60,63 @@ public class BrownCluster implements SerializableArtifact {
     }
   }
 
-  private Map<String, String> tokenToClusterMap = new HashMap<>();
+  private final TokenClusterTable tokenToClusterMap;
+
+  // the paths and the token features are computed once per cluster
+  private final List<List<String>> clusterPaths;
+  private final String[][] clusterFeatures;
 
   /**
    * Generates the token to cluster map from Brown cluster input file.
    * NOTE: we only add those tokens with frequency bigger than 5.
+   * The input can also be a lexicon which was written by {@link #serialize(OutputStream)}.
    * @param in the inputstream
    * @throws IOException the io exception
    */
   public BrownCluster(InputStream in) throws IOException {
 
-    BufferedReader breader =
-        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
-    String line;
-    while ((line = breader.readLine()) != null) {
-      String[] lineArray = tabPattern.split(line);
-      if (lineArray.length == 3) {
-        int freq = Integer.parseInt(lineArray[2]);
-        if (freq > 5 ) {
-          tokenToClusterMap.put(lineArray[1], lineArray[0]);
+    BufferedInputStream bufferedIn = new BufferedInputStream(in);
+
+    if (TokenClusterTable.isBinary(bufferedIn)) {
+      tokenToClusterMap = TokenClusterTable.deserialize(new DataInputStream(bufferedIn));
+    }
+    else {
+      tokenToClusterMap = new TokenClusterTable();
+
+      BufferedReader breader =
+          new BufferedReader(new InputStreamReader(bufferedIn, StandardCharsets.UTF_8));
+      String line;
+      while ((line = breader.readLine()) != null) {
+        String[] lineArray = tabPattern.split(line);
+        if (lineArray.length == 3) {
+          int freq = Integer.parseInt(lineArray[2]);
+          if (freq > 5 ) {
+            tokenToClusterMap.put(lineArray[1], lineArray[0]);
+          }
+        }
+        else if (lineArray.length == 2) {
+          tokenToClusterMap.put(lineArray[0], lineArray[1]);
         }
       }
-      else if (lineArray.length == 2) {
-        tokenToClusterMap.put(lineArray[0], lineArray[1]);
+    }
+
+    // many brown classes share their short paths, every path and feature is stored once
+    Map<String, String> uniquePaths = new HashMap<>();
+    Map<String, String> features = new HashMap<>();
+
+    clusterPaths = new ArrayList<>(tokenToClusterMap.getClusterCount());
+    clusterFeatures = new String[tokenToClusterMap.getClusterCount()][];
+    for (int i = 0; i < clusterFeatures.length; i++) {
+      List<String> paths = BrownTokenClasses.getPaths(tokenToClusterMap.getCluster(i));
+
+      clusterFeatures[i] = new String[paths.size()];
+      for (int j = 0; j < paths.size(); j++) {
+        String path = uniquePaths.computeIfAbsent(paths.get(j), key -> key);
+        paths.set(j, path);
+        clusterFeatures[i][j] = features.computeIfAbsent(path, key -> "browncluster=" + key);
       }
+
+      clusterPaths.add(Collections.unmodifiableList(paths));
     }
   }
 
@@ -91,16 +126,49 @@ public class BrownCluster implements SerializableArtifact {
    * @return the brown class if such token is in the brown cluster map
    */
   public String lookupToken(String string) {
-    return tokenToClusterMap.get(string);
+    int clusterId = tokenToClusterMap.getClusterId(string, false);
+    return clusterId == -1 ? null : tokenToClusterMap.getCluster(clusterId);
   }
 
-  public void serialize(OutputStream out) throws IOException {
-    Writer writer = new BufferedWriter(new OutputStreamWriter(out));
+  /**
+   * Retrieves the id of the brown class of the token.
+   *
+   * @param token the token to look-up
+   * @return the id or -1 if the token is not in the brown cluster map
+   */
+  int lookupClusterId(String token) {
+    return tokenToClusterMap.getClusterId(token, false);
+  }
 
-    for (Map.Entry<String, String> entry : tokenToClusterMap.entrySet()) {
-      writer.write(entry.getKey() + "\t" + entry.getValue() + "\n");
-    }
-    writer.flush();
+  /**
+   * Retrieves the paths of the brown class, see {@link BrownTokenClasses#getWordClasses}.
+   *
+   * @param clusterId the id of the brown class
+   * @return the unmodifiable paths
+   */
+  List<String> getPaths(int clusterId) {
+    return clusterPaths.get(clusterId);
+  }
+
+  /**
+   * Retrieves the features of the {@link BrownTokenFeatureGenerator} for the brown class.
+   *
+   * @param clusterId the id of the brown class
+   * @return the features, must not be modified
+   */
+  String[] getTokenFeatures(int clusterId) {
+    return clusterFeatures[clusterId];
+  }
+
+  /**
+   * Writes the token to cluster map in a compact binary format which
+   * can be read by {@link #BrownCluster(InputStream)}.
+   *
+   * @param out the stream to write to
+   * @throws IOException if writing fails
+   */
+  public void serialize(OutputStream out) throws IOException {
+    tokenToClusterMap.serialize(out);
   }
 
   public Class<?> getArtifactSerializerClass() {
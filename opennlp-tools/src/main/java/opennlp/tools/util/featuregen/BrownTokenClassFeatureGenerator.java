@@ -33,8 +33,13 @@ public class BrownTokenClassFeatureGenerator implements AdaptiveFeatureGenerator
   public void createFeatures(List<String> features, String[] tokens, int index,
       String[] previousOutcomes) {
 
-    String wordShape = FeatureGeneratorUtil.tokenFeature(tokens[index]);
-    List<String> wordClasses = BrownTokenClasses.getWordClasses(tokens[index], brownLexicon);
+    int clusterId = brownLexicon.lookupClusterId(tokens[index]);
+    if (clusterId == -1) {
+      return;
+    }
+
+    String wordShape = FeatureGeneratorUtil.tokenFeature(tokens, index);
+    List<String> wordClasses = brownLexicon.getPaths(clusterId);
 
     for (int i = 0; i < wordClasses.size(); i++) {
       features.add("c," + "browncluster" + "=" + wordShape + "," + wordClasses.get(i));
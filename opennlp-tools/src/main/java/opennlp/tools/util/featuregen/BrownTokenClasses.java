@@ -18,6 +18,7 @@
 package opennlp.tools.util.featuregen;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -35,23 +36,33 @@ public class BrownTokenClasses {
    *
    * @param token the token to be looked up in the brown clustering map
    * @param brownLexicon the Brown clustering map
-   * @return the list of the paths for a token
+   * @return the unmodifiable list of the paths for a token
    */
   public static List<String> getWordClasses(String token, BrownCluster brownLexicon) {
-    if (brownLexicon.lookupToken(token) == null) {
-      return new ArrayList<>(0);
+    int clusterId = brownLexicon.lookupClusterId(token);
+    if (clusterId == -1) {
+      return Collections.emptyList();
     } else {
-      String brownClass = brownLexicon.lookupToken(token);
-      List<String> pathLengthsList = new ArrayList<>();
-      pathLengthsList.add(brownClass.substring(0, Math.min(brownClass.length(), pathLengths[0])));
-      for (int i = 1; i < pathLengths.length; i++) {
-        if (pathLengths[i - 1] < brownClass.length()) {
-          pathLengthsList.add(brownClass.substring(0,
-              Math.min(brownClass.length(), pathLengths[i])));
-        }
+      return brownLexicon.getPaths(clusterId);
+    }
+  }
+
+  /**
+   * Computes the paths of a Brown class.
+   *
+   * @param brownClass the Brown class
+   * @return the paths
+   */
+  static List<String> getPaths(String brownClass) {
+    List<String> pathLengthsList = new ArrayList<>();
+    pathLengthsList.add(brownClass.substring(0, Math.min(brownClass.length(), pathLengths[0])));
+    for (int i = 1; i < pathLengths.length; i++) {
+      if (pathLengths[i - 1] < brownClass.length()) {
+        pathLengthsList.add(brownClass.substring(0,
+            Math.min(brownClass.length(), pathLengths[i])));
       }
-      return pathLengthsList;
     }
+    return pathLengthsList;
   }
 
 }
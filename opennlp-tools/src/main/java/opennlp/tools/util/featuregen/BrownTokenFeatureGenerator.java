@@ -17,6 +17,7 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -33,10 +34,10 @@ public class BrownTokenFeatureGenerator implements AdaptiveFeatureGenerator {
   public void createFeatures(List<String> features, String[] tokens, int index,
       String[] previousOutcomes) {
 
-    List<String> wordClasses = BrownTokenClasses.getWordClasses(tokens[index], brownLexicon);
+    int clusterId = brownLexicon.lookupClusterId(tokens[index]);
 
-    for (int i = 0; i < wordClasses.size(); i++) {
-      features.add("browncluster" + "=" + wordClasses.get(i));
+    if (clusterId != -1) {
+      Collections.addAll(features, brownLexicon.getTokenFeatures(clusterId));
     }
   }
 
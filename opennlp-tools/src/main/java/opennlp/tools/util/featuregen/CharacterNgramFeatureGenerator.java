@@ -17,23 +17,45 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-
-import opennlp.tools.ngram.NGramModel;
-import opennlp.tools.util.StringList;
-import opennlp.tools.util.StringUtil;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@link CharacterNgramFeatureGenerator} uses character ngrams to
  * generate features about each token.
  * The minimum and maximum length can be specified.
+ * <p>
+ * The ngrams are lower cased and every distinct ngram is generated once, the shorter
+ * ngrams first and ngrams of the same length in the order of their position. The
+ * features of recently seen tokens are cached, so a frequent token does not
+ * allocate anything. The generator can be used by multiple threads.
  */
 public class CharacterNgramFeatureGenerator implements AdaptiveFeatureGenerator {
 
+  private static final String PREFIX = "ng=";
+
+  static final int TOKEN_CACHE_SIZE = 1000;
+
   private final int minLength;
   private final int maxLength;
 
+  // the features of recently seen tokens, it is cleared when it is full
+  private final Map<String, String[]> tokenCache = new ConcurrentHashMap<>();
+
+  private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
   public CharacterNgramFeatureGenerator(int minLength, int maxLength) {
+    if (minLength < 1 || maxLength < 1)
+      throw new IllegalArgumentException("minLength and maxLength param must be at least 1. " +
+          "minLength=" + minLength + ", maxLength= " + maxLength);
+
+    if (minLength > maxLength)
+      throw new IllegalArgumentException("minLength param must not be larger than " +
+          "maxLength param. minLength=" + minLength + ", maxLength= " + maxLength);
+
     this.minLength = minLength;
     this.maxLength = maxLength;
   }
@@ -46,12 +68,119 @@ public class CharacterNgramFeatureGenerator implements AdaptiveFeatureGenerator
   }
 
   public void createFeatures(List<String> features, String[] tokens, int index, String[] preds) {
-    NGramModel model = new NGramModel();
-    model.add(tokens[index], minLength, maxLength);
+    String[] tokenFeatures = tokenCache.get(tokens[index]);
+
+    if (tokenFeatures == null) {
+      tokenFeatures = createNgrams(tokens[index], buffers.get());
+
+      // The check and the clear are not atomic, concurrent misses can let the cache grow a
+      // little beyond its size. This is harmless, the cached features never change and a
+      // dropped entry is only computed again.
+      if (tokenCache.size() >= TOKEN_CACHE_SIZE) {
+        tokenCache.clear();
+      }
+      tokenCache.put(tokens[index], tokenFeatures);
+    }
+
+    Collections.addAll(features, tokenFeatures);
+  }
+
+  private String[] createNgrams(String token, Buffers buffers) {
+    int length = token.length();
+
+    buffers.ensureCapacity(length);
+    char[] chars = buffers.chars;
+    int[] hashes = buffers.hashes;
+    int[] slots = buffers.slots;
+
+    for (int i = 0; i < length; i++) {
+      chars[i] = Character.toLowerCase(token.charAt(i));
+    }
+
+    String[] ngrams = new String[countNgrams(length)];
+    int ngramCount = 0;
+
+    for (int ngramLength = minLength; ngramLength <= maxLength && ngramLength <= length;
+        ngramLength++) {
+
+      int positions = length - ngramLength + 1;
+      int mask = Integer.highestOneBit(positions) * 4 - 1;
+      Arrays.fill(slots, 0, mask + 1, 0);
+
+      for (int start = 0; start < positions; start++) {
+        int hash = 0;
+        for (int i = start; i < start + ngramLength; i++) {
+          hash = 31 * hash + chars[i];
+        }
+        hashes[start] = hash;
+
+        // the ngrams of one length are deduplicated with a small hash table of their starts
+        boolean duplicate = false;
+        int slot = (hash ^ hash >>> 16) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+          int other = slots[slot] - 1;
+          if (hashes[other] == hash && equalNgrams(chars, other, start, ngramLength)) {
+            duplicate = true;
+            break;
+          }
+        }
+
+        if (!duplicate) {
+          slots[slot] = start + 1;
+          ngrams[ngramCount++] = ngram(buffers, start, ngramLength);
+        }
+      }
+    }
+
+    return ngramCount == ngrams.length ? ngrams : Arrays.copyOf(ngrams, ngramCount);
+  }
+
+  private int countNgrams(int length) {
+    int count = 0;
+    for (int ngramLength = minLength; ngramLength <= maxLength && ngramLength <= length;
+        ngramLength++) {
+      count += length - ngramLength + 1;
+    }
+    return count;
+  }
+
+  private static boolean equalNgrams(char[] chars, int start1, int start2, int ngramLength) {
+    for (int i = 0; i < ngramLength; i++) {
+      if (chars[start1 + i] != chars[start2 + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String ngram(Buffers buffers, int start, int ngramLength) {
+    System.arraycopy(buffers.chars, start, buffers.feature, PREFIX.length(), ngramLength);
+    return new String(buffers.feature, 0, PREFIX.length() + ngramLength);
+  }
+
+  /**
+   * The buffers of one thread which are reused for every token.
+   */
+  private static class Buffers {
+
+    // the lower cased token and the feature which is built
+    private char[] chars = new char[32];
+    private char[] feature = new char[PREFIX.length() + 32];
+
+    // the hash of every ngram start and a hash table of the ngram starts of one length
+    private int[] hashes = new int[32];
+    private int[] slots = new int[128];
+
+    private Buffers() {
+      PREFIX.getChars(0, PREFIX.length(), feature, 0);
+    }
 
-    for (StringList tokenList : model) {
-      if (tokenList.size() > 0) {
-        features.add("ng=" + StringUtil.toLowerCase(tokenList.getToken(0)));
+    private void ensureCapacity(int length) {
+      if (length > chars.length) {
+        chars = new char[length];
+        feature = Arrays.copyOf(feature, PREFIX.length() + length);
+        hashes = new int[length];
+        slots = new int[Integer.highestOneBit(length) * 8];
       }
     }
   }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.util.List;
+
+import opennlp.tools.util.StringUtil;
+import opennlp.tools.util.java.Experimental;
+import opennlp.tools.util.wordvector.RandomProjectionIndex;
+
+/**
+ * Generates features for the cluster of the word vector of the current token.
+ * <p>
+ * The clusters are the prefixes of the signature of the token in a
+ * {@link RandomProjectionIndex}, tokens with similar vectors are likely to share a
+ * long prefix. Like the paths of Brown clusters, a feature is generated for every
+ * prefix length, e.g. {@code ec4=0110} and {@code ec8=01101001}. A lookup only needs
+ * the signature which is stored in the index.
+ * <p>
+ * Warning: Experimental new feature, see OPENNLP-1144 for details, the API might be changed anytime.
+ */
+@Experimental
+public class EmbeddingClusterFeatureGenerator implements AdaptiveFeatureGenerator {
+
+  private static final String PREFIX = "ec";
+
+  private final RandomProjectionIndex index;
+  private final boolean lowerCase;
+  private final int[] prefixLengths;
+
+  /**
+   * Initializes the feature generator.
+   *
+   * @param index the index with the signatures of the tokens
+   * @param lowerCase true if the tokens of the index are lower case
+   * @param prefixLengths the lengths of the signature prefixes, at most the number of
+   *     bits of the index
+   */
+  public EmbeddingClusterFeatureGenerator(RandomProjectionIndex index, boolean lowerCase,
+      int... prefixLengths) {
+    for (int prefixLength : prefixLengths) {
+      if (prefixLength < 1 || prefixLength > index.getBits()) {
+        throw new IllegalArgumentException("prefix lengths must be between 1 and "
+            + index.getBits() + ", but is " + prefixLength);
+      }
+    }
+
+    this.index = index;
+    this.lowerCase = lowerCase;
+    this.prefixLengths = prefixLengths.clone();
+  }
+
+  @Override
+  public void createFeatures(List<String> features, String[] tokens, int index,
+      String[] previousOutcomes) {
+
+    String token = lowerCase ? StringUtil.toLowerCase(tokens[index]) : tokens[index];
+
+    int signature = this.index.getSignature(token);
+    if (signature == -1) {
+      return;
+    }
+
+    int bits = this.index.getBits();
+
+    char[] cluster = new char[bits];
+    for (int i = 0; i < bits; i++) {
+      cluster[i] = (signature & 1 << (bits - 1 - i)) != 0 ? '1' : '0';
+    }
+
+    for (int prefixLength : prefixLengths) {
+      features.add(PREFIX + prefixLength + "=" + new String(cluster, 0, prefixLength));
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A feature generator descriptor which is compiled once and from which many
+ * feature generators can be created.
+ * <p>
+ * The descriptor is parsed and its generators are created when the plan is compiled.
+ * The generators without any state, like the {@link TokenFeatureGenerator}, are shared by
+ * all feature generators created from the plan. This includes the generators which only
+ * keep a thread safe cache of token features, like the {@link PrefixFeatureGenerator}.
+ * The generators with state, like the
+ * {@link CachedFeatureGenerator}, the {@link WindowFeatureGenerator} or the adaptive
+ * {@link PreviousMapFeatureGenerator}, are created for every feature generator, so the
+ * state of a document stays in the feature generator which processes it.
+ * <p>
+ * If the descriptor contains a generator which is not known to be without state, for
+ * example a custom generator, every feature generator is created from the descriptor.
+ * <p>
+ * A plan can be used by multiple threads.
+ */
+public final class FeatureGeneratorPlan {
+
+  /**
+   * The generators without state or with a thread safe token feature cache, they can be
+   * shared between threads.
+   */
+  private static final Set<Class<?>> STATELESS_GENERATORS = new HashSet<>(Arrays.asList(
+      TokenFeatureGenerator.class, TokenClassFeatureGenerator.class,
+      CharacterNgramFeatureGenerator.class, PrefixFeatureGenerator.class,
+      SuffixFeatureGenerator.class, SentenceFeatureGenerator.class,
+      BigramNameFeatureGenerator.class, TrigramNameFeatureGenerator.class,
+      BrownTokenFeatureGenerator.class, BrownTokenClassFeatureGenerator.class,
+      BrownBigramFeatureGenerator.class, WordClusterFeatureGenerator.class,
+      OutcomePriorFeatureGenerator.class, PosTaggerFeatureGenerator.class));
+
+  private final byte[] descriptor;
+  private final FeatureGeneratorResourceProvider resourceProvider;
+
+  /**
+   * The compiled generators or null if the generators are created from the descriptor.
+   */
+  private final AdaptiveFeatureGenerator prototype;
+
+  private FeatureGeneratorPlan(byte[] descriptor,
+      FeatureGeneratorResourceProvider resourceProvider, AdaptiveFeatureGenerator prototype) {
+    this.descriptor = descriptor;
+    this.resourceProvider = resourceProvider;
+    this.prototype = prototype;
+  }
+
+  /**
+   * Compiles a feature generator descriptor.
+   *
+   * @param descriptor the XML descriptor of the feature generators
+   * @param resourceProvider the provider of the resources the generators need
+   * @return the plan
+   *
+   * @throws IOException if the descriptor is invalid or reading it fails
+   */
+  public static FeatureGeneratorPlan compile(byte[] descriptor,
+      FeatureGeneratorResourceProvider resourceProvider) throws IOException {
+    AdaptiveFeatureGenerator generator =
+        GeneratorFactory.create(new ByteArrayInputStream(descriptor), resourceProvider);
+
+    return new FeatureGeneratorPlan(descriptor.clone(), resourceProvider,
+        isCopyable(generator) ? generator : null);
+  }
+
+  /**
+   * Tests if a generator has no state or if it is a known generator whose state
+   * can be created for a copy.
+   */
+  private static boolean isCopyable(AdaptiveFeatureGenerator generator) {
+    Class<?> generatorClass = generator.getClass();
+    if (STATELESS_GENERATORS.contains(generatorClass)
+        || generatorClass == PreviousMapFeatureGenerator.class
+        || generatorClass == PreviousTwoMapFeatureGenerator.class
+        || generatorClass == DocumentBeginFeatureGenerator.class) {
+      return true;
+    }
+    else if (generatorClass == AggregatedFeatureGenerator.class) {
+      for (AdaptiveFeatureGenerator aggregated :
+          ((AggregatedFeatureGenerator) generator).getGenerators()) {
+        if (!isCopyable(aggregated)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    else if (generatorClass == CachedFeatureGenerator.class) {
+      return isCopyable(((CachedFeatureGenerator) generator).getCachedFeatureGenerator());
+    }
+    else if (generatorClass == WindowFeatureGenerator.class) {
+      return isCopyable(((WindowFeatureGenerator) generator).getGenerator());
+    }
+    return false;
+  }
+
+  /**
+   * Copies a copyable generator, the generators without state are shared.
+   */
+  private static AdaptiveFeatureGenerator copy(AdaptiveFeatureGenerator generator) {
+    Class<?> generatorClass = generator.getClass();
+    if (STATELESS_GENERATORS.contains(generatorClass)) {
+      return generator;
+    }
+    else if (generatorClass == PreviousMapFeatureGenerator.class) {
+      return new PreviousMapFeatureGenerator();
+    }
+    else if (generatorClass == PreviousTwoMapFeatureGenerator.class) {
+      return new PreviousTwoMapFeatureGenerator();
+    }
+    else if (generatorClass == DocumentBeginFeatureGenerator.class) {
+      return new DocumentBeginFeatureGenerator();
+    }
+    else if (generatorClass == AggregatedFeatureGenerator.class) {
+      List<AdaptiveFeatureGenerator> generators = new ArrayList<>();
+      for (AdaptiveFeatureGenerator aggregated :
+          ((AggregatedFeatureGenerator) generator).getGenerators()) {
+        generators.add(copy(aggregated));
+      }
+      return new AggregatedFeatureGenerator(generators);
+    }
+    else if (generatorClass == CachedFeatureGenerator.class) {
+      return new CachedFeatureGenerator(
+          copy(((CachedFeatureGenerator) generator).getCachedFeatureGenerator()));
+    }
+    else if (generatorClass == WindowFeatureGenerator.class) {
+      WindowFeatureGenerator window = (WindowFeatureGenerator) generator;
+      return new WindowFeatureGenerator(copy(window.getGenerator()),
+          window.getPrevWindowSize(), window.getNextWindowSize());
+    }
+    throw new IllegalStateException("Generator cannot be copied: " + generatorClass.getName());
+  }
+
+  /**
+   * Tests if the feature generators created from this plan share their generators
+   * without state.
+   *
+   * @return true if the generators are shared, false if every feature generator
+   *     is created from the descriptor
+   */
+  public boolean isShared() {
+    return prototype != null;
+  }
+
+  /**
+   * Creates a feature generator, it must only be used by one thread.
+   *
+   * @return the feature generator
+   *
+   * @throws IOException if the feature generator has to be created from the
+   *     descriptor and this fails
+   */
+  public AdaptiveFeatureGenerator createFeatureGenerator() throws IOException {
+    if (prototype != null) {
+      return copy(prototype);
+    }
+    return GeneratorFactory.create(new ByteArrayInputStream(descriptor), resourceProvider);
+  }
+}
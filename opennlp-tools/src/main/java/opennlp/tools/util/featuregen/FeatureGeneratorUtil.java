@@ -18,7 +18,9 @@
 
 package opennlp.tools.util.featuregen;
 
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class provide common utilities for feature generation.
@@ -28,7 +30,15 @@ public class FeatureGeneratorUtil {
   private static final String TOKEN_CLASS_PREFIX = "wc";
   private static final String TOKEN_AND_CLASS_PREFIX = "w&c";
 
-  private static final Pattern capPeriod = Pattern.compile("^[A-Z]\\.$");
+  static final int TOKEN_CLASS_CACHE_SIZE = 10000;
+  static final int MAX_CACHED_TOKEN_LENGTH = 32;
+
+  // the classes of recently seen tokens, it is cleared when it is full
+  private static final Map<String, String> tokenClassCache = new ConcurrentHashMap<>();
+
+  // the classes of the tokens of the current sentence of a thread
+  private static final ThreadLocal<SentenceTokenClasses> sentenceTokenClasses =
+      ThreadLocal.withInitial(SentenceTokenClasses::new);
 
   /**
    * Generates a class name for the specified token.
@@ -55,6 +65,39 @@ public class FeatureGeneratorUtil {
    */
   public static String tokenFeature(String token) {
 
+    if (token.length() > MAX_CACHED_TOKEN_LENGTH) {
+      return computeTokenFeature(token);
+    }
+
+    String feat = tokenClassCache.get(token);
+
+    if (feat == null) {
+      feat = computeTokenFeature(token);
+
+      if (tokenClassCache.size() >= TOKEN_CLASS_CACHE_SIZE) {
+        tokenClassCache.clear();
+      }
+      tokenClassCache.put(token, feat);
+    }
+
+    return feat;
+  }
+
+  /**
+   * Generates the class name for the token at the given index, see {@link #tokenFeature(String)}.
+   * The class of every token is computed once per sentence and thread, so the generators
+   * which use the class of the same token share the computation.
+   *
+   * @param tokens the tokens of the sentence
+   * @param index the index of the token
+   * @return The class name that the token belongs in.
+   */
+  public static String tokenFeature(String[] tokens, int index) {
+    return sentenceTokenClasses.get().tokenFeature(tokens, index);
+  }
+
+  private static String computeTokenFeature(String token) {
+
     StringPattern pattern = StringPattern.recognize(token);
 
     String feat;
@@ -101,7 +144,7 @@ public class FeatureGeneratorUtil {
         feat = "ac";
       }
     }
-    else if (capPeriod.matcher(token).find()) {
+    else if (isCapitalPeriod(token)) {
       feat = "cp";
     }
     else if (pattern.isInitialCapitalLetter()) {
@@ -113,4 +156,55 @@ public class FeatureGeneratorUtil {
 
     return (feat);
   }
+
+  /**
+   * Checks if the token is a capital letter followed by a period, like
+   * the pattern {@code ^[A-Z]\.$} which also allows a final line terminator.
+   */
+  private static boolean isCapitalPeriod(String token) {
+    if (token.length() < 2 || token.charAt(0) < 'A' || token.charAt(0) > 'Z'
+        || token.charAt(1) != '.') {
+      return false;
+    }
+
+    switch (token.length()) {
+      case 2:
+        return true;
+      case 3:
+        char terminator = token.charAt(2);
+        return terminator == '\n' || terminator == '\r' || terminator == '\u0085'
+            || terminator == '\u2028' || terminator == '\u2029';
+      case 4:
+        return token.charAt(2) == '\r' && token.charAt(3) == '\n';
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * The classes of the tokens of one sentence. A class is only reused if the token
+   * at the index is the same string instance, so a reused token array is detected.
+   */
+  private static class SentenceTokenClasses {
+
+    private String[] tokens = new String[0];
+    private String[] classes = new String[0];
+
+    private String tokenFeature(String[] sentence, int index) {
+      String token = sentence[index];
+
+      if (index >= tokens.length) {
+        int capacity = Math.max(index + 1, Math.max(sentence.length, tokens.length * 2));
+        tokens = Arrays.copyOf(tokens, capacity);
+        classes = Arrays.copyOf(classes, capacity);
+      }
+
+      if (tokens[index] != token) {
+        tokens[index] = token;
+        classes[index] = FeatureGeneratorUtil.tokenFeature(token);
+      }
+
+      return classes[index];
+    }
+  }
 }
@@ -17,18 +17,26 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PrefixFeatureGenerator implements AdaptiveFeatureGenerator {
 
   static final int DEFAULT_MAX_LENGTH = 4;
-  
+
+  private static final String PREFIX = "pre=";
+
   private final int prefixLength;
-  
+
+  // the features of recently seen tokens, it is cleared when it is full
+  private final Map<String, String[]> tokenCache = new ConcurrentHashMap<>();
+
   public PrefixFeatureGenerator() {
-    prefixLength = DEFAULT_MAX_LENGTH;
+    this(DEFAULT_MAX_LENGTH);
   }
-  
+
   public PrefixFeatureGenerator(int prefixLength) {
     this.prefixLength = prefixLength;
   }
@@ -36,19 +44,33 @@ public class PrefixFeatureGenerator implements AdaptiveFeatureGenerator {
   @Override
   public void createFeatures(List<String> features, String[] tokens, int index,
       String[] previousOutcomes) {
-    String[] prefs = getPrefixes(tokens[index]);
-    for (String pref : prefs) {
-      features.add("pre=" + pref);
+    String[] tokenFeatures = tokenCache.get(tokens[index]);
+
+    if (tokenFeatures == null) {
+      tokenFeatures = getPrefixFeatures(tokens[index]);
+
+      // the bound is approximate, see CharacterNgramFeatureGenerator
+      if (tokenCache.size() >= CharacterNgramFeatureGenerator.TOKEN_CACHE_SIZE) {
+        tokenCache.clear();
+      }
+      tokenCache.put(tokens[index], tokenFeatures);
     }
+
+    Collections.addAll(features, tokenFeatures);
   }
-  
-  private String[] getPrefixes(String lex) {
-      
-    int prefixes = Math.min(prefixLength, lex.length());
-    
+
+  private String[] getPrefixFeatures(String lex) {
+
+    int prefixes = Math.max(0, Math.min(prefixLength, lex.length()));
+
+    // the feature prefix followed by the prefix of the token
+    char[] buffer = new char[PREFIX.length() + prefixes];
+    PREFIX.getChars(0, PREFIX.length(), buffer, 0);
+    lex.getChars(0, prefixes, buffer, PREFIX.length());
+
     String[] prefs = new String[prefixes];
     for (int li = 0; li < prefixes; li++) {
-      prefs[li] = lex.substring(0, Math.min(li + 1, lex.length()));
+      prefs[li] = new String(buffer, 0, PREFIX.length() + li + 1);
     }
     return prefs;
   }
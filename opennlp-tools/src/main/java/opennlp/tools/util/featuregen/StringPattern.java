@@ -37,6 +37,13 @@ public class StringPattern {
   private static final int CONTAINS_LETTERS = 0x1 << 12;
   private static final int CONTAINS_UPPERCASE = 0x1 << 13;
 
+  // The bits which are set and cleared by a char are disjoint, so the effect of a char
+  // of the basic multilingual plane is computed when it is first seen and stored with
+  // the bits to set in the lower half and the bits to clear in the upper half.
+  // Every char clears a bit, 0 marks a char which was not seen yet. Concurrent
+  // updates are harmless because they store the same value.
+  private static final int[] CHAR_CLASSES = new int[Character.MAX_VALUE + 1];
+
   private final int pattern;
 
   private final int digits;
@@ -55,89 +62,126 @@ public class StringPattern {
 
     for (int i = 0; i < token.length(); i++) {
       final char ch = token.charAt(i);
-      final int letterType = Character.getType(ch);
-      boolean isLetter = letterType == Character.UPPERCASE_LETTER ||
-          letterType == Character.LOWERCASE_LETTER ||
-          letterType == Character.TITLECASE_LETTER ||
-          letterType == Character.MODIFIER_LETTER ||
-          letterType == Character.OTHER_LETTER;
-
-      if (isLetter) {
-        pattern |= CONTAINS_LETTERS;
-        pattern &= ~ALL_DIGIT;
-
-        if (letterType == Character.UPPERCASE_LETTER) {
-          if (i == 0) {
-            pattern |= INITAL_CAPITAL_LETTER;
-          }
-
-          pattern |= CONTAINS_UPPERCASE;
-
-          pattern &= ~ALL_LOWERCASE_LETTER;
-        } else {
-          pattern &= ~ALL_CAPITAL_LETTER;
-        }
+
+      int charClass;
+      if (Character.isHighSurrogate(ch) && i + 1 < token.length()
+          && Character.isLowSurrogate(token.charAt(i + 1))) {
+        // the script of a supplementary character is not in the table
+        charClass = classify(ch, token.codePointAt(i));
       } else {
-        // contains chars other than letter, this means
-        // it can not be one of these:
-        pattern &= ~ALL_LETTERS;
-        pattern &= ~ALL_CAPITAL_LETTER;
-        pattern &= ~ALL_LOWERCASE_LETTER;
-
-        if (letterType == Character.DECIMAL_DIGIT_NUMBER) {
-          pattern |= CONTAINS_DIGIT;
-          pattern &= ~(ALL_HIRAGANA | ALL_KATAKANA);
-          digits++;
-        } else {
-          pattern &= ~ALL_DIGIT;
+        charClass = CHAR_CLASSES[ch];
+        if (charClass == 0) {
+          charClass = classify(ch, ch);
+          CHAR_CLASSES[ch] = charClass;
         }
+      }
+
+      int set = charClass & 0xFFFF;
+      if (i > 0) {
+        set &= ~INITAL_CAPITAL_LETTER;
+      }
+
+      pattern = (pattern | set) & ~(charClass >>> 16);
+
+      if ((set & CONTAINS_DIGIT) != 0) {
+        digits++;
+      }
+    }
 
-        switch (ch) {
-          case ',':
-            pattern |= CONTAINS_COMMA;
-            break;
+    return new StringPattern(pattern, digits);
+  }
 
-          case '.':
-            pattern |= CONTAINS_PERIOD;
-            break;
+  /**
+   * Computes the pattern bits which are set and cleared by a char.
+   *
+   * @param ch the char
+   * @param codePoint the code point at the position of the char, it is only
+   *     different from the char for the high surrogate of a surrogate pair
+   * @return the bits to set in the lower half and the bits to clear in the upper half
+   */
+  private static int classify(char ch, int codePoint) {
+    int set = 0;
+    int clear = 0;
 
-          case '/':
-            pattern |= CONTAINS_SLASH;
-            break;
+    final int letterType = Character.getType(ch);
+    boolean isLetter = letterType == Character.UPPERCASE_LETTER ||
+        letterType == Character.LOWERCASE_LETTER ||
+        letterType == Character.TITLECASE_LETTER ||
+        letterType == Character.MODIFIER_LETTER ||
+        letterType == Character.OTHER_LETTER;
 
-          case '-':
-            pattern |= CONTAINS_HYPHEN;
-            break;
+    if (isLetter) {
+      set |= CONTAINS_LETTERS;
+      clear |= ALL_DIGIT;
 
-          default:
-            break;
-        }
+      if (letterType == Character.UPPERCASE_LETTER) {
+        // only set for the first char of a token
+        set |= INITAL_CAPITAL_LETTER;
+
+        set |= CONTAINS_UPPERCASE;
+
+        clear |= ALL_LOWERCASE_LETTER;
+      } else {
+        clear |= ALL_CAPITAL_LETTER;
+      }
+    } else {
+      // contains chars other than letter, this means
+      // it can not be one of these:
+      clear |= ALL_LETTERS;
+      clear |= ALL_CAPITAL_LETTER;
+      clear |= ALL_LOWERCASE_LETTER;
+
+      if (letterType == Character.DECIMAL_DIGIT_NUMBER) {
+        set |= CONTAINS_DIGIT;
+        clear |= ALL_HIRAGANA | ALL_KATAKANA;
+      } else {
+        clear |= ALL_DIGIT;
       }
 
-      // for Japanese...
-      final int codePoint = token.codePointAt(i);
-      final Character.UnicodeScript us = Character.UnicodeScript.of(codePoint);
-      if (us != Character.UnicodeScript.COMMON) {
-        if (us == Character.UnicodeScript.LATIN) {
-          pattern &= ~(ALL_HIRAGANA | ALL_KATAKANA);
-        }
-        else if (us == Character.UnicodeScript.HAN) {
-          pattern &= ~(ALL_HIRAGANA | ALL_KATAKANA | ALL_LOWERCASE_LETTER);
-        }
-        else if (us == Character.UnicodeScript.HIRAGANA) {
-          pattern &= ~(ALL_KATAKANA | ALL_LOWERCASE_LETTER);
-        }
-        else if (us == Character.UnicodeScript.KATAKANA) {
-          pattern &= ~(ALL_HIRAGANA | ALL_LOWERCASE_LETTER);
-        }
+      switch (ch) {
+        case ',':
+          set |= CONTAINS_COMMA;
+          break;
+
+        case '.':
+          set |= CONTAINS_PERIOD;
+          break;
+
+        case '/':
+          set |= CONTAINS_SLASH;
+          break;
+
+        case '-':
+          set |= CONTAINS_HYPHEN;
+          break;
+
+        default:
+          break;
+      }
+    }
+
+    // for Japanese...
+    final Character.UnicodeScript us = Character.UnicodeScript.of(codePoint);
+    if (us != Character.UnicodeScript.COMMON) {
+      if (us == Character.UnicodeScript.LATIN) {
+        clear |= ALL_HIRAGANA | ALL_KATAKANA;
       }
-      else {
-        if (ch != '・' && ch != 'ー' && ch != '〜')
-          pattern &= ~(ALL_HIRAGANA | ALL_KATAKANA);
+      else if (us == Character.UnicodeScript.HAN) {
+        clear |= ALL_HIRAGANA | ALL_KATAKANA | ALL_LOWERCASE_LETTER;
+      }
+      else if (us == Character.UnicodeScript.HIRAGANA) {
+        clear |= ALL_KATAKANA | ALL_LOWERCASE_LETTER;
+      }
+      else if (us == Character.UnicodeScript.KATAKANA) {
+        clear |= ALL_HIRAGANA | ALL_LOWERCASE_LETTER;
       }
     }
+    else {
+      if (ch != '・' && ch != 'ー' && ch != '〜')
+        clear |= ALL_HIRAGANA | ALL_KATAKANA;
+    }
 
-    return new StringPattern(pattern, digits);
+    return set | clear << 16;
   }
 
   /**
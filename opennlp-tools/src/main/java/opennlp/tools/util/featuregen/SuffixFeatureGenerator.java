@@ -17,18 +17,26 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SuffixFeatureGenerator implements AdaptiveFeatureGenerator {
 
   static final int DEFAULT_MAX_LENGTH = 4;
-    
+
+  private static final String PREFIX = "suf=";
+
   private final int suffixLength;
-  
+
+  // the features of recently seen tokens, it is cleared when it is full
+  private final Map<String, String[]> tokenCache = new ConcurrentHashMap<>();
+
   public SuffixFeatureGenerator() {
-    suffixLength = DEFAULT_MAX_LENGTH;
+    this(DEFAULT_MAX_LENGTH);
   }
-  
+
   public SuffixFeatureGenerator(int suffixLength) {
     this.suffixLength = suffixLength;
   }
@@ -36,21 +44,35 @@ public class SuffixFeatureGenerator implements AdaptiveFeatureGenerator {
   @Override
   public void createFeatures(List<String> features, String[] tokens, int index,
       String[] previousOutcomes) {
-    String[] suffs = getSuffixes(tokens[index]);
-    for (String suff : suffs) {
-      features.add("suf=" + suff);
+    String[] tokenFeatures = tokenCache.get(tokens[index]);
+
+    if (tokenFeatures == null) {
+      tokenFeatures = getSuffixFeatures(tokens[index]);
+
+      // the bound is approximate, see CharacterNgramFeatureGenerator
+      if (tokenCache.size() >= CharacterNgramFeatureGenerator.TOKEN_CACHE_SIZE) {
+        tokenCache.clear();
+      }
+      tokenCache.put(tokens[index], tokenFeatures);
     }
+
+    Collections.addAll(features, tokenFeatures);
   }
-  
-  private String[] getSuffixes(String lex) {
-      
-    int suffixes = Math.min(suffixLength, lex.length());
-      
+
+  private String[] getSuffixFeatures(String lex) {
+
+    int suffixes = Math.max(0, Math.min(suffixLength, lex.length()));
+
+    // the feature prefix followed by the suffix of the token
+    char[] buffer = new char[PREFIX.length() + suffixes];
+    PREFIX.getChars(0, PREFIX.length(), buffer, 0);
+
     String[] suffs = new String[suffixes];
     for (int li = 0; li < suffixes; li++) {
-      suffs[li] = lex.substring(Math.max(lex.length() - li - 1, 0));
+      // the buffer already holds the feature prefix
+      lex.getChars(lex.length() - li - 1, lex.length(), buffer, PREFIX.length());
+      suffs[li] = new String(buffer, 0, PREFIX.length() + li + 1);
     }
     return suffs;
   }
-  
 }
@@ -41,7 +41,7 @@ public class TokenClassFeatureGenerator implements AdaptiveFeatureGenerator {
   }
 
   public void createFeatures(List<String> features, String[] tokens, int index, String[] preds) {
-    String wordClass = FeatureGeneratorUtil.tokenFeature(tokens[index]);
+    String wordClass = FeatureGeneratorUtil.tokenFeature(tokens, index);
     features.add(TOKEN_CLASS_PREFIX + "=" + wordClass);
 
     if (generateWordAndClassFeature) {
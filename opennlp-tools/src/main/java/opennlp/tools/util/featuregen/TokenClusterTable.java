@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import opennlp.tools.util.InvalidFormatException;
+
+/**
+ * A compact map from tokens to clusters for the cluster lexicons.
+ * <p>
+ * The characters of all tokens are stored in one shared char array and every distinct
+ * cluster is stored once and referenced by an int id. The tokens are indexed by an open
+ * addressing hash table with linear probing on the {@link String#hashCode()} of the token,
+ * which the looked up strings usually have cached already. Compared to a
+ * {@code HashMap<String, String>} this avoids one string and one map entry per token.
+ * <p>
+ * The table can be written to and read from a binary format, which loads without parsing
+ * and splitting lines. The binary format starts with a zero byte, which allows to tell it
+ * apart from the text lexicons, see {@link #isBinary(BufferedInputStream)}.
+ * <p>
+ * This class is not thread safe while tokens are added, lookups are thread safe.
+ */
+final class TokenClusterTable {
+
+  private static final int MAGIC_NUMBER = 0x00434C53; // "\0CLS"
+  private static final int VERSION = 1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Map<String, Integer> clusterIds = new HashMap<>();
+  private final List<String> clusters = new ArrayList<>();
+
+  private char[] tokenChars = new char[INITIAL_CAPACITY * 8];
+  private int tokenCharsLength;
+
+  // the token of an entry ends where the token of the next entry starts
+  private int[] tokenOffsets = new int[INITIAL_CAPACITY + 1];
+  private int[] tokenHashes = new int[INITIAL_CAPACITY];
+  private int[] entryClusters = new int[INITIAL_CAPACITY];
+  private int size;
+
+  // slot value is entry index + 1, 0 marks an empty slot
+  private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+  /**
+   * Initializes an empty table.
+   */
+  TokenClusterTable() {
+  }
+
+  /**
+   * Maps the token to the cluster, a previous mapping of the token is replaced.
+   *
+   * @param token the token
+   * @param cluster the cluster
+   */
+  void put(String token, String cluster) {
+    Integer clusterId = clusterIds.get(cluster);
+    if (clusterId == null) {
+      clusterId = clusters.size();
+      clusterIds.put(cluster, clusterId);
+      clusters.add(cluster);
+    }
+
+    int hash = spread(token.hashCode());
+    int entry = findEntry(token, false, hash);
+    if (entry != -1) {
+      entryClusters[entry] = clusterId;
+      return;
+    }
+
+    if (size == entryClusters.length) {
+      int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+      tokenOffsets = Arrays.copyOf(tokenOffsets, capacity + 1);
+      tokenHashes = Arrays.copyOf(tokenHashes, capacity);
+      entryClusters = Arrays.copyOf(entryClusters, capacity);
+    }
+
+    if (tokenCharsLength + token.length() > tokenChars.length) {
+      tokenChars = Arrays.copyOf(tokenChars,
+          Math.max(tokenChars.length * 2, tokenCharsLength + token.length()));
+    }
+    token.getChars(0, token.length(), tokenChars, tokenCharsLength);
+    tokenCharsLength += token.length();
+
+    entry = size++;
+    tokenOffsets[entry + 1] = tokenCharsLength;
+    tokenHashes[entry] = hash;
+    entryClusters[entry] = clusterId;
+
+    if (size * 2 > slots.length) {
+      rehash(slots.length * 2);
+    } else {
+      insertSlot(entry);
+    }
+  }
+
+  /**
+   * Retrieves the number of tokens.
+   *
+   * @return the number of tokens
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Retrieves the number of distinct clusters.
+   *
+   * @return the number of clusters
+   */
+  int getClusterCount() {
+    return clusters.size();
+  }
+
+  /**
+   * Retrieves the cluster with the given id.
+   *
+   * @param clusterId the id of the cluster, between 0 and {@link #getClusterCount()}
+   * @return the cluster
+   */
+  String getCluster(int clusterId) {
+    return clusters.get(clusterId);
+  }
+
+  /**
+   * Retrieves the id of the cluster of the token.
+   *
+   * @param token the token
+   * @param lowerCase true if the token should be looked up lower cased, the
+   *     characters are lower cased like {@link opennlp.tools.util.StringUtil#toLowerCase(CharSequence)}
+   *     without creating a lower cased string
+   * @return the cluster id or -1 if the token is not contained
+   */
+  int getClusterId(String token, boolean lowerCase) {
+    int hash;
+    if (lowerCase) {
+      hash = 0;
+      for (int i = 0; i < token.length(); i++) {
+        hash = 31 * hash + Character.toLowerCase(token.charAt(i));
+      }
+    } else {
+      hash = token.hashCode();
+    }
+
+    int entry = findEntry(token, lowerCase, spread(hash));
+    return entry == -1 ? -1 : entryClusters[entry];
+  }
+
+  /**
+   * Retrieves the token of the entry, the entries are numbered in insertion order.
+   */
+  String getToken(int entry) {
+    return new String(tokenChars, tokenOffsets[entry], tokenOffsets[entry + 1] - tokenOffsets[entry]);
+  }
+
+  /**
+   * Retrieves the cluster id of the entry.
+   */
+  int getEntryClusterId(int entry) {
+    return entryClusters[entry];
+  }
+
+  private static int spread(int hash) {
+    // the table size is a power of two
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  private int findEntry(String token, boolean lowerCase, int hash) {
+    int mask = slots.length - 1;
+    for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = slots[slot] - 1;
+      if (tokenHashes[entry] == hash && equalToken(entry, token, lowerCase)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  private boolean equalToken(int entry, String token, boolean lowerCase) {
+    int offset = tokenOffsets[entry];
+    if (tokenOffsets[entry + 1] - offset != token.length()) {
+      return false;
+    }
+
+    for (int i = 0; i < token.length(); i++) {
+      char c = lowerCase ? Character.toLowerCase(token.charAt(i)) : token.charAt(i);
+      if (tokenChars[offset + i] != c) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void insertSlot(int entry) {
+    int mask = slots.length - 1;
+    int slot = tokenHashes[entry] & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = entry + 1;
+  }
+
+  private void rehash(int capacity) {
+    slots = new int[capacity];
+    for (int entry = 0; entry < size; entry++) {
+      insertSlot(entry);
+    }
+  }
+
+  /**
+   * Checks if a lexicon is in the binary format, the stream is reset to its start.
+   *
+   * @param in the stream of the lexicon
+   * @return true if the lexicon is in the binary format
+   * @throws IOException if reading fails
+   */
+  static boolean isBinary(BufferedInputStream in) throws IOException {
+    in.mark(1);
+    int firstByte = in.read();
+    in.reset();
+    return firstByte == MAGIC_NUMBER >>> 24;
+  }
+
+  /**
+   * Writes the table in the binary format, the tokens keep their order.
+   *
+   * @param out the stream to write to, it is not closed
+   * @throws IOException if writing fails
+   */
+  void serialize(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+
+    data.writeInt(MAGIC_NUMBER);
+    data.writeInt(VERSION);
+
+    writeVarInt(data, clusters.size());
+    for (String cluster : clusters) {
+      data.writeUTF(cluster);
+    }
+
+    writeVarInt(data, size);
+    for (int entry = 0; entry < size; entry++) {
+      writeVarInt(data, tokenOffsets[entry + 1] - tokenOffsets[entry]);
+      writeVarInt(data, entryClusters[entry]);
+    }
+
+    // the token characters are written like in modified UTF-8, one to three bytes per char
+    for (int i = 0; i < tokenCharsLength; i++) {
+      char c = tokenChars[i];
+      if (c != 0 && c < 0x80) {
+        data.write(c);
+      } else if (c < 0x800) {
+        data.write(0xC0 | (c >> 6));
+        data.write(0x80 | (c & 0x3F));
+      } else {
+        data.write(0xE0 | (c >> 12));
+        data.write(0x80 | ((c >> 6) & 0x3F));
+        data.write(0x80 | (c & 0x3F));
+      }
+    }
+
+    data.flush();
+  }
+
+  /**
+   * Reads a table which was written by {@link #serialize(OutputStream)}.
+   *
+   * @param data the stream to read from, it is not closed
+   * @return the table
+   * @throws IOException if reading fails or the data has an invalid format
+   */
+  static TokenClusterTable deserialize(DataInputStream data) throws IOException {
+    if (data.readInt() != MAGIC_NUMBER) {
+      throw new InvalidFormatException("The stream does not contain a binary cluster lexicon!");
+    }
+
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new InvalidFormatException("Unsupported cluster lexicon version: " + version);
+    }
+
+    TokenClusterTable table = new TokenClusterTable();
+
+    int clusterCount = readVarInt(data);
+    for (int i = 0; i < clusterCount; i++) {
+      String cluster = data.readUTF();
+      table.clusterIds.put(cluster, i);
+      table.clusters.add(cluster);
+    }
+
+    int size = readVarInt(data);
+    table.tokenOffsets = new int[size + 1];
+    table.tokenHashes = new int[size];
+    table.entryClusters = new int[size];
+
+    for (int entry = 0; entry < size; entry++) {
+      table.tokenOffsets[entry + 1] = table.tokenOffsets[entry] + readVarInt(data);
+      table.entryClusters[entry] = readVarInt(data);
+      if (table.entryClusters[entry] >= clusterCount) {
+        throw new InvalidFormatException("Invalid cluster id: " + table.entryClusters[entry]);
+      }
+    }
+
+    table.tokenCharsLength = table.tokenOffsets[size];
+    table.tokenChars = new char[table.tokenCharsLength];
+    for (int i = 0; i < table.tokenCharsLength; i++) {
+      int b = data.readUnsignedByte();
+      if (b < 0x80) {
+        table.tokenChars[i] = (char) b;
+      } else if ((b & 0xE0) == 0xC0) {
+        table.tokenChars[i] = (char) ((b & 0x1F) << 6 | data.readUnsignedByte() & 0x3F);
+      } else {
+        int b2 = data.readUnsignedByte();
+        table.tokenChars[i] = (char) ((b & 0x0F) << 12 | (b2 & 0x3F) << 6
+            | data.readUnsignedByte() & 0x3F);
+      }
+    }
+
+    table.size = size;
+    int capacity = INITIAL_CAPACITY * 2;
+    while (capacity < size * 2) {
+      capacity *= 2;
+    }
+
+    for (int entry = 0; entry < size; entry++) {
+      int hash = 0;
+      for (int i = table.tokenOffsets[entry]; i < table.tokenOffsets[entry + 1]; i++) {
+        hash = 31 * hash + table.tokenChars[i];
+      }
+      table.tokenHashes[entry] = spread(hash);
+    }
+    table.rehash(capacity);
+
+    return table;
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(DataInputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new InvalidFormatException("Malformed variable length int");
+  }
+}
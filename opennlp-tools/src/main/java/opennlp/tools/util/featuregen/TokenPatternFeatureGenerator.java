@@ -62,22 +62,25 @@ public class TokenPatternFeatureGenerator implements AdaptiveFeatureGenerator {
 
     feats.add("stn=" + tokenized.length);
 
+    // the class of every sub-token is used by up to four features
+    String[] classes = new String[tokenized.length];
+    for (int i = 0; i < tokenized.length; i++) {
+      classes[i] = FeatureGeneratorUtil.tokenFeature(tokenized[i]);
+    }
+
     StringBuilder pattern = new StringBuilder();
 
     for (int i = 0; i < tokenized.length; i++) {
 
       if (i < tokenized.length - 1) {
-        feats.add("pt2=" + FeatureGeneratorUtil.tokenFeature(tokenized[i]) +
-            FeatureGeneratorUtil.tokenFeature(tokenized[i + 1]));
+        feats.add("pt2=" + classes[i] + classes[i + 1]);
       }
 
       if (i < tokenized.length - 2) {
-        feats.add("pt3=" + FeatureGeneratorUtil.tokenFeature(tokenized[i]) +
-            FeatureGeneratorUtil.tokenFeature(tokenized[i + 1]) +
-            FeatureGeneratorUtil.tokenFeature(tokenized[i + 2]));
+        feats.add("pt3=" + classes[i] + classes[i + 1] + classes[i + 2]);
       }
 
-      pattern.append(FeatureGeneratorUtil.tokenFeature(tokenized[i]));
+      pattern.append(classes[i]);
 
       if (!noLetters.matcher(tokenized[i]).find()) {
         feats.add("st=" + StringUtil.toLowerCase(tokenized[i]));
@@ -19,7 +19,11 @@
 package opennlp.tools.util.featuregen;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Generates previous and next features for a given {@link AdaptiveFeatureGenerator}.
@@ -29,17 +33,50 @@ import java.util.List;
  * Current token is always included unchanged
  * Previous tokens are prefixed with p distance
  * Next tokens are prefix with n distance
+ *
+ * If the features of the wrapped generator only depend on the tokens of the sentence,
+ * the features of every token are generated once per sentence and the prefixed
+ * features of every window position are remembered until the next sentence.
  */
 public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
 
   public static final String PREV_PREFIX = "p";
   public static final String NEXT_PREFIX = "n";
 
+  /**
+   * The generators whose features only depend on the tokens and the index.
+   */
+  private static final Set<Class<?>> SENTENCE_SCOPED_GENERATORS = new HashSet<>(Arrays.asList(
+      TokenFeatureGenerator.class, TokenClassFeatureGenerator.class,
+      TokenPatternFeatureGenerator.class, CharacterNgramFeatureGenerator.class,
+      PrefixFeatureGenerator.class, SuffixFeatureGenerator.class,
+      SentenceFeatureGenerator.class, BigramNameFeatureGenerator.class,
+      TrigramNameFeatureGenerator.class, BrownTokenFeatureGenerator.class,
+      BrownTokenClassFeatureGenerator.class, BrownBigramFeatureGenerator.class,
+      WordClusterFeatureGenerator.class, OutcomePriorFeatureGenerator.class,
+      EmbeddingClusterFeatureGenerator.class));
+
   private final AdaptiveFeatureGenerator generator;
 
   private final int prevWindowSize;
   private final int nextWindowSize;
 
+  private final boolean memoize;
+
+  /**
+   * The tokens of the memoized sentence.
+   */
+  private String[] sentence;
+
+  /**
+   * The features of every token of the sentence, the first array contains the
+   * features of the token itself and the others the prefixed features of the
+   * previous and the next window positions.
+   */
+  private String[][][] sentenceFeatures;
+
+  private final List<String> windowFeatures = new ArrayList<>();
+
   /**
    * Initializes the current instance with the given parameters.
    *
@@ -51,6 +88,33 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
     this.generator = generator;
     this.prevWindowSize = prevWindowSize;
     this.nextWindowSize = nextWindowSize;
+    this.memoize = isSentenceScoped(generator);
+  }
+
+  /**
+   * Tests if the features of a generator only depend on the tokens and the index. The
+   * features of such a generator do not change within a sentence.
+   *
+   * @param generator the generator to test
+   * @return true if the features only depend on the tokens and the index
+   */
+  public static boolean isSentenceScoped(AdaptiveFeatureGenerator generator) {
+    if (generator instanceof AggregatedFeatureGenerator) {
+      for (AdaptiveFeatureGenerator aggregated :
+          ((AggregatedFeatureGenerator) generator).getGenerators()) {
+        if (!isSentenceScoped(aggregated)) {
+          return false;
+        }
+      }
+      return generator.getClass() == AggregatedFeatureGenerator.class;
+    }
+    else if (generator.getClass() == CachedFeatureGenerator.class) {
+      return isSentenceScoped(((CachedFeatureGenerator) generator).getCachedFeatureGenerator());
+    }
+    else if (generator.getClass() == WindowFeatureGenerator.class) {
+      return ((WindowFeatureGenerator) generator).memoize;
+    }
+    return SENTENCE_SCOPED_GENERATORS.contains(generator.getClass());
   }
 
   /**
@@ -84,15 +148,20 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
   }
 
   public void createFeatures(List<String> features, String[] tokens, int index, String[] preds) {
+    if (memoize) {
+      createMemoizedFeatures(features, tokens, index, preds);
+      return;
+    }
+
     // current features
     generator.createFeatures(features, tokens, index, preds);
 
     // previous features
     for (int i = 1; i < prevWindowSize + 1; i++) {
       if (index - i >= 0) {
-        List<String> prevFeatures = new ArrayList<>();
-        generator.createFeatures(prevFeatures, tokens, index - i, preds);
-        for (String prevFeature : prevFeatures) {
+        windowFeatures.clear();
+        generator.createFeatures(windowFeatures, tokens, index - i, preds);
+        for (String prevFeature : windowFeatures) {
           features.add(PREV_PREFIX + i + prevFeature);
         }
       }
@@ -101,20 +170,87 @@ public class WindowFeatureGenerator implements AdaptiveFeatureGenerator {
     // next features
     for (int i = 1; i < nextWindowSize + 1; i++) {
       if (i + index < tokens.length) {
-        List<String> nextFeatures = new ArrayList<>();
-        generator.createFeatures(nextFeatures, tokens, index + i, preds);
-        for (String nextFeature : nextFeatures) {
+        windowFeatures.clear();
+        generator.createFeatures(windowFeatures, tokens, index + i, preds);
+        for (String nextFeature : windowFeatures) {
           features.add(NEXT_PREFIX + i + nextFeature);
         }
       }
     }
   }
 
+  private void createMemoizedFeatures(List<String> features, String[] tokens, int index,
+      String[] preds) {
+    if (tokens != sentence) {
+      sentence = tokens;
+      sentenceFeatures = new String[tokens.length][][];
+    }
+
+    // current features
+    Collections.addAll(features, windowFeatures(tokens, index, 0, preds));
+
+    // previous features
+    for (int i = 1; i < prevWindowSize + 1 && index - i >= 0; i++) {
+      Collections.addAll(features, windowFeatures(tokens, index - i, i, preds));
+    }
+
+    // next features
+    for (int i = 1; i < nextWindowSize + 1 && i + index < tokens.length; i++) {
+      Collections.addAll(features, windowFeatures(tokens, index + i, prevWindowSize + i, preds));
+    }
+  }
+
+  /**
+   * Retrieves the features of a token for a window position, the position is 0 for
+   * the token itself, followed by the previous and the next positions.
+   */
+  private String[] windowFeatures(String[] tokens, int index, int position, String[] preds) {
+    String[][] tokenFeatures = sentenceFeatures[index];
+    if (tokenFeatures == null) {
+      windowFeatures.clear();
+      generator.createFeatures(windowFeatures, tokens, index, preds);
+
+      tokenFeatures = new String[1 + prevWindowSize + nextWindowSize][];
+      tokenFeatures[0] = windowFeatures.toArray(new String[windowFeatures.size()]);
+      sentenceFeatures[index] = tokenFeatures;
+    }
+
+    String[] positionFeatures = tokenFeatures[position];
+    if (positionFeatures == null) {
+      String prefix = position <= prevWindowSize ? PREV_PREFIX + position
+          : NEXT_PREFIX + (position - prevWindowSize);
+
+      positionFeatures = new String[tokenFeatures[0].length];
+      for (int i = 0; i < positionFeatures.length; i++) {
+        positionFeatures[i] = prefix + tokenFeatures[0][i];
+      }
+      tokenFeatures[position] = positionFeatures;
+    }
+    return positionFeatures;
+  }
+
+  /**
+   * @return the generator which is applied to the window
+   */
+  public AdaptiveFeatureGenerator getGenerator() {
+    return generator;
+  }
+
+  int getPrevWindowSize() {
+    return prevWindowSize;
+  }
+
+  int getNextWindowSize() {
+    return nextWindowSize;
+  }
+
   public void updateAdaptiveData(String[] tokens, String[] outcomes) {
+    sentence = null;
     generator.updateAdaptiveData(tokens, outcomes);
   }
 
   public void clearAdaptiveData() {
+    sentence = null;
     generator.clearAdaptiveData();
   }
 
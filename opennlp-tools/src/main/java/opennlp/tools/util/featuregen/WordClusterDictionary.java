@@ -17,17 +17,14 @@
 
 package opennlp.tools.util.featuregen;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
 
 import opennlp.tools.util.model.ArtifactSerializer;
 import opennlp.tools.util.model.SerializableArtifact;
@@ -45,38 +42,82 @@ public class WordClusterDictionary implements SerializableArtifact {
     }
   }
 
-  private Map<String, String> tokenToClusterMap = new HashMap<>();
+  private final TokenClusterTable tokenToClusterMap;
 
   /**
-   * Read word2vec and clark clustering style lexicons.
+   * Read word2vec and clark clustering style lexicons, or a lexicon
+   * which was written by {@link #serialize(OutputStream)}.
    * @param in the inputstream
    * @throws IOException the io exception
    */
   public WordClusterDictionary(InputStream in) throws IOException {
-    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    BufferedInputStream bufferedIn = new BufferedInputStream(in);
+
+    if (TokenClusterTable.isBinary(bufferedIn)) {
+      tokenToClusterMap = TokenClusterTable.deserialize(new DataInputStream(bufferedIn));
+      return;
+    }
+
+    tokenToClusterMap = new TokenClusterTable();
+
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(bufferedIn, StandardCharsets.UTF_8));
     String line;
     while ((line = reader.readLine()) != null) {
       String[] parts = line.split(" ");
       if (parts.length == 3) {
-        tokenToClusterMap.put(parts[0], parts[1].intern());
+        tokenToClusterMap.put(parts[0], parts[1]);
       } else if (parts.length == 2) {
-        tokenToClusterMap.put(parts[0], parts[1].intern());
+        tokenToClusterMap.put(parts[0], parts[1]);
       }
     }
   }
 
   public String lookupToken(String string) {
-    return tokenToClusterMap.get(string);
+    int clusterId = tokenToClusterMap.getClusterId(string, false);
+    return clusterId == -1 ? null : tokenToClusterMap.getCluster(clusterId);
   }
 
-  public void serialize(OutputStream out) throws IOException {
-    Writer writer = new BufferedWriter(new OutputStreamWriter(out));
+  /**
+   * Retrieves the id of the cluster of the token.
+   *
+   * @param token the token to look-up
+   * @param lowerCase true if the token should be looked up lower cased
+   * @return the id or -1 if the token is not in the dictionary
+   */
+  int lookupClusterId(String token, boolean lowerCase) {
+    return tokenToClusterMap.getClusterId(token, lowerCase);
+  }
 
-    for (Map.Entry<String, String> entry : tokenToClusterMap.entrySet()) {
-      writer.write(entry.getKey() + " " + entry.getValue() + "\n");
-    }
+  /**
+   * Retrieves the number of distinct clusters, the cluster ids are
+   * between 0 and this number.
+   *
+   * @return the number of clusters
+   */
+  int getClusterCount() {
+    return tokenToClusterMap.getClusterCount();
+  }
 
-    writer.flush();
+  /**
+   * Retrieves the cluster with the given id.
+   *
+   * @param clusterId the cluster id
+   * @return the cluster
+   */
+  String getCluster(int clusterId) {
+    return tokenToClusterMap.getCluster(clusterId);
+  }
+
+  /**
+   * Writes the dictionary in a compact binary format which can be
+   * read by {@link #WordClusterDictionary(InputStream)}.
+   *
+   * @param out the stream to write to
+   * @throws IOException if writing fails
+   */
+  public void serialize(OutputStream out) throws IOException {
+    tokenToClusterMap.serialize(out);
   }
 
   public Class<?> getArtifactSerializerClass() {
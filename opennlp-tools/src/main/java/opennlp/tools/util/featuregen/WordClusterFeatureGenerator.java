@@ -19,32 +19,31 @@ package opennlp.tools.util.featuregen;
 
 import java.util.List;
 
-import opennlp.tools.util.StringUtil;
-
 public class WordClusterFeatureGenerator implements AdaptiveFeatureGenerator {
 
   private WordClusterDictionary tokenDictionary;
-  private String resourceName;
   private boolean lowerCaseDictionary;
 
+  // the feature of every cluster of the dictionary
+  private String[] clusterFeatures;
+
   public WordClusterFeatureGenerator(WordClusterDictionary dict,
       String dictResourceKey, boolean lowerCaseDictionary) {
     tokenDictionary = dict;
-    resourceName = dictResourceKey;
     this.lowerCaseDictionary = lowerCaseDictionary;
+
+    clusterFeatures = new String[dict.getClusterCount()];
+    for (int i = 0; i < clusterFeatures.length; i++) {
+      clusterFeatures[i] = dictResourceKey + dict.getCluster(i);
+    }
   }
 
   public void createFeatures(List<String> features, String[] tokens, int index,
       String[] previousOutcomes) {
 
-    String clusterId;
-    if (lowerCaseDictionary) {
-      clusterId = tokenDictionary.lookupToken(StringUtil.toLowerCase(tokens[index]));
-    } else {
-      clusterId = tokenDictionary.lookupToken(tokens[index]);
-    }
-    if (clusterId != null) {
-      features.add(resourceName + clusterId);
+    int clusterId = tokenDictionary.lookupClusterId(tokens[index], lowerCaseDictionary);
+    if (clusterId != -1) {
+      features.add(clusterFeatures[clusterId]);
     }
   }
 }
@@ -15,25 +15,189 @@
  * limitations under the License.
  */
 
-
 package opennlp.tools.util.normalizer;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link CharSequenceNormalizer} which applies the given normalizers one after
+ * the other.
+ * <p>
+ * If all normalizers are the ones of this package, none of them allocates intermediate
+ * strings, they pass the text through a few buffers which are reused by the calling thread.
+ */
 public class AggregateCharSequenceNormalizer implements CharSequenceNormalizer {
 
+  /**
+   * Buffers of a thread which grew larger than this are not kept after use.
+   */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 16;
+
+  private static final ThreadLocal<StringBuilder[]> BUFFERS =
+      ThreadLocal.withInitial(() -> new StringBuilder[] {
+          new StringBuilder(), new StringBuilder(), new StringBuilder()});
+
   private final CharSequenceNormalizer[] normalizers;
 
+  private final boolean appending;
+
   public AggregateCharSequenceNormalizer(CharSequenceNormalizer ... normalizers) {
     this.normalizers = normalizers;
+
+    boolean appending = true;
+    for (CharSequenceNormalizer normalizer : normalizers) {
+      appending &= normalizer instanceof AppendingCharSequenceNormalizer;
+    }
+    this.appending = appending;
   }
 
   public CharSequence normalize (CharSequence text) {
 
-    for (CharSequenceNormalizer normalizers :
-        normalizers) {
-      text = normalizers.normalize(text);
+    if (!appending) {
+      for (CharSequenceNormalizer normalizers :
+          normalizers) {
+        text = normalizers.normalize(text);
+      }
+
+      return text;
     }
 
-    return text;
+    if (normalizers.length == 0) {
+      return text;
+    }
+
+    StringBuilder[] buffers = BUFFERS.get();
+    try {
+      return normalize(text, normalizers.length, buffers).toString();
+    } finally {
+      release(buffers);
+    }
+  }
+
+  /**
+   * Applies the first normalizers to the text, the result is one of the first two buffers.
+   */
+  private CharSequence normalize(CharSequence text, int count, StringBuilder[] buffers) {
+    CharSequence current = text;
+    for (int i = 0; i < count; i++) {
+      StringBuilder out = current == buffers[0] ? buffers[1] : buffers[0];
+      out.setLength(0);
+      buffers[2].setLength(0);
+      ((AppendingCharSequenceNormalizer) normalizers[i]).normalize(current, out, buffers[2]);
+      current = out;
+    }
+    return current;
+  }
+
+  private static void release(StringBuilder[] buffers) {
+    for (int i = 0; i < buffers.length; i++) {
+      if (buffers[i].capacity() > MAX_RETAINED_BUFFER_SIZE) {
+        buffers[i] = new StringBuilder();
+      } else {
+        buffers[i].setLength(0);
+      }
+    }
   }
 
+  /**
+   * Normalizes the text read from the reader and writes it to the output, the result is
+   * the same as normalizing the whole text at once.
+   * <p>
+   * If all normalizers are the ones of this package and a {@link ShrinkCharSequenceNormalizer}
+   * can only be the last one, the text is normalized piece by piece. A piece ends after a
+   * whitespace char, none of the rules can match across such a boundary, except for the
+   * shrinking which is applied to the whole stream. Only the current piece is kept in memory,
+   * which might be as large as the longest text without whitespace.
+   * Otherwise the whole text is read before it is normalized.
+   *
+   * @param in the reader to read the text from
+   * @param out the output to write the normalized text to
+   * @throws IOException if reading or writing fails
+   */
+  public void normalize(Reader in, Appendable out) throws IOException {
+
+    int count = normalizers.length;
+    boolean shrink = count > 0 && normalizers[count - 1] instanceof ShrinkCharSequenceNormalizer;
+    if (shrink) {
+      count--;
+    }
+
+    boolean streaming = appending;
+    for (int i = 0; i < count; i++) {
+      streaming &= !(normalizers[i] instanceof ShrinkCharSequenceNormalizer);
+    }
+
+    char[] buffer = new char[8192];
+    int length = 0;
+
+    if (!streaming) {
+      StringBuilder text = new StringBuilder();
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        text.append(buffer, 0, read);
+      }
+      out.append(normalize(text));
+      return;
+    }
+
+    ShrinkCharSequenceNormalizer.Shrinker shrinker =
+        shrink ? new ShrinkCharSequenceNormalizer.Shrinker() : null;
+    StringBuilder shrunk = new StringBuilder();
+
+    StringBuilder[] buffers = BUFFERS.get();
+    try {
+      boolean eof = false;
+      while (!eof) {
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int read = in.read(buffer, length, buffer.length - length);
+        if (read == -1) {
+          eof = true;
+        } else {
+          length += read;
+        }
+
+        int end = eof ? length : lastBoundary(buffer, length);
+        if (end > 0 || eof) {
+          CharSequence normalized = normalize(CharBuffer.wrap(buffer, 0, end), count, buffers);
+          if (shrinker != null) {
+            shrunk.setLength(0);
+            shrinker.append(normalized, shrunk);
+            if (eof) {
+              shrinker.finish(shrunk);
+            }
+            normalized = shrunk;
+          }
+          out.append(normalized);
+
+          System.arraycopy(buffer, end, buffer, 0, length - end);
+          length -= end;
+        }
+      }
+    } finally {
+      release(buffers);
+    }
+  }
+
+  /**
+   * Retrieves the last index in the buffer which follows a whitespace char, is no
+   * whitespace itself and cannot start a retweet marker.
+   *
+   * @return the index or 0 if there is none
+   */
+  private static int lastBoundary(char[] buffer, int length) {
+    for (int i = length - 1; i > 0; i--) {
+      char c = buffer[i];
+      if (AppendingCharSequenceNormalizer.isWhitespace(buffer[i - 1])
+          && !AppendingCharSequenceNormalizer.isWhitespace(c) && c != 'r' && c != 'R') {
+        return i;
+      }
+    }
+    return 0;
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.normalizer;
+
+/**
+ * A {@link CharSequenceNormalizer} which appends its output to a buffer instead of creating
+ * a new string. This allows {@link AggregateCharSequenceNormalizer} to run all normalizers
+ * on a few reusable buffers.
+ */
+interface AppendingCharSequenceNormalizer extends CharSequenceNormalizer {
+
+  /**
+   * Appends the normalized text to the output buffer.
+   *
+   * @param text the char sequence to normalize
+   * @param out the buffer the normalized text is appended to
+   * @param scratch an empty buffer the normalizer may use for intermediate results
+   */
+  void normalize(CharSequence text, StringBuilder out, StringBuilder scratch);
+
+  /**
+   * Checks if the char is matched by {@code \s}.
+   */
+  static boolean isWhitespace(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
+  }
+
+  /**
+   * Checks if the two code points are equal if upper case ASCII letters are
+   * mapped to lower case, as {@link java.util.regex.Pattern#CASE_INSENSITIVE} does.
+   */
+  static boolean equalsIgnoreAsciiCase(int c1, int c2) {
+    return c1 == c2 || toLowerAscii(c1) == toLowerAscii(c2);
+  }
+
+  static int toLowerAscii(int c) {
+    return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+  }
+}
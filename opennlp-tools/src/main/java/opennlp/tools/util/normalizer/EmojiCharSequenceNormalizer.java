@@ -14,14 +14,13 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package opennlp.tools.util.normalizer;
 
-import java.util.regex.Pattern;
+package opennlp.tools.util.normalizer;
 
 /**
  * Normalizer for emojis.
  */
-public class EmojiCharSequenceNormalizer implements CharSequenceNormalizer {
+public class EmojiCharSequenceNormalizer implements AppendingCharSequenceNormalizer {
 
   private static final EmojiCharSequenceNormalizer INSTANCE = new EmojiCharSequenceNormalizer();
 
@@ -29,10 +28,38 @@ public class EmojiCharSequenceNormalizer implements CharSequenceNormalizer {
     return INSTANCE;
   }
 
-  private static final Pattern EMOJI_REGEX =
-      Pattern.compile("[\\uD83C-\\uDBFF\\uDC00-\\uDFFF]+");
+  /**
+   * Checks if a code point is replaced. These are exactly the code points matched by the
+   * character class of the regular expression which was used before: its escaped surrogate
+   * pair in the middle is read as the single code point U+10FC00, which results in the range
+   * from U+D83C to U+10FC00 and a literal hyphen.
+   */
+  private static boolean isEmoji(int codePoint) {
+    return (codePoint >= 0xD83C && codePoint <= 0x10FC00) || codePoint == '-';
+  }
 
   public CharSequence normalize (CharSequence text) {
-    return EMOJI_REGEX.matcher(text).replaceAll(" ");
+    StringBuilder out = new StringBuilder(text.length());
+    normalize(text, out, null);
+    return out.toString();
+  }
+
+  @Override
+  public void normalize(CharSequence text, StringBuilder out, StringBuilder scratch) {
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      int codePoint = Character.codePointAt(text, i);
+      if (isEmoji(codePoint)) {
+        out.append(' ');
+        i += Character.charCount(codePoint);
+        while (i < length && isEmoji(codePoint = Character.codePointAt(text, i))) {
+          i += Character.charCount(codePoint);
+        }
+      } else {
+        out.appendCodePoint(codePoint);
+        i += Character.charCount(codePoint);
+      }
+    }
   }
 }
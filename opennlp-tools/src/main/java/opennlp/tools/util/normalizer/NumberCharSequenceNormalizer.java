@@ -14,16 +14,13 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package opennlp.tools.util.normalizer;
 
-import java.util.regex.Pattern;
+package opennlp.tools.util.normalizer;
 
 /**
  * Normalizer for numbers
  */
-public class NumberCharSequenceNormalizer implements CharSequenceNormalizer {
-
-  private static final Pattern NUMBER_REGEX = Pattern.compile("\\d+");
+public class NumberCharSequenceNormalizer implements AppendingCharSequenceNormalizer {
 
   private static final NumberCharSequenceNormalizer INSTANCE = new NumberCharSequenceNormalizer();
 
@@ -32,6 +29,32 @@ public class NumberCharSequenceNormalizer implements CharSequenceNormalizer {
   }
 
   public CharSequence normalize (CharSequence text) {
-    return NUMBER_REGEX.matcher(text).replaceAll(" ");
+    StringBuilder out = new StringBuilder(text.length());
+    normalize(text, out, null);
+    return out.toString();
+  }
+
+  /**
+   * Replaces every run of ASCII digits with a single space.
+   */
+  @Override
+  public void normalize(CharSequence text, StringBuilder out, StringBuilder scratch) {
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i++);
+      if (isDigit(c)) {
+        out.append(' ');
+        while (i < length && isDigit(text.charAt(i))) {
+          i++;
+        }
+      } else {
+        out.append(c);
+      }
+    }
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
   }
 }
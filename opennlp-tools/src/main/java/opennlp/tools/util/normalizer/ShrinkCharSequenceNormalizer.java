@@ -14,19 +14,17 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package opennlp.tools.util.normalizer;
 
-import java.util.regex.Pattern;
+package opennlp.tools.util.normalizer;
 
 /**
  * Normalizer to shrink repeated spaces / chars
+ * <p>
+ * Every run of at least two whitespace chars ({@code \s}) is replaced by a single space,
+ * then every run of at least three equal chars, ignoring the case of ASCII letters, is
+ * replaced by two times its first char and finally the text is trimmed.
  */
-public class ShrinkCharSequenceNormalizer implements CharSequenceNormalizer {
-
-  private static final Pattern REPEATED_CHAR_REGEX = Pattern.compile("(.)\\1{2,}",
-      Pattern.CASE_INSENSITIVE);
-  private static final Pattern SPACE_REGEX = Pattern.compile("\\s{2,}",
-      Pattern.CASE_INSENSITIVE);
+public class ShrinkCharSequenceNormalizer implements AppendingCharSequenceNormalizer {
 
   private static final ShrinkCharSequenceNormalizer INSTANCE = new ShrinkCharSequenceNormalizer();
 
@@ -35,7 +33,131 @@ public class ShrinkCharSequenceNormalizer implements CharSequenceNormalizer {
   }
 
   public CharSequence normalize (CharSequence text) {
-    text = SPACE_REGEX.matcher(text).replaceAll(" ");
-    return REPEATED_CHAR_REGEX.matcher(text).replaceAll("$1$1").trim();
+    StringBuilder out = new StringBuilder(text.length());
+    normalize(text, out, null);
+    return out.toString();
+  }
+
+  @Override
+  public void normalize(CharSequence text, StringBuilder out, StringBuilder scratch) {
+    Shrinker shrinker = new Shrinker();
+    shrinker.append(text, out);
+    shrinker.finish(out);
+  }
+
+  /**
+   * Shrinks a text which is passed in pieces, in a single pass.
+   * <p>
+   * A collapsed whitespace run can never be part of a run of repeated chars, because
+   * the chars around it are no whitespace, so both replacements are done in one pass.
+   * Whitespace and repeated chars are held back until their run ends, and chars which
+   * would be removed by trimming are held back until a char follows which is kept.
+   * A piece must not end between the two chars of a surrogate pair.
+   */
+  static final class Shrinker {
+
+    private int whitespaceLength;
+    private char whitespace;
+
+    private int runLength;
+    private int runFirst;
+    private int runSecond;
+
+    private boolean started;
+    private final StringBuilder trailing = new StringBuilder();
+
+    /**
+     * Shrinks the next piece of the text.
+     *
+     * @param text the next piece
+     * @param out the buffer the shrunk text is appended to, it might not contain
+     *            all of the piece yet
+     */
+    void append(CharSequence text, StringBuilder out) {
+      int length = text.length();
+      int i = 0;
+      while (i < length) {
+        char c = text.charAt(i);
+        if (AppendingCharSequenceNormalizer.isWhitespace(c)) {
+          if (whitespaceLength++ == 0) {
+            whitespace = c;
+          }
+          i++;
+        } else {
+          endWhitespace(out);
+          int codePoint = Character.codePointAt(text, i);
+          repeat(codePoint, out);
+          i += Character.charCount(codePoint);
+        }
+      }
+    }
+
+    /**
+     * Appends the held back chars which are not trimmed and resets this shrinker.
+     */
+    void finish(StringBuilder out) {
+      endWhitespace(out);
+      endRun(out);
+      trailing.setLength(0);
+      started = false;
+    }
+
+    private void endWhitespace(StringBuilder out) {
+      if (whitespaceLength > 0) {
+        repeat(whitespaceLength == 1 ? whitespace : ' ', out);
+        whitespaceLength = 0;
+      }
+    }
+
+    private void repeat(int codePoint, StringBuilder out) {
+      if (isLineTerminator(codePoint)) {
+        endRun(out);
+        trim(codePoint, out);
+      } else if (runLength > 0
+          && AppendingCharSequenceNormalizer.equalsIgnoreAsciiCase(codePoint, runFirst)) {
+        if (++runLength == 2) {
+          runSecond = codePoint;
+        }
+      } else {
+        endRun(out);
+        runFirst = codePoint;
+        runLength = 1;
+      }
+    }
+
+    private void endRun(StringBuilder out) {
+      if (runLength > 0) {
+        trim(runFirst, out);
+        if (runLength == 2) {
+          trim(runSecond, out);
+        } else if (runLength > 2) {
+          trim(runFirst, out);
+        }
+        runLength = 0;
+      }
+    }
+
+    private void trim(int codePoint, StringBuilder out) {
+      if (codePoint <= ' ') {
+        if (started) {
+          trailing.append((char) codePoint);
+        }
+      } else {
+        if (trailing.length() > 0) {
+          out.append(trailing);
+          trailing.setLength(0);
+        }
+        out.appendCodePoint(codePoint);
+        started = true;
+      }
+    }
+
+    /**
+     * Checks if the code point is a line terminator, these are not matched by {@code .}.
+     */
+    private static boolean isLineTerminator(int codePoint) {
+      return codePoint == '\n' || codePoint == '\r' || codePoint == 0x85
+          || codePoint == 0x2028 || codePoint == 0x2029;
+    }
   }
 }
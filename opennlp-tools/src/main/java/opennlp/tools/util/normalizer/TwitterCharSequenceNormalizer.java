@@ -14,26 +14,23 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package opennlp.tools.util.normalizer;
 
-import java.util.regex.Pattern;
+package opennlp.tools.util.normalizer;
 
 /**
  * Normalizer for Twitter character sequences
+ * <p>
+ * The rules are applied one after the other, each one on the result of the previous one:
+ * <ol>
+ * <li>hashtags and user names, {@code [#@]\S+}, are replaced by a space</li>
+ * <li>retweet markers, {@code \b(rt[ :])+}, are replaced by a space</li>
+ * <li>faces, {@code [:;x]-?[()dop]}, are replaced by a space</li>
+ * <li>laughs, {@code ([hj])+([aieou])+(\1+\2+)+}, are shortened to {@code $1$2$1$2}</li>
+ * </ol>
+ * Apart from the hashtags all rules ignore the case of ASCII letters. Word boundaries
+ * are determined as by {@link java.util.regex.Pattern} on Java 8.
  */
-public class TwitterCharSequenceNormalizer implements CharSequenceNormalizer {
-
-  private static final Pattern HASH_USER_REGEX =
-      Pattern.compile("[#@]\\S+");
-
-  private static final Pattern RT_REGEX =
-      Pattern.compile("\\b(rt[ :])+", Pattern.CASE_INSENSITIVE);
-
-  private static final Pattern FACE_REGEX =
-      Pattern.compile("[:;x]-?[()dop]", Pattern.CASE_INSENSITIVE);
-
-  private static final Pattern LAUGH_REGEX =
-      Pattern.compile("([hj])+([aieou])+(\\1+\\2+)+", Pattern.CASE_INSENSITIVE);
+public class TwitterCharSequenceNormalizer implements AppendingCharSequenceNormalizer {
 
   private static final TwitterCharSequenceNormalizer INSTANCE = new TwitterCharSequenceNormalizer();
 
@@ -42,10 +39,208 @@ public class TwitterCharSequenceNormalizer implements CharSequenceNormalizer {
   }
 
   public CharSequence normalize (CharSequence text) {
-    String modified = HASH_USER_REGEX.matcher(text).replaceAll(" ");
-    modified = RT_REGEX.matcher(modified).replaceAll(" ");
-    modified = FACE_REGEX.matcher(modified).replaceAll(" ");
-    modified = LAUGH_REGEX.matcher(modified).replaceAll("$1$2$1$2");
-    return modified;
+    StringBuilder out = new StringBuilder(text.length());
+    normalize(text, out, new StringBuilder(text.length()));
+    return out.toString();
+  }
+
+  @Override
+  public void normalize(CharSequence text, StringBuilder out, StringBuilder scratch) {
+    int start = out.length();
+
+    scratch.setLength(0);
+    removeHashtagsAndUsers(text, scratch);
+    removeRetweets(scratch, out);
+
+    CharSequence retweetsRemoved = start == 0 ? out : out.substring(start);
+    scratch.setLength(0);
+    removeFaces(retweetsRemoved, scratch);
+
+    out.setLength(start);
+    shortenLaughs(scratch, out);
+  }
+
+  private static void removeHashtagsAndUsers(CharSequence text, StringBuilder out) {
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i++);
+      if ((c == '#' || c == '@') && i < length
+          && !AppendingCharSequenceNormalizer.isWhitespace(text.charAt(i))) {
+        out.append(' ');
+        while (i < length && !AppendingCharSequenceNormalizer.isWhitespace(text.charAt(i))) {
+          i++;
+        }
+      } else {
+        out.append(c);
+      }
+    }
+  }
+
+  private static void removeRetweets(CharSequence text, StringBuilder out) {
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if ((c == 'r' || c == 'R') && !isWordBefore(text, i)) {
+        int end = i;
+        while (end + 2 < length && isRetweet(text, end)) {
+          end += 3;
+        }
+
+        if (end > i) {
+          out.append(' ');
+          i = end;
+          continue;
+        }
+      }
+
+      out.append(c);
+      i++;
+    }
+  }
+
+  private static boolean isRetweet(CharSequence text, int i) {
+    char r = text.charAt(i);
+    char t = text.charAt(i + 1);
+    char separator = text.charAt(i + 2);
+    return (r == 'r' || r == 'R') && (t == 't' || t == 'T') && (separator == ' ' || separator == ':');
+  }
+
+  /**
+   * Checks if the text before the index ends with a word char, a non spacing mark
+   * counts as a word char if it follows a letter or digit.
+   */
+  private static boolean isWordBefore(CharSequence text, int index) {
+    if (index == 0) {
+      return false;
+    }
+
+    int c = Character.codePointBefore(text, index);
+    if (c == '_' || Character.isLetterOrDigit(c)) {
+      return true;
+    }
+
+    if (Character.getType(c) == Character.NON_SPACING_MARK) {
+      for (int i = index - 1; i >= 0; i--) {
+        c = Character.codePointAt(text, i);
+        if (Character.isLetterOrDigit(c)) {
+          return true;
+        }
+        if (Character.getType(c) != Character.NON_SPACING_MARK) {
+          return false;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private static void removeFaces(CharSequence text, StringBuilder out) {
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if (c == ':' || c == ';' || c == 'x' || c == 'X') {
+        if (i + 2 < length && text.charAt(i + 1) == '-' && isMouth(text.charAt(i + 2))) {
+          out.append(' ');
+          i += 3;
+          continue;
+        }
+        if (i + 1 < length && isMouth(text.charAt(i + 1))) {
+          out.append(' ');
+          i += 2;
+          continue;
+        }
+      }
+
+      out.append(c);
+      i++;
+    }
+  }
+
+  private static boolean isMouth(char c) {
+    switch (c) {
+      case '(': case ')': case 'd': case 'D': case 'o': case 'O': case 'p': case 'P':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Shortens laughs. A laugh starts with a run of h and j, the last of them is the
+   * first laugh char, followed by a run of vowels, the last of them is the second
+   * laugh char. It continues with at least one repetition of a run of the first laugh
+   * char followed by a run of the second one.
+   */
+  private static void shortenLaughs(CharSequence text, StringBuilder out) {
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      if (!isLaughStart(text.charAt(i))) {
+        out.append(text.charAt(i++));
+        continue;
+      }
+
+      int vowelStart = i + 1;
+      while (vowelStart < length && isLaughStart(text.charAt(vowelStart))) {
+        vowelStart++;
+      }
+
+      int vowelEnd = vowelStart;
+      while (vowelEnd < length && isVowel(text.charAt(vowelEnd))) {
+        vowelEnd++;
+      }
+
+      int end = vowelEnd;
+      if (vowelEnd > vowelStart) {
+        char first = text.charAt(vowelStart - 1);
+        char second = text.charAt(vowelEnd - 1);
+
+        while (true) {
+          int firstEnd = skip(text, end, length, first);
+          if (firstEnd == end) {
+            break;
+          }
+          int secondEnd = skip(text, firstEnd, length, second);
+          if (secondEnd == firstEnd) {
+            break;
+          }
+          end = secondEnd;
+        }
+
+        if (end > vowelEnd) {
+          out.append(first).append(second).append(first).append(second);
+          i = end;
+          continue;
+        }
+      }
+
+      // a laugh can neither start later in the same run of h and j
+      out.append(text, i, vowelStart);
+      i = vowelStart;
+    }
+  }
+
+  private static int skip(CharSequence text, int start, int length, char c) {
+    int i = start;
+    while (i < length && AppendingCharSequenceNormalizer.equalsIgnoreAsciiCase(text.charAt(i), c)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isLaughStart(char c) {
+    return c == 'h' || c == 'j' || c == 'H' || c == 'J';
+  }
+
+  private static boolean isVowel(char c) {
+    switch (AppendingCharSequenceNormalizer.toLowerAscii(c)) {
+      case 'a': case 'e': case 'i': case 'o': case 'u':
+        return true;
+      default:
+        return false;
+    }
   }
 }
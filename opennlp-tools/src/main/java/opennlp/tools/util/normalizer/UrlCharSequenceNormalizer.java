@@ -14,19 +14,17 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package opennlp.tools.util.normalizer;
 
-import java.util.regex.Pattern;
+package opennlp.tools.util.normalizer;
 
 /**
  * Normalizer that removes URls and email addresses.
+ * <p>
+ * URLs match {@code https?://[-_.?&~;+=/#0-9A-Za-z]+} and email addresses match
+ * {@code [-_.0-9A-Za-z]+@[-_0-9A-Za-z]+[-_.0-9A-Za-z]+}, every match is replaced with
+ * a single space. URLs are removed first.
  */
-public class UrlCharSequenceNormalizer implements CharSequenceNormalizer {
-
-  private static final Pattern URL_REGEX =
-      Pattern.compile("https?://[-_.?&~;+=/#0-9A-Za-z]+");
-  private static final Pattern MAIL_REGEX =
-      Pattern.compile("[-_.0-9A-Za-z]+@[-_0-9A-Za-z]+[-_.0-9A-Za-z]+");
+public class UrlCharSequenceNormalizer implements AppendingCharSequenceNormalizer {
 
   private static final UrlCharSequenceNormalizer INSTANCE = new UrlCharSequenceNormalizer();
 
@@ -35,7 +33,135 @@ public class UrlCharSequenceNormalizer implements CharSequenceNormalizer {
   }
 
   public CharSequence normalize (CharSequence text) {
-    String modified = URL_REGEX.matcher(text).replaceAll(" ");
-    return MAIL_REGEX.matcher(modified).replaceAll(" ");
+    StringBuilder out = new StringBuilder(text.length());
+    normalize(text, out, null);
+    return out.toString();
+  }
+
+  /**
+   * Removes the URLs and email addresses in a single pass. An email address can neither
+   * contain the space which replaces a URL nor any other char outside of its class, so
+   * searching it in the text between the URLs gives the same result as searching it
+   * after the URLs were replaced.
+   */
+  @Override
+  public void normalize(CharSequence text, StringBuilder out, StringBuilder scratch) {
+    int length = text.length();
+    int copied = 0;
+    int i = 0;
+    while (i < length) {
+      int urlEnd = matchUrl(text, i, length);
+      if (urlEnd != -1) {
+        removeEmails(text, copied, i, out);
+        out.append(' ');
+        i = urlEnd;
+        copied = urlEnd;
+      } else {
+        i++;
+      }
+    }
+    removeEmails(text, copied, length, out);
+  }
+
+  /**
+   * Retrieves the end of the URL which starts at the given index.
+   *
+   * @return the end index or -1 if no URL starts there
+   */
+  private static int matchUrl(CharSequence text, int start, int length) {
+    if (text.charAt(start) != 'h' || !regionMatches(text, start + 1, length, "ttp")) {
+      return -1;
+    }
+
+    int i = start + 4;
+    if (i < length && text.charAt(i) == 's') {
+      i++;
+    }
+
+    if (!regionMatches(text, i, length, "://")) {
+      return -1;
+    }
+    i += 3;
+
+    int end = i;
+    while (end < length && isUrlChar(text.charAt(end))) {
+      end++;
+    }
+
+    return end > i ? end : -1;
+  }
+
+  /**
+   * Appends the given range of the text with every email address replaced by a space.
+   * <p>
+   * A match must start with the run of address chars which ends at the {@code @} and
+   * it extends to the end of the run of address chars after it, that run must be at
+   * least two chars long and must not start with a dot. If there is no match, there is
+   * no match starting anywhere else in the same run either.
+   */
+  private static void removeEmails(CharSequence text, int start, int end, StringBuilder out) {
+    int copied = start;
+    int i = start;
+    while (i < end) {
+      if (!isEmailChar(text.charAt(i))) {
+        i++;
+        continue;
+      }
+
+      int localEnd = i + 1;
+      while (localEnd < end && isEmailChar(text.charAt(localEnd))) {
+        localEnd++;
+      }
+
+      if (localEnd < end && text.charAt(localEnd) == '@') {
+        int domainEnd = localEnd + 1;
+        while (domainEnd < end && isEmailChar(text.charAt(domainEnd))) {
+          domainEnd++;
+        }
+
+        if (domainEnd - localEnd > 2 && text.charAt(localEnd + 1) != '.') {
+          out.append(text, copied, i).append(' ');
+          i = domainEnd;
+          copied = domainEnd;
+          continue;
+        }
+      }
+
+      i = localEnd;
+    }
+    out.append(text, copied, end);
+  }
+
+  private static boolean regionMatches(CharSequence text, int start, int length, String s) {
+    if (start + s.length() > length) {
+      return false;
+    }
+    for (int i = 0; i < s.length(); i++) {
+      if (text.charAt(start + i) != s.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAlphanumeric(char c) {
+    return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+  }
+
+  private static boolean isUrlChar(char c) {
+    if (isAlphanumeric(c)) {
+      return true;
+    }
+    switch (c) {
+      case '-': case '_': case '.': case '?': case '&': case '~':
+      case ';': case '+': case '=': case '/': case '#':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isEmailChar(char c) {
+    return isAlphanumeric(c) || c == '-' || c == '_' || c == '.';
   }
 }
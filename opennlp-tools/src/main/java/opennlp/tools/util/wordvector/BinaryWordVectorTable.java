@@ -0,0 +1,499 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.wordvector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import opennlp.tools.util.java.Experimental;
+
+/**
+ * A {@link WordVectorTable} which is stored in a binary file and memory mapped, so
+ * the vectors are not loaded into the heap and the table can be shared between
+ * processes through the page cache.
+ * <p>
+ * The file contains the tokens sorted by their UTF-8 bytes, which are found with a
+ * binary search, and a single matrix with the vectors of all tokens in the same order.
+ * The components are stored as floats, or quantized to one byte per component with a
+ * scale per vector. The returned {@link WordVector}s are views of the mapped matrix.
+ * <p>
+ * A file can be created from the text format of GloVe or word2vec with
+ * {@link #convert(InputStream, Path, boolean)} or from another table with
+ * {@link #write(WordVectorTable, Path, boolean)}. The table is thread safe.
+ * <p>
+ * Warning: Experimental new feature, see OPENNLP-1144 for details, the API might be changed anytime.
+ */
+@Experimental
+public class BinaryWordVectorTable implements WordVectorTable {
+
+  private static final int MAGIC = 0x4F575654;
+  private static final int VERSION = 1;
+
+  private static final int FLOAT_ENCODING = 0;
+  private static final int QUANTIZED_ENCODING = 1;
+
+  private static final int HEADER_LENGTH = 6 * Integer.BYTES;
+
+  private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+  private final int size;
+  private final int dimension;
+  private final boolean quantized;
+
+  private final IntBuffer tokenOffsets;
+  private final ByteBuffer tokenBytes;
+
+  private final int rowsPerChunk;
+  private final FloatBuffer[] floatChunks;
+  private final ByteBuffer[] byteChunks;
+  private final FloatBuffer scales;
+
+  private BinaryWordVectorTable(FileChannel channel) throws IOException {
+    ByteBuffer header = map(channel, 0, HEADER_LENGTH);
+
+    if (header.getInt(0) != MAGIC) {
+      throw new IOException("The file is not a word vector table");
+    }
+
+    if (header.getInt(4) != VERSION) {
+      throw new IOException("Unsupported word vector table version: " + header.getInt(4));
+    }
+
+    int encoding = header.getInt(8);
+    if (encoding != FLOAT_ENCODING && encoding != QUANTIZED_ENCODING) {
+      throw new IOException("Unknown vector encoding: " + encoding);
+    }
+
+    quantized = encoding == QUANTIZED_ENCODING;
+    size = header.getInt(12);
+    dimension = header.getInt(16);
+    int tokenBytesLength = header.getInt(20);
+
+    long tokensStart = HEADER_LENGTH + (size + 1L) * Integer.BYTES;
+    long matrixStart = align(tokensStart + tokenBytesLength);
+
+    tokenOffsets = map(channel, HEADER_LENGTH, tokensStart - HEADER_LENGTH).asIntBuffer();
+    tokenBytes = map(channel, tokensStart, tokenBytesLength);
+
+    int componentBytes = quantized ? 1 : Float.BYTES;
+    long rowBytes = (long) dimension * componentBytes;
+    if (size > 0 && rowBytes == 0) {
+      throw new IOException("The vectors must have at least one component");
+    }
+    rowsPerChunk = (int) Math.max(1L, Math.min(size, Integer.MAX_VALUE / Math.max(1L, rowBytes)));
+    int chunkCount = (size + rowsPerChunk - 1) / rowsPerChunk;
+
+    long rowsStart = matrixStart;
+    if (quantized) {
+      scales = map(channel, matrixStart, (long) size * Float.BYTES).asFloatBuffer();
+      rowsStart += (long) size * Float.BYTES;
+    }
+    else {
+      scales = null;
+    }
+
+    floatChunks = new FloatBuffer[quantized ? 0 : chunkCount];
+    byteChunks = new ByteBuffer[quantized ? chunkCount : 0];
+
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      int rows = Math.min(rowsPerChunk, size - chunk * rowsPerChunk);
+      ByteBuffer buffer = map(channel, rowsStart + chunk * rowsPerChunk * rowBytes, rows * rowBytes);
+      if (quantized) {
+        byteChunks[chunk] = buffer;
+      }
+      else {
+        floatChunks[chunk] = buffer.asFloatBuffer();
+      }
+    }
+  }
+
+  private static ByteBuffer map(FileChannel channel, long position, long length)
+      throws IOException {
+    if (position + length > channel.size()) {
+      throw new IOException("The word vector table is truncated");
+    }
+    if (length > Integer.MAX_VALUE) {
+      throw new IOException("The word vector table is too large");
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static long align(long position) {
+    return (position + Float.BYTES - 1) / Float.BYTES * Float.BYTES;
+  }
+
+  /**
+   * Opens a word vector table which was written by this class. The file is memory
+   * mapped and can be changed or deleted only after the table is no longer used.
+   *
+   * @param file the binary word vector table
+   * @return the word vector table
+   * @throws IOException if the file cannot be read or is not a word vector table
+   */
+  public static BinaryWordVectorTable open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new BinaryWordVectorTable(channel);
+    }
+  }
+
+  /**
+   * Converts word vectors in the text format of GloVe or word2vec into a binary
+   * word vector table. The vectors are buffered in a temporary file, only the tokens
+   * are kept in memory. If a token occurs more than once, its last vector is used.
+   *
+   * @param in the text word vectors, encoded in UTF-8
+   * @param out the file to write the table to
+   * @param quantize true to store one byte per component instead of a float
+   * @throws IOException if reading the vectors or writing the table fails
+   */
+  public static void convert(InputStream in, Path out, boolean quantize) throws IOException {
+    Path vectorFile = Files.createTempFile("vectors", ".bin");
+
+    try {
+      List<String> tokens = new ArrayList<>();
+      int dimension;
+
+      try (FileChannel channel = FileChannel.open(vectorFile, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = allocateWriteBuffer();
+        TextVectorReader reader = new TextVectorReader(in, true);
+
+        while (reader.next()) {
+          tokens.add(reader.getToken());
+          for (float component : reader.getVector()) {
+            ensureRemaining(channel, buffer, Float.BYTES);
+            buffer.putFloat(component);
+          }
+        }
+        flush(channel, buffer);
+
+        dimension = Math.max(0, reader.getDimension());
+      }
+
+      try (FileChannel channel = FileChannel.open(vectorFile, StandardOpenOption.READ)) {
+        ByteBuffer row = ByteBuffer.allocate(dimension * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        write(out, tokens, dimension, quantize, (index, vector) -> {
+          row.clear();
+          long position = (long) index * row.capacity();
+          while (row.hasRemaining()) {
+            if (channel.read(row, position + row.position()) == -1) {
+              throw new IOException("The temporary vector file is truncated");
+            }
+          }
+          row.flip();
+          row.asFloatBuffer().get(vector);
+        });
+      }
+    }
+    finally {
+      Files.deleteIfExists(vectorFile);
+    }
+  }
+
+  /**
+   * Writes a word vector table as binary word vector table.
+   *
+   * @param table the word vector table
+   * @param out the file to write the table to
+   * @param quantize true to store one byte per component instead of a float
+   * @throws IOException if writing the table fails
+   */
+  public static void write(WordVectorTable table, Path out, boolean quantize) throws IOException {
+    List<String> tokens = new ArrayList<>(table.size());
+    for (Iterator<String> it = table.tokens(); it.hasNext(); ) {
+      tokens.add(it.next());
+    }
+
+    write(out, tokens, Math.max(0, table.dimension()), quantize, (index, vector) -> {
+      WordVector wordVector = table.get(tokens.get(index));
+      for (int i = 0; i < vector.length; i++) {
+        vector[i] = wordVector.getAsFloat(i);
+      }
+    });
+  }
+
+  private interface VectorSource {
+    void read(int index, float[] vector) throws IOException;
+  }
+
+  private static void write(Path out, List<String> tokens, int dimension, boolean quantize,
+      VectorSource vectors) throws IOException {
+
+    byte[][] tokenBytes = new byte[tokens.size()][];
+    for (int i = 0; i < tokenBytes.length; i++) {
+      tokenBytes[i] = tokens.get(i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    Integer[] order = new Integer[tokenBytes.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i1, i2) -> {
+      int diff = compare(tokenBytes[i1], tokenBytes[i2]);
+      return diff != 0 ? diff : Integer.compare(i1, i2);
+    });
+
+    // of equal tokens only the last one is kept
+    List<Integer> rows = new ArrayList<>(order.length);
+    for (int i = 0; i < order.length; i++) {
+      if (i + 1 == order.length || compare(tokenBytes[order[i]], tokenBytes[order[i + 1]]) != 0) {
+        rows.add(order[i]);
+      }
+    }
+
+    if (dimension == 0 && !rows.isEmpty()) {
+      throw new IOException("The vectors must have at least one component");
+    }
+
+    long tokenBytesLength = 0;
+    for (int row : rows) {
+      tokenBytesLength += tokenBytes[row].length;
+    }
+    if (tokenBytesLength > Integer.MAX_VALUE) {
+      throw new IOException("The tokens are too large");
+    }
+
+    try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = allocateWriteBuffer();
+
+      buffer.putInt(MAGIC);
+      buffer.putInt(VERSION);
+      buffer.putInt(quantize ? QUANTIZED_ENCODING : FLOAT_ENCODING);
+      buffer.putInt(rows.size());
+      buffer.putInt(dimension);
+      buffer.putInt((int) tokenBytesLength);
+
+      int offset = 0;
+      for (int row : rows) {
+        ensureRemaining(channel, buffer, Integer.BYTES);
+        buffer.putInt(offset);
+        offset += tokenBytes[row].length;
+      }
+      ensureRemaining(channel, buffer, Integer.BYTES);
+      buffer.putInt(offset);
+
+      for (int row : rows) {
+        for (byte b : tokenBytes[row]) {
+          ensureRemaining(channel, buffer, 1);
+          buffer.put(b);
+        }
+      }
+
+      long position = HEADER_LENGTH + (rows.size() + 1L) * Integer.BYTES + tokenBytesLength;
+      for (long i = position; i < align(position); i++) {
+        ensureRemaining(channel, buffer, 1);
+        buffer.put((byte) 0);
+      }
+
+      float[] vector = new float[dimension];
+
+      if (quantize) {
+        // the scales are written before the components
+        float[] scales = new float[rows.size()];
+        for (int i = 0; i < scales.length; i++) {
+          vectors.read(rows.get(i), vector);
+          scales[i] = scale(vector);
+          ensureRemaining(channel, buffer, Float.BYTES);
+          buffer.putFloat(scales[i]);
+        }
+
+        for (int i = 0; i < scales.length; i++) {
+          vectors.read(rows.get(i), vector);
+          for (float component : vector) {
+            ensureRemaining(channel, buffer, 1);
+            buffer.put(scales[i] == 0 ? 0 : (byte) Math.round(component / scales[i]));
+          }
+        }
+      }
+      else {
+        for (int row : rows) {
+          vectors.read(row, vector);
+          for (float component : vector) {
+            ensureRemaining(channel, buffer, Float.BYTES);
+            buffer.putFloat(component);
+          }
+        }
+      }
+
+      flush(channel, buffer);
+    }
+  }
+
+  /**
+   * Computes the scale which maps the component with the largest absolute value to 127.
+   */
+  private static float scale(float[] vector) {
+    float max = 0;
+    for (float component : vector) {
+      max = Math.max(max, Math.abs(component));
+    }
+    return max / Byte.MAX_VALUE;
+  }
+
+  private static ByteBuffer allocateWriteBuffer() {
+    return ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int length)
+      throws IOException {
+    if (buffer.remaining() < length) {
+      flush(channel, buffer);
+    }
+  }
+
+  private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private static int compare(byte[] bytes1, byte[] bytes2) {
+    int length = Math.min(bytes1.length, bytes2.length);
+    for (int i = 0; i < length; i++) {
+      int diff = (bytes1[i] & 0xFF) - (bytes2[i] & 0xFF);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return bytes1.length - bytes2.length;
+  }
+
+  /**
+   * Compares the token at the given row with the given UTF-8 bytes.
+   */
+  private int compare(int row, byte[] bytes) {
+    int start = tokenOffsets.get(row);
+    int length = tokenOffsets.get(row + 1) - start;
+
+    int commonLength = Math.min(length, bytes.length);
+    for (int i = 0; i < commonLength; i++) {
+      int diff = (tokenBytes.get(start + i) & 0xFF) - (bytes[i] & 0xFF);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return length - bytes.length;
+  }
+
+  private int row(String token) {
+    byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int diff = compare(middle, bytes);
+
+      if (diff < 0) {
+        low = middle + 1;
+      }
+      else if (diff > 0) {
+        high = middle - 1;
+      }
+      else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  private String token(int row) {
+    int start = tokenOffsets.get(row);
+    byte[] bytes = new byte[tokenOffsets.get(row + 1) - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = tokenBytes.get(start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public WordVector get(String token) {
+    int row = row(token);
+    if (row == -1) {
+      return null;
+    }
+
+    int chunk = row / rowsPerChunk;
+    int offset = (row % rowsPerChunk) * dimension;
+    if (quantized) {
+      return new QuantizedVector(byteChunks[chunk], offset, dimension, scales.get(row));
+    }
+    else {
+      return new FloatBufferVector(floatChunks[chunk], offset, dimension);
+    }
+  }
+
+  /**
+   * @return the tokens in the order of their UTF-8 bytes
+   */
+  @Override
+  public Iterator<String> tokens() {
+    return new Iterator<String>() {
+
+      private int row;
+
+      @Override
+      public boolean hasNext() {
+        return row < size;
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return token(row++);
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int dimension() {
+    return dimension;
+  }
+
+  /**
+   * @return true if the components are quantized to bytes
+   */
+  public boolean isQuantized() {
+    return quantized;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.wordvector;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * A word vector which is a view of a part of a {@link FloatBuffer}, for example a
+ * row of a memory mapped matrix. The vector does not copy the components.
+ */
+class FloatBufferVector implements WordVector {
+
+  private final FloatBuffer buffer;
+  private final int offset;
+  private final int dimension;
+
+  FloatBufferVector(FloatBuffer buffer, int offset, int dimension) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.dimension = dimension;
+  }
+
+  @Override
+  public WordVectorType getDataType() {
+    return WordVectorType.FLOAT;
+  }
+
+  @Override
+  public float getAsFloat(int index) {
+    if (index < 0 || index >= dimension) {
+      throw new IndexOutOfBoundsException("index: " + index);
+    }
+    return buffer.get(offset + index);
+  }
+
+  @Override
+  public double getAsDouble(int index) {
+    return getAsFloat(index);
+  }
+
+  @Override
+  public FloatBuffer toFloatBuffer() {
+    FloatBuffer vector = buffer.duplicate();
+    vector.limit(offset + dimension);
+    vector.position(offset);
+    return vector.slice().asReadOnlyBuffer();
+  }
+
+  @Override
+  public DoubleBuffer toDoubleBuffer() {
+    double[] doubleVector = new double[dimension];
+    for (int i = 0; i < doubleVector.length; i++) {
+      doubleVector[i] = buffer.get(offset + i);
+    }
+    return DoubleBuffer.wrap(doubleVector).asReadOnlyBuffer();
+  }
+
+  @Override
+  public int dimension() {
+    return dimension;
+  }
+}
@@ -17,11 +17,8 @@
 
 package opennlp.tools.util.wordvector;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -39,7 +36,8 @@ public class Glove {
   }
 
   /**
-   * Parses a glove vector plain text file.
+   * Parses a glove vector plain text file. Large tables can be converted once into a
+   * {@link BinaryWordVectorTable} which is memory mapped instead of parsed.
    * <p>
    * Warning: Experimental new feature, see OPENNLP-1144 for details, the API might be changed anytime.
    *
@@ -49,32 +47,12 @@ public class Glove {
    */
   @Experimental
   public static WordVectorTable parse(InputStream in) throws IOException {
-    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8),
-        1024 * 1024);
+    TextVectorReader reader = new TextVectorReader(in, false);
 
     Map<String, WordVector> vectors = new HashMap<>();
 
-    int dimension = -1;
-    String line;
-    while ((line = reader.readLine()) != null) {
-      String[] parts = line.split(" ");
-
-      if (dimension == -1) {
-        dimension = parts.length - 1;
-      }
-      else if (dimension != parts.length - 1) {
-        throw new IOException("Vector dimension must be constant!");
-      }
-
-      String token = parts[0];
-
-      float[] vector = new float[dimension];
-
-      for (int i = 0; i < vector.length; i++) {
-        vector[i] = Float.parseFloat(parts[i + 1]);
-      }
-
-      vectors.put(token, new FloatArrayVector(vector));
+    while (reader.next()) {
+      vectors.put(reader.getToken(), new FloatArrayVector(reader.getVector().clone()));
     }
 
     return new MapWordVectorTable(Collections.unmodifiableMap(vectors));
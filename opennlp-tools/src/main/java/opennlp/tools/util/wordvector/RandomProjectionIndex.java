@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.wordvector;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.java.Experimental;
+
+/**
+ * An approximate nearest neighbour index for a {@link WordVectorSearch} based on random
+ * projections.
+ * <p>
+ * Every table of the index projects the vectors onto a number of random hyperplanes,
+ * the signs of the projections are the bits of the signature of a vector. Similar
+ * vectors are likely to have similar signatures. A query only compares the vectors
+ * whose signature equals the signature of the query or differs in one bit in at least
+ * one table.
+ * <p>
+ * The signatures are the expensive part of the index, they can be computed offline and
+ * written with {@link #serialize(OutputStream)}. The hyperplanes are generated again
+ * from the seed when the index is loaded. The signatures of the first table are also
+ * a hierarchical clustering of the tokens, see {@link #getSignature(String)}.
+ * <p>
+ * Warning: Experimental new feature, see OPENNLP-1144 for details, the API might be changed anytime.
+ */
+@Experimental
+public class RandomProjectionIndex {
+
+  private static final int VERSION = 1;
+
+  private final WordVectorSearch search;
+
+  private final int tableCount;
+  private final int bits;
+  private final long seed;
+
+  /**
+   * The hyperplanes of every table, the hyperplanes of a table are stored one after another.
+   */
+  private final float[][] hyperplanes;
+
+  /**
+   * The signature of every row in every table.
+   */
+  private final int[][] signatures;
+
+  /**
+   * The signatures of a table in the upper and the rows in the lower half of the values,
+   * sorted to find the rows with a signature.
+   */
+  private final long[][] buckets;
+
+  private RandomProjectionIndex(WordVectorSearch search, int tableCount, int bits, long seed,
+      int[][] signatures) {
+    this.search = search;
+    this.tableCount = tableCount;
+    this.bits = bits;
+    this.seed = seed;
+
+    hyperplanes = createHyperplanes(search.dimension(), tableCount, bits, seed);
+
+    if (signatures == null) {
+      signatures = new int[tableCount][];
+      float[] projections = new float[search.size()];
+      float[] hyperplane = new float[search.dimension()];
+
+      for (int table = 0; table < tableCount; table++) {
+        signatures[table] = new int[search.size()];
+        for (int bit = 0; bit < bits; bit++) {
+          System.arraycopy(hyperplanes[table], bit * hyperplane.length, hyperplane, 0,
+              hyperplane.length);
+          search.similarities(hyperplane, projections);
+
+          for (int row = 0; row < projections.length; row++) {
+            signatures[table][row] = signatures[table][row] << 1 | (projections[row] > 0 ? 1 : 0);
+          }
+        }
+      }
+    }
+    this.signatures = signatures;
+
+    buckets = new long[tableCount][];
+    for (int table = 0; table < tableCount; table++) {
+      buckets[table] = new long[search.size()];
+      for (int row = 0; row < search.size(); row++) {
+        buckets[table][row] = (long) signatures[table][row] << 32 | row;
+      }
+      Arrays.sort(buckets[table]);
+    }
+  }
+
+  private static float[][] createHyperplanes(int dimension, int tableCount, int bits, long seed) {
+    Random random = new Random(seed);
+
+    float[][] hyperplanes = new float[tableCount][bits * dimension];
+    for (float[] tableHyperplanes : hyperplanes) {
+      for (int i = 0; i < tableHyperplanes.length; i++) {
+        tableHyperplanes[i] = (float) random.nextGaussian();
+      }
+    }
+    return hyperplanes;
+  }
+
+  /**
+   * Builds the index, this computes the signatures of all vectors.
+   *
+   * @param search the vectors
+   * @param tableCount the number of tables, more tables find more neighbours
+   * @param bits the number of bits of a signature, at most 30, more bits compare less
+   *     vectors
+   * @param seed the seed of the random hyperplanes
+   * @return the index
+   */
+  public static RandomProjectionIndex build(WordVectorSearch search, int tableCount, int bits,
+      long seed) {
+    if (tableCount < 1) {
+      throw new IllegalArgumentException("tableCount must be at least 1, but is " + tableCount);
+    }
+    if (bits < 1 || bits > 30) {
+      throw new IllegalArgumentException("bits must be between 1 and 30, but is " + bits);
+    }
+
+    return new RandomProjectionIndex(search, tableCount, bits, seed, null);
+  }
+
+  /**
+   * Writes the index, the vectors are not written.
+   *
+   * @param out the stream to write to, it is not closed
+   * @throws IOException if writing fails
+   */
+  public void serialize(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+
+    data.writeInt(VERSION);
+    data.writeInt(tableCount);
+    data.writeInt(bits);
+    data.writeLong(seed);
+    data.writeInt(search.size());
+    data.writeInt(search.dimension());
+
+    for (int[] tableSignatures : signatures) {
+      for (int signature : tableSignatures) {
+        data.writeInt(signature);
+      }
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads an index which was written with {@link #serialize(OutputStream)}.
+   *
+   * @param in the stream to read from, it is not closed
+   * @param search the vectors the index was built for
+   * @return the index
+   * @throws IOException if reading fails or the index was built for other vectors
+   */
+  public static RandomProjectionIndex load(InputStream in, WordVectorSearch search)
+      throws IOException {
+    DataInputStream data = new DataInputStream(in);
+
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new InvalidFormatException("Unsupported index version: " + version);
+    }
+
+    int tableCount = data.readInt();
+    int bits = data.readInt();
+    long seed = data.readLong();
+
+    if (tableCount < 1 || bits < 1 || bits > 30) {
+      throw new InvalidFormatException("Invalid index parameters: tables=" + tableCount
+          + ", bits=" + bits);
+    }
+
+    int size = data.readInt();
+    int dimension = data.readInt();
+    if (size != search.size() || dimension != search.dimension()) {
+      throw new InvalidFormatException("The index was built for " + size + " vectors of dimension "
+          + dimension + ", but the search has " + search.size() + " vectors of dimension "
+          + search.dimension());
+    }
+
+    int[][] signatures = new int[tableCount][size];
+    for (int[] tableSignatures : signatures) {
+      for (int row = 0; row < size; row++) {
+        tableSignatures[row] = data.readInt();
+      }
+    }
+
+    return new RandomProjectionIndex(search, tableCount, bits, seed, signatures);
+  }
+
+  private int signature(int table, float[] vector) {
+    float[] tableHyperplanes = hyperplanes[table];
+    int dimension = vector.length;
+
+    int signature = 0;
+    for (int bit = 0; bit < bits; bit++) {
+      float projection = 0;
+      for (int i = 0; i < dimension; i++) {
+        projection += tableHyperplanes[bit * dimension + i] * vector[i];
+      }
+      signature = signature << 1 | (projection > 0 ? 1 : 0);
+    }
+    return signature;
+  }
+
+  /**
+   * Retrieves the signature of a token in the first table. Tokens whose signatures
+   * share a prefix are in the same cluster, a shorter prefix is a coarser cluster.
+   *
+   * @param token the token
+   * @return the signature, the first hyperplane is the highest bit, or -1 if the token
+   *     is unknown
+   */
+  public int getSignature(String token) {
+    int row = search.getRow(token);
+    return row != -1 ? signatures[0][row] : -1;
+  }
+
+  /**
+   * @return the number of bits of a signature
+   */
+  public int getBits() {
+    return bits;
+  }
+
+  /**
+   * @return the vectors of the index
+   */
+  public WordVectorSearch getSearch() {
+    return search;
+  }
+
+  /**
+   * Finds tokens which are similar to a token, the token itself is not included. The
+   * result can miss some of the most similar tokens.
+   *
+   * @param token the token
+   * @param k the maximal number of tokens to return
+   * @return the similar tokens, the most similar first, or an empty array if the
+   *     token is unknown
+   */
+  public WordVectorSearch.Neighbor[] nearest(String token, int k) {
+    int row = search.getRow(token);
+    if (row == -1) {
+      return new WordVectorSearch.Neighbor[0];
+    }
+    return nearest(search.getVector(row), k, row);
+  }
+
+  /**
+   * Finds tokens which are similar to a vector. The result can miss some of the most
+   * similar tokens.
+   *
+   * @param vector the vector, it does not need to be normalized
+   * @param k the maximal number of tokens to return
+   * @return the similar tokens, the most similar first
+   */
+  public WordVectorSearch.Neighbor[] nearest(float[] vector, int k) {
+    if (vector.length != search.dimension()) {
+      throw new IllegalArgumentException("The vector must have the dimension "
+          + search.dimension() + ", but has " + vector.length);
+    }
+
+    float[] query = vector.clone();
+    WordVectorSearch.normalize(query);
+    return nearest(query, k, -1);
+  }
+
+  /**
+   * Finds the position of the first row with the signature in the sorted buckets.
+   */
+  private static int firstRow(long[] buckets, int signature) {
+    long key = (long) signature << 32;
+
+    int low = 0;
+    int high = buckets.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (buckets[middle] < key) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private WordVectorSearch.Neighbor[] nearest(float[] query, int k, int excludedRow) {
+    int[] candidates = new int[16];
+    int candidateCount = 0;
+
+    for (int table = 0; table < tableCount; table++) {
+      // the signature of a token is taken from the index, a computed signature
+      // could differ if a projection is almost zero
+      int signature = excludedRow != -1 ? signatures[table][excludedRow]
+          : signature(table, query);
+
+      // the bucket of the signature and of all signatures which differ in one bit
+      for (int bit = -1; bit < bits; bit++) {
+        int probe = bit == -1 ? signature : signature ^ (1 << bit);
+
+        long[] tableBuckets = buckets[table];
+        int position = firstRow(tableBuckets, probe);
+        while (position < tableBuckets.length && (int) (tableBuckets[position] >>> 32) == probe) {
+          if (candidateCount == candidates.length) {
+            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+          }
+          candidates[candidateCount++] = (int) tableBuckets[position];
+          position++;
+        }
+      }
+    }
+
+    Arrays.sort(candidates, 0, candidateCount);
+
+    int uniqueCount = 0;
+    for (int i = 0; i < candidateCount; i++) {
+      if (candidates[i] != excludedRow && (uniqueCount == 0
+          || candidates[uniqueCount - 1] != candidates[i])) {
+        candidates[uniqueCount++] = candidates[i];
+      }
+    }
+
+    float[] similarities = new float[uniqueCount];
+    for (int i = 0; i < uniqueCount; i++) {
+      similarities[i] = search.similarity(query, candidates[i]);
+    }
+
+    int[] best = WordVectorSearch.top(similarities, uniqueCount, Math.min(k, uniqueCount));
+
+    WordVectorSearch.Neighbor[] neighbors = new WordVectorSearch.Neighbor[best.length];
+    for (int i = 0; i < best.length; i++) {
+      neighbors[i] = new WordVectorSearch.Neighbor(search.getToken(candidates[best[i]]),
+          similarities[best[i]]);
+    }
+    return neighbors;
+  }
+}
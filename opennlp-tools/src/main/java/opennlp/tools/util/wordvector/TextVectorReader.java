@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.wordvector;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads word vectors in the text format of GloVe or word2vec, every line contains a
+ * token followed by the components of its vector, separated by spaces. The first line
+ * of a word2vec file contains the number of vectors and the dimension.
+ */
+class TextVectorReader {
+
+  private final BufferedReader reader;
+
+  private String pendingLine;
+
+  private int dimension = -1;
+
+  private String token;
+  private float[] vector;
+
+  TextVectorReader(InputStream in, boolean word2vecHeader) throws IOException {
+    reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1024 * 1024);
+
+    if (word2vecHeader) {
+      String line = reader.readLine();
+      String[] header = line != null ? line.trim().split(" ") : new String[0];
+
+      if (header.length == 2 && isNumber(header[0]) && isNumber(header[1])) {
+        dimension = Integer.parseInt(header[1]);
+      }
+      else {
+        // the file is in the GloVe format
+        pendingLine = line;
+      }
+    }
+  }
+
+  private static boolean isNumber(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+        return false;
+      }
+    }
+    return s.length() > 0;
+  }
+
+  /**
+   * Reads the next vector.
+   *
+   * @return true if a vector was read, false at the end of the input
+   * @throws IOException if the line is not a valid vector or the dimension changes
+   */
+  boolean next() throws IOException {
+    String line;
+    if (pendingLine != null) {
+      line = pendingLine;
+      pendingLine = null;
+    }
+    else {
+      line = reader.readLine();
+    }
+
+    if (line == null) {
+      return false;
+    }
+
+    int end = line.indexOf(' ');
+    if (end == -1) {
+      throw new IOException("Line does not contain a vector: " + line);
+    }
+
+    token = line.substring(0, end);
+
+    int components = 0;
+    for (int i = end; i < line.length(); i++) {
+      if (line.charAt(i) == ' ') {
+        components++;
+      }
+    }
+
+    // trailing spaces of word2vec files are ignored
+    int length = line.length();
+    while (length > end && line.charAt(length - 1) == ' ') {
+      length--;
+      components--;
+    }
+
+    if (dimension == -1) {
+      dimension = components;
+    }
+    else if (dimension != components) {
+      throw new IOException("Vector dimension must be constant!");
+    }
+
+    if (vector == null) {
+      vector = new float[dimension];
+    }
+
+    int start = end + 1;
+    for (int i = 0; i < dimension; i++) {
+      end = line.indexOf(' ', start);
+      if (end == -1 || end > length) {
+        end = length;
+      }
+      vector[i] = Float.parseFloat(line.substring(start, end));
+      start = end + 1;
+    }
+
+    return true;
+  }
+
+  String getToken() {
+    return token;
+  }
+
+  /**
+   * @return the vector of the last line, the array is reused for the next line
+   */
+  float[] getVector() {
+    return vector;
+  }
+
+  int getDimension() {
+    return dimension;
+  }
+}
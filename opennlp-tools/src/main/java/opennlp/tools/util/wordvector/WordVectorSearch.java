@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.wordvector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import opennlp.tools.util.java.Experimental;
+
+/**
+ * Finds the most similar tokens of a {@link WordVectorTable} by the cosine similarity
+ * of their vectors.
+ * <p>
+ * The normalized vectors are copied into a single matrix. The matrix is divided into
+ * blocks of rows and every block is stored column by column, so a scan multiplies a
+ * component of the query with a contiguous run of components of the block. These
+ * loops can be vectorized by the JIT and the partial scores of a block stay in the
+ * cache. The search is thread safe.
+ * <p>
+ * Warning: Experimental new feature, see OPENNLP-1144 for details, the API might be changed anytime.
+ */
+@Experimental
+public class WordVectorSearch {
+
+  /**
+   * The number of rows which are stored column by column.
+   */
+  static final int BLOCK_SIZE = 64;
+
+  private static final Neighbor[] NO_NEIGHBORS = new Neighbor[0];
+
+  private final String[] tokens;
+  private final int dimension;
+
+  private final float[] matrix;
+
+  /**
+   * Initializes the search with the vectors of the table, the vectors are copied.
+   *
+   * @param table the word vector table
+   */
+  public WordVectorSearch(WordVectorTable table) {
+    List<String> tokenList = new ArrayList<>(table.size());
+    for (Iterator<String> it = table.tokens(); it.hasNext(); ) {
+      tokenList.add(it.next());
+    }
+
+    tokens = tokenList.toArray(new String[tokenList.size()]);
+    Arrays.sort(tokens);
+
+    dimension = Math.max(0, table.dimension());
+
+    long matrixSize = (long) blockCount(tokens.length) * BLOCK_SIZE * dimension;
+    if (matrixSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The table is too large: " + tokens.length + " x "
+          + dimension);
+    }
+
+    matrix = new float[(int) matrixSize];
+
+    float[] vector = new float[dimension];
+    for (int row = 0; row < tokens.length; row++) {
+      WordVector wordVector = table.get(tokens[row]);
+      if (wordVector.dimension() != dimension) {
+        throw new IllegalArgumentException("Vector dimension must be constant!");
+      }
+
+      for (int i = 0; i < dimension; i++) {
+        vector[i] = wordVector.getAsFloat(i);
+      }
+      normalize(vector);
+
+      for (int i = 0; i < dimension; i++) {
+        matrix[index(row, i)] = vector[i];
+      }
+    }
+  }
+
+  private static int blockCount(int rows) {
+    return (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+  }
+
+  private int index(int row, int component) {
+    return ((row / BLOCK_SIZE) * dimension + component) * BLOCK_SIZE + row % BLOCK_SIZE;
+  }
+
+  /**
+   * Scales the vector to unit length, a vector of length zero is not changed.
+   */
+  static void normalize(float[] vector) {
+    double norm = Math.sqrt(dot(vector, vector));
+    if (norm > 0) {
+      for (int i = 0; i < vector.length; i++) {
+        vector[i] /= norm;
+      }
+    }
+  }
+
+  /**
+   * Computes the dot product of two vectors of the same length.
+   */
+  static float dot(float[] vector1, float[] vector2) {
+    // independent sums allow to add the products in parallel
+    float sum0 = 0;
+    float sum1 = 0;
+    float sum2 = 0;
+    float sum3 = 0;
+
+    int i = 0;
+    for (; i + 3 < vector1.length; i += 4) {
+      sum0 += vector1[i] * vector2[i];
+      sum1 += vector1[i + 1] * vector2[i + 1];
+      sum2 += vector1[i + 2] * vector2[i + 2];
+      sum3 += vector1[i + 3] * vector2[i + 3];
+    }
+    for (; i < vector1.length; i++) {
+      sum0 += vector1[i] * vector2[i];
+    }
+
+    return (sum0 + sum1) + (sum2 + sum3);
+  }
+
+  /**
+   * @return the number of tokens
+   */
+  public int size() {
+    return tokens.length;
+  }
+
+  /**
+   * @return the dimension of the vectors
+   */
+  public int dimension() {
+    return dimension;
+  }
+
+  /**
+   * Retrieves the row of a token, the rows are ordered by the tokens.
+   *
+   * @param token the token
+   * @return the row or -1 if the token is unknown
+   */
+  public int getRow(String token) {
+    int row = Arrays.binarySearch(tokens, token);
+    return row >= 0 ? row : -1;
+  }
+
+  /**
+   * @param row the row
+   * @return the token of the row
+   */
+  public String getToken(int row) {
+    return tokens[row];
+  }
+
+  /**
+   * Retrieves the normalized vector of a row.
+   *
+   * @param row the row
+   * @return a copy of the normalized vector
+   */
+  public float[] getVector(int row) {
+    float[] vector = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      vector[i] = matrix[index(row, i)];
+    }
+    return vector;
+  }
+
+  /**
+   * Computes the cosine similarity of two tokens.
+   *
+   * @param token1 the first token
+   * @param token2 the second token
+   * @return the cosine similarity or {@link Float#NaN} if one of the tokens is unknown
+   */
+  public float similarity(String token1, String token2) {
+    int row1 = getRow(token1);
+    int row2 = getRow(token2);
+
+    if (row1 == -1 || row2 == -1) {
+      return Float.NaN;
+    }
+
+    return similarity(getVector(row1), row2);
+  }
+
+  /**
+   * Computes the dot product of a normalized vector with the vector of a row.
+   */
+  float similarity(float[] vector, int row) {
+    int offset = (row / BLOCK_SIZE) * dimension * BLOCK_SIZE + row % BLOCK_SIZE;
+
+    float sum = 0;
+    for (int i = 0; i < dimension; i++) {
+      sum += vector[i] * matrix[offset + i * BLOCK_SIZE];
+    }
+    return sum;
+  }
+
+  /**
+   * Computes the cosine similarities of a vector with the vectors of all rows.
+   *
+   * @param vector the vector, it does not need to be normalized
+   * @param similarities receives the similarity of every row, it must have at least
+   *     {@link #size()} elements
+   */
+  public void similarities(float[] vector, float[] similarities) {
+    checkDimension(vector);
+    if (similarities.length < tokens.length) {
+      throw new IllegalArgumentException("similarities must have at least " + tokens.length
+          + " elements");
+    }
+
+    float[] query = vector.clone();
+    normalize(query);
+
+    for (int block = 0; block < blockCount(tokens.length); block++) {
+      int start = block * BLOCK_SIZE;
+      int end = Math.min(start + BLOCK_SIZE, tokens.length);
+
+      Arrays.fill(similarities, start, end, 0f);
+
+      int offset = block * dimension * BLOCK_SIZE;
+      for (int i = 0; i < dimension; i++) {
+        float component = query[i];
+        int columnOffset = offset + i * BLOCK_SIZE - start;
+        for (int row = start; row < end; row++) {
+          similarities[row] += component * matrix[columnOffset + row];
+        }
+      }
+    }
+  }
+
+  private void checkDimension(float[] vector) {
+    if (vector.length != dimension) {
+      throw new IllegalArgumentException("The vector must have the dimension " + dimension
+          + ", but has " + vector.length);
+    }
+  }
+
+  /**
+   * Finds the most similar tokens of a token, the token itself is not included.
+   *
+   * @param token the token
+   * @param k the maximal number of tokens to return
+   * @return the most similar tokens, the most similar first, or an empty array if the
+   *     token is unknown
+   */
+  public Neighbor[] nearest(String token, int k) {
+    int row = getRow(token);
+    if (row == -1) {
+      return NO_NEIGHBORS;
+    }
+
+    float[] similarities = new float[tokens.length];
+    similarities(getVector(row), similarities);
+    similarities[row] = Float.NEGATIVE_INFINITY;
+
+    return neighbors(similarities, Math.min(k, tokens.length - 1));
+  }
+
+  /**
+   * Finds the tokens which are most similar to a vector.
+   *
+   * @param vector the vector, it does not need to be normalized
+   * @param k the maximal number of tokens to return
+   * @return the most similar tokens, the most similar first
+   */
+  public Neighbor[] nearest(float[] vector, int k) {
+    float[] similarities = new float[tokens.length];
+    similarities(vector, similarities);
+    return neighbors(similarities, Math.min(k, tokens.length));
+  }
+
+  private Neighbor[] neighbors(float[] similarities, int k) {
+    int[] rows = top(similarities, similarities.length, k);
+
+    Neighbor[] neighbors = new Neighbor[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      neighbors[i] = new Neighbor(tokens[rows[i]], similarities[rows[i]]);
+    }
+    return neighbors;
+  }
+
+  /**
+   * Selects the indices of the k largest scores with a heap of size k. Of equal
+   * scores the lower index is preferred.
+   *
+   * @return the indices, ordered by descending score
+   */
+  static int[] top(float[] scores, int length, int k) {
+    if (k <= 0) {
+      return new int[0];
+    }
+
+    // a min heap, its root is the worst of the best k indices
+    int[] heap = new int[k];
+    int heapSize = 0;
+
+    for (int i = 0; i < length; i++) {
+      if (heapSize < k) {
+        heap[heapSize] = i;
+        siftUp(heap, heapSize++, scores);
+      }
+      else if (isBetter(i, heap[0], scores)) {
+        heap[0] = i;
+        siftDown(heap, heapSize, scores);
+      }
+    }
+
+    int[] result = new int[heapSize];
+    for (int i = heapSize - 1; i >= 0; i--) {
+      result[i] = heap[0];
+      heap[0] = heap[--heapSize];
+      siftDown(heap, heapSize, scores);
+    }
+    return result;
+  }
+
+  private static boolean isBetter(int index1, int index2, float[] scores) {
+    return scores[index1] > scores[index2]
+        || scores[index1] == scores[index2] && index1 < index2;
+  }
+
+  private static void siftUp(int[] heap, int position, float[] scores) {
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      if (!isBetter(heap[parent], heap[position], scores)) {
+        break;
+      }
+      swap(heap, parent, position);
+      position = parent;
+    }
+  }
+
+  private static void siftDown(int[] heap, int heapSize, float[] scores) {
+    int position = 0;
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && isBetter(heap[child], heap[child + 1], scores)) {
+        child++;
+      }
+      if (!isBetter(heap[position], heap[child], scores)) {
+        break;
+      }
+      swap(heap, position, child);
+      position = child;
+    }
+  }
+
+  private static void swap(int[] heap, int i, int j) {
+    int tmp = heap[i];
+    heap[i] = heap[j];
+    heap[j] = tmp;
+  }
+
+  /**
+   * A token and its similarity to the query.
+   */
+  public static final class Neighbor {
+
+    private final String token;
+    private final float similarity;
+
+    Neighbor(String token, float similarity) {
+      this.token = token;
+      this.similarity = similarity;
+    }
+
+    public String getToken() {
+      return token;
+    }
+
+    public float getSimilarity() {
+      return similarity;
+    }
+
+    @Override
+    public String toString() {
+      return token + " " + similarity;
+    }
+  }
+}
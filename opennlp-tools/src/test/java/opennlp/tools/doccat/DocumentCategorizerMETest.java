@@ -18,6 +18,9 @@
 package opennlp.tools.doccat;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
 import java.util.Set;
 import java.util.SortedMap;
 
@@ -62,7 +65,63 @@ public class DocumentCategorizerMETest {
     Set<String> cat = sortedScoreMap.get(sortedScoreMap.lastKey());
     Assert.assertEquals(1, cat.size());
   }
-  
+
+  @Test
+  public void testIncrementalCategorization() throws IOException {
+
+    ObjectStream<DocumentSample> samples = ObjectStreamUtils.createObjectStream(
+        new DocumentSample("1", new String[]{"a", "b", "c"}),
+        new DocumentSample("1", new String[]{"a", "b", "c", "1", "2"}),
+        new DocumentSample("1", new String[]{"a", "b", "c", "3", "4"}),
+        new DocumentSample("0", new String[]{"x", "y", "z"}),
+        new DocumentSample("0", new String[]{"x", "y", "z", "5", "6"}),
+        new DocumentSample("0", new String[]{"x", "y", "z", "7", "8"}));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    params.put(TrainingParameters.CUTOFF_PARAM, 0);
+
+    DoccatModel model = DocumentCategorizerME.train("x-unspecified", samples,
+        params, new DoccatFactory(new FeatureGenerator[] {new BagOfWordsFeatureGenerator(),
+            new NGramFeatureGenerator(1, 3)}));
+
+    DocumentCategorizerME doccat = new DocumentCategorizerME(model);
+
+    // a generator which is not chunked needs the whole document
+    FeatureGenerator[] featureGenerators = {new NGramFeatureGenerator(2, 2),
+        (text, extraInformation) -> text.length > 0
+            ? Collections.singletonList("bow=" + text[text.length - 1]) : Collections.emptyList()};
+    DocumentCategorizerContextGenerator contextGenerator =
+        new DocumentCategorizerContextGenerator(featureGenerators);
+
+    String[] vocabulary = {"a", "b", "c", "x", "y", "z", "1", "5", "unknown"};
+    Random random = new Random(3);
+    for (int i = 0; i < 50; i++) {
+      String[] document = new String[random.nextInt(40)];
+      for (int j = 0; j < document.length; j++) {
+        document[j] = vocabulary[random.nextInt(vocabulary.length)];
+      }
+
+      IncrementalCategorization categorization = doccat.startCategorization();
+      int start = 0;
+      while (start < document.length) {
+        int end = Math.min(document.length, start + random.nextInt(5));
+        categorization.add(Arrays.copyOfRange(document, start, end));
+        start = end;
+      }
+
+      Assert.assertArrayEquals(doccat.categorize(document), categorization.categorize(), 1e-9);
+
+      categorization = new IncrementalCategorization(model.getMaxentModel(), featureGenerators,
+          Collections.emptyMap());
+      categorization.add(Arrays.copyOfRange(document, 0, document.length / 2));
+      categorization.add(Arrays.copyOfRange(document, document.length / 2, document.length));
+
+      Assert.assertArrayEquals(model.getMaxentModel().eval(contextGenerator.getContext(document,
+          Collections.emptyMap())), categorization.categorize(), 1e-9);
+    }
+  }
+
   @Test(expected = InsufficientTrainingDataException.class)
   public void insufficientTestData() throws IOException {
 
@@ -18,6 +18,7 @@
 package opennlp.tools.doccat;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.SortedMap;
 
@@ -65,4 +66,31 @@ public class DocumentCategorizerNBTest {
     Assert.assertEquals(1, cat.size());
 
   }
+
+  @Test
+  public void testIncrementalCategorization() throws IOException {
+
+    ObjectStream<DocumentSample> samples = ObjectStreamUtils.createObjectStream(
+        new DocumentSample("1", new String[]{"a", "b", "c"}),
+        new DocumentSample("1", new String[]{"a", "b", "c", "1", "2"}),
+        new DocumentSample("0", new String[]{"x", "y", "z"}),
+        new DocumentSample("0", new String[]{"x", "y", "z", "5", "6"}));
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    params.put(TrainingParameters.CUTOFF_PARAM, 0);
+    params.put(AbstractTrainer.ALGORITHM_PARAM, NaiveBayesTrainer.NAIVE_BAYES_VALUE);
+
+    DocumentCategorizerME doccat = new DocumentCategorizerME(DocumentCategorizerME.train(
+        "x-unspecified", samples, params, new DoccatFactory()));
+
+    String[] document = {"a", "x", "b", "a", "unknown", "a", "z"};
+
+    IncrementalCategorization categorization = doccat.startCategorization();
+    categorization.add(Arrays.copyOfRange(document, 0, 3));
+    categorization.add(new String[0]);
+    categorization.add(Arrays.copyOfRange(document, 3, document.length));
+
+    Assert.assertArrayEquals(doccat.categorize(document), categorization.categorize(), 1e-9);
+  }
 }
@@ -18,14 +18,18 @@
 package opennlp.tools.languagemodel;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
 import opennlp.tools.ngram.NGramGenerator;
+import opennlp.tools.util.StringList;
 
 /**
  * Tests for {@link opennlp.tools.languagemodel.NGramLanguageModel}
@@ -157,4 +161,82 @@ public class NgramLanguageModelTest {
         "language", "model");
     Assert.assertTrue(p1 > p2);
   }
+
+  @Test
+  public void testPredictTopNextTokens() {
+    NGramLanguageModel model = new NGramLanguageModel(3);
+    model.add("I", "saw", "the", "fox");
+    model.add("I", "saw", "the", "house");
+    model.add("I", "saw", "a", "fox");
+    model.add("we", "saw", "the", "fox");
+
+    Assert.assertArrayEquals(new String[] {"the", "a"}, model.predictNextTokens(2, "I", "saw"));
+    Assert.assertArrayEquals(new String[] {"the"}, model.predictNextTokens(1, "I", "saw"));
+    Assert.assertArrayEquals(new String[] {"fox", "house"}, model.predictNextTokens(2, "saw", "the"));
+
+    // unknown context backs off to the unigrams
+    Assert.assertArrayEquals(new String[] {"saw", "I"}, model.predictNextTokens(2, "unknown"));
+
+    // the index is rebuilt after the model changed
+    model.add("I", "saw", "a", "cat");
+    model.add("I", "saw", "a", "dog");
+    Assert.assertArrayEquals(new String[] {"a", "the"}, model.predictNextTokens(2, "I", "saw"));
+  }
+
+  @Test
+  public void testPredictTopNextTokensMatchesScoring() {
+    NGramLanguageModel model = new NGramLanguageModel(3);
+    Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      String[] sentence = new String[6];
+      for (int j = 0; j < sentence.length; j++) {
+        sentence[j] = "w" + random.nextInt(15);
+      }
+      model.add(sentence);
+    }
+
+    for (int i = 0; i < 15; i++) {
+      String[] context = {"w" + i, "w" + ((i * 7) % 15)};
+      String[] predicted = model.predictNextTokens(3, context);
+      Assert.assertEquals(3, predicted.length);
+
+      // the predicted tokens must have the highest probabilities of all tokens
+      List<Double> probabilities = new ArrayList<>();
+      for (StringList ngram : model) {
+        if (ngram.size() == 1) {
+          probabilities.add(model.calculateProbability(context[0], context[1], ngram.getToken(0)));
+        }
+      }
+      probabilities.sort(Collections.reverseOrder());
+
+      for (int j = 0; j < predicted.length; j++) {
+        Assert.assertEquals(probabilities.get(j),
+            model.calculateProbability(context[0], context[1], predicted[j]), 0d);
+      }
+    }
+  }
+
+  @Test
+  public void testPredictTopNextTokensDoesNotBackOffForSeenTokens() {
+    NGramLanguageModel model = new NGramLanguageModel(3);
+    for (int i = 0; i < 5; i++) {
+      model.add("a", "b", "x");
+    }
+    for (int i = 0; i < 3; i++) {
+      model.add("a", "b", "y");
+    }
+    for (int i = 0; i < 2; i++) {
+      model.add("a", "b", "w");
+    }
+    // w is frequent after b, but after a b its probability is lower than the one of y
+    for (int i = 0; i < 100; i++) {
+      model.add("c", "b", "w");
+    }
+    // many distinct ngrams keep the backed off unigram scores low
+    for (int i = 0; i < 1000; i++) {
+      model.add("f" + i, "g" + i, "h" + i);
+    }
+
+    Assert.assertArrayEquals(new String[] {"x", "y"}, model.predictNextTokens(2, "a", "b"));
+  }
 }
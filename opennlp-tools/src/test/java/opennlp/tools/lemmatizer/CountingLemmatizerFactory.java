@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.lemmatizer;
+
+/**
+ * A {@link LemmatizerFactory} which counts the created contexts, which is the number
+ * of times the model is evaluated.
+ */
+public class CountingLemmatizerFactory extends LemmatizerFactory {
+
+  private static int contexts;
+
+  static int getContexts() {
+    return contexts;
+  }
+
+  static void resetContexts() {
+    contexts = 0;
+  }
+
+  @Override
+  public LemmatizerContextGenerator getContextGenerator() {
+    return new DefaultLemmatizerContextGenerator() {
+      @Override
+      public String[] getContext(int index, String[] sequence, String[] priorDecisions,
+          Object[] additionalContext) {
+        contexts++;
+        return super.getContext(index, sequence, priorDecisions, additionalContext);
+      }
+    };
+  }
+}
@@ -17,6 +17,11 @@
 
 package opennlp.tools.lemmatizer;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -46,4 +51,31 @@ public class DictionaryLemmatizerTest {
     }
   }
 
+  @Test
+  public void testDictMap() throws Exception {
+    DictionaryLemmatizer lemmatizer = new DictionaryLemmatizer(
+        DictionaryLemmatizerTest.class.getResourceAsStream("/opennlp/tools/lemmatizer/smalldictionary.dict")
+    );
+    Map<List<String>, List<String>> dictMap = lemmatizer.getDictMap();
+
+    Assert.assertEquals(Collections.singletonList("dog"), dictMap.get(Arrays.asList("dogs", "NNS")));
+    Assert.assertNull(dictMap.get(Arrays.asList("dogs", "VBZ")));
+    Assert.assertNull(dictMap.get("dogs"));
+
+    int size = 0;
+    for (Map.Entry<List<String>, List<String>> entry : dictMap.entrySet()) {
+      Assert.assertEquals(entry.getValue(), dictMap.get(entry.getKey()));
+      size++;
+    }
+    Assert.assertEquals(dictMap.size(), size);
+
+    dictMap.put(Arrays.asList("cats", "NNS"), Collections.singletonList("cat"));
+    Assert.assertArrayEquals(new String[] {"cat", "dog"},
+        lemmatizer.lemmatize(new String[] {"Cats", "dogs"}, new String[] {"NNS", "NNS"}));
+
+    dictMap.remove(Arrays.asList("dogs", "NNS"));
+    Assert.assertArrayEquals(new String[] {"O"},
+        lemmatizer.lemmatize(new String[] {"dogs"}, new String[] {"NNS"}));
+  }
+
 }
@@ -17,8 +17,10 @@
 
 package opennlp.tools.lemmatizer;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -47,6 +49,7 @@ import opennlp.tools.util.TrainingParameters;
  */
 public class LemmatizerMETest {
 
+  private LemmatizerModel lemmatizerModel;
   private LemmatizerME lemmatizer;
 
   private static String[] tokens = { "Rockwell", "said", "the", "agreement", "calls", "for",
@@ -72,7 +75,7 @@ public class LemmatizerMETest {
     params.put(TrainingParameters.ITERATIONS_PARAM, 100);
     params.put(TrainingParameters.CUTOFF_PARAM, 5);
 
-    LemmatizerModel lemmatizerModel = LemmatizerME.train("eng", sampleStream,
+    lemmatizerModel = LemmatizerME.train("eng", sampleStream,
         params, new LemmatizerFactory());
 
     this.lemmatizer = new LemmatizerME(lemmatizerModel);
@@ -85,7 +88,63 @@ public class LemmatizerMETest {
 
     Assert.assertArrayEquals(expect, lemmas);
   }
-  
+
+  @Test
+  public void testLemmasAreDecodedLemmaClasses() {
+    String[] ses = lemmatizer.predictSES(tokens, postags);
+    String[] decoded = LemmatizerME.decodeLemmas(tokens, ses);
+
+    Assert.assertArrayEquals(decoded, lemmatizer.lemmatize(tokens, postags));
+    // the second time the lemmas come from the cache
+    Assert.assertArrayEquals(decoded, lemmatizer.lemmatize(tokens, postags));
+  }
+
+  @Test
+  public void testDictionaryLemmas() throws IOException {
+    LemmatizerME dictionaryLemmatizer = new LemmatizerME(lemmatizerModel,
+        createDictionary("said\tVBD\tsay\nthe\tDT\tthe\n.\t.\tPERIOD\n"));
+
+    String[] expectWithDictionary = expect.clone();
+    expectWithDictionary[expect.length - 1] = "PERIOD";
+
+    Assert.assertArrayEquals(expectWithDictionary, dictionaryLemmatizer.lemmatize(tokens, postags));
+
+    String[][] allLemmas = dictionaryLemmatizer.predictLemmas(3, tokens, postags);
+    Assert.assertTrue(allLemmas.length > 0);
+    for (String[] lemmas : allLemmas) {
+      Assert.assertEquals("say", lemmas[1]);
+      Assert.assertEquals("PERIOD", lemmas[lemmas.length - 1]);
+    }
+  }
+
+  @Test
+  public void testDictionarySkipsModel() throws IOException {
+    LemmatizerModel countingModel = new LemmatizerModel("eng",
+        lemmatizerModel.getLemmatizerMaxentModel(), LemmatizerME.DEFAULT_BEAM_SIZE, null,
+        new CountingLemmatizerFactory());
+
+    StringBuilder entries = new StringBuilder();
+    for (int i = 0; i < tokens.length; i++) {
+      entries.append(tokens[i].toLowerCase()).append('\t').append(postags[i]).append('\t')
+          .append(expect[i]).append('\n');
+    }
+
+    LemmatizerME dictionaryLemmatizer = new LemmatizerME(countingModel,
+        createDictionary(entries.toString()));
+
+    CountingLemmatizerFactory.resetContexts();
+    Assert.assertArrayEquals(expect, dictionaryLemmatizer.lemmatize(tokens, postags));
+    Assert.assertEquals(0, CountingLemmatizerFactory.getContexts());
+
+    Assert.assertArrayEquals(expect, new LemmatizerME(countingModel).lemmatize(tokens, postags));
+    Assert.assertTrue(CountingLemmatizerFactory.getContexts() > 0);
+  }
+
+  private static DictionaryLemmatizer createDictionary(String entries) throws IOException {
+    return new DictionaryLemmatizer(new ByteArrayInputStream(
+        entries.getBytes(StandardCharsets.UTF_8)));
+  }
+
   @Test(expected = InsufficientTrainingDataException.class)
   public void testInsufficientData() throws IOException {
  
@@ -205,4 +205,39 @@ public class BeamSearchTest {
     Assert.assertNotSame("2", seq.getOutcomes().get(3));
     Assert.assertEquals("1", seq.getOutcomes().get(4));
   }
+
+  @Test
+  public void testBestSequenceWithRestrictedOutcomes() {
+    String[] sequence = {"1", "2", "3", "2", "1"};
+    BeamSearchContextGenerator<String> cg = new IdentityFeatureGenerator(sequence);
+
+    String[] outcomes = new String[] {"1", "2", "3"};
+    MaxentModel model = new IdentityModel(outcomes);
+
+    BeamSearch<String> bs = new BeamSearch<String>(2, model) {
+      @Override
+      protected OutcomeRestriction restrictOutcomes(int index, String[] sequence,
+          Object[] additionalContext) {
+        if (index == 1) {
+          return OutcomeRestriction.knownOutcome("x");
+        }
+        else if (index == 3) {
+          return OutcomeRestriction.allowedOutcomes(new int[] {0, 2});
+        }
+        return null;
+      }
+    };
+
+    Sequence seq = bs.bestSequence(sequence, null, cg,
+        (int i, String[] inputSequence, String[] outcomesSequence,
+         String outcome) -> true);
+    Assert.assertNotNull(seq);
+    Assert.assertEquals(sequence.length, seq.getOutcomes().size());
+    Assert.assertEquals("1", seq.getOutcomes().get(0));
+    Assert.assertEquals("x", seq.getOutcomes().get(1));
+    Assert.assertEquals(1d, seq.getProbs()[1], 0d);
+    Assert.assertEquals("3", seq.getOutcomes().get(2));
+    Assert.assertNotEquals("2", seq.getOutcomes().get(3));
+    Assert.assertEquals("1", seq.getOutcomes().get(4));
+  }
 }
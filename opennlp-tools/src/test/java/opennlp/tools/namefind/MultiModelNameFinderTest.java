@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.namefind;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import opennlp.tools.util.MockInputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+
+public class MultiModelNameFinderTest {
+
+  private static final String TOKEN_FEATURES =
+      "<featureGenerators name=\"tokens\">\n" +
+      "  <generator class=\"opennlp.tools.util.featuregen.WindowFeatureGeneratorFactory\">\n" +
+      "    <int name=\"prevLength\">1</int>\n" +
+      "    <int name=\"nextLength\">1</int>\n" +
+      "    <generator class=\"opennlp.tools.util.featuregen.TokenFeatureGeneratorFactory\"/>\n" +
+      "  </generator>\n" +
+      "  <generator class=\"opennlp.tools.util.featuregen.PreviousMapFeatureGeneratorFactory\"/>\n" +
+      "</featureGenerators>\n";
+
+  private static TokenNameFinderModel personModel;
+  private static TokenNameFinderModel locationModel;
+  private static TokenNameFinderModel tokenModel;
+
+  private static List<NameSample> samples;
+
+  private static ObjectStream<NameSample> createSampleStream(String file) throws Exception {
+    return new NameSampleDataStream(new PlainTextByLineStream(new MockInputStreamFactory(
+        new File("opennlp/tools/namefind/" + file)), "ISO-8859-1"));
+  }
+
+  private static TokenNameFinderModel train(String type, byte[] descriptor) throws Exception {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, 70);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+
+    return NameFinderME.train("eng", null,
+        new NameSampleTypeFilter(new String[] {type}, createSampleStream("voa1.train")),
+        params, TokenNameFinderFactory.create(null, descriptor, Collections.emptyMap(),
+            new BioCodec()));
+  }
+
+  @BeforeClass
+  public static void trainModels() throws Exception {
+    personModel = train("person", null);
+    locationModel = train("location", null);
+    tokenModel = train("location", TOKEN_FEATURES.getBytes(StandardCharsets.UTF_8));
+
+    samples = new ArrayList<>();
+    try (ObjectStream<NameSample> sampleStream = createSampleStream("voa1.train")) {
+      NameSample sample;
+      while ((sample = sampleStream.read()) != null) {
+        samples.add(sample);
+      }
+    }
+  }
+
+  private static List<Span[]> findSeparately(TokenNameFinderModel... models) {
+    NameFinderME[] nameFinders = new NameFinderME[models.length];
+    for (int i = 0; i < models.length; i++) {
+      nameFinders[i] = new NameFinderME(models[i]);
+    }
+
+    List<Span[]> names = new ArrayList<>();
+    for (NameSample sample : samples) {
+      List<Span> sentenceNames = new ArrayList<>();
+      for (NameFinderME nameFinder : nameFinders) {
+        Collections.addAll(sentenceNames, nameFinder.find(sample.getSentence()));
+      }
+      names.add(sentenceNames.toArray(new Span[sentenceNames.size()]));
+    }
+    return names;
+  }
+
+  private static void assertNames(Span[] expected, Span[] names) {
+    Assert.assertArrayEquals(expected, names);
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i].getProb(), names[i].getProb(), 0d);
+    }
+  }
+
+  @Test
+  public void testSameNamesAsSeparateNameFinders() {
+    List<Span[]> expected = findSeparately(personModel, locationModel, tokenModel);
+
+    MultiModelNameFinder nameFinder = new MultiModelNameFinder(
+        MultiModelNameFinder.OverlapPolicy.KEEP_ALL, personModel, locationModel, tokenModel);
+
+    int nameCount = 0;
+    for (int i = 0; i < samples.size(); i++) {
+      Span[] names = nameFinder.find(samples.get(i).getSentence());
+      assertNames(expected.get(i), names);
+      nameCount += names.length;
+    }
+    Assert.assertTrue(nameCount > 0);
+  }
+
+  @Test
+  public void testDropOverlapping() {
+    List<Span[]> expected = findSeparately(locationModel, tokenModel);
+
+    MultiModelNameFinder nameFinder = new MultiModelNameFinder(locationModel, tokenModel);
+
+    for (int i = 0; i < samples.size(); i++) {
+      assertNames(NameFinderME.dropOverlappingSpans(expected.get(i)),
+          nameFinder.find(samples.get(i).getSentence()));
+    }
+  }
+
+  @Test
+  public void testHighestProbability() {
+    MultiModelNameFinder nameFinder = new MultiModelNameFinder(
+        MultiModelNameFinder.OverlapPolicy.HIGHEST_PROBABILITY, locationModel, tokenModel);
+
+    for (NameSample sample : samples) {
+      Span[] names = nameFinder.find(sample.getSentence());
+      for (int i = 1; i < names.length; i++) {
+        Assert.assertTrue(names[i - 1].compareTo(names[i]) < 0);
+        Assert.assertFalse(names[i - 1].intersects(names[i]));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoModels() {
+    new MultiModelNameFinder();
+  }
+}
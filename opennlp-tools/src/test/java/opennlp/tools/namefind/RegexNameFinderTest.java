@@ -96,4 +96,87 @@ public class RegexNameFinderTest {
 
     Assert.assertTrue(result.length == 0);
   }
+
+  @Test
+  public void testRequiredLiteral() {
+    Assert.assertEquals("test", RegexNameFinder.requiredLiteral(Pattern.compile("test")));
+    Assert.assertEquals(" year", RegexNameFinder.requiredLiteral(Pattern.compile("[0-9]+ year")));
+    Assert.assertEquals("-", RegexNameFinder.requiredLiteral(
+        Pattern.compile("((\\(\\d{3}\\) ?)|(\\d{3}-))?\\d{3}-\\d{4}")));
+    Assert.assertEquals("www.", RegexNameFinder.requiredLiteral(Pattern.compile("www\\.\\w+")));
+    Assert.assertEquals("ab", RegexNameFinder.requiredLiteral(Pattern.compile("abc?d")));
+    Assert.assertEquals("a{b}", RegexNameFinder.requiredLiteral(Pattern.compile("a{b}",
+        Pattern.LITERAL)));
+
+    Assert.assertNull(RegexNameFinder.requiredLiteral(Pattern.compile("cat|dog")));
+    Assert.assertNull(RegexNameFinder.requiredLiteral(Pattern.compile("(?i)test")));
+    Assert.assertNull(RegexNameFinder.requiredLiteral(Pattern.compile("\\Qa.b\\E")));
+    Assert.assertNull(RegexNameFinder.requiredLiteral(Pattern.compile("\\d{2,4}")));
+    Assert.assertNull(RegexNameFinder.requiredLiteral(Pattern.compile("(ab)+")));
+  }
+
+  @Test
+  public void testRequiredLiteralOfMultiCharacterEscapes() {
+    String[] escapes = {"\\u00A3\\d+", "\\x41BC", "\\x{41}BC", "\\0101BC", "\\cMBC",
+        "(?<a>x)\\k<a>BC", "\\N{LATIN SMALL LETTER A}BC", "\\pLBC", "\\PLBC", "(x)\\1BC"};
+    String[] texts = {"\u00A3123", "ABC", "ABC", "ABC", "\rBC", "xxBC", "aBC", "aBC", "1BC", "xxBC"};
+
+    for (int i = 0; i < escapes.length; i++) {
+      Pattern pattern;
+      try {
+        pattern = Pattern.compile(escapes[i]);
+      } catch (IllegalArgumentException e) {
+        // \N{..} is not supported before Java 9
+        continue;
+      }
+
+      Assert.assertNull(escapes[i], RegexNameFinder.requiredLiteral(pattern));
+
+      Map<String, Pattern[]> regexMap = new HashMap<>();
+      regexMap.put("type", new Pattern[] {pattern});
+      Assert.assertEquals(escapes[i], 1, new RegexNameFinder(regexMap).find(texts[i]).length);
+    }
+  }
+
+  @Test
+  public void testPrefilterSkipsPatternsAndCollectsStatistics() {
+    Map<String, Pattern[]> regexMap = new HashMap<>();
+    regexMap.put("year", new Pattern[] {Pattern.compile("[0-9]+ year")});
+    regexMap.put("month", new Pattern[] {Pattern.compile("[0-9]+ MONTHS", Pattern.CASE_INSENSITIVE)});
+
+    RegexNameFinder finder = new RegexNameFinder(regexMap);
+    finder.setCollectStatistics(true);
+
+    Span[] result = finder.find(new String[]{"a", "80", "year", "and", "2", "months"});
+
+    Assert.assertEquals(2, result.length);
+
+    for (RegexNameFinder.PatternStatistics statistics : finder.getPatternStatistics()) {
+      Assert.assertEquals(1, statistics.getMatchCount());
+      Assert.assertEquals(0, statistics.getSkipCount());
+    }
+
+    result = finder.find("nothing to see here");
+    Assert.assertEquals(0, result.length);
+
+    for (RegexNameFinder.PatternStatistics statistics : finder.getPatternStatistics()) {
+      Assert.assertEquals(1, statistics.getSkipCount());
+      Assert.assertTrue(statistics.getMatchTimeNanos() >= 0);
+    }
+
+    finder.resetPatternStatistics();
+    for (RegexNameFinder.PatternStatistics statistics : finder.getPatternStatistics()) {
+      Assert.assertEquals(0, statistics.getMatchCount());
+    }
+  }
+
+  @Test
+  public void testDefaultFindersMatchWithPrefilter() {
+    RegexNameFinder finder = RegexNameFinderFactory.getDefaultRegexNameFinders(
+        RegexNameFinderFactory.DEFAULT_REGEX_NAME_FINDER.values());
+
+    Span[] result = finder.find("Call 555-1234 or write to someone@example.com");
+
+    Assert.assertEquals(2, result.length);
+  }
 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.namefind;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.MockInputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+
+public class ThreadSafeDocumentNameFinderTest {
+
+  private static ObjectStream<NameSample> createSampleStream() throws Exception {
+    return new NameSampleDataStream(new PlainTextByLineStream(new MockInputStreamFactory(
+        new File("opennlp/tools/namefind/AnnotatedSentencesWithTypes.txt")), "ISO-8859-1"));
+  }
+
+  @Test
+  public void testFindDocumentsInParallel() throws Exception {
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ITERATIONS_PARAM, 70);
+    params.put(TrainingParameters.CUTOFF_PARAM, 1);
+
+    TokenNameFinderModel model = NameFinderME.train("eng", null, createSampleStream(),
+        params, TokenNameFinderFactory.create(null, null, Collections.emptyMap(), new BioCodec()));
+
+    // the documents are the sentences between the samples which clear the adaptive data
+    List<String[][]> documents = new ArrayList<>();
+    List<String[]> document = new ArrayList<>();
+    try (ObjectStream<NameSample> samples = createSampleStream()) {
+      NameSample sample;
+      while ((sample = samples.read()) != null) {
+        if (sample.isClearAdaptiveDataSet() && !document.isEmpty()) {
+          documents.add(document.toArray(new String[document.size()][]));
+          document.clear();
+        }
+        document.add(sample.getSentence());
+      }
+    }
+    documents.add(document.toArray(new String[document.size()][]));
+
+    // repeat the documents to have more documents than threads
+    List<String[][]> allDocuments = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      allDocuments.addAll(documents);
+    }
+
+    NameFinderME nameFinder = new NameFinderME(model);
+    List<Span[][]> expected = new ArrayList<>();
+    for (String[][] sentences : allDocuments) {
+      nameFinder.clearAdaptiveData();
+      Span[][] names = new Span[sentences.length][];
+      for (int i = 0; i < sentences.length; i++) {
+        names[i] = nameFinder.find(sentences[i]);
+      }
+      expected.add(names);
+    }
+
+    ThreadSafeDocumentNameFinder documentNameFinder = new ThreadSafeDocumentNameFinder(model);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Span[][]> names = documentNameFinder.find(allDocuments, executor);
+
+      Assert.assertEquals(expected.size(), names.size());
+      for (int i = 0; i < expected.size(); i++) {
+        Assert.assertArrayEquals(expected.get(i), names.get(i));
+        for (int j = 0; j < expected.get(i).length; j++) {
+          for (int k = 0; k < expected.get(i)[j].length; k++) {
+            Assert.assertEquals(expected.get(i)[j][k].getProb(), names.get(i)[j][k].getProb(), 0d);
+          }
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // a single document gives the same result as within a batch
+    Assert.assertArrayEquals(expected.get(1), documentNameFinder.find(allDocuments.get(1)));
+  }
+}
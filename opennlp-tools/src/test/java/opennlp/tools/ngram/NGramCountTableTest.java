@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ngram;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.InvalidFormatException;
+import opennlp.tools.util.StringList;
+
+/**
+ * Tests for {@link NGramCountTable}.
+ */
+public class NGramCountTableTest {
+
+  @Test
+  public void testAddAndGetCount() {
+    NGramCountTable table = new NGramCountTable();
+    String[] tokens = {"the", "brown", "fox", "the", "brown"};
+
+    table.add(tokens, 0, 2, 1);
+    table.add(tokens, 3, 2, 1);
+    table.add(tokens, 1, 2, 1);
+
+    Assert.assertEquals(2, table.size());
+    Assert.assertEquals(3, table.vocabularySize());
+    Assert.assertEquals(2, table.getCount(new StringList("the", "brown")));
+    Assert.assertEquals(1, table.getCount(tokens, 1, 2));
+    Assert.assertEquals(0, table.getCount(new StringList("the")));
+    Assert.assertEquals(0, table.getCount(new StringList("unknown", "token")));
+    Assert.assertEquals(3, table.totalCount());
+  }
+
+  @Test
+  public void testConcurrentLookups() throws Exception {
+    NGramCountTable table = new NGramCountTable();
+    String[] tokens = new String[200];
+    for (int i = 0; i < tokens.length; i++) {
+      tokens[i] = "t" + i;
+    }
+    for (int length = 1; length <= 3; length++) {
+      for (int start = 0; start + length <= tokens.length; start++) {
+        table.add(tokens, start, length, start + length);
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        futures.add(executor.submit(() -> {
+          int wrongCounts = 0;
+          for (int round = 0; round < 200; round++) {
+            for (int length = 1; length <= 3; length++) {
+              for (int start = 0; start + length <= tokens.length; start++) {
+                if (table.getCount(tokens, start, length) != start + length) {
+                  wrongCounts++;
+                }
+              }
+            }
+          }
+          return wrongCounts;
+        }));
+      }
+
+      for (Future<Integer> future : futures) {
+        Assert.assertEquals(0, (int) future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testSetCountOfMissingNGram() {
+    NGramCountTable table = new NGramCountTable();
+    table.add(new StringList("a"), 1);
+    table.setCount(new StringList("b"), 3);
+  }
+
+  @Test
+  public void testGrowRemoveAndIterate() {
+    NGramCountTable table = new NGramCountTable();
+    Map<StringList, Integer> expected = new HashMap<>();
+
+    for (int i = 0; i < 1000; i++) {
+      StringList ngram = new StringList("t" + (i % 97), "t" + (i % 13));
+      table.add(ngram, 1);
+      expected.merge(ngram, 1, Integer::sum);
+    }
+
+    for (Iterator<StringList> it = table.iterator(); it.hasNext(); ) {
+      StringList ngram = it.next();
+      if (table.getCount(ngram) % 2 == 0) {
+        it.remove();
+        expected.remove(ngram);
+      }
+    }
+
+    Assert.assertEquals(expected.size(), table.size());
+    for (Map.Entry<StringList, Integer> entry : expected.entrySet()) {
+      Assert.assertEquals(entry.getValue().intValue(), table.getCount(entry.getKey()));
+    }
+    Assert.assertEquals(expected.hashCode(), table.hashCode());
+
+    for (StringList ngram : expected.keySet()) {
+      Assert.assertTrue(table.remove(ngram));
+    }
+    Assert.assertEquals(0, table.size());
+    Assert.assertFalse(table.iterator().hasNext());
+  }
+
+  @Test
+  public void testCutoff() {
+    NGramCountTable table = new NGramCountTable();
+    table.add(new StringList("a"), 1);
+    table.add(new StringList("b"), 2);
+    table.add(new StringList("c"), 3);
+
+    table.cutoff(2, 2);
+
+    Assert.assertEquals(1, table.size());
+    Assert.assertEquals(2, table.getCount(new StringList("b")));
+    Assert.assertFalse(table.contains(new StringList("a")));
+
+    table.add(new StringList("a"), 5);
+    Assert.assertEquals(5, table.getCount(new StringList("a")));
+  }
+
+  @Test
+  public void testMerge() {
+    NGramCountTable table1 = new NGramCountTable();
+    table1.add(new StringList("a", "b"), 1);
+    table1.add(new StringList("b", "c"), 2);
+
+    NGramCountTable table2 = new NGramCountTable();
+    table2.add(new StringList("c", "d"), 4);
+    table2.add(new StringList("b", "c"), 3);
+
+    table1.merge(table2);
+
+    Assert.assertEquals(3, table1.size());
+    Assert.assertEquals(1, table1.getCount(new StringList("a", "b")));
+    Assert.assertEquals(5, table1.getCount(new StringList("b", "c")));
+    Assert.assertEquals(4, table1.getCount(new StringList("c", "d")));
+  }
+
+  @Test
+  public void testSerialization() throws Exception {
+    NGramCountTable table = new NGramCountTable();
+    table.add(new StringList("the", "brown"), 3);
+    table.add(new StringList("fox"), 200);
+    table.add(new StringList("ärger"), 1);
+    table.remove(new StringList("fox"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    table.serialize(out);
+
+    NGramCountTable restored = NGramCountTable.deserialize(new ByteArrayInputStream(out.toByteArray()));
+
+    Assert.assertEquals(table, restored);
+    Assert.assertEquals(table.hashCode(), restored.hashCode());
+    Assert.assertEquals(3, restored.getCount(new StringList("the", "brown")));
+  }
+
+  @Test(expected = InvalidFormatException.class)
+  public void testDeserializeInvalidData() throws Exception {
+    NGramCountTable.deserialize(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+  }
+}
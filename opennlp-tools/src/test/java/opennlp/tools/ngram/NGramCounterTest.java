@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.ngram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.util.CollectionObjectStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.StringList;
+
+/**
+ * Tests for {@link NGramCounter}.
+ */
+public class NGramCounterTest {
+
+  private static List<String[]> createSentences() {
+    List<String[]> sentences = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      sentences.add(new String[] {"w" + (i % 7), "w" + (i % 11), "w" + (i % 3), "end"});
+    }
+    return sentences;
+  }
+
+  private static NGramModel createReference(List<String[]> sentences, int cutoff) {
+    NGramModel model = new NGramModel();
+    for (String[] sentence : sentences) {
+      model.add(new StringList(sentence), 1, 3);
+    }
+    model.cutoff(cutoff, Integer.MAX_VALUE);
+    return model;
+  }
+
+  @Test
+  public void testCountInMemory() throws Exception {
+    List<String[]> sentences = createSentences();
+
+    NGramCountTable counts = new NGramCounter(1, 3).count(new CollectionObjectStream<>(sentences), 1);
+
+    Assert.assertEquals(createReference(sentences, 1), new NGramModel(counts));
+  }
+
+  @Test
+  public void testCountWithSpillingAndMinCount() throws Exception {
+    List<String[]> sentences = createSentences();
+
+    NGramCountTable counts = new NGramCounter(1, 3, 50, null)
+        .count(new CollectionObjectStream<>(sentences), 3);
+
+    Assert.assertEquals(createReference(sentences, 3), new NGramModel(counts));
+  }
+
+  @Test
+  public void testCountPartitionsInParallel() throws Exception {
+    List<String[]> sentences = createSentences();
+
+    List<ObjectStream<String[]>> partitions = Arrays.asList(
+        new CollectionObjectStream<>(sentences.subList(0, 70)),
+        new CollectionObjectStream<>(sentences.subList(70, 150)),
+        new CollectionObjectStream<>(sentences.subList(150, 200)));
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      NGramCountTable inMemory = new NGramCounter(1, 3).count(partitions, executor, 2);
+      Assert.assertEquals(createReference(sentences, 2), new NGramModel(inMemory));
+
+      for (ObjectStream<String[]> partition : partitions) {
+        partition.reset();
+      }
+
+      NGramCountTable spilled = new NGramCounter(1, 3, 20, null).count(partitions, executor, 2);
+      Assert.assertEquals(createReference(sentences, 2), new NGramModel(spilled));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCountWithoutPartitions() throws Exception {
+    new NGramCounter(1, 2).count(Collections.emptyList(), null, 1);
+  }
+}
@@ -242,4 +242,21 @@ public class NGramModelTest {
     ngramModel.toDictionary(true);
   }
 
+  @Test
+  public void testSerializeBinary() throws Exception {
+    NGramModel ngramModel1 = new NGramModel();
+    ngramModel1.add(new StringList("the", "brown", "fox", "jumped"), 1, 3);
+    ngramModel1.add(new StringList("the", "brown"), 1, 2);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ngramModel1.serializeBinary(baos);
+
+    NGramModel ngramModel2 = new NGramModel(
+        NGramCountTable.deserialize(new ByteArrayInputStream(baos.toByteArray())));
+
+    Assert.assertEquals(ngramModel1, ngramModel2);
+    Assert.assertEquals(ngramModel1.numberOfGrams(), ngramModel2.numberOfGrams());
+    Assert.assertEquals(2, ngramModel2.getCount(new StringList("the", "brown")));
+  }
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.ml.model.MaxentModel;
+
+public class ModelEvaluationCacheTest {
+
+  /**
+   * Returns the number of the evaluation as probability of the first outcome.
+   */
+  static class CountingModel implements MaxentModel {
+
+    private int evaluations;
+
+    public double[] eval(String[] context) {
+      evaluations++;
+      return new double[] {evaluations, context.length};
+    }
+
+    public double[] eval(String[] context, double[] probs) {
+      return eval(context);
+    }
+
+    public double[] eval(String[] context, float[] values) {
+      return eval(context);
+    }
+
+    public String getBestOutcome(double[] outcomes) {
+      return null;
+    }
+
+    public String getAllOutcomes(double[] outcomes) {
+      return null;
+    }
+
+    public String getOutcome(int i) {
+      return null;
+    }
+
+    public int getIndex(String outcome) {
+      return 0;
+    }
+
+    public int getNumOutcomes() {
+      return 2;
+    }
+  }
+
+  @Test
+  public void testEqualContextsAreEvaluatedOnce() {
+    CountingModel model = new CountingModel();
+    ModelEvaluationCache cache = new ModelEvaluationCache(model);
+
+    double[] probs = new double[2];
+    Assert.assertSame(probs, cache.eval(new String[] {"a", "b"}, probs));
+    Assert.assertArrayEquals(new double[] {1, 2}, probs, 0d);
+
+    cache.eval(new String[] {"a"}, probs);
+    Assert.assertArrayEquals(new double[] {2, 1}, probs, 0d);
+
+    // a modified result array must not change the cached probabilities
+    probs[0] = 0;
+    cache.eval(new String[] {"a", "b"}, probs);
+    Assert.assertArrayEquals(new double[] {1, 2}, probs, 0d);
+
+    Assert.assertEquals(2, model.evaluations);
+    Assert.assertEquals(3, cache.getLookupCount());
+    Assert.assertEquals(2, cache.getModelEvaluationCount());
+  }
+
+  @Test
+  public void testClear() {
+    CountingModel model = new CountingModel();
+    ModelEvaluationCache cache = new ModelEvaluationCache(model);
+
+    double[] probs = new double[2];
+    cache.eval(new String[] {"a"}, probs);
+    cache.clear();
+
+    Assert.assertEquals(0, cache.getLookupCount());
+    Assert.assertEquals(0, cache.getModelEvaluationCount());
+
+    cache.eval(new String[] {"a"}, probs);
+    Assert.assertArrayEquals(new double[] {2, 1}, probs, 0d);
+    Assert.assertEquals(2, model.evaluations);
+  }
+}
@@ -57,6 +57,28 @@ public class ParseTest {
     Assert.assertTrue(p2.equals(p1));
   }
 
+  @Test
+  public void testParseCloneIsIndependent() {
+    Parse p1 = Parse.parseParse(PARSE_STRING).getChildren()[0];
+    int childCount = p1.getChildCount();
+    Parse firstChild = p1.getChildren()[0];
+
+    Parse p2 = (Parse) p1.clone();
+    p2.remove(0);
+    p2.setChild(0, "label");
+
+    Assert.assertEquals(childCount, p1.getChildCount());
+    Assert.assertSame(firstChild, p1.getChildren()[0]);
+    Assert.assertNull(p1.getChildren()[1].getLabel());
+    Assert.assertEquals(childCount - 1, p2.getChildCount());
+    Assert.assertEquals("label", p2.getChildren()[0].getLabel());
+
+    Parse p3 = (Parse) p1.clone();
+    p1.remove(0);
+    Assert.assertEquals(childCount, p3.getChildCount());
+    Assert.assertSame(firstChild, p3.getChildren()[0]);
+  }
+
   @Test
   public void testGetText() {
     Parse p = Parse.parseParse(PARSE_STRING);
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+
+public class ThreadSafeParserTest {
+
+  private static ParserModel model;
+  private static List<String[]> sentences;
+
+  @BeforeClass
+  public static void trainModel() throws Exception {
+    ObjectStream<Parse> samples = ParserTestUtil.openTestTrainingData();
+    model = opennlp.tools.parser.chunking.Parser.train("eng", samples,
+        ParserTestUtil.createTestHeadRules(), TrainingParameters.defaultParams());
+
+    samples.reset();
+    sentences = new ArrayList<>();
+    Parse sample;
+    while ((sample = samples.read()) != null && sentences.size() < 40) {
+      Parse[] tagNodes = sample.getTagNodes();
+      String[] tokens = new String[tagNodes.length];
+      for (int i = 0; i < tokens.length; i++) {
+        tokens[i] = tagNodes[i].getCoveredText();
+      }
+      sentences.add(tokens);
+    }
+  }
+
+  private static Parse createFlatParse(String[] tokens) {
+    String text = String.join(" ", tokens);
+    Parse p = new Parse(text, new Span(0, text.length()), AbstractBottomUpParser.INC_NODE, 0, 0);
+    int start = 0;
+    for (int i = 0; i < tokens.length; i++) {
+      p.insert(new Parse(text, new Span(start, start + tokens[i].length()),
+          AbstractBottomUpParser.TOK_NODE, 0, i));
+      start += tokens[i].length() + 1;
+    }
+    return p;
+  }
+
+  private static String show(Parse parse) {
+    StringBuffer sb = new StringBuffer();
+    parse.show(sb);
+    return sb.toString() + " " + parse.getProb();
+  }
+
+  @Test
+  public void testParallelParsesEqualSequentialParses() {
+    Parser sequentialParser = ParserFactory.create(model);
+
+    List<Parse> flatParses = new ArrayList<>();
+    List<String> expectedParses = new ArrayList<>();
+    List<String> expectedBestParses = new ArrayList<>();
+    for (String[] tokens : sentences) {
+      for (Parse parse : sequentialParser.parse(createFlatParse(tokens), 3)) {
+        expectedParses.add(show(parse));
+      }
+      expectedBestParses.add(show(sequentialParser.parse(createFlatParse(tokens))));
+      flatParses.add(createFlatParse(tokens));
+    }
+
+    ThreadSafeParser parser = new ThreadSafeParser(model);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<String> parses = new ArrayList<>();
+      for (Parse[] sentenceParses : parser.parse(flatParses, 3, executor)) {
+        for (Parse parse : sentenceParses) {
+          parses.add(show(parse));
+        }
+      }
+      Assert.assertEquals(expectedParses, parses);
+
+      flatParses.clear();
+      for (String[] tokens : sentences) {
+        flatParses.add(createFlatParse(tokens));
+      }
+
+      List<String> bestParses = new ArrayList<>();
+      for (Parse parse : parser.parse(flatParses, executor)) {
+        bestParses.add(show(parse));
+      }
+      Assert.assertEquals(expectedBestParses, bestParses);
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -19,11 +19,15 @@ package opennlp.tools.parser.chunking;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import opennlp.tools.cmdline.parser.ParserTool;
 import opennlp.tools.parser.HeadRules;
 import opennlp.tools.parser.Parse;
+import opennlp.tools.parser.ParseBudget;
 import opennlp.tools.parser.ParserFactory;
 import opennlp.tools.parser.ParserModel;
 import opennlp.tools.parser.ParserTestUtil;
@@ -65,4 +69,49 @@ public class ParserTest {
 
     // TODO: compare both models
   }
+
+  private static String show(Parse[] parses) {
+    StringBuffer sb = new StringBuffer();
+    for (Parse parse : parses) {
+      parse.show(sb);
+      sb.append(' ').append(parse.getProb()).append('\n');
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testParseBudget() throws Exception {
+    ParserModel model = Parser.train("eng", ParserTestUtil.openTestTrainingData(),
+        ParserTestUtil.createTestHeadRules(), TrainingParameters.defaultParams());
+
+    String sentence = "Nevertheless , the company said it expects its results for the current " +
+        "fiscal year to be in line with those of the previous year .";
+
+    Parser parser = new Parser(model);
+    String expected = show(ParserTool.parseLine(sentence, parser, 3));
+
+    // a sufficient budget does not change the search
+    parser.setParseBudget(new ParseBudget(10000000));
+    Assert.assertEquals(expected, show(ParserTool.parseLine(sentence, parser, 3)));
+    Assert.assertFalse(parser.wasLastParseDegraded());
+
+    // the beam shrinks, but there is still a full parse
+    parser.setParseBudget(new ParseBudget(400));
+    Parse[] parses = ParserTool.parseLine(sentence, parser, 1);
+    Assert.assertTrue(parser.wasLastParseDegraded());
+    Assert.assertEquals(1, parses.length);
+    Assert.assertEquals(Parser.TOP_NODE, parses[0].getType());
+
+    // a parse is returned even if the budget is used up immediately
+    parser.setParseBudget(new ParseBudget(1, TimeUnit.NANOSECONDS));
+    parses = ParserTool.parseLine(sentence, parser, 1);
+    Assert.assertTrue(parser.wasLastParseDegraded());
+    Assert.assertEquals(1, parses.length);
+    Assert.assertNotNull(parses[0]);
+    Assert.assertEquals(sentence, parses[0].getCoveredText());
+
+    parser.setParseBudget(null);
+    Assert.assertEquals(expected, show(ParserTool.parseLine(sentence, parser, 3)));
+    Assert.assertFalse(parser.wasLastParseDegraded());
+  }
 }
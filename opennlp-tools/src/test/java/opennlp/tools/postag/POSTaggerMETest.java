@@ -24,10 +24,12 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.BeamSearch;
 import opennlp.tools.util.InputStreamFactory;
 import opennlp.tools.util.InsufficientTrainingDataException;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Sequence;
 import opennlp.tools.util.TrainingParameters;
 import opennlp.tools.util.model.ModelType;
 
@@ -81,6 +83,38 @@ public class POSTaggerMETest {
     Assert.assertEquals(".", tags[5]);
   }
 
+  @Test
+  public void testPOSTaggerWithTagDictionary() throws IOException {
+    POSDictionary tagDictionary = new POSDictionary(false);
+    POSTaggerME.populatePOSDictionary(createSampleStream(), tagDictionary, 2);
+    tagDictionary.put("driver", "VB", "JJ");
+
+    TrainingParameters params = new TrainingParameters();
+    params.put(TrainingParameters.ALGORITHM_PARAM, ModelType.MAXENT.toString());
+    params.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    params.put(TrainingParameters.CUTOFF_PARAM, 5);
+
+    POSModel posModel = POSTaggerME.train("eng", createSampleStream(), params,
+        new POSTaggerFactory(null, tagDictionary));
+
+    POSTaggerME tagger = new POSTaggerME(posModel);
+
+    String[] sentence = {"The", "driver", "got", "badly", "injured", "."};
+    String[] tags = tagger.tag(sentence);
+    Assert.assertTrue("VB".equals(tags[1]) || "JJ".equals(tags[1]));
+
+    // the tags must be the same as the ones of the beam search with the sequence validator
+    BeamSearch<String> search = new BeamSearch<>(POSTaggerME.DEFAULT_BEAM_SIZE,
+        posModel.getPosModel());
+    Sequence[] expected = search.bestSequences(POSTaggerME.DEFAULT_BEAM_SIZE, sentence, null,
+        posModel.getFactory().getPOSContextGenerator(),
+        new DefaultPOSSequenceValidator(tagDictionary));
+
+    Assert.assertArrayEquals(expected[0].getOutcomes().toArray(), tags);
+    Assert.assertArrayEquals(expected[0].getProbs(), tagger.probs(), 0d);
+    Assert.assertArrayEquals(expected, tagger.topKSequences(sentence));
+  }
+
   @Test
   public void testBuildNGramDictionary() throws IOException {
     ObjectStream<POSSample> samples = createSampleStream();
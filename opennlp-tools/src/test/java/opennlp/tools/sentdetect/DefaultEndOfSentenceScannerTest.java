@@ -43,4 +43,32 @@ public class DefaultEndOfSentenceScannerTest {
     Assert.assertEquals(36, eosPositions.get(4).intValue());
   }
 
+  @Test
+  public void testScanningToArray() {
+    char ideographicFullStop = 0x3002;
+    EndOfSentenceScanner scanner = new DefaultEndOfSentenceScanner(
+        new char[]{'.', '!', '?', ideographicFullStop});
+
+    String text = "... um die Wertmarken zu auswählen !?" + ideographicFullStop + "x";
+
+    Assert.assertArrayEquals(new int[] {0, 1, 2, 35, 36, 37},
+        scanner.getPositionArray(new StringBuilder(text)));
+    Assert.assertEquals(scanner.getPositions(text).size(), scanner.getPositionArray(text).length);
+    Assert.assertArrayEquals(new int[0], scanner.getPositionArray("no end"));
+  }
+
+  @Test
+  public void testScanningToArrayUsesOverriddenPositions() {
+    EndOfSentenceScanner scanner = new DefaultEndOfSentenceScanner(new char[]{'.'}) {
+      @Override
+      public List<Integer> getPositions(char[] cbuf) {
+        // ignores the dot of an abbreviation
+        List<Integer> positions = super.getPositions(cbuf);
+        positions.remove(Integer.valueOf(2));
+        return positions;
+      }
+    };
+
+    Assert.assertArrayEquals(new int[] {9}, scanner.getPositionArray("Mr. Smith."));
+  }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.sentdetect;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.util.InputStreamFactory;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+import opennlp.tools.util.TrainingParameters;
+
+/**
+ * Tests for the {@link SentenceSpanStream} class.
+ */
+public class SentenceSpanStreamTest {
+
+  private static SentenceDetectorME sentenceDetector;
+
+  @BeforeClass
+  public static void trainModel() throws IOException {
+    InputStreamFactory in = new ResourceAsStreamFactory(SentenceSpanStreamTest.class,
+        "/opennlp/tools/sentdetect/Sentences.txt");
+
+    TrainingParameters mlParams = new TrainingParameters();
+    mlParams.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    mlParams.put(TrainingParameters.CUTOFF_PARAM, 0);
+
+    SentenceModel model = SentenceDetectorME.train("eng", new SentenceSampleStream(
+        new PlainTextByLineStream(in, StandardCharsets.UTF_8)),
+        new SentenceDetectorFactory("eng", true, null, null), mlParams);
+
+    sentenceDetector = new SentenceDetectorME(model);
+  }
+
+  private static List<Span> readAll(ObjectStream<Span> spans) throws IOException {
+    List<Span> result = new ArrayList<>();
+    Span span;
+    while ((span = spans.read()) != null) {
+      result.add(span);
+    }
+    return result;
+  }
+
+  private static void assertSameSpans(Span[] expected, List<Span> spans) {
+    Assert.assertEquals(expected.length, spans.size());
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], spans.get(i));
+      Assert.assertEquals(expected[i].getProb(), spans.get(i).getProb(), 0d);
+    }
+  }
+
+  @Test
+  public void testSpansEqualSentPosDetect() throws IOException {
+    StringBuilder text = new StringBuilder();
+    try (ObjectStream<String> lines = new PlainTextByLineStream(new ResourceAsStreamFactory(
+        getClass(), "/opennlp/tools/sentdetect/Sentences.txt"), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = lines.read()) != null) {
+        text.append(line).append(line.isEmpty() ? "\n" : "  ");
+      }
+    }
+    String document = "  " + text + text + "\n";
+
+    Span[] expected = sentenceDetector.sentPosDetect(document);
+    Assert.assertTrue(expected.length > 100);
+
+    for (int windowSize : new int[] {64, 100, 1000, SentenceSpanStream.DEFAULT_WINDOW_SIZE}) {
+      assertSameSpans(expected, readAll(new SentenceSpanStream(sentenceDetector,
+          new StringReader(document), windowSize)));
+    }
+
+    assertSameSpans(expected, readAll(new SentenceSpanStream(sentenceDetector,
+        CharBuffer.wrap(document), 128)));
+  }
+
+  @Test
+  public void testShortTexts() throws IOException {
+    for (String text : new String[] {"", "   ", "This is a test", " This is a test. ",
+        "This is a test. There are many tests, this is the second."}) {
+      assertSameSpans(sentenceDetector.sentPosDetect(text),
+          readAll(new SentenceSpanStream(sentenceDetector, new StringReader(text), 64)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooSmallWindow() {
+    new SentenceSpanStream(sentenceDetector, new StringReader("test"), 10);
+  }
+}
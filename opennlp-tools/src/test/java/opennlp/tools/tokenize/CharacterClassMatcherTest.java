@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.tokenize;
+
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.tokenize.lang.Factory;
+
+public class CharacterClassMatcherTest {
+
+  private static void assertSameMatches(Pattern pattern, String... tokens) {
+    CharacterClassMatcher matcher = new CharacterClassMatcher(pattern);
+    for (String token : tokens) {
+      String s = " " + token + " ";
+      Assert.assertEquals(pattern + " " + token, pattern.matcher(token).matches(),
+          matcher.matches(s, 1, s.length() - 1));
+    }
+  }
+
+  @Test
+  public void testDefaultAlphanumeric() {
+    assertSameMatches(Pattern.compile(Factory.DEFAULT_ALPHANUMERIC),
+        "year", "Year2", "09", "it's", "U.S.", "café", "a-b", "a_b", "Z", "{", "`");
+  }
+
+  @Test
+  public void testCharacterClasses() {
+    assertSameMatches(Pattern.compile("^[a-cà-ÿ^x]+$"),
+        "abc", "abcd", "^x", "été", "àc", "Ā");
+  }
+
+  @Test
+  public void testOtherPatterns() {
+    assertSameMatches(Pattern.compile("^[\\p{L}\\d]+$"), "year", "café", "a.b", "1");
+    assertSameMatches(Pattern.compile("^[a-z]+$", Pattern.CASE_INSENSITIVE), "year", "YEAR", "a1");
+    assertSameMatches(Pattern.compile("^[^a-z]+$"), "year", "YEAR", "12");
+    assertSameMatches(Pattern.compile("[a-z]+"), "year", "YEAR");
+  }
+}
@@ -73,6 +73,54 @@ public class TokenizerMETest {
     Assert.assertEquals("through", tokens[7]);
     Assert.assertEquals("!", tokens[8]);
   }
+
+  @Test
+  public void testTokenizerQNModel() throws IOException {
+    TokenizerModel model = TokenizerTestUtil.createQNTokenModel();
+
+    TokenizerME tokenizer = new TokenizerME(model);
+    String sentence = "Sounds like it's not properly thought through!";
+
+    String[] tokens = tokenizer.tokenize(sentence);
+    double[] probs = tokenizer.getTokenProbabilities();
+
+    Assert.assertArrayEquals(new String[] {"Sounds", "like", "it", "'s", "not", "properly",
+        "thought", "through", "!"}, tokens);
+
+    // the result must not depend on earlier calls
+    Assert.assertArrayEquals(tokens, tokenizer.tokenize(sentence));
+    Assert.assertArrayEquals(probs, tokenizer.getTokenProbabilities(), 0d);
+  }
+
+  @Test
+  public void testTokenizerWithSplitCache() throws IOException {
+    TokenizerModel model = TokenizerTestUtil.createMaxentTokenModel();
+
+    TokenizerME tokenizer = new TokenizerME(model);
+    TokenSplitCache cache = new TokenSplitCache(100);
+    TokenizerME cachedTokenizer = new TokenizerME(model, cache);
+
+    String text = "Sounds like it's not properly thought through! It's (really) not, it's not.";
+    for (int i = 0; i < 2; i++) {
+      Assert.assertArrayEquals(tokenizer.tokenizePos(text), cachedTokenizer.tokenizePos(text));
+      Assert.assertArrayEquals(tokenizer.getTokenProbabilities(),
+          cachedTokenizer.getTokenProbabilities(), 0d);
+    }
+
+    // alphanumeric tokens are not split and not cached
+    Assert.assertEquals(6, cache.size());
+    Assert.assertEquals(6, cache.getMissCount());
+    Assert.assertEquals(8, cache.getHitCount());
+    Assert.assertEquals(8d / 14d, cache.getHitRate(), 0d);
+
+    cache.clear();
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSplitCacheWithoutCapacity() {
+    new TokenSplitCache(0);
+  }
   
   @Test(expected = InsufficientTrainingDataException.class)
   public void testInsufficientData() throws IOException {
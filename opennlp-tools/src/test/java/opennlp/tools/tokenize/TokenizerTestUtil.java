@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import opennlp.tools.formats.ResourceAsStreamFactory;
+import opennlp.tools.ml.AbstractTrainer;
+import opennlp.tools.ml.maxent.quasinewton.QNTrainer;
 import opennlp.tools.util.CollectionObjectStream;
 import opennlp.tools.util.InputStreamFactory;
 import opennlp.tools.util.ObjectStream;
@@ -76,4 +78,20 @@ public class TokenizerTestUtil {
     return TokenizerME.train(samples, TokenizerFactory.create(null, "eng", null, true, null), mlParams);
   }
 
+  static TokenizerModel createQNTokenModel() throws IOException {
+
+    InputStreamFactory trainDataIn = new ResourceAsStreamFactory(
+        TokenizerModel.class, "/opennlp/tools/tokenize/token.train");
+
+    ObjectStream<TokenSample> samples = new TokenSampleStream(
+        new PlainTextByLineStream(trainDataIn, StandardCharsets.UTF_8));
+
+    TrainingParameters mlParams = new TrainingParameters();
+    mlParams.put(AbstractTrainer.ALGORITHM_PARAM, QNTrainer.MAXENT_QN_VALUE);
+    mlParams.put(TrainingParameters.ITERATIONS_PARAM, 100);
+    mlParams.put(TrainingParameters.CUTOFF_PARAM, 0);
+
+    return TokenizerME.train(samples, TokenizerFactory.create(null, "eng", null, true, null), mlParams);
+  }
+
 }
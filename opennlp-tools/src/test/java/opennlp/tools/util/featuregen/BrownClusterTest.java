@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import opennlp.tools.formats.ResourceAsStreamFactory;
+
+public class BrownClusterTest {
+
+  private static BrownCluster serializeAndLoad(BrownCluster brownCluster) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    brownCluster.serialize(out);
+    return new BrownCluster(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  @Test
+  public void testLookup() throws IOException {
+    String lexicon = "0101\tfrequent\t6\n0101\trare\t5\nword\t01101001110\n";
+
+    BrownCluster brownCluster =
+        new BrownCluster(new ByteArrayInputStream(lexicon.getBytes(StandardCharsets.UTF_8)));
+
+    Assert.assertEquals("0101", brownCluster.lookupToken("frequent"));
+    Assert.assertNull(brownCluster.lookupToken("rare"));
+    Assert.assertEquals("01101001110", brownCluster.lookupToken("word"));
+
+    Assert.assertEquals(Arrays.asList("0110", "011010", "0110100111", "01101001110"),
+        BrownTokenClasses.getWordClasses("word", brownCluster));
+    Assert.assertEquals(0, BrownTokenClasses.getWordClasses("unknown", brownCluster).size());
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    ResourceAsStreamFactory stream = new ResourceAsStreamFactory(
+        getClass(), "/opennlp/tools/formats/brown-cluster.txt");
+
+    BrownCluster brownCluster = new BrownCluster(stream.createInputStream());
+    BrownCluster loadedCluster = serializeAndLoad(brownCluster);
+
+    String[] tokens = {"he", "went", "with", "you", "in", "town", "unknown", "été"};
+
+    AdaptiveFeatureGenerator generator = new BrownTokenFeatureGenerator(brownCluster);
+    AdaptiveFeatureGenerator loadedGenerator = new BrownTokenFeatureGenerator(loadedCluster);
+
+    for (int i = 0; i < tokens.length; i++) {
+      Assert.assertEquals(brownCluster.lookupToken(tokens[i]), loadedCluster.lookupToken(tokens[i]));
+
+      List<String> features = new ArrayList<>();
+      generator.createFeatures(features, tokens, i, null);
+      List<String> loadedFeatures = new ArrayList<>();
+      loadedGenerator.createFeatures(loadedFeatures, tokens, i, null);
+
+      Assert.assertEquals(features, loadedFeatures);
+    }
+  }
+
+  @Test
+  public void testSerializeNonAscii() throws IOException {
+    String lexicon = "été\t0011\n東京\t0111\n😀\t1111\n";
+
+    BrownCluster brownCluster = serializeAndLoad(
+        new BrownCluster(new ByteArrayInputStream(lexicon.getBytes(StandardCharsets.UTF_8))));
+
+    Assert.assertEquals("0011", brownCluster.lookupToken("été"));
+    Assert.assertEquals("0111", brownCluster.lookupToken("東京"));
+    Assert.assertEquals("1111", brownCluster.lookupToken("😀"));
+    Assert.assertNull(brownCluster.lookupToken("ét"));
+  }
+}
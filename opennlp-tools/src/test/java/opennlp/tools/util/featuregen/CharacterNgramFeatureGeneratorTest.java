@@ -24,6 +24,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import opennlp.tools.ngram.NGramModel;
+import opennlp.tools.util.StringList;
+
 public class CharacterNgramFeatureGeneratorTest {
 
   private List<String> features;
@@ -52,10 +55,43 @@ public class CharacterNgramFeatureGeneratorTest {
             "le");
   }
 
+  @Test
+  public void testSameAsNGramModel() {
+    String[] tokens = {"aaaaaa", "Abab", "ÄÖü", "x", "", "examples", "banana", "Aaaaaa",
+        "http://opennlp.apache.org/abababab", "aaaaaa"};
+
+    AdaptiveFeatureGenerator generator = new CharacterNgramFeatureGenerator(1, 4);
+
+    for (int i = 0; i < tokens.length; i++) {
+      NGramModel model = new NGramModel();
+      model.add(tokens[i], 1, 4);
+
+      List<String> expected = new ArrayList<>();
+      for (StringList ngram : model) {
+        expected.add("ng=" + ngram.getToken(0));
+      }
+
+      features.clear();
+      generator.createFeatures(features, tokens, i, null);
+      Assert.assertEquals(expected, features);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMinLongerThanMax() {
+    new CharacterNgramFeatureGenerator(3, 2);
+  }
+
   private static void assertContainsNg(List<String> features, String... elements) {
     Assert.assertEquals(elements.length, features.size());
     for (String e: elements) {
       Assert.assertTrue(features.contains("ng=" + e));
     }
   }
+
+  @Test
+  public void testSharedByThreads() throws Exception {
+    ConcurrentFeatureGeneration.assertSameFeatures(new CharacterNgramFeatureGenerator(1, 5),
+        new CharacterNgramFeatureGenerator(1, 5));
+  }
 }
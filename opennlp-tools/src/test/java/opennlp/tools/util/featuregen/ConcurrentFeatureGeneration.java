@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+
+/**
+ * Tests that a feature generator which is shared by several threads generates
+ * the same features as a generator which is used by one thread.
+ */
+class ConcurrentFeatureGeneration {
+
+  private static final int THREAD_COUNT = 4;
+
+  private ConcurrentFeatureGeneration() {
+  }
+
+  static void assertSameFeatures(AdaptiveFeatureGenerator shared, AdaptiveFeatureGenerator single)
+      throws Exception {
+
+    // more distinct tokens than the generators cache
+    Random random = new Random(11);
+    String[] tokens = new String[3 * CharacterNgramFeatureGenerator.TOKEN_CACHE_SIZE];
+    for (int i = 0; i < tokens.length; i++) {
+      char[] token = new char[1 + random.nextInt(16)];
+      for (int c = 0; c < token.length; c++) {
+        token[c] = (char) ('a' + random.nextInt(8));
+      }
+      tokens[i] = new String(token);
+    }
+
+    List<List<String>> expected = new ArrayList<>();
+    for (int i = 0; i < tokens.length; i++) {
+      List<String> features = new ArrayList<>();
+      single.createFeatures(features, tokens, i, null);
+      expected.add(features);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int thread = 0; thread < THREAD_COUNT; thread++) {
+        int offset = thread * 97;
+        futures.add(executor.submit(() -> {
+          int wrongFeatures = 0;
+          for (int round = 0; round < 10; round++) {
+            for (int n = 0; n < tokens.length; n++) {
+              int i = (n + offset) % tokens.length;
+              List<String> features = new ArrayList<>();
+              shared.createFeatures(features, tokens, i, null);
+              if (!expected.get(i).equals(features)) {
+                wrongFeatures++;
+              }
+            }
+          }
+          return wrongFeatures;
+        }));
+      }
+
+      for (Future<Integer> future : futures) {
+        Assert.assertEquals(0, (int) future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
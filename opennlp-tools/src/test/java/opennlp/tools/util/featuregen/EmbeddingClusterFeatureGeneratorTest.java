@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import opennlp.tools.util.wordvector.Glove;
+import opennlp.tools.util.wordvector.RandomProjectionIndex;
+import opennlp.tools.util.wordvector.WordVectorSearch;
+
+public class EmbeddingClusterFeatureGeneratorTest {
+
+  private static final String VECTORS =
+      "berlin 1.0 0.9 0.1 0.0\n" +
+      "paris 0.9 1.0 0.0 0.1\n" +
+      "apple 0.0 0.1 1.0 0.9\n" +
+      "pear 0.1 0.0 0.9 1.0\n";
+
+  private RandomProjectionIndex index;
+  private List<String> features;
+
+  @Before
+  public void setUp() throws IOException {
+    WordVectorSearch search = new WordVectorSearch(
+        Glove.parse(new ByteArrayInputStream(VECTORS.getBytes(StandardCharsets.UTF_8))));
+    index = RandomProjectionIndex.build(search, 1, 8, 3);
+    features = new ArrayList<>();
+  }
+
+  private static String bits(int signature, int length) {
+    StringBuilder bits = new StringBuilder();
+    for (int i = 7; i > 7 - length; i--) {
+      bits.append((signature >> i) & 1);
+    }
+    return bits.toString();
+  }
+
+  @Test
+  public void testClusterFeatures() {
+    String[] testSentence = new String[] {"Berlin", "and", "paris"};
+
+    AdaptiveFeatureGenerator generator = new EmbeddingClusterFeatureGenerator(index, true, 2, 8);
+
+    generator.createFeatures(features, testSentence, 0, null);
+
+    int signature = index.getSignature("berlin");
+    Assert.assertEquals(2, features.size());
+    Assert.assertEquals("ec2=" + bits(signature, 2), features.get(0));
+    Assert.assertEquals("ec8=" + bits(signature, 8), features.get(1));
+  }
+
+  @Test
+  public void testUnknownToken() {
+    String[] testSentence = new String[] {"Berlin", "and", "paris"};
+
+    AdaptiveFeatureGenerator generator = new EmbeddingClusterFeatureGenerator(index, true, 4);
+
+    generator.createFeatures(features, testSentence, 1, null);
+    Assert.assertEquals(0, features.size());
+  }
+
+  @Test
+  public void testCaseSensitive() {
+    String[] testSentence = new String[] {"Berlin", "and", "paris"};
+
+    AdaptiveFeatureGenerator generator = new EmbeddingClusterFeatureGenerator(index, false, 4);
+
+    generator.createFeatures(features, testSentence, 0, null);
+    Assert.assertEquals(0, features.size());
+
+    generator.createFeatures(features, testSentence, 2, null);
+    Assert.assertEquals(1, features.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPrefixLongerThanSignature() {
+    new EmbeddingClusterFeatureGenerator(index, true, 9);
+  }
+}
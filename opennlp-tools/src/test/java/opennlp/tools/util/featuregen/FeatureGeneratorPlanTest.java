@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FeatureGeneratorPlanTest {
+
+  private static byte[] readDescriptor(String name) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (InputStream in = FeatureGeneratorPlanTest.class.getResourceAsStream(name)) {
+      byte[] buf = new byte[1024];
+      int len;
+      while ((len = in.read(buf)) > 0) {
+        bytes.write(buf, 0, len);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<String> features(AdaptiveFeatureGenerator generator, String[] tokens,
+      int index) {
+    List<String> features = new ArrayList<>();
+    generator.createFeatures(features, tokens, index, new String[tokens.length]);
+    return features;
+  }
+
+  @Test
+  public void testSharedGenerators() throws IOException {
+    byte[] descriptor = readDescriptor("/opennlp/tools/namefind/ner-default-features.xml");
+
+    FeatureGeneratorPlan plan = FeatureGeneratorPlan.compile(descriptor, key -> null);
+    Assert.assertTrue(plan.isShared());
+
+    AdaptiveFeatureGenerator expected =
+        GeneratorFactory.create(new ByteArrayInputStream(descriptor), key -> null);
+    AdaptiveFeatureGenerator generator1 = plan.createFeatureGenerator();
+    AdaptiveFeatureGenerator generator2 = plan.createFeatureGenerator();
+    Assert.assertNotSame(generator1, generator2);
+
+    String[] sentence = {"Mr", ".", "Smith", "lives", "in", "Berlin", "."};
+    String[] outcomes = {"other", "other", "person-start", "other", "other", "location-start",
+        "other"};
+
+    for (int i = 0; i < sentence.length; i++) {
+      Assert.assertEquals(features(expected, sentence, i), features(generator1, sentence, i));
+    }
+
+    // the adaptive data of one generator must not be visible to the other
+    expected.updateAdaptiveData(sentence, outcomes);
+    generator1.updateAdaptiveData(sentence, outcomes);
+
+    String[] nextSentence = {"Smith", "left", "Berlin", "."};
+    for (int i = 0; i < nextSentence.length; i++) {
+      Assert.assertEquals(features(expected, nextSentence, i), features(generator1, nextSentence, i));
+    }
+    Assert.assertTrue(features(generator1, nextSentence, 0).contains("pd=person-start"));
+    Assert.assertTrue(features(generator2, nextSentence, 0).contains("pd=null"));
+  }
+
+  @Test
+  public void testCustomGenerators() throws IOException {
+    byte[] descriptor = readDescriptor(
+        "/opennlp/tools/util/featuregen/TestParametersConfig.xml");
+
+    FeatureGeneratorPlan plan = FeatureGeneratorPlan.compile(descriptor, key -> null);
+    Assert.assertFalse(plan.isShared());
+    Assert.assertNotSame(plan.createFeatureGenerator(), plan.createFeatureGenerator());
+  }
+
+  @Test
+  public void testGeneratorsOnSeveralThreads() throws Exception {
+    String descriptor = "<featureGenerators cache=\"true\" name=\"test\">"
+        + "<generator class=\"opennlp.tools.util.featuregen.SuffixFeatureGeneratorFactory\"/>"
+        + "<generator class=\"opennlp.tools.util.featuregen.PrefixFeatureGeneratorFactory\"/>"
+        + "<generator class=\"opennlp.tools.util.featuregen.WindowFeatureGeneratorFactory\">"
+        + "<int name=\"prevLength\">1</int><int name=\"nextLength\">1</int>"
+        + "<generator class=\"opennlp.tools.util.featuregen.CharacterNgramFeatureGeneratorFactory\">"
+        + "<int name=\"min\">2</int><int name=\"max\">4</int></generator></generator>"
+        + "<generator class=\"opennlp.tools.util.featuregen.TokenClassFeatureGeneratorFactory\"/>"
+        + "</featureGenerators>";
+    byte[] bytes = descriptor.getBytes(StandardCharsets.UTF_8);
+
+    FeatureGeneratorPlan plan = FeatureGeneratorPlan.compile(bytes, key -> null);
+    Assert.assertTrue(plan.isShared());
+
+    Random random = new Random(7);
+    String[][] sentences = new String[200][];
+    for (int i = 0; i < sentences.length; i++) {
+      sentences[i] = new String[1 + random.nextInt(10)];
+      for (int j = 0; j < sentences[i].length; j++) {
+        char[] token = new char[1 + random.nextInt(12)];
+        for (int c = 0; c < token.length; c++) {
+          token[c] = (char) ('a' + random.nextInt(6));
+        }
+        sentences[i][j] = new String(token);
+      }
+    }
+
+    AdaptiveFeatureGenerator expectedGenerator =
+        GeneratorFactory.create(new ByteArrayInputStream(bytes), key -> null);
+    List<List<String>> expected = new ArrayList<>();
+    for (String[] sentence : sentences) {
+      for (int i = 0; i < sentence.length; i++) {
+        expected.add(features(expectedGenerator, sentence, i));
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        AdaptiveFeatureGenerator generator = plan.createFeatureGenerator();
+        futures.add(executor.submit(() -> {
+          int wrongFeatures = 0;
+          for (int round = 0; round < 20; round++) {
+            int next = 0;
+            for (String[] sentence : sentences) {
+              for (int i = 0; i < sentence.length; i++) {
+                if (!expected.get(next++).equals(features(generator, sentence, i))) {
+                  wrongFeatures++;
+                }
+              }
+            }
+          }
+          return wrongFeatures;
+        }));
+      }
+
+      for (Future<Integer> future : futures) {
+        Assert.assertEquals(0, (int) future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -64,4 +64,33 @@ public class FeatureGeneratorUtilTest {
     Assert.assertEquals("jak", FeatureGeneratorUtil.tokenFeature("オープン・ソ〜ス・ソフトウェア"));
     Assert.assertEquals("other", FeatureGeneratorUtil.tokenFeature("アパッチ・ソフトウェア財団"));
   }
+  @Test
+  public void testCapitalPeriod() {
+    Assert.assertEquals("cp", FeatureGeneratorUtil.tokenFeature("A.\n"));
+    Assert.assertEquals("cp", FeatureGeneratorUtil.tokenFeature("A.\r\n"));
+    Assert.assertEquals("ic", FeatureGeneratorUtil.tokenFeature("A. "));
+    Assert.assertEquals("ic", FeatureGeneratorUtil.tokenFeature("A.\n\n"));
+    Assert.assertEquals("ic", FeatureGeneratorUtil.tokenFeature("\u00C4."));
+    Assert.assertEquals("other", FeatureGeneratorUtil.tokenFeature("a."));
+  }
+
+  @Test
+  public void testSentenceTokenFeatures() {
+    String[] tokens = {"OpenNLP", "2017", "opennlp"};
+
+    Assert.assertEquals("ic", FeatureGeneratorUtil.tokenFeature(tokens, 0));
+    Assert.assertEquals("4d", FeatureGeneratorUtil.tokenFeature(tokens, 1));
+    Assert.assertEquals("lc", FeatureGeneratorUtil.tokenFeature(tokens, 2));
+
+    // the token array is reused for the next sentence
+    tokens[1] = "OPENNLP";
+    Assert.assertEquals("ic", FeatureGeneratorUtil.tokenFeature(tokens, 0));
+    Assert.assertEquals("ac", FeatureGeneratorUtil.tokenFeature(tokens, 1));
+
+    String[] longerTokens = {"a", "b", "c", "d", "E", "66"};
+    Assert.assertEquals("dd", FeatureGeneratorUtil.tokenFeature(new String[] {"1-2345"}, 0));
+    Assert.assertEquals("2d", FeatureGeneratorUtil.tokenFeature(longerTokens, 5));
+    Assert.assertEquals("sc", FeatureGeneratorUtil.tokenFeature(longerTokens, 4));
+  }
+
 }
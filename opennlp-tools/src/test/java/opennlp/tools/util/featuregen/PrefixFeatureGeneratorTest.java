@@ -89,4 +89,29 @@ public class PrefixFeatureGeneratorTest {
     Assert.assertEquals("pre=is", features.get(1));
     
   }
+  @Test
+  public void testRepeatedTokens() {
+    String[] tokens = {"example", "ex", "example", "", "examples", "ex"};
+
+    AdaptiveFeatureGenerator generator = new PrefixFeatureGenerator(5);
+
+    for (int index = 0; index < tokens.length; index++) {
+      String token = tokens[index];
+
+      List<String> expected = new ArrayList<>();
+      for (int i = 0; i < Math.min(5, token.length()); i++) {
+        expected.add("pre=" + token.substring(0, i + 1));
+      }
+
+      features.clear();
+      generator.createFeatures(features, tokens, index, null);
+      Assert.assertEquals(expected, features);
+    }
+  }
+
+  @Test
+  public void testSharedByThreads() throws Exception {
+    ConcurrentFeatureGeneration.assertSameFeatures(new PrefixFeatureGenerator(6),
+        new PrefixFeatureGenerator(6));
+  }
 }
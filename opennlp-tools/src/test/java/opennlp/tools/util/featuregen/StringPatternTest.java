@@ -140,4 +140,13 @@ public class StringPatternTest {
     Assert.assertFalse(StringPattern.recognize("---.1/,").containsLetters());
   }
 
+  @Test
+  public void testSupplementaryCharacters() {
+    // the script of a Han ideograph outside of the basic multilingual plane
+    Assert.assertTrue(StringPattern.recognize("あ").isAllHiragana());
+    Assert.assertFalse(StringPattern.recognize("あ\uD840\uDC00").isAllHiragana());
+    Assert.assertFalse(StringPattern.recognize("ア\uD840\uDC00").isAllKatakana());
+    Assert.assertFalse(StringPattern.recognize("\uD83D\uDE00").containsLetters());
+  }
+
 }
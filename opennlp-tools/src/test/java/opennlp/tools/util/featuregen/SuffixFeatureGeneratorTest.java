@@ -89,4 +89,29 @@ public class SuffixFeatureGeneratorTest {
     Assert.assertEquals("suf=is", features.get(1));
     
   }
+  @Test
+  public void testRepeatedTokens() {
+    String[] tokens = {"example", "ex", "example", "", "examples", "ex"};
+
+    AdaptiveFeatureGenerator generator = new SuffixFeatureGenerator(5);
+
+    for (int index = 0; index < tokens.length; index++) {
+      String token = tokens[index];
+
+      List<String> expected = new ArrayList<>();
+      for (int i = 0; i < Math.min(5, token.length()); i++) {
+        expected.add("suf=" + token.substring(token.length() - i - 1));
+      }
+
+      features.clear();
+      generator.createFeatures(features, tokens, index, null);
+      Assert.assertEquals(expected, features);
+    }
+  }
+
+  @Test
+  public void testSharedByThreads() throws Exception {
+    ConcurrentFeatureGeneration.assertSameFeatures(new SuffixFeatureGenerator(6),
+        new SuffixFeatureGenerator(6));
+  }
 }
@@ -114,4 +114,39 @@ public class WindowFeatureGeneratorTest {
     Assert.assertEquals("n1e", features.get(3));
     Assert.assertEquals("n2f", features.get(4));
   }
+
+  @Test
+  public void testSentenceScopedGenerators() {
+    Assert.assertTrue(WindowFeatureGenerator.isSentenceScoped(new TokenFeatureGenerator()));
+    Assert.assertTrue(WindowFeatureGenerator.isSentenceScoped(new AggregatedFeatureGenerator(
+        new TokenClassFeatureGenerator(), new CachedFeatureGenerator(new SuffixFeatureGenerator()))));
+    Assert.assertFalse(WindowFeatureGenerator.isSentenceScoped(new IdentityFeatureGenerator()));
+    Assert.assertFalse(WindowFeatureGenerator.isSentenceScoped(new AggregatedFeatureGenerator(
+        new TokenFeatureGenerator(), new PreviousMapFeatureGenerator())));
+  }
+
+  /**
+   * Tests that the memoized features of a sentence are the same as the generated ones.
+   */
+  @Test
+  public void testMemoizedFeatures() {
+    AdaptiveFeatureGenerator tokenClass = new TokenClassFeatureGenerator(true);
+    AdaptiveFeatureGenerator memoized = new WindowFeatureGenerator(tokenClass, 2, 3);
+    // an unknown generator is not memoized
+    AdaptiveFeatureGenerator generated = new WindowFeatureGenerator(
+        tokenClass::createFeatures, 2, 3);
+
+    String[][] sentences = {testSentence, {"The", "Driver", "got", "2", "cars", "."}, {"x"}};
+    for (int pass = 0; pass < 2; pass++) {
+      for (String[] sentence : sentences) {
+        for (int i = sentence.length - 1; i >= 0; i--) {
+          List<String> expectedFeatures = new ArrayList<>();
+          generated.createFeatures(expectedFeatures, sentence, i, null);
+          features.clear();
+          memoized.createFeatures(features, sentence, i, null);
+          Assert.assertEquals(expectedFeatures, features);
+        }
+      }
+    }
+  }
 }
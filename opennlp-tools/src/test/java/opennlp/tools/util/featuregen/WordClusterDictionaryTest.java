@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.featuregen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WordClusterDictionaryTest {
+
+  private WordClusterDictionary dictionary;
+
+  @Before
+  public void setUp() throws IOException {
+    String lexicon = "berlin 12\nparis 12 0.5\nthe 3\nThe 7\nunparsable\nrome 12\nrome 4\n";
+    dictionary = new WordClusterDictionary(
+        new ByteArrayInputStream(lexicon.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testLookup() {
+    Assert.assertEquals("12", dictionary.lookupToken("berlin"));
+    Assert.assertEquals("12", dictionary.lookupToken("paris"));
+    Assert.assertEquals("7", dictionary.lookupToken("The"));
+    Assert.assertEquals("4", dictionary.lookupToken("rome"));
+    Assert.assertNull(dictionary.lookupToken("Berlin"));
+    Assert.assertNull(dictionary.lookupToken("unparsable"));
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    dictionary.serialize(out);
+
+    WordClusterDictionary loadedDictionary =
+        new WordClusterDictionary(new ByteArrayInputStream(out.toByteArray()));
+
+    for (String token : new String[] {"berlin", "paris", "the", "The", "rome", "unknown"}) {
+      Assert.assertEquals(dictionary.lookupToken(token), loadedDictionary.lookupToken(token));
+    }
+  }
+
+  @Test
+  public void testFeatures() {
+    String[] tokens = {"Berlin", "The", "Unknown"};
+
+    AdaptiveFeatureGenerator generator = new WordClusterFeatureGenerator(dictionary, "wc=", true);
+    List<String> features = new ArrayList<>();
+    for (int i = 0; i < tokens.length; i++) {
+      generator.createFeatures(features, tokens, i, null);
+    }
+    Assert.assertEquals(2, features.size());
+    Assert.assertEquals("wc=12", features.get(0));
+    Assert.assertEquals("wc=3", features.get(1));
+
+    generator = new WordClusterFeatureGenerator(dictionary, "wc=", false);
+    features.clear();
+    for (int i = 0; i < tokens.length; i++) {
+      generator.createFeatures(features, tokens, i, null);
+    }
+    Assert.assertEquals(1, features.size());
+    Assert.assertEquals("wc=7", features.get(0));
+  }
+}
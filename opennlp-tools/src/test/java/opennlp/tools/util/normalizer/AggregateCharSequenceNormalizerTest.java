@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.normalizer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares the normalizers with the regular expressions they implement.
+ */
+public class AggregateCharSequenceNormalizerTest {
+
+  private static final Pattern EMOJI_REGEX =
+      Pattern.compile("[\\uD83C-\\uDBFF\\uDC00-\\uDFFF]+");
+  private static final Pattern NUMBER_REGEX = Pattern.compile("\\d+");
+  private static final Pattern REPEATED_CHAR_REGEX = Pattern.compile("(.)\\1{2,}",
+      Pattern.CASE_INSENSITIVE);
+  private static final Pattern SPACE_REGEX = Pattern.compile("\\s{2,}",
+      Pattern.CASE_INSENSITIVE);
+  private static final Pattern HASH_USER_REGEX = Pattern.compile("[#@]\\S+");
+  private static final Pattern RT_REGEX =
+      Pattern.compile("\\b(rt[ :])+", Pattern.CASE_INSENSITIVE);
+  private static final Pattern FACE_REGEX =
+      Pattern.compile("[:;x]-?[()dop]", Pattern.CASE_INSENSITIVE);
+  private static final Pattern LAUGH_REGEX =
+      Pattern.compile("([hj])+([aieou])+(\\1+\\2+)+", Pattern.CASE_INSENSITIVE);
+  private static final Pattern URL_REGEX =
+      Pattern.compile("https?://[-_.?&~;+=/#0-9A-Za-z]+");
+  private static final Pattern MAIL_REGEX =
+      Pattern.compile("[-_.0-9A-Za-z]+@[-_0-9A-Za-z]+[-_.0-9A-Za-z]+");
+
+  private static final String[] FRAGMENTS = {
+      "a", "b", "A", "e", "O", "u", "h", "H", "j", "J", "ha", "haha", "jaJA", "hhaa", "x", "X",
+      "r", "R", "t", "T", "rt", "RT ", "rt:", " ", "  ", "\t", "\n", "\r\n", "\u000B", "\f",
+      ":", ";", "-", ":-)", ";P", "xD", "(", ")", "d", "o", "p", "#", "@", "#tag", "@user",
+      "0", "42", "007", ".", "_", "http://", "https://", "http:/", "example.com", "/path?q=1",
+      "mail@host.org", "a.b@c", "@.", "www", "\u00E9\u00E9\u00E9", "\u00C9", "\u0301", "aaa", "AaA", "!!!",
+      "\u0085", "\u2028", "\u00A0\u00A0\u00A0", "\u0001", "\uD83D\uDE00", "\uFFFD", "\uE000"};
+
+  private static String random(Random random, int fragments) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < fragments; i++) {
+      text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+    }
+    return text.toString();
+  }
+
+  private static String emoji(String text) {
+    return EMOJI_REGEX.matcher(text).replaceAll(" ");
+  }
+
+  private static String number(String text) {
+    return NUMBER_REGEX.matcher(text).replaceAll(" ");
+  }
+
+  private static String shrink(String text) {
+    text = SPACE_REGEX.matcher(text).replaceAll(" ");
+    return REPEATED_CHAR_REGEX.matcher(text).replaceAll("$1$1").trim();
+  }
+
+  private static String twitter(String text) {
+    text = HASH_USER_REGEX.matcher(text).replaceAll(" ");
+    text = RT_REGEX.matcher(text).replaceAll(" ");
+    text = FACE_REGEX.matcher(text).replaceAll(" ");
+    return LAUGH_REGEX.matcher(text).replaceAll("$1$2$1$2");
+  }
+
+  private static String url(String text) {
+    text = URL_REGEX.matcher(text).replaceAll(" ");
+    return MAIL_REGEX.matcher(text).replaceAll(" ");
+  }
+
+  private static void assertSameAsRegex(Function<String, String> regex,
+      CharSequenceNormalizer normalizer, boolean supplementary) {
+    Random random = new Random(42);
+    for (int i = 0; i < 5000; i++) {
+      String text = random(random, 1 + random.nextInt(30));
+      if (!supplementary && text.indexOf('\uD83D') != -1) {
+        continue;
+      }
+      Assert.assertEquals(text, regex.apply(text), normalizer.normalize(text).toString());
+    }
+  }
+
+  @Test
+  public void testEmoji() {
+    assertSameAsRegex(AggregateCharSequenceNormalizerTest::emoji,
+        EmojiCharSequenceNormalizer.getInstance(), true);
+    Assert.assertEquals("a b", EmojiCharSequenceNormalizer.getInstance().normalize(
+        new StringBuilder("a").appendCodePoint(0x1F600).appendCodePoint(0x1F61B).append("b")));
+  }
+
+  @Test
+  public void testNumber() {
+    assertSameAsRegex(AggregateCharSequenceNormalizerTest::number,
+        NumberCharSequenceNormalizer.getInstance(), true);
+  }
+
+  @Test
+  public void testShrink() {
+    // the regular expression fails on repeated surrogate pairs
+    assertSameAsRegex(AggregateCharSequenceNormalizerTest::shrink,
+        ShrinkCharSequenceNormalizer.getInstance(), false);
+  }
+
+  @Test
+  public void testTwitter() {
+    assertSameAsRegex(AggregateCharSequenceNormalizerTest::twitter,
+        TwitterCharSequenceNormalizer.getInstance(), true);
+  }
+
+  @Test
+  public void testUrl() {
+    assertSameAsRegex(AggregateCharSequenceNormalizerTest::url,
+        UrlCharSequenceNormalizer.getInstance(), true);
+  }
+
+  private static AggregateCharSequenceNormalizer languageDetectorNormalizer() {
+    return new AggregateCharSequenceNormalizer(
+        EmojiCharSequenceNormalizer.getInstance(),
+        UrlCharSequenceNormalizer.getInstance(),
+        TwitterCharSequenceNormalizer.getInstance(),
+        NumberCharSequenceNormalizer.getInstance(),
+        ShrinkCharSequenceNormalizer.getInstance());
+  }
+
+  private static String languageDetector(String text) {
+    return shrink(number(twitter(url(emoji(text)))));
+  }
+
+  @Test
+  public void testAggregate() {
+    assertSameAsRegex(AggregateCharSequenceNormalizerTest::languageDetector,
+        languageDetectorNormalizer(), true);
+  }
+
+  @Test
+  public void testAggregateOfOtherNormalizers() {
+    CharSequenceNormalizer upperCase = text -> text.toString().toUpperCase();
+    assertSameAsRegex(text -> url(text.toUpperCase()), new AggregateCharSequenceNormalizer(
+        upperCase, UrlCharSequenceNormalizer.getInstance()), true);
+  }
+
+  /**
+   * A reader which returns at most the given number of chars per read.
+   */
+  private static class ChunkedReader extends StringReader {
+
+    private final int chunkSize;
+
+    private ChunkedReader(String text, int chunkSize) {
+      super(text);
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      return super.read(buffer, offset, Math.min(length, chunkSize));
+    }
+  }
+
+  private static String normalize(AggregateCharSequenceNormalizer normalizer, Reader in)
+      throws IOException {
+    StringBuilder out = new StringBuilder();
+    normalizer.normalize(in, out);
+    return out.toString();
+  }
+
+  @Test
+  public void testReader() throws IOException {
+    AggregateCharSequenceNormalizer normalizer = languageDetectorNormalizer();
+
+    Random random = new Random(7);
+    for (int i = 0; i < 500; i++) {
+      StringBuilder text = new StringBuilder();
+      for (int j = 0; j < 200; j++) {
+        text.append(random(random, 1 + random.nextInt(5))).append(' ');
+      }
+      String expected = languageDetector(text.toString());
+
+      Assert.assertEquals(expected, normalize(normalizer,
+          new ChunkedReader(text.toString(), 1 + random.nextInt(100))));
+    }
+
+    Assert.assertEquals("", normalize(normalizer, new StringReader("")));
+    Assert.assertEquals("a b", normalize(normalizer, new StringReader(" a   b ")));
+  }
+
+  @Test
+  public void testReaderWithoutShrinking() throws IOException {
+    AggregateCharSequenceNormalizer normalizer = new AggregateCharSequenceNormalizer(
+        ShrinkCharSequenceNormalizer.getInstance(), TwitterCharSequenceNormalizer.getInstance());
+
+    Random random = new Random(11);
+    for (int i = 0; i < 100; i++) {
+      String text = random(random, 500);
+      Assert.assertEquals(twitter(shrink(text)), normalize(normalizer,
+          new ChunkedReader(text, 1 + random.nextInt(100))));
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.wordvector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BinaryWordVectorTableTest {
+
+  private static final String GLOVE =
+      "the 0.418 0.24968 -0.41242 0.1217\n" +
+      "über -0.5 1.5 0.25 -0.125\n" +
+      ", 0.013441 0.23682 -0.16899 0.40951\n" +
+      "zero 0 0 0 0\n" +
+      "the 1 2 3 4\n";
+
+  private Path file;
+
+  private static InputStream stream(String vectors) {
+    return new ByteArrayInputStream(vectors.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Before
+  public void createFile() throws IOException {
+    file = Files.createTempFile("vectors", ".owv");
+  }
+
+  @After
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  private static void assertVectors(WordVectorTable expected, WordVectorTable table,
+      double delta) {
+    Assert.assertEquals(expected.size(), table.size());
+    Assert.assertEquals(expected.dimension(), table.dimension());
+
+    for (Iterator<String> it = expected.tokens(); it.hasNext(); ) {
+      String token = it.next();
+      WordVector expectedVector = expected.get(token);
+      WordVector vector = table.get(token);
+
+      Assert.assertEquals(expectedVector.dimension(), vector.dimension());
+      for (int i = 0; i < vector.dimension(); i++) {
+        Assert.assertEquals(expectedVector.getAsFloat(i), vector.getAsFloat(i), delta);
+      }
+    }
+  }
+
+  @Test
+  public void testConvertGlove() throws IOException {
+    BinaryWordVectorTable.convert(stream(GLOVE), file, false);
+
+    BinaryWordVectorTable table = BinaryWordVectorTable.open(file);
+    Assert.assertFalse(table.isQuantized());
+    assertVectors(Glove.parse(stream(GLOVE)), table, 0d);
+
+    // the last vector of a token is kept
+    Assert.assertEquals(4f, table.get("the").getAsFloat(3), 0f);
+    Assert.assertNull(table.get("a"));
+    Assert.assertNull(table.get("thee"));
+
+    List<String> tokens = new ArrayList<>();
+    table.tokens().forEachRemaining(tokens::add);
+    Assert.assertEquals(Arrays.asList(",", "the", "zero", "über"), tokens);
+
+    FloatBuffer vector = table.get("über").toFloatBuffer();
+    Assert.assertEquals(4, vector.remaining());
+    Assert.assertEquals(1.5f, vector.get(1), 0f);
+  }
+
+  @Test
+  public void testConvertWord2Vec() throws IOException {
+    BinaryWordVectorTable.convert(stream("2 3\nking 0.5 -0.25 1 \nqueen 0.75 0 -1 \n"), file, false);
+
+    BinaryWordVectorTable table = BinaryWordVectorTable.open(file);
+    Assert.assertEquals(2, table.size());
+    Assert.assertEquals(3, table.dimension());
+    Assert.assertEquals(-0.25f, table.get("king").getAsFloat(1), 0f);
+    Assert.assertEquals(-1d, table.get("queen").getAsDouble(2), 0d);
+  }
+
+  @Test
+  public void testQuantized() throws IOException {
+    BinaryWordVectorTable.convert(stream(GLOVE), file, true);
+
+    BinaryWordVectorTable table = BinaryWordVectorTable.open(file);
+    Assert.assertTrue(table.isQuantized());
+
+    // the error is at most half of the scale of a vector, which is at most 4 / 127
+    assertVectors(Glove.parse(stream(GLOVE)), table, 2d / 127);
+    Assert.assertEquals(4f, table.get("the").getAsFloat(3), 0f);
+    Assert.assertEquals(0f, table.get("zero").getAsFloat(2), 0f);
+  }
+
+  @Test
+  public void testWriteTable() throws IOException {
+    WordVectorTable glove = Glove.parse(stream(GLOVE));
+    BinaryWordVectorTable.write(glove, file, false);
+
+    assertVectors(glove, BinaryWordVectorTable.open(file), 0d);
+  }
+
+  @Test
+  public void testEmptyTable() throws IOException {
+    BinaryWordVectorTable.convert(stream(""), file, false);
+
+    BinaryWordVectorTable table = BinaryWordVectorTable.open(file);
+    Assert.assertEquals(0, table.size());
+    Assert.assertNull(table.get("the"));
+    Assert.assertFalse(table.tokens().hasNext());
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotATable() throws IOException {
+    Files.write(file, GLOVE.getBytes(StandardCharsets.UTF_8));
+    BinaryWordVectorTable.open(file);
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package opennlp.tools.util.wordvector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class WordVectorSearchTest {
+
+  private static final int SIZE = 1000;
+  private static final int DIMENSION = 50;
+
+  private static WordVectorTable table;
+  private static WordVectorSearch search;
+
+  @BeforeClass
+  public static void createTable() {
+    Random random = new Random(7);
+
+    // the vectors are scattered around a few centers
+    float[][] centers = new float[20][DIMENSION];
+    for (float[] center : centers) {
+      for (int i = 0; i < DIMENSION; i++) {
+        center[i] = (float) random.nextGaussian();
+      }
+    }
+
+    Map<String, WordVector> vectors = new HashMap<>();
+    for (int i = 0; i < SIZE; i++) {
+      float[] vector = new float[DIMENSION];
+      for (int j = 0; j < DIMENSION; j++) {
+        vector[j] = centers[i % centers.length][j] + 0.5f * (float) random.nextGaussian();
+      }
+      vectors.put("w" + i, new FloatArrayVector(vector));
+    }
+
+    table = new MapWordVectorTable(vectors);
+    search = new WordVectorSearch(table);
+  }
+
+  private static double cosine(WordVector vector1, WordVector vector2) {
+    double dot = 0;
+    double norm1 = 0;
+    double norm2 = 0;
+    for (int i = 0; i < vector1.dimension(); i++) {
+      dot += vector1.getAsDouble(i) * vector2.getAsDouble(i);
+      norm1 += vector1.getAsDouble(i) * vector1.getAsDouble(i);
+      norm2 += vector2.getAsDouble(i) * vector2.getAsDouble(i);
+    }
+    return dot / Math.sqrt(norm1 * norm2);
+  }
+
+  @Test
+  public void testSimilarity() {
+    Assert.assertEquals(SIZE, search.size());
+    Assert.assertEquals(DIMENSION, search.dimension());
+
+    Assert.assertEquals(cosine(table.get("w1"), table.get("w2")),
+        search.similarity("w1", "w2"), 1e-5);
+    Assert.assertEquals(1f, search.similarity("w3", "w3"), 1e-5);
+    Assert.assertTrue(Float.isNaN(search.similarity("w1", "unknown")));
+  }
+
+  @Test
+  public void testNearest() {
+    String token = "w42";
+
+    // the k most similar tokens by a full scan
+    double[] similarities = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      similarities[i] = i == 42 ? Double.NEGATIVE_INFINITY
+          : cosine(table.get(token), table.get("w" + i));
+    }
+
+    WordVectorSearch.Neighbor[] neighbors = search.nearest(token, 10);
+    Assert.assertEquals(10, neighbors.length);
+
+    for (int i = 0; i < neighbors.length; i++) {
+      int best = 0;
+      for (int j = 1; j < SIZE; j++) {
+        if (similarities[j] > similarities[best]) {
+          best = j;
+        }
+      }
+
+      Assert.assertEquals("w" + best, neighbors[i].getToken());
+      Assert.assertEquals(similarities[best], neighbors[i].getSimilarity(), 1e-5);
+      similarities[best] = Double.NEGATIVE_INFINITY;
+    }
+
+    Assert.assertEquals(0, search.nearest("unknown", 10).length);
+    Assert.assertEquals(SIZE - 1, search.nearest(token, 2 * SIZE).length);
+  }
+
+  @Test
+  public void testNearestVector() {
+    float[] vector = search.getVector(search.getRow("w7"));
+    for (int i = 0; i < vector.length; i++) {
+      vector[i] *= 3;
+    }
+
+    WordVectorSearch.Neighbor[] neighbors = search.nearest(vector, 3);
+    Assert.assertEquals("w7", neighbors[0].getToken());
+    Assert.assertEquals(1f, neighbors[0].getSimilarity(), 1e-5);
+  }
+
+  @Test
+  public void testTop() {
+    float[] scores = {0.5f, 2f, -1f, 2f, 0.7f};
+    Assert.assertArrayEquals(new int[] {1, 3, 4}, WordVectorSearch.top(scores, scores.length, 3));
+    Assert.assertArrayEquals(new int[0], WordVectorSearch.top(scores, scores.length, 0));
+  }
+
+  @Test
+  public void testRandomProjectionIndex() throws IOException {
+    RandomProjectionIndex index = RandomProjectionIndex.build(search, 8, 8, 1);
+
+    // most of the exact neighbours are found
+    int found = 0;
+    for (int i = 0; i < 20; i++) {
+      WordVectorSearch.Neighbor[] exact = search.nearest("w" + i, 10);
+      WordVectorSearch.Neighbor[] approximate = index.nearest("w" + i, 10);
+
+      for (WordVectorSearch.Neighbor neighbor : approximate) {
+        Assert.assertNotEquals("w" + i, neighbor.getToken());
+        for (WordVectorSearch.Neighbor exactNeighbor : exact) {
+          if (exactNeighbor.getToken().equals(neighbor.getToken())) {
+            found++;
+          }
+        }
+      }
+    }
+    Assert.assertTrue("recall: " + found / 200d, found >= 180);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    index.serialize(out);
+
+    RandomProjectionIndex loadedIndex =
+        RandomProjectionIndex.load(new ByteArrayInputStream(out.toByteArray()), search);
+
+    for (int i = 0; i < SIZE; i += 10) {
+      Assert.assertEquals(index.getSignature("w" + i), loadedIndex.getSignature("w" + i));
+    }
+
+    float[] vector = search.getVector(search.getRow("w5"));
+    Assert.assertArrayEquals(toTokens(index.nearest(vector, 5)),
+        toTokens(loadedIndex.nearest(vector, 5)));
+
+    Assert.assertEquals(-1, index.getSignature("unknown"));
+  }
+
+  private static String[] toTokens(WordVectorSearch.Neighbor[] neighbors) {
+    String[] tokens = new String[neighbors.length];
+    for (int i = 0; i < neighbors.length; i++) {
+      tokens[i] = neighbors[i].getToken();
+    }
+    return tokens;
+  }
+}